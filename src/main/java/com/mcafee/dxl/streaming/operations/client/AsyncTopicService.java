@@ -0,0 +1,257 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client;
+
+import com.mcafee.dxl.streaming.operations.client.exception.ConnectionException;
+import com.mcafee.dxl.streaming.operations.client.exception.TopicOperationException;
+import com.mcafee.dxl.streaming.operations.client.topic.TopicConfigUpdater;
+import com.mcafee.dxl.streaming.operations.client.topic.TopicCreator;
+import com.mcafee.dxl.streaming.operations.client.topic.TopicJson;
+import com.mcafee.dxl.streaming.operations.client.topic.TopicZKPaths;
+import com.mcafee.dxl.streaming.operations.client.topic.ZKPipeline;
+import com.mcafee.dxl.streaming.operations.client.topic.entities.TopicOperationResult;
+import com.mcafee.dxl.streaming.operations.client.topic.entities.TopicSpec;
+import org.apache.zookeeper.KeeperException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+/**
+ * Asynchronous Topic Management API
+ * <p>
+ * Operations are sent as native asynchronous Zookeeper requests and do not block the caller, so many operations can
+ * be in flight on a few threads. Only the first call blocks while the Zookeeper connection is established.
+ * Returned futures are completed on the executor given at construction, never on the Zookeeper event thread, so
+ * dependent stages may block.
+ * <p>
+ * Invalid arguments are rejected with {@link IllegalArgumentException} when the method is called. Any other failure
+ * completes the future exceptionally with {@link TopicOperationException} or
+ * {@link ConnectionException}.
+ */
+public class AsyncTopicService implements AutoCloseable {
+
+    private final Executor executor;
+    private final TopicServiceConnection connection;
+
+
+    /**
+     * Futures are completed on the common fork join pool
+     *
+     * @param topicServiceConfiguration topic service configuration
+     */
+    public AsyncTopicService(final Map<String, String> topicServiceConfiguration) {
+        this(topicServiceConfiguration, ForkJoinPool.commonPool());
+    }
+
+
+    /**
+     * @param topicServiceConfiguration topic service configuration
+     * @param executor                  executor which completes the returned futures
+     */
+    public AsyncTopicService(final Map<String, String> topicServiceConfiguration, final Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null");
+        }
+        this.executor = executor;
+        this.connection = new TopicServiceConnection(topicServiceConfiguration);
+    }
+
+
+    /**
+     * Verify if the topic exists
+     *
+     * @param topicName topic name
+     * @return future completed with true if topic exists otherwise false
+     * @throws IllegalArgumentException when topicName is empty or null
+     */
+    public CompletableFuture<Boolean> topicExistsAsync(final String topicName) {
+        TopicServiceConnection.validateTopicName(topicName);
+        return completeOn(topicName, pipeline -> pipeline.exists(TopicZKPaths.getTopicPath(topicName), null)
+                .thenApply(stat -> stat != null));
+    }
+
+
+    /**
+     * Create a topic
+     *
+     * @param topicName         Topic name
+     * @param partitions        The number of partitions for the topic being created
+     * @param replicationFactor The replication factor for each partition in the topic being created
+     * @param topicProperties   A topic configuration override for an existing topic
+     * @return future completed once the topic znodes have been written. It completes exceptionally with
+     * {@link TopicOperationException} if the topic already exists or could not be created.
+     * @throws IllegalArgumentException if any argument is invalid
+     */
+    public CompletableFuture<Void> createTopicAsync(final String topicName,
+                                                    final int partitions,
+                                                    final int replicationFactor,
+                                                    final Properties topicProperties) {
+        final TopicSpec topicSpec = new TopicSpec(topicName, partitions, replicationFactor, topicProperties);
+        return completeOn(topicName, pipeline -> pipeline.getChildren(TopicZKPaths.BROKER_IDS_PATH, null)
+                .thenCompose(children -> new TopicCreator(pipeline)
+                        .createTopicsAsync(Collections.singletonList(topicSpec), toBrokerIds(children)))
+                .thenApply(results -> {
+                    final TopicOperationResult result = results.get(0);
+                    if (!result.isSucceeded()) {
+                        throw result.getError();
+                    }
+                    return null;
+                }));
+    }
+
+
+    /**
+     * Create a topic without configuration overrides
+     *
+     * @param topicName         Topic name
+     * @param partitions        The number of partitions for the topic being created
+     * @param replicationFactor The replication factor for each partition in the topic being created
+     * @return future completed once the topic znodes have been written
+     * @throws IllegalArgumentException if any argument is invalid
+     */
+    public CompletableFuture<Void> createTopicAsync(final String topicName,
+                                                    final int partitions,
+                                                    final int replicationFactor) {
+        return createTopicAsync(topicName, partitions, replicationFactor, new Properties());
+    }
+
+
+    /**
+     * Get Topic Properties
+     *
+     * @param topicName topic name
+     * @return future completed with the topic properties. It completes exceptionally with
+     * {@link TopicOperationException} if the topic does not exist.
+     * @throws IllegalArgumentException when topicName is empty or null
+     */
+    public CompletableFuture<Properties> getTopicPropertiesAsync(final String topicName) {
+        TopicServiceConnection.validateTopicName(topicName);
+        return completeOn(topicName, pipeline -> {
+            // Both reads are pipelined
+            final CompletableFuture<Boolean> exists = pipeline.exists(TopicZKPaths.getTopicPath(topicName), null)
+                    .thenApply(stat -> stat != null);
+            final CompletableFuture<byte[]> config = pipeline.getData(TopicZKPaths.getTopicConfigPath(topicName), null)
+                    .exceptionally(e -> {
+                        if (ZKPipeline.errorCode(e) == KeeperException.Code.NONODE) {
+                            return null;
+                        }
+                        throw new TopicOperationException(topicName, ZKPipeline.unwrap(e).getMessage(), e,
+                                AsyncTopicService.class);
+                    });
+            return exists.thenCombine(config, (topicExists, data) -> {
+                if (!topicExists) {
+                    throw new TopicOperationException(topicName, "Topic " + topicName + " does not exist", null,
+                            AsyncTopicService.class);
+                }
+                return TopicJson.decodeConfig(data);
+            });
+        });
+    }
+
+
+    /**
+     * Override topic properties.
+     *
+     * @param topicName       topic name
+     * @param topicProperties topic properties
+     * @return future completed once brokers have been notified of the new configuration. It completes exceptionally
+     * with {@link TopicOperationException} if the topic does not exist or the configuration is invalid.
+     * @throws IllegalArgumentException when topicName or topicProperties is empty or null.
+     */
+    public CompletableFuture<Void> overrideTopicPropertiesAsync(final String topicName,
+                                                                final Properties topicProperties) {
+        TopicServiceConnection.validateTopicName(topicName);
+        if (topicProperties == null) {
+            throw new IllegalArgumentException("Topic properties cannot be null");
+        }
+        return completeOn(topicName,
+                pipeline -> new TopicConfigUpdater(pipeline).overrideTopicProperties(topicName, topicProperties));
+    }
+
+
+    /**
+     * Apply topic properties, writing them only if they differ from the current ones.
+     *
+     * @param topicName       topic name
+     * @param topicProperties topic properties. They replace the current ones.
+     * @return future completed with true once brokers have been notified of the new configuration, or with false if
+     * it was already in place. It completes exceptionally with {@link TopicOperationException} if the topic does not
+     * exist or the configuration is invalid.
+     * @throws IllegalArgumentException when topicName or topicProperties is empty or null.
+     */
+    public CompletableFuture<Boolean> applyTopicPropertiesAsync(final String topicName,
+                                                                final Properties topicProperties) {
+        TopicServiceConnection.validateTopicName(topicName);
+        if (topicProperties == null) {
+            throw new IllegalArgumentException("Topic properties cannot be null");
+        }
+        return completeOn(topicName,
+                pipeline -> new TopicConfigUpdater(pipeline).applyTopicProperties(topicName, topicProperties));
+    }
+
+    /**
+     * Close cluster connection. Pending futures complete exceptionally.
+     */
+    public void close() {
+        connection.close();
+    }
+
+
+    /**
+     * Run an operation and complete its result on the executor
+     *
+     * @param topicName topic name
+     * @param operation operation which sends Zookeeper requests through the pipeline
+     * @param <T>       result type
+     * @return future completed on the executor
+     */
+    private <T> CompletableFuture<T> completeOn(final String topicName,
+                                                final Function<ZKPipeline, CompletableFuture<T>> operation) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        CompletableFuture<T> pending;
+        try {
+            pending = operation.apply(connection.getPipeline());
+        } catch (RuntimeException e) {
+            pending = new CompletableFuture<>();
+            pending.completeExceptionally(e);
+        }
+        pending.whenCompleteAsync((value, e) -> {
+            if (e == null) {
+                result.complete(value);
+                return;
+            }
+            final Throwable cause = ZKPipeline.unwrap(e);
+            result.completeExceptionally(cause instanceof TopicOperationException
+                    || cause instanceof ConnectionException
+                    ? cause
+                    : new TopicOperationException(topicName, cause.getMessage(), cause, this.getClass()));
+        }, executor);
+        return result;
+    }
+
+
+    /**
+     * @param children children of the broker ids znode
+     * @return registered broker ids
+     */
+    private static List<Integer> toBrokerIds(final List<String> children) {
+        final List<Integer> brokerIds = new ArrayList<>(children.size());
+        for (String child : children) {
+            try {
+                brokerIds.add(Integer.parseInt(child));
+            } catch (NumberFormatException e) {
+                // Not a broker registration
+            }
+        }
+        return brokerIds;
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+
+package com.mcafee.dxl.streaming.operations.client;
+
+import com.mcafee.dxl.streaming.operations.client.configuration.PropertyNames;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+public final class AsyncTopicServiceBuilder {
+
+    private String zookeeperServerHostNames;
+    private int zookeeperSessionTimeout = -1;
+    private int zookeeperConnectionTimeout = -1;
+    private int zookeeperMaxInFlightRequests = -1;
+    private Executor executor = ForkJoinPool.commonPool();
+
+    public AsyncTopicServiceBuilder(final String zookeeperServerHostNames) {
+        if(StringUtils.isEmpty(zookeeperServerHostNames)) {
+            throw new IllegalArgumentException("Zookeeper host names cannot be null or empty");
+        }
+        this.zookeeperServerHostNames = zookeeperServerHostNames;
+    }
+
+
+    /**
+     * Set Zookeeper session timeout.
+     *
+     * @param zookeeperSessionTimeout Zookeeper session timeout expressed in ms
+     * @return AsyncTopicServiceBuilder current instance
+     */
+    public AsyncTopicServiceBuilder withZKSessionTimeout(final int zookeeperSessionTimeout) {
+        this.zookeeperSessionTimeout = zookeeperSessionTimeout;
+        return this;
+    }
+
+
+    /**
+     * Set Zookeeper connection timeout
+     *
+     * @param zookeeperConnectionTimeout Zookeeper connection timeout
+     * @return AsyncTopicServiceBuilder current instance
+     */
+    public AsyncTopicServiceBuilder withZKConnectionTimeout(final int zookeeperConnectionTimeout) {
+        this.zookeeperConnectionTimeout = zookeeperConnectionTimeout;
+        return this;
+    }
+
+
+    /**
+     * Set the maximum number of outstanding Zookeeper requests
+     *
+     * @param zookeeperMaxInFlightRequests maximum number of outstanding Zookeeper requests
+     * @return AsyncTopicServiceBuilder current instance
+     */
+    public AsyncTopicServiceBuilder withZKMaxInFlightRequests(final int zookeeperMaxInFlightRequests) {
+        this.zookeeperMaxInFlightRequests = zookeeperMaxInFlightRequests;
+        return this;
+    }
+
+
+    /**
+     * Set the executor which completes the futures returned by the service. Default is the common fork join pool.
+     *
+     * @param executor executor which completes the returned futures
+     * @return AsyncTopicServiceBuilder current instance
+     */
+    public AsyncTopicServiceBuilder withExecutor(final Executor executor) {
+        if(executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null");
+        }
+        this.executor = executor;
+        return this;
+    }
+
+
+    /**
+     *
+     * @return a new asynchronous topic service instance
+     */
+    public AsyncTopicService build() {
+        final Map<String, String> configuration = new HashMap<>();
+
+        if(zookeeperConnectionTimeout >= 0) {
+            configuration.put(PropertyNames.ZK_CONNECTION_TIMEOUT_MS.getPropertyName(),String.valueOf(zookeeperConnectionTimeout));
+        }
+
+        if(zookeeperSessionTimeout >= 0) {
+            configuration.put(PropertyNames.ZK_SESSION_TIMEOUT_MS.getPropertyName(),String.valueOf(zookeeperSessionTimeout));
+        }
+
+        if(zookeeperMaxInFlightRequests > 0) {
+            configuration.put(PropertyNames.TOPIC_ZK_MAX_IN_FLIGHT_REQUESTS.getPropertyName(),String.valueOf(zookeeperMaxInFlightRequests));
+        }
+
+        configuration.put(PropertyNames.ZK_SERVERS.getPropertyName(),zookeeperServerHostNames);
+
+        return new AsyncTopicService(configuration, executor);
+    }
+}
@@ -4,12 +4,16 @@
 
 package com.mcafee.dxl.streaming.operations.client;
 
+import com.mcafee.dxl.streaming.operations.client.common.ProbeScheduler;
 import com.mcafee.dxl.streaming.operations.client.exception.KFMonitorException;
 import com.mcafee.dxl.streaming.operations.client.kafka.KFClusterStatusName;
 import com.mcafee.dxl.streaming.operations.client.kafka.KFClusterWatcher;
 import com.mcafee.dxl.streaming.operations.client.kafka.KFMonitorCallback;
+import com.mcafee.dxl.streaming.operations.client.kafka.KFPartitionCallback;
 import com.mcafee.dxl.streaming.operations.client.kafka.entities.KFCluster;
+import org.apache.kafka.common.TopicPartition;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -73,6 +77,33 @@ public class KafkaMonitor implements AutoCloseable {
     }
 
 
+    /**
+     * Constructs an instance to monitors Kafka cluster and notify clients when broker status or the number of
+     * under-replicated or offline partitions has changed.
+     *
+     * @param configuration       Map containing configuration properties.
+     * @param kfMonitorListener   {@link KFMonitorCallback} instance implemented by client that wants to be notified when kafka broker
+     *                            status has changed
+     * @param kfPartitionListener {@link KFPartitionCallback} instance implemented by client that wants to be notified
+     *                            when the number of under-replicated or offline partitions has changed. It is only
+     *                            notified if
+     *                            {@link com.mcafee.dxl.streaming.operations.client.configuration.PropertyNames#KF_PARTITION_TRACKING_ENABLED}
+     *                            property is true
+     * @param probeScheduler      {@link ProbeScheduler} instance used to poll Kafka brokers. It could be shared by several
+     *                            Kafka and Zookeeper monitors and it is not stopped when the monitor is stopped. If it is
+     *                            null, a new one is created
+     * @throws IllegalArgumentException when any argument is null or required configuration is missing
+     * @see KafkaMonitor#KafkaMonitor(Map, KFMonitorCallback) for more details
+     */
+    public KafkaMonitor(final Map<String, String> configuration,
+                        final KFMonitorCallback kfMonitorListener,
+                        final KFPartitionCallback kfPartitionListener,
+                        final ProbeScheduler probeScheduler) {
+        this.kfClusterWatcher = new KFClusterWatcher(configuration, kfMonitorListener, kfPartitionListener,
+                probeScheduler);
+    }
+
+
     /**
      * Creates an instance that monitors Kafka cluster.
      * <p>
@@ -132,6 +163,21 @@ public class KafkaMonitor implements AutoCloseable {
         return kfClusterWatcher.getHealth();
     }
 
+    /**
+     * @return partitions which have a leader and fewer in-sync replicas than assigned. It is empty if partition
+     * tracking is disabled
+     */
+    public List<TopicPartition> getUnderReplicatedPartitions() {
+        return kfClusterWatcher.getUnderReplicatedPartitions();
+    }
+
+    /**
+     * @return partitions which have no leader. It is empty if partition tracking is disabled
+     */
+    public List<TopicPartition> getOfflinePartitions() {
+        return kfClusterWatcher.getOfflinePartitions();
+    }
+
     /**
      * Stop monitor using try-with-resources statement
      *
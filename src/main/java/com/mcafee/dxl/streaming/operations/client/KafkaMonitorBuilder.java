@@ -5,8 +5,10 @@
 package com.mcafee.dxl.streaming.operations.client;
 
 
+import com.mcafee.dxl.streaming.operations.client.common.ProbeScheduler;
 import com.mcafee.dxl.streaming.operations.client.configuration.PropertyNames;
 import com.mcafee.dxl.streaming.operations.client.kafka.KFMonitorCallback;
+import com.mcafee.dxl.streaming.operations.client.kafka.KFPartitionCallback;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -30,8 +32,13 @@ public class KafkaMonitorBuilder {
     private String kafkaServerHostNames;
     private int kafkaPollingDelayTime = -1;
     private int kafkaPollingInitialDelayTime = -1;
+    private int kafkaPollingMinDelayTime = -1;
+    private int kafkaPollingMaxDelayTime = -1;
     private KFMonitorCallback kfMonitorListener = null;
     private int zookeeperSessionTimeout;
+    private ProbeScheduler probeScheduler = null;
+    private boolean partitionTrackingEnabled = false;
+    private KFPartitionCallback kfPartitionListener = null;
 
     /**
      * Constructor
@@ -69,6 +76,30 @@ public class KafkaMonitorBuilder {
         return this;
     }
 
+    /**
+     * Set the Kafka broker polling time expressed in ms right after a broker status change
+     *
+     * @param kafkaPollingMinDelayTime It is the delay time in ms between Kafka broker pollings after the broker
+     *                                 status has changed or its response time has spiked
+     * @return KafkaMonitorBuilder current instance
+     */
+    public KafkaMonitorBuilder withKafkaPollingMinDelayTime(final int kafkaPollingMinDelayTime) {
+        this.kafkaPollingMinDelayTime = kafkaPollingMinDelayTime;
+        return this;
+    }
+
+    /**
+     * Set the maximum Kafka broker polling time expressed in ms while the broker status is steady
+     *
+     * @param kafkaPollingMaxDelayTime It is the delay time in ms which Kafka broker polling delay grows up to
+     *                                 while the broker status does not change
+     * @return KafkaMonitorBuilder current instance
+     */
+    public KafkaMonitorBuilder withKafkaPollingMaxDelayTime(final int kafkaPollingMaxDelayTime) {
+        this.kafkaPollingMaxDelayTime = kafkaPollingMaxDelayTime;
+        return this;
+    }
+
     /**
      * Set Zookeeper session timeout.
      *
@@ -92,6 +123,31 @@ public class KafkaMonitorBuilder {
         return this;
     }
 
+    /**
+     * Set the scheduler used to poll Kafka brokers
+     *
+     * @param probeScheduler It is a {@link ProbeScheduler} that could be shared by several monitors.
+     *                       The monitor does not stop it.
+     * @return KafkaMonitorBuilder current instance
+     */
+    public KafkaMonitorBuilder withProbeScheduler(final ProbeScheduler probeScheduler) {
+        this.probeScheduler = probeScheduler;
+        return this;
+    }
+
+    /**
+     * Enable under-replicated and offline partition tracking
+     *
+     * @param kfPartitionListener It is an implementation of {@link KFPartitionCallback} to notify the client
+     *                            when the number of under-replicated or offline partitions has changed. It could be null.
+     * @return KafkaMonitorBuilder current instance
+     */
+    public KafkaMonitorBuilder withPartitionTracking(final KFPartitionCallback kfPartitionListener) {
+        this.partitionTrackingEnabled = true;
+        this.kfPartitionListener = kfPartitionListener;
+        return this;
+    }
+
     /**
      * Create the instance
      *
@@ -113,9 +169,22 @@ public class KafkaMonitorBuilder {
                     getPropertyName(), String.valueOf(kafkaPollingInitialDelayTime));
         }
 
+        if (kafkaPollingMinDelayTime >= 0) {
+            configuration.put(PropertyNames.KF_BROKER_POLL_MIN_DELAY_TIME_MS.
+                    getPropertyName(), String.valueOf(kafkaPollingMinDelayTime));
+        }
+
+        if (kafkaPollingMaxDelayTime >= 0) {
+            configuration.put(PropertyNames.KF_BROKER_POLL_MAX_DELAY_TIME_MS.
+                    getPropertyName(), String.valueOf(kafkaPollingMaxDelayTime));
+        }
+
         configuration.put(PropertyNames.ZK_SESSION_TIMEOUT_MS.
                 getPropertyName(), String.valueOf(zookeeperSessionTimeout));
 
-        return new KafkaMonitor(configuration, kfMonitorListener);
+        configuration.put(PropertyNames.KF_PARTITION_TRACKING_ENABLED.
+                getPropertyName(), String.valueOf(partitionTrackingEnabled));
+
+        return new KafkaMonitor(configuration, kfMonitorListener, kfPartitionListener, probeScheduler);
     }
 }
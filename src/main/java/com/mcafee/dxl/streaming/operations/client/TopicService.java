@@ -4,18 +4,46 @@
 
 package com.mcafee.dxl.streaming.operations.client;
 
-import com.mcafee.dxl.streaming.operations.client.common.ClusterConnection;
 import com.mcafee.dxl.streaming.operations.client.common.ClusterTools;
+import com.mcafee.dxl.streaming.operations.client.common.ExecutorProbeScheduler;
+import com.mcafee.dxl.streaming.operations.client.common.ProbeScheduler;
+import com.mcafee.dxl.streaming.operations.client.configuration.ConfigHelp;
 import com.mcafee.dxl.streaming.operations.client.configuration.PropertyNames;
 import com.mcafee.dxl.streaming.operations.client.exception.TopicOperationException;
-import kafka.utils.ZkUtils;
-import org.apache.commons.lang3.StringUtils;
+import com.mcafee.dxl.streaming.operations.client.topic.PartitionExpander;
+import com.mcafee.dxl.streaming.operations.client.topic.PartitionReassigner;
+import com.mcafee.dxl.streaming.operations.client.topic.PreferredLeaderElector;
+import com.mcafee.dxl.streaming.operations.client.topic.ReassignmentPlanner;
+import com.mcafee.dxl.streaming.operations.client.topic.TopicConfigReader;
+import com.mcafee.dxl.streaming.operations.client.topic.TopicConfigUpdater;
+import com.mcafee.dxl.streaming.operations.client.topic.TopicCreator;
+import com.mcafee.dxl.streaming.operations.client.topic.TopicDeleter;
+import com.mcafee.dxl.streaming.operations.client.topic.TopicDeletion;
+import com.mcafee.dxl.streaming.operations.client.topic.TopicDescriber;
+import com.mcafee.dxl.streaming.operations.client.topic.TopicMetadataCache;
+import com.mcafee.dxl.streaming.operations.client.topic.ZKPipeline;
+import com.mcafee.dxl.streaming.operations.client.topic.entities.BrokerLeadership;
+import com.mcafee.dxl.streaming.operations.client.topic.entities.PartitionReassignment;
+import com.mcafee.dxl.streaming.operations.client.topic.entities.TopicConfigApplyResult;
+import com.mcafee.dxl.streaming.operations.client.topic.entities.TopicDescription;
+import com.mcafee.dxl.streaming.operations.client.topic.entities.TopicMetadataCacheStatistics;
+import com.mcafee.dxl.streaming.operations.client.topic.entities.TopicOperationResult;
+import com.mcafee.dxl.streaming.operations.client.topic.entities.TopicSpec;
+import kafka.cluster.Broker;
+import org.apache.kafka.common.TopicPartition;
 import scala.collection.Seq;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Topic Management API
@@ -23,15 +51,25 @@ import java.util.Properties;
 public class TopicService implements AutoCloseable {
 
     private final Map<String, String> configuration;
-    private ClusterConnection connection;
+    private final TopicServiceConnection connection;
     private final ClusterTools clusterTools;
+    private ProbeScheduler scheduler;
+    private TopicDeleter deleter;
+    private final TopicMetadataCache metadataCache;
 
     /**
      * @param topicServiceConfiguration topic service configuration
      */
     public TopicService(final Map<String, String> topicServiceConfiguration) {
         this.configuration = topicServiceConfiguration;
+        this.connection = new TopicServiceConnection(topicServiceConfiguration);
         clusterTools = new ClusterTools();
+
+        final int metadataCacheCapacity = ConfigHelp.getOrDefaultIntProperty(configuration,
+                PropertyNames.TOPIC_METADATA_CACHE_CAPACITY);
+        this.metadataCache = metadataCacheCapacity > 0
+                ? new TopicMetadataCache(connection::getPipeline, metadataCacheCapacity)
+                : null;
     }
 
     /**
@@ -42,7 +80,10 @@ public class TopicService implements AutoCloseable {
      * @throws com.mcafee.dxl.streaming.operations.client.exception.ConnectionException if Zookeeper connection fails
      */
     public boolean topicExists(final String topicName) {
-        return clusterTools.topicExists(getConnection(), topicName);
+        if (metadataCache != null) {
+            return metadataCache.getTopics().contains(topicName);
+        }
+        return clusterTools.topicExists(connection.getZkUtils(), topicName);
     }
 
     /**
@@ -61,7 +102,7 @@ public class TopicService implements AutoCloseable {
                             final int replicationFactor,
                             final Properties topicProperties) {
 
-        validateTopicName(topicName);
+        TopicServiceConnection.validateTopicName(topicName);
 
         if (topicProperties == null) {
             throw new IllegalArgumentException("Topic properties cannot be null");
@@ -71,11 +112,12 @@ public class TopicService implements AutoCloseable {
             throw new TopicOperationException(topicName, "Topic " + topicName + " already exists", null, this.getClass());
         }
 
-        clusterTools.createTopic(getConnection(),
+        clusterTools.createTopic(connection.getZkUtils(),
                 topicName,
                 partitions,
                 replicationFactor,
                 topicProperties);
+        invalidateTopic(topicName);
     }
 
 
@@ -93,11 +135,123 @@ public class TopicService implements AutoCloseable {
                             final int partitions,
                             final int replicationFactor) {
 
-        clusterTools.createTopic(getConnection(),
+        clusterTools.createTopic(connection.getZkUtils(),
                 topicName,
                 partitions,
                 replicationFactor,
                 new Properties());
+        invalidateTopic(topicName);
+    }
+
+    /**
+     * Create a batch of topics
+     * <p>
+     * The broker list is read once and replica assignments are computed locally. Existence checks and znode writes
+     * of all topics are pipelined, so it is much faster than calling {@link #createTopic(String, int, int, Properties)}
+     * for every topic. A topic which cannot be created does not prevent the rest from being created.
+     *
+     * @param topicSpecs specifications of the topics to be created
+     * @return per-topic results in the same order as topicSpecs
+     * @throws IllegalArgumentException                                                 if topicSpecs is null or
+     *                                                                                  contains a null specification
+     * @throws com.mcafee.dxl.streaming.operations.client.exception.ConnectionException if Zookeeper connection fails
+     */
+    public List<TopicOperationResult> createTopics(final Collection<TopicSpec> topicSpecs) {
+        if (topicSpecs == null) {
+            throw new IllegalArgumentException("Topic specifications cannot be null");
+        }
+        for (TopicSpec topicSpec : topicSpecs) {
+            if (topicSpec == null) {
+                throw new IllegalArgumentException("Topic specifications cannot contain null");
+            }
+        }
+
+        final List<Integer> brokerIds = new ArrayList<>();
+        for (Broker broker : clusterTools.getKafkaBrokers(connection.getZkUtils())) {
+            brokerIds.add(broker.id());
+        }
+
+        final List<TopicOperationResult> results = new TopicCreator(connection.getPipeline())
+                .createTopics(topicSpecs, brokerIds);
+        for (TopicOperationResult result : results) {
+            invalidateTopic(result.getTopicName());
+        }
+        return results;
+    }
+
+    /**
+     * Add partitions to a topic
+     * <p>
+     * New replicas go to the brokers with fewest replicas and preferred leaders, rather than being placed
+     * round-robin.
+     *
+     * @param topicName      topic name
+     * @param partitionCount new number of partitions. It must be greater than the current number of partitions.
+     * @throws IllegalArgumentException                                                     when topicName is empty or
+     *                                                                                      null
+     * @throws com.mcafee.dxl.streaming.operations.client.exception.TopicOperationException when partitions could not
+     *                                                                                      be added
+     * @throws com.mcafee.dxl.streaming.operations.client.exception.ConnectionException     if Zookeeper connection fails
+     */
+    public void addPartitions(final String topicName, final int partitionCount) {
+        TopicServiceConnection.validateTopicName(topicName);
+
+        final TopicOperationResult result = addPartitions(Collections.singletonMap(topicName, partitionCount)).get(0);
+        if (!result.isSucceeded()) {
+            throw result.getError();
+        }
+    }
+
+    /**
+     * Add partitions to many topics
+     * <p>
+     * The replica and preferred leader counts of every broker are computed once from the assignments of all topics,
+     * and the new partitions of every topic are placed on the least loaded brokers. Assignment writes of all topics
+     * are pipelined. A topic which cannot be expanded does not prevent the rest from being expanded. A topic whose
+     * assignment is modified by someone else meanwhile is failed rather than overwritten.
+     *
+     * @param partitionCounts new number of partitions by topic name
+     * @return per-topic results in the iteration order of partitionCounts
+     * @throws IllegalArgumentException                                                 if partitionCounts is null
+     * @throws com.mcafee.dxl.streaming.operations.client.exception.ConnectionException if Zookeeper connection fails
+     */
+    public List<TopicOperationResult> addPartitions(final Map<String, Integer> partitionCounts) {
+        if (partitionCounts == null) {
+            throw new IllegalArgumentException("Partition counts cannot be null");
+        }
+
+        final List<Integer> brokerIds = new ArrayList<>();
+        for (Broker broker : clusterTools.getKafkaBrokers(connection.getZkUtils())) {
+            brokerIds.add(broker.id());
+        }
+        return new PartitionExpander(connection.getPipeline()).addPartitions(partitionCounts, brokerIds);
+    }
+
+    /**
+     * Delete many topics
+     * <p>
+     * Topics are marked for deletion with pipelined requests, and the controller deletes them asynchronously. The
+     * returned handle reports the status of every topic as the controller progresses, and its result completes once
+     * every topic has been deleted or failed. A topic fails if it does not exist, if brokers refuse to delete it, or
+     * if it still exists after the deletion timeout. Closing this service stops following the deletion and fails
+     * the topics which are still pending.
+     *
+     * @param topicNames names of the topics to be deleted
+     * @return deletion progress
+     * @throws IllegalArgumentException                                                 if topicNames is null or
+     *                                                                                  contains an empty topic name
+     * @throws com.mcafee.dxl.streaming.operations.client.exception.ConnectionException if Zookeeper connection fails
+     */
+    public TopicDeletion deleteTopics(final Collection<String> topicNames) {
+        if (topicNames == null) {
+            throw new IllegalArgumentException("Topic names cannot be null");
+        }
+        topicNames.forEach(TopicServiceConnection::validateTopicName);
+
+        final TopicDeletion deletion = getDeleter().deleteTopics(topicNames,
+                ConfigHelp.getOrDefaultIntProperty(configuration, PropertyNames.TOPIC_DELETION_TIMEOUT_MS));
+        deletion.getResult().thenAccept(results -> results.forEach(result -> invalidateTopic(result.getTopicName())));
+        return deletion;
     }
 
     /**
@@ -108,8 +262,11 @@ public class TopicService implements AutoCloseable {
      * @throws com.mcafee.dxl.streaming.operations.client.exception.ConnectionException if Zookeeper connection fails
      */
     public List<String> getAllTopics() {
+        if (metadataCache != null) {
+            return new ArrayList<>(metadataCache.getTopics());
+        }
         List<String> allTopics = new ArrayList<>();
-        final Seq<String> allTopicsSeq = getConnection().getAllTopics();
+        final Seq<String> allTopicsSeq = connection.getZkUtils().getAllTopics();
         if (allTopicsSeq != null) {
             allTopics = scala
                     .collection
@@ -131,22 +288,94 @@ public class TopicService implements AutoCloseable {
      */
     public void overrideTopicProperties(final String topicName,
                                         final Properties topicProperties) {
-        validateTopicName(topicName);
+        TopicServiceConnection.validateTopicName(topicName);
 
         if (topicProperties == null) {
             throw new IllegalArgumentException("Topic properties cannot be null");
         }
-        clusterTools.overrideTopicProperties(getConnection(), topicName, topicProperties);
+        clusterTools.overrideTopicProperties(connection.getZkUtils(), topicName, topicProperties);
+        if (metadataCache != null) {
+            metadataCache.invalidateTopicProperties(topicName);
+        }
     }
 
 
+    /**
+     * Apply topic properties, writing them only if they differ from the current ones.
+     * <p>
+     * Unlike {@link #overrideTopicProperties(String, Properties)}, re-applying the current configuration writes
+     * nothing and does not notify brokers.
+     *
+     * @param topicName       topic name
+     * @param topicProperties topic properties. They replace the current ones.
+     * @return true if the properties changed and brokers were notified, false if they were already in place
+     * @throws IllegalArgumentException                                                     when topicName is empty or
+     *                                                                                      null, or topicProperties
+     *                                                                                      is null
+     * @throws com.mcafee.dxl.streaming.operations.client.exception.TopicOperationException when configuration could
+     *                                                                                      not be applied
+     * @throws com.mcafee.dxl.streaming.operations.client.exception.ConnectionException     if Zookeeper connection fails
+     */
+    public boolean applyTopicProperties(final String topicName,
+                                        final Properties topicProperties) {
+        TopicServiceConnection.validateTopicName(topicName);
+
+        if (topicProperties == null) {
+            throw new IllegalArgumentException("Topic properties cannot be null");
+        }
+        final boolean changed = await(new TopicConfigUpdater(connection.getPipeline())
+                .applyTopicProperties(topicName, topicProperties));
+        if (changed && metadataCache != null) {
+            metadataCache.invalidateTopicProperties(topicName);
+        }
+        return changed;
+    }
+
+
+    /**
+     * Apply the properties of many topics, writing only those which differ from the current ones.
+     * <p>
+     * The existence and current properties of every topic are read with pipelined requests, and the writes and
+     * broker notifications of the changed topics are pipelined as well. Malformed current properties are
+     * overwritten. A topic which cannot be updated does not prevent the rest from being updated.
+     *
+     * @param topicProperties topic properties by topic name. They replace the current ones.
+     * @return per-topic results in the iteration order of topicProperties, telling which topics changed
+     * @throws IllegalArgumentException                                                 if topicProperties is null
+     * @throws com.mcafee.dxl.streaming.operations.client.exception.ConnectionException if Zookeeper connection fails
+     */
+    public List<TopicConfigApplyResult> applyTopicProperties(final Map<String, Properties> topicProperties) {
+        if (topicProperties == null) {
+            throw new IllegalArgumentException("Topic properties cannot be null");
+        }
+
+        final List<TopicConfigApplyResult> results = new TopicConfigUpdater(connection.getPipeline())
+                .applyTopicProperties(topicProperties).join();
+        if (metadataCache != null) {
+            for (TopicConfigApplyResult result : results) {
+                if (result.isChanged()) {
+                    metadataCache.invalidateTopicProperties(result.getTopicName());
+                }
+            }
+        }
+        return results;
+    }
+
     /**
      * Close cluster connection
      */
-    public void close() {
-        if (connection != null) {
-            connection.close();
-            connection = null;
+    public synchronized void close() {
+        if (deleter != null) {
+            deleter.close();
+            deleter = null;
+        }
+        connection.close();
+        if (scheduler != null) {
+            scheduler.close();
+            scheduler = null;
+        }
+        if (metadataCache != null) {
+            metadataCache.invalidateAll();
         }
     }
 
@@ -162,50 +391,312 @@ public class TopicService implements AutoCloseable {
      */
     public Properties getTopicProperties(final String topicName) {
 
-        validateTopicName(topicName);
+        TopicServiceConnection.validateTopicName(topicName);
 
         if (!topicExists(topicName)) {
             throw new TopicOperationException(topicName, "Topic " + topicName + " does not exist", null, this.getClass());
         }
 
-        return clusterTools.getTopicProperties(getConnection(), topicName);
+        if (metadataCache != null) {
+            return metadataCache.getTopicProperties(topicName);
+        }
+        return clusterTools.getTopicProperties(connection.getZkUtils(), topicName);
+    }
+
+
+    /**
+     * Get the properties of all topics
+     * <p>
+     * Configuration znodes are read with pipelined asynchronous requests, so it is much faster than calling
+     * {@link #getTopicProperties(String)} for every topic.
+     *
+     * @return topic properties by topic name. A topic without configuration overrides is mapped to empty properties.
+     * Topics whose configuration is malformed or could not be read are not mapped.
+     * @throws com.mcafee.dxl.streaming.operations.client.exception.TopicOperationException when the topic list could
+     *                                                                                      not be read
+     * @throws com.mcafee.dxl.streaming.operations.client.exception.ConnectionException     if Zookeeper connection fails
+     */
+    public Map<String, Properties> getAllTopicProperties() {
+        return await(new TopicConfigReader(connection.getPipeline()).readAllTopicProperties());
+    }
+
+
+    /**
+     * Get the properties of some topics
+     * <p>
+     * Configuration znodes are read with pipelined asynchronous requests, so it is much faster than calling
+     * {@link #getTopicProperties(String)} for every topic.
+     *
+     * @param topicNames topic names
+     * @return topic properties by topic name. Topics which do not exist and topics whose configuration is malformed
+     * or could not be read are not mapped.
+     * @throws IllegalArgumentException                                                     when topicNames is null
+     * @throws com.mcafee.dxl.streaming.operations.client.exception.TopicOperationException when the topic list could
+     *                                                                                      not be read
+     * @throws com.mcafee.dxl.streaming.operations.client.exception.ConnectionException     if Zookeeper connection fails
+     */
+    public Map<String, Properties> getTopicProperties(final Collection<String> topicNames) {
+        if (topicNames == null) {
+            throw new IllegalArgumentException("Topic names cannot be null");
+        }
+        return await(new TopicConfigReader(connection.getPipeline()).readTopicProperties(topicNames));
+    }
+
+
+    /**
+     * Describe a topic: replicas, leader and in-sync replicas of every partition
+     *
+     * @param topicName topic name
+     * @return topic description
+     * @throws IllegalArgumentException                                                     when topicName is empty or null.
+     * @throws com.mcafee.dxl.streaming.operations.client.exception.TopicOperationException when topicName does not exist or
+     *                                                                                      it could not be described
+     * @throws com.mcafee.dxl.streaming.operations.client.exception.ConnectionException     if Zookeeper connection fails
+     */
+    public TopicDescription describeTopic(final String topicName) {
+        TopicServiceConnection.validateTopicName(topicName);
+
+        final TopicDescription description = await(new TopicDescriber(connection.getPipeline())
+                .describeTopic(topicName));
+        if (description == null) {
+            throw new TopicOperationException(topicName, "Topic " + topicName + " does not exist", null, this.getClass());
+        }
+        return description;
+    }
+
+
+    /**
+     * Describe some topics
+     * <p>
+     * Partition assignments and states are read with pipelined asynchronous requests, so topics with many
+     * partitions are described in a few round trips.
+     *
+     * @param topicNames topic names
+     * @return topic descriptions by topic name, in the order of topicNames. Topics which do not exist and topics
+     * whose assignment or partition state is malformed are not mapped.
+     * @throws IllegalArgumentException                                                     when topicNames is null
+     * @throws com.mcafee.dxl.streaming.operations.client.exception.TopicOperationException when Zookeeper fails to
+     *                                                                                      read a topic
+     * @throws com.mcafee.dxl.streaming.operations.client.exception.ConnectionException     if Zookeeper connection fails
+     */
+    public Map<String, TopicDescription> describeTopics(final Collection<String> topicNames) {
+        if (topicNames == null) {
+            throw new IllegalArgumentException("Topic names cannot be null");
+        }
+        return await(new TopicDescriber(connection.getPipeline()).describeTopics(topicNames));
     }
 
 
     /**
-     * Get a Zookeeper connection
+     * Describe all topics
      *
-     * @return Zookeeper connection
-     * @throws com.mcafee.dxl.streaming.operations.client.exception.ConnectionException when Zookeeper connection failed
+     * @return topic descriptions by topic name. Topics whose assignment or partition state is malformed are not
+     * mapped.
+     * @throws com.mcafee.dxl.streaming.operations.client.exception.TopicOperationException when Zookeeper fails to
+     *                                                                                      read a topic
+     * @throws com.mcafee.dxl.streaming.operations.client.exception.ConnectionException     if Zookeeper connection fails
      */
-    private ZkUtils getConnection() {
+    public Map<String, TopicDescription> describeTopics() {
+        return await(new TopicDescriber(connection.getPipeline()).describeAllTopics());
+    }
 
-        if (this.connection == null) {
 
-            String zkServers = configuration.getOrDefault(PropertyNames.ZK_SERVERS.getPropertyName(), null);
+    /**
+     * Plan a partition reassignment which spreads the replicas of all topics evenly over some brokers
+     * <p>
+     * Only replicas on brokers outside the target set and replicas above the fair share of their broker are moved,
+     * so adding or removing a broker moves few replicas. Preferred leaders are kept where possible. The plan is a
+     * greedy one: it is not guaranteed to move the fewest replicas, nor to leave every broker at its fair share.
+     *
+     * @param targetBrokerIds ids of the brokers which hold the replicas after the reassignment
+     * @return reassignments of the partitions whose replicas change. It is empty if the cluster is balanced.
+     * @throws IllegalArgumentException                                                     when targetBrokerIds is
+     *                                                                                      null or empty, or has fewer
+     *                                                                                      brokers than a replication
+     *                                                                                      factor
+     * @throws com.mcafee.dxl.streaming.operations.client.exception.TopicOperationException when topics could not be
+     *                                                                                      described
+     * @throws com.mcafee.dxl.streaming.operations.client.exception.ConnectionException     if Zookeeper connection fails
+     */
+    public List<PartitionReassignment> planPartitionReassignment(final Collection<Integer> targetBrokerIds) {
+        if (targetBrokerIds == null || targetBrokerIds.isEmpty()) {
+            throw new IllegalArgumentException("Target broker ids cannot be null or empty");
+        }
+        final int[] brokerIds = new int[targetBrokerIds.size()];
+        int i = 0;
+        for (Integer brokerId : targetBrokerIds) {
+            brokerIds[i++] = brokerId;
+        }
+        return ReassignmentPlanner.plan(describeTopics().values(), brokerIds);
+    }
 
-            String connectionTimeoutMS = configuration.getOrDefault(PropertyNames.ZK_CONNECTION_TIMEOUT_MS.getPropertyName(),
-                    PropertyNames.ZK_CONNECTION_TIMEOUT_MS.getDefaultValue());
 
-            String sessionTimeoutMS = configuration.getOrDefault(PropertyNames.ZK_SESSION_TIMEOUT_MS.getPropertyName(),
-                    PropertyNames.ZK_SESSION_TIMEOUT_MS.getDefaultValue());
+    /**
+     * Reassign partitions and wait until every partition has been moved
+     * <p>
+     * Reassignments are submitted in batches of at most maxPartitionsPerBatch partitions. A batch is submitted once
+     * the previous one, or any reassignment started by someone else, has completed. If the reassignment timeout
+     * elapses first, no further batch is submitted and the batch being moved is left to the controller.
+     *
+     * @param reassignments         partition reassignments, usually from
+     *                              {@link #planPartitionReassignment(Collection)}
+     * @param maxPartitionsPerBatch maximum number of partitions moved at once
+     * @throws IllegalArgumentException                                                     when reassignments is null
+     *                                                                                      or maxPartitionsPerBatch is
+     *                                                                                      not greater than zero
+     * @throws com.mcafee.dxl.streaming.operations.client.exception.TopicOperationException when a batch could not be
+     *                                                                                      submitted or the
+     *                                                                                      reassignment timed out
+     * @throws com.mcafee.dxl.streaming.operations.client.exception.ConnectionException     if Zookeeper connection fails
+     */
+    public void reassignPartitions(final List<PartitionReassignment> reassignments, final int maxPartitionsPerBatch) {
+        if (reassignments == null) {
+            throw new IllegalArgumentException("Partition reassignments cannot be null");
+        }
+        await(new PartitionReassigner(connection.getPipeline()).reassign(reassignments, maxPartitionsPerBatch),
+                ConfigHelp.getOrDefaultIntProperty(configuration, PropertyNames.TOPIC_REASSIGNMENT_TIMEOUT_MS),
+                "Partition reassignment");
+    }
 
-            this.connection = new ClusterConnection(zkServers, connectionTimeoutMS, sessionTimeoutMS);
+
+    /**
+     * Get how many partitions every broker leads and should lead
+     * <p>
+     * Partition states are read with pipelined asynchronous requests.
+     *
+     * @return leadership counts by broker id, ordered by broker id
+     * @throws com.mcafee.dxl.streaming.operations.client.exception.TopicOperationException when topics could not be
+     *                                                                                      described
+     * @throws com.mcafee.dxl.streaming.operations.client.exception.ConnectionException     if Zookeeper connection fails
+     */
+    public Map<Integer, BrokerLeadership> getBrokerLeadership() {
+        return PreferredLeaderElector.getBrokerLeadership(describeTopics().values());
+    }
+
+
+    /**
+     * Move partition leadership back to the preferred replicas and wait until the controller has done it
+     * <p>
+     * Only partitions which are not led by their preferred replica while it is in sync are elected. They are
+     * written in batches of at most maxPartitionsPerBatch partitions, the next batch once the previous one, or any
+     * election started by someone else, has completed. If the election timeout elapses first, no further batch is
+     * written and the batch being elected is left to the controller.
+     *
+     * @param maxPartitionsPerBatch maximum number of partitions elected at once
+     * @return elected partitions
+     * @throws IllegalArgumentException                                                     when
+     *                                                                                      maxPartitionsPerBatch is
+     *                                                                                      not greater than zero
+     * @throws com.mcafee.dxl.streaming.operations.client.exception.TopicOperationException when an election could not
+     *                                                                                      be run or timed out
+     * @throws com.mcafee.dxl.streaming.operations.client.exception.ConnectionException     if Zookeeper connection fails
+     */
+    public List<TopicPartition> electPreferredLeaders(final int maxPartitionsPerBatch) {
+        if (maxPartitionsPerBatch <= 0) {
+            throw new IllegalArgumentException("Maximum partitions per batch must be greater than zero");
         }
+        final List<TopicPartition> partitions = PreferredLeaderElector.getImbalancedPartitions(
+                describeTopics().values());
+        await(new PreferredLeaderElector(connection.getPipeline()).elect(partitions, maxPartitionsPerBatch),
+                ConfigHelp.getOrDefaultIntProperty(configuration, PropertyNames.TOPIC_PREFERRED_ELECTION_TIMEOUT_MS),
+                "Preferred leader election");
+        return partitions;
+    }
+
 
-        return this.connection.getConnection();
+    /**
+     * Get the topic metadata cache counters
+     *
+     * @return cache counters. They are zero if the cache is disabled.
+     */
+    public TopicMetadataCacheStatistics getTopicMetadataCacheStatistics() {
+        return metadataCache != null ? metadataCache.getStatistics() : TopicMetadataCacheStatistics.empty();
+    }
+
+
+    /**
+     * Get the scheduler of deletion deadlines and Zookeeper retries
+     *
+     * @return scheduler
+     */
+    private synchronized ProbeScheduler getScheduler() {
+        if (this.scheduler == null) {
+            this.scheduler = new ExecutorProbeScheduler(1);
+        }
+        return this.scheduler;
     }
 
 
     /**
-     * Validate Topic Name.
+     * Get the deleter which follows topic deletions until this service is closed
      *
-     * @param topicName Topic Name to be validated
-     * @throws IllegalArgumentException when topicName is empty or null
+     * @return topic deleter
+     */
+    private synchronized TopicDeleter getDeleter() {
+        if (this.deleter == null) {
+            this.deleter = new TopicDeleter(connection::getPipeline, getScheduler());
+        }
+        return this.deleter;
+    }
+
+
+    /**
+     * Wait for a pipelined operation
+     *
+     * @param future operation result
+     * @param <T>    result type
+     * @return operation result
+     * @throws RuntimeException the exception the operation failed with
+     */
+    private static <T> T await(final CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            final Throwable cause = ZKPipeline.unwrap(e);
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : e;
+        }
+    }
+
+
+    /**
+     * Wait for a long running operation, cancelling it if it does not complete in time
+     *
+     * @param future    operation result. Cancelling it stops the operation.
+     * @param timeoutMs time to wait in ms
+     * @param operation operation name
+     * @param <T>       result type
+     * @return operation result
+     * @throws TopicOperationException if the operation timed out or the calling thread was interrupted
+     * @throws RuntimeException        the exception the operation failed with
+     */
+    private <T> T await(final CompletableFuture<T> future, final int timeoutMs, final String operation) {
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            throw new TopicOperationException("", operation + " did not complete within " + timeoutMs + " ms", e,
+                    this.getClass());
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new TopicOperationException("", operation + " was interrupted", e, this.getClass());
+        } catch (ExecutionException e) {
+            final Throwable cause = ZKPipeline.unwrap(e.getCause());
+            throw cause instanceof RuntimeException ? (RuntimeException) cause
+                    : new TopicOperationException("", cause.getMessage(), cause, this.getClass());
+        }
+    }
+
+
+    /**
+     * Drop cached metadata of a topic changed by this service, so it is read again before the watch event arrives
+     *
+     * @param topicName topic name
      */
-    private void validateTopicName(final String topicName) {
-        if (StringUtils.isEmpty(topicName)) {
-            throw new IllegalArgumentException("Topic name cannot be null or empty");
+    private void invalidateTopic(final String topicName) {
+        if (metadataCache != null) {
+            metadataCache.invalidateTopics();
+            metadataCache.invalidateTopicProperties(topicName);
         }
     }
 
@@ -16,6 +16,11 @@ public final class TopicServiceBuilder {
     private String zookeeperServerHostNames;
     private int zookeeperSessionTimeout = -1;
     private int zookeeperConnectionTimeout = -1;
+    private int zookeeperMaxInFlightRequests = -1;
+    private int topicMetadataCacheCapacity = -1;
+    private int topicDeletionTimeout = -1;
+    private int topicReassignmentTimeout = -1;
+    private int topicPreferredElectionTimeout = -1;
 
     public TopicServiceBuilder(final String zookeeperServerHostNames) {
         if(StringUtils.isEmpty(zookeeperServerHostNames)) {
@@ -49,6 +54,67 @@ public final class TopicServiceBuilder {
     }
 
 
+    /**
+     * Set the maximum number of outstanding Zookeeper requests of batch topic operations
+     *
+     * @param zookeeperMaxInFlightRequests maximum number of outstanding Zookeeper requests
+     * @return TopicServiceBuilder current instance
+     */
+    public TopicServiceBuilder withZKMaxInFlightRequests(final int zookeeperMaxInFlightRequests) {
+        this.zookeeperMaxInFlightRequests = zookeeperMaxInFlightRequests;
+        return this;
+    }
+
+
+    /**
+     * Enable the topic metadata cache. The topic list and topic configurations are kept in memory and invalidated
+     * by Zookeeper watches.
+     *
+     * @param topicMetadataCacheCapacity maximum number of topic configurations kept in memory. 0 disables the cache.
+     * @return TopicServiceBuilder current instance
+     */
+    public TopicServiceBuilder withTopicMetadataCache(final int topicMetadataCacheCapacity) {
+        this.topicMetadataCacheCapacity = topicMetadataCacheCapacity;
+        return this;
+    }
+
+
+    /**
+     * Set the time after which topics marked for deletion which still exist are reported as failed
+     *
+     * @param topicDeletionTimeout topic deletion timeout expressed in ms
+     * @return TopicServiceBuilder current instance
+     */
+    public TopicServiceBuilder withTopicDeletionTimeout(final int topicDeletionTimeout) {
+        this.topicDeletionTimeout = topicDeletionTimeout;
+        return this;
+    }
+
+
+    /**
+     * Set the time after which the topic service stops waiting for a partition reassignment
+     *
+     * @param topicReassignmentTimeout topic reassignment timeout expressed in ms
+     * @return TopicServiceBuilder current instance
+     */
+    public TopicServiceBuilder withTopicReassignmentTimeout(final int topicReassignmentTimeout) {
+        this.topicReassignmentTimeout = topicReassignmentTimeout;
+        return this;
+    }
+
+
+    /**
+     * Set the time after which the topic service stops waiting for preferred leader elections
+     *
+     * @param topicPreferredElectionTimeout preferred leader election timeout expressed in ms
+     * @return TopicServiceBuilder current instance
+     */
+    public TopicServiceBuilder withTopicPreferredElectionTimeout(final int topicPreferredElectionTimeout) {
+        this.topicPreferredElectionTimeout = topicPreferredElectionTimeout;
+        return this;
+    }
+
+
     /**
      *
      * @return a new topic service instance
@@ -64,6 +130,26 @@ public final class TopicServiceBuilder {
             configuration.put(PropertyNames.ZK_SESSION_TIMEOUT_MS.getPropertyName(),String.valueOf(zookeeperSessionTimeout));
         }
 
+        if(zookeeperMaxInFlightRequests > 0) {
+            configuration.put(PropertyNames.TOPIC_ZK_MAX_IN_FLIGHT_REQUESTS.getPropertyName(),String.valueOf(zookeeperMaxInFlightRequests));
+        }
+
+        if(topicMetadataCacheCapacity >= 0) {
+            configuration.put(PropertyNames.TOPIC_METADATA_CACHE_CAPACITY.getPropertyName(),String.valueOf(topicMetadataCacheCapacity));
+        }
+
+        if(topicDeletionTimeout > 0) {
+            configuration.put(PropertyNames.TOPIC_DELETION_TIMEOUT_MS.getPropertyName(),String.valueOf(topicDeletionTimeout));
+        }
+
+        if(topicReassignmentTimeout > 0) {
+            configuration.put(PropertyNames.TOPIC_REASSIGNMENT_TIMEOUT_MS.getPropertyName(),String.valueOf(topicReassignmentTimeout));
+        }
+
+        if(topicPreferredElectionTimeout > 0) {
+            configuration.put(PropertyNames.TOPIC_PREFERRED_ELECTION_TIMEOUT_MS.getPropertyName(),String.valueOf(topicPreferredElectionTimeout));
+        }
+
         configuration.put(PropertyNames.ZK_SERVERS.getPropertyName(),zookeeperServerHostNames);
 
         return new TopicService(configuration);
@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client;
+
+import com.mcafee.dxl.streaming.operations.client.common.ClusterConnection;
+import com.mcafee.dxl.streaming.operations.client.configuration.ConfigHelp;
+import com.mcafee.dxl.streaming.operations.client.configuration.PropertyNames;
+import com.mcafee.dxl.streaming.operations.client.topic.ZKPipeline;
+import kafka.utils.ZkUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.zookeeper.ZooKeeper;
+
+import java.util.Map;
+
+/**
+ * Zookeeper connection of a topic service. It is established on first use and shared by the Kafka Zookeeper client
+ * and the pipeline of asynchronous requests. It is shared by {@link TopicService} and {@link AsyncTopicService},
+ * along with their topic name validation.
+ */
+final class TopicServiceConnection implements AutoCloseable {
+
+    private final Map<String, String> configuration;
+    private ClusterConnection clusterConnection;
+    private ZKPipeline pipeline;
+
+
+    /**
+     * @param configuration topic service configuration
+     */
+    TopicServiceConnection(final Map<String, String> configuration) {
+        this.configuration = configuration;
+    }
+
+
+    /**
+     * Get the Kafka Zookeeper client
+     *
+     * @return Kafka Zookeeper client
+     * @throws com.mcafee.dxl.streaming.operations.client.exception.ConnectionException when Zookeeper connection failed
+     */
+    synchronized ZkUtils getZkUtils() {
+        return getClusterConnection().getConnection();
+    }
+
+
+    /**
+     * Get a Zookeeper pipeline which shares the Zookeeper connection
+     *
+     * @return Zookeeper pipeline
+     * @throws com.mcafee.dxl.streaming.operations.client.exception.ConnectionException when Zookeeper connection failed
+     */
+    synchronized ZKPipeline getPipeline() {
+        final ZooKeeper zooKeeper = getClusterConnection().getZooKeeper();
+        // The Zookeeper handle is replaced when the session expires
+        if (this.pipeline == null || this.pipeline.getZooKeeper() != zooKeeper) {
+            this.pipeline = new ZKPipeline(zooKeeper,
+                    ConfigHelp.getOrDefaultIntProperty(configuration, PropertyNames.TOPIC_ZK_MAX_IN_FLIGHT_REQUESTS));
+        }
+        return this.pipeline;
+    }
+
+
+    /**
+     * Close the Zookeeper connection. It is established again on next use.
+     */
+    @Override
+    public synchronized void close() {
+        if (clusterConnection != null) {
+            clusterConnection.close();
+            clusterConnection = null;
+            pipeline = null;
+        }
+    }
+
+
+    /**
+     * Validate Topic Name.
+     *
+     * @param topicName Topic Name to be validated
+     * @throws IllegalArgumentException when topicName is empty or null
+     */
+    static void validateTopicName(final String topicName) {
+        if (StringUtils.isEmpty(topicName)) {
+            throw new IllegalArgumentException("Topic name cannot be null or empty");
+        }
+    }
+
+
+    private ClusterConnection getClusterConnection() {
+        if (this.clusterConnection == null) {
+
+            String zkServers = configuration.getOrDefault(PropertyNames.ZK_SERVERS.getPropertyName(), null);
+
+            String connectionTimeoutMS = configuration.getOrDefault(PropertyNames.ZK_CONNECTION_TIMEOUT_MS.getPropertyName(),
+                    PropertyNames.ZK_CONNECTION_TIMEOUT_MS.getDefaultValue());
+
+            String sessionTimeoutMS = configuration.getOrDefault(PropertyNames.ZK_SESSION_TIMEOUT_MS.getPropertyName(),
+                    PropertyNames.ZK_SESSION_TIMEOUT_MS.getDefaultValue());
+
+            this.clusterConnection = new ClusterConnection(zkServers, connectionTimeoutMS, sessionTimeoutMS);
+        }
+        return this.clusterConnection;
+    }
+}
@@ -4,10 +4,12 @@
 
 package com.mcafee.dxl.streaming.operations.client;
 
+import com.mcafee.dxl.streaming.operations.client.common.ProbeScheduler;
 import com.mcafee.dxl.streaming.operations.client.exception.ZKMonitorException;
 import com.mcafee.dxl.streaming.operations.client.zookeeper.ZKClusterHealthName;
 import com.mcafee.dxl.streaming.operations.client.zookeeper.ZKClusterWatcher;
 import com.mcafee.dxl.streaming.operations.client.zookeeper.ZKMonitorCallback;
+import com.mcafee.dxl.streaming.operations.client.zookeeper.ZKNodeStatisticsHistory;
 import com.mcafee.dxl.streaming.operations.client.zookeeper.entities.ZKCluster;
 
 import java.util.Map;
@@ -70,6 +72,25 @@ public final class ZookeeperMonitor implements AutoCloseable {
     }
 
 
+    /**
+     * Constructs a zookeeper monitoring which polls zookeeper nodes by using a probe scheduler provided by the client.
+     * <p>
+     * The same {@link ProbeScheduler} could be shared by several Kafka and Zookeeper monitors. It is not
+     * stopped when the monitor is stopped.
+     *
+     * @param configuration     configuration
+     * @param zkMonitorListener a listener implemented by the client to be notified when zookeeper quorum event occurs
+     * @param probeScheduler    {@link ProbeScheduler} instance used to poll zookeeper nodes
+     * @throws IllegalArgumentException if configuration is null or any of arguments properties is missing or invalid
+     */
+    public ZookeeperMonitor(final Map<String, String> configuration,
+                            final ZKMonitorCallback zkMonitorListener,
+                            final ProbeScheduler probeScheduler) {
+
+        this.zkClusterWatcher = new ZKClusterWatcher(configuration, zkMonitorListener, probeScheduler);
+    }
+
+
     /**
      * Constructs a zookeeper monitoring unable to send zookeeper notifications to client.
      *
@@ -93,6 +114,24 @@ public final class ZookeeperMonitor implements AutoCloseable {
     }
 
 
+    /**
+     * Get the history of the statistics reported by a zookeeper node, e.g. to get the maximum outstanding requests
+     * over the last minutes. It keeps the samples of
+     * {@link com.mcafee.dxl.streaming.operations.client.configuration.PropertyNames#ZK_NODE_HISTORY_RETENTION_MS},
+     * unless its capacity is set by
+     * {@link com.mcafee.dxl.streaming.operations.client.configuration.PropertyNames#ZK_NODE_HISTORY_CAPACITY}.
+     *
+     * @param zkNodeId zookeeper node address as host:port, or host name as reported by
+     *                 {@link com.mcafee.dxl.streaming.operations.client.zookeeper.entities.ZKNode#getZKNodeId()}
+     *                 if a single zookeeper node runs on that host
+     * @return {@link ZKNodeStatisticsHistory}
+     * @throws IllegalArgumentException if there is not a zookeeper node with that id
+     */
+    public ZKNodeStatisticsHistory getStatisticsHistory(final String zkNodeId) {
+        return zkClusterWatcher.getStatisticsHistory(zkNodeId);
+    }
+
+
     /**
      * Start zookeeper monitoring
      *
@@ -5,8 +5,10 @@
 package com.mcafee.dxl.streaming.operations.client;
 
 
+import com.mcafee.dxl.streaming.operations.client.common.ProbeScheduler;
 import com.mcafee.dxl.streaming.operations.client.configuration.PropertyNames;
 import com.mcafee.dxl.streaming.operations.client.zookeeper.ZKMonitorCallback;
+import com.mcafee.dxl.streaming.operations.client.zookeeper.ZKNodeCollectionModeName;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -29,8 +31,14 @@ public class ZookeeperMonitorBuilder {
     private String zookeeperServerHostNames;
     private int zkPollingDelayTime = -1;
     private int zkPollingInitialDelayTime = -1;
+    private int zkPollingMinDelayTime = -1;
+    private int zkPollingMaxDelayTime = -1;
+    private int zkNodeHistoryCapacity = -1;
+    private int zkNodeHistoryRetention = -1;
     private ZKMonitorCallback zkMonitorListener = null;
     private int zookeeperSessionTimeout = -1;
+    private ProbeScheduler probeScheduler = null;
+    private ZKNodeCollectionModeName zkNodeCollectionMode = null;
 
     /**
      * Constructor
@@ -64,6 +72,55 @@ public class ZookeeperMonitorBuilder {
         return this;
     }
 
+    /**
+     * Set the Zookeeper node polling time expressed in ms right after a node status change
+     *
+     * @param zkPollingMinDelayTime It is the delay time in ms between Zookeeper node pollings after the node
+     *                              status has changed or its response time has spiked
+     * @return ZookeeperMonitorBuilder current instance
+     */
+    public ZookeeperMonitorBuilder withZKPollingMinDelayTime(final int zkPollingMinDelayTime) {
+        this.zkPollingMinDelayTime = zkPollingMinDelayTime;
+        return this;
+    }
+
+    /**
+     * Set the maximum Zookeeper node polling time expressed in ms while the node status is steady
+     *
+     * @param zkPollingMaxDelayTime It is the delay time in ms which Zookeeper node polling delay grows up to
+     *                              while the node status does not change
+     * @return ZookeeperMonitorBuilder current instance
+     */
+    public ZookeeperMonitorBuilder withZKPollingMaxDelayTime(final int zkPollingMaxDelayTime) {
+        this.zkPollingMaxDelayTime = zkPollingMaxDelayTime;
+        return this;
+    }
+
+    /**
+     * Set the time the statistics samples of a Zookeeper node are kept. The history is sized from it unless its
+     * capacity is set
+     *
+     * @param zkNodeHistoryRetention It is the time expressed in ms the samples are kept to query Zookeeper node
+     *                               trends. Zero disables the history
+     * @return ZookeeperMonitorBuilder current instance
+     */
+    public ZookeeperMonitorBuilder withZKNodeHistoryRetention(final int zkNodeHistoryRetention) {
+        this.zkNodeHistoryRetention = zkNodeHistoryRetention;
+        return this;
+    }
+
+    /**
+     * Set the number of statistics samples kept per Zookeeper node
+     *
+     * @param zkNodeHistoryCapacity It is the number of samples kept to query Zookeeper node trends.
+     *                              Zero disables the history
+     * @return ZookeeperMonitorBuilder current instance
+     */
+    public ZookeeperMonitorBuilder withZKNodeHistoryCapacity(final int zkNodeHistoryCapacity) {
+        this.zkNodeHistoryCapacity = zkNodeHistoryCapacity;
+        return this;
+    }
+
     /**
      * Set Zookeeper session timeout.
      *
@@ -75,6 +132,18 @@ public class ZookeeperMonitorBuilder {
         return this;
     }
 
+    /**
+     * Set the commands sent to Zookeeper nodes on every poll
+     *
+     * @param zkNodeCollectionMode {@link ZKNodeCollectionModeName#MNTR} to collect Zookeeper node metrics
+     *                             by the mntr command besides the stat command
+     * @return ZookeeperMonitorBuilder current instance
+     */
+    public ZookeeperMonitorBuilder withZKNodeCollectionMode(final ZKNodeCollectionModeName zkNodeCollectionMode) {
+        this.zkNodeCollectionMode = zkNodeCollectionMode;
+        return this;
+    }
+
     /**
      * Set Kafka monitor listener
      *
@@ -87,6 +156,18 @@ public class ZookeeperMonitorBuilder {
         return this;
     }
 
+    /**
+     * Set the scheduler used to poll Zookeeper nodes
+     *
+     * @param probeScheduler It is a {@link ProbeScheduler} that could be shared by several monitors.
+     *                       The monitor does not stop it.
+     * @return ZookeeperMonitorBuilder current instance
+     */
+    public ZookeeperMonitorBuilder withProbeScheduler(final ProbeScheduler probeScheduler) {
+        this.probeScheduler = probeScheduler;
+        return this;
+    }
+
     /**
      * Create the instance
      *
@@ -107,11 +188,36 @@ public class ZookeeperMonitorBuilder {
                     getPropertyName(), String.valueOf(zkPollingInitialDelayTime));
         }
 
+        if (zkPollingMinDelayTime >= 0) {
+            configuration.put(PropertyNames.ZK_NODE_POLL_MIN_DELAY_TIME_MS.
+                    getPropertyName(), String.valueOf(zkPollingMinDelayTime));
+        }
+
+        if (zkPollingMaxDelayTime >= 0) {
+            configuration.put(PropertyNames.ZK_NODE_POLL_MAX_DELAY_TIME_MS.
+                    getPropertyName(), String.valueOf(zkPollingMaxDelayTime));
+        }
+
+        if (zkNodeHistoryRetention >= 0) {
+            configuration.put(PropertyNames.ZK_NODE_HISTORY_RETENTION_MS.
+                    getPropertyName(), String.valueOf(zkNodeHistoryRetention));
+        }
+
+        if (zkNodeHistoryCapacity >= 0) {
+            configuration.put(PropertyNames.ZK_NODE_HISTORY_CAPACITY.
+                    getPropertyName(), String.valueOf(zkNodeHistoryCapacity));
+        }
+
         if (zookeeperSessionTimeout >= 0) {
             configuration.put(PropertyNames.ZK_SESSION_TIMEOUT_MS.
                     getPropertyName(), String.valueOf(zookeeperSessionTimeout));
         }
 
-        return new ZookeeperMonitor(configuration, zkMonitorListener);
+        if (zkNodeCollectionMode != null) {
+            configuration.put(PropertyNames.ZK_NODE_COLLECTION_MODE.
+                    getPropertyName(), zkNodeCollectionMode.name().toLowerCase());
+        }
+
+        return new ZookeeperMonitor(configuration, zkMonitorListener, probeScheduler);
     }
 }
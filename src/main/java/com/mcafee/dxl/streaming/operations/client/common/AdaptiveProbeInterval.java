@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.common;
+
+/**
+ * It computes the delay between two consecutive probes of a Kafka broker or Zookeeper node watcher.
+ * <p>
+ * Every probe which does not change the endpoint status doubles the delay up to the maximum delay.
+ * A status transition or a probe latency spike drops the delay to the minimum delay, so a flapping endpoint is
+ * probed often while a steady one is probed rarely. A latency spike is a probe latency greater than
+ * {@value #LATENCY_SPIKE_FACTOR} times the average latency of previous probes.
+ * <p>
+ * When minimum, initial and maximum delays are equal, the delay is fixed.
+ */
+public final class AdaptiveProbeInterval {
+
+    /**
+     * Class constants
+     */
+    static final int LATENCY_SPIKE_FACTOR = 4;
+    private static final int LATENCY_AVERAGE_WEIGHT = 8;
+
+    private final long minDelayMs;
+    private final long maxDelayMs;
+    private long delayMs;
+    private long averageLatencyNanos = 0;
+    private long probeCount = 0;
+    private long changeCount = 0;
+
+
+    /**
+     * @param delayMs    initial delay expressed in ms
+     * @param minDelayMs delay expressed in ms after a status transition or latency spike
+     * @param maxDelayMs maximum delay expressed in ms while the status is steady
+     * @throws IllegalArgumentException if delays are not greater than zero or minDelayMs &le; delayMs &le;
+     *                                  maxDelayMs is not true
+     */
+    public AdaptiveProbeInterval(final long delayMs, final long minDelayMs, final long maxDelayMs) {
+        if (minDelayMs <= 0) {
+            throw new IllegalArgumentException("Probe minimum delay time must be greather than zero");
+        }
+
+        if (delayMs < minDelayMs || delayMs > maxDelayMs) {
+            throw new IllegalArgumentException("Probe delay time must be between minimum and maximum delay time");
+        }
+
+        this.delayMs = delayMs;
+        this.minDelayMs = minDelayMs;
+        this.maxDelayMs = maxDelayMs;
+    }
+
+
+    /**
+     * Compute the delay until the next probe
+     *
+     * @param hasStatusChanged true if the probe has changed the endpoint status
+     * @param latencyNanos     probe latency expressed in nanoseconds or a negative value if the probe has failed
+     * @return delay expressed in ms until the next probe
+     */
+    public synchronized long onProbe(final boolean hasStatusChanged, final long latencyNanos) {
+        probeCount++;
+
+        boolean isLatencySpike = false;
+        if (latencyNanos >= 0) {
+            isLatencySpike = averageLatencyNanos > 0 && latencyNanos > LATENCY_SPIKE_FACTOR * averageLatencyNanos;
+            averageLatencyNanos = averageLatencyNanos == 0
+                    ? latencyNanos
+                    : averageLatencyNanos + (latencyNanos - averageLatencyNanos) / LATENCY_AVERAGE_WEIGHT;
+        }
+
+        if (hasStatusChanged || isLatencySpike) {
+            changeCount++;
+            delayMs = minDelayMs;
+        } else {
+            delayMs = Math.min(maxDelayMs, delayMs * 2);
+        }
+        return delayMs;
+    }
+
+
+    /**
+     * @return current delay expressed in ms between probes
+     */
+    public synchronized long getDelayMs() {
+        return delayMs;
+    }
+
+
+    /**
+     * @return number of probes done
+     */
+    public synchronized long getProbeCount() {
+        return probeCount;
+    }
+
+
+    /**
+     * @return number of probes which have dropped the delay to the minimum because of a status transition or a
+     * latency spike
+     */
+    public synchronized long getChangeCount() {
+        return changeCount;
+    }
+}
@@ -10,12 +10,14 @@ import kafka.utils.ZkUtils;
 import org.I0Itec.zkclient.ZkClient;
 import org.I0Itec.zkclient.ZkConnection;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.zookeeper.ZooKeeper;
 
 /**
  * Cluster Connection
  */
 public class ClusterConnection implements AutoCloseable{
 
+    private final ZkConnection zkConnection;
     private final ZkUtils zkUtils;
     private final ZkClient zkClient;
 
@@ -30,6 +32,8 @@ public class ClusterConnection implements AutoCloseable{
 
         validateConnectionString(zkServers);
 
+        this.zkConnection = getZKConnection(zkServers, sessionTimeoutMS);
+
         this.zkClient = getZKClient(zkServers, connectionTimeoutMS, sessionTimeoutMS);
 
         this.zkUtils = getZKUtils(zkClient, zkServers);
@@ -45,6 +49,22 @@ public class ClusterConnection implements AutoCloseable{
     }
 
 
+    /**
+     * Get the native Zookeeper handle shared by the Kafka Zookeeper client. It is used to pipeline asynchronous
+     * Zookeeper operations.
+     *
+     * @return Zookeeper handle
+     * @throws com.mcafee.dxl.streaming.operations.client.exception.ConnectionException when Zookeeper is not connected
+     */
+    public ZooKeeper getZooKeeper() {
+        final ZooKeeper zooKeeper = zkConnection.getZookeeper();
+        if (zooKeeper == null) {
+            throw new ConnectionException("", "Zookeeper connection is not established", null, this.getClass());
+        }
+        return zooKeeper;
+    }
+
+
     /**
      * Close Cluster Connection
      *
@@ -65,7 +85,7 @@ public class ClusterConnection implements AutoCloseable{
     protected ZkUtils getZKUtils(final ZkClient zkClient, final String zkServers) {
         try {
             return new ZkUtils(zkClient,
-                    new ZkConnection(zkServers),
+                    zkConnection,
                     false);
         } catch (Exception e) {
             throw new ConnectionException(zkServers,e.getMessage(),e,this.getClass());
@@ -84,8 +104,7 @@ public class ClusterConnection implements AutoCloseable{
     protected ZkClient getZKClient(final String zkServers, final String connectionTimeoutMS, final String sessionTimeoutMS) {
         try {
             return new ZkClient(
-                    zkServers,
-                    Integer.parseInt(sessionTimeoutMS),
+                    zkConnection,
                     Integer.parseInt(connectionTimeoutMS),
                     ZKStringSerializer$.MODULE$);
         } catch (Exception e) {
@@ -94,6 +113,24 @@ public class ClusterConnection implements AutoCloseable{
     }
 
 
+    /**
+     * Create a zookeeper connection. It is connected by the zookeeper client and shared with the Kafka Zookeeper
+     * client.
+     *
+     * @param zkServers It's a comma-separated list of zookeeper servers host:port
+     * @param sessionTimeoutMS session timeout in milliseconds
+     * @return {@link ZkConnection} Zookeeper connection
+     * @throws com.mcafee.dxl.streaming.operations.client.exception.ConnectionException when the session timeout is invalid
+     */
+    protected ZkConnection getZKConnection(final String zkServers, final String sessionTimeoutMS) {
+        try {
+            return new ZkConnection(zkServers, Integer.parseInt(sessionTimeoutMS));
+        } catch (Exception e) {
+            throw new ConnectionException(zkServers,e.getMessage(),e,this.getClass());
+        }
+    }
+
+
     /**
      * Validate zookeeper servers
      * @param zkServers It's a comma-separated list of zookeeper servers host:port
@@ -0,0 +1,294 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.common;
+
+import com.mcafee.dxl.streaming.operations.client.exception.ConnectionException;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * It checks whether TCP endpoints accept connections by using non-blocking connects.
+ * <p>
+ * All connects are driven by a single selector thread, so hundreds of endpoints can be probed at the same time
+ * in roughly one connection timeout window, no matter how many of them are unreachable.
+ * <p>
+ * {@link ConnectProber#start()} must be called before probing endpoints.
+ */
+public final class ConnectProber implements EndpointProber {
+
+    /**
+     * Class constants
+     */
+    private static final long PROBER_AWAIT_TERMINATION_MS = 200L;
+
+    private final Queue<Probe> pendingProbes = new ConcurrentLinkedQueue<>();
+    private final String name;
+    private volatile Selector selector;
+    private volatile Thread selectorThread;
+
+
+    /**
+     * @param name it is used to name the selector thread
+     */
+    public ConnectProber(final String name) {
+        this.name = name;
+    }
+
+
+    /**
+     * It starts the selector thread
+     * <p>
+     * Calling this method more than once does not have effect.
+     *
+     * @throws ConnectionException if the selector cannot be opened
+     */
+    @Override
+    public synchronized void start() {
+        if (selectorThread != null) {
+            return;
+        }
+
+        try {
+            selector = Selector.open();
+        } catch (IOException e) {
+            throw new ConnectionException(name, e.getMessage(), e, this.getClass());
+        }
+
+        selectorThread = new Thread(this::selectLoop, "connect-prober-" + name);
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+    }
+
+
+    /**
+     * It stops the selector thread. Probes in progress are completed exceptionally.
+     * <p>
+     * Calling this method more than once does not have effect.
+     */
+    @Override
+    public synchronized void close() {
+        final Thread thread = selectorThread;
+        if (thread == null) {
+            return;
+        }
+        selectorThread = null;
+        selector.wakeup();
+
+        try {
+            thread.join(PROBER_AWAIT_TERMINATION_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * Try to connect to an endpoint without blocking the caller
+     *
+     * @param address   endpoint address
+     * @param timeoutMs connection timeout expressed in ms
+     * @return a future which completes with the connection time expressed in nanoseconds when the endpoint accepts the
+     * connection, or completes exceptionally when it is unreachable or the timeout has expired
+     */
+    @Override
+    public CompletableFuture<Long> probe(final InetSocketAddress address, final int timeoutMs) {
+        final Probe probe = new Probe(address, timeoutMs);
+
+        if (selectorThread == null) {
+            probe.fail(new IllegalStateException("Connect prober is not running"));
+            return probe.result;
+        }
+
+        pendingProbes.add(probe);
+        selector.wakeup();
+
+        if (selectorThread == null && pendingProbes.remove(probe)) { // Stopped while it was being requested
+            probe.fail(new IllegalStateException("Connect prober is not running"));
+        }
+        return probe.result;
+    }
+
+
+    /**
+     * Selector thread main loop. It connects pending probes, completes connected ones and expires the ones whose
+     * deadline has passed.
+     */
+    private void selectLoop() {
+        final Selector loopSelector = selector;
+        try {
+            while (selectorThread != null) {
+                connectPendingProbes(loopSelector);
+                loopSelector.select(getSelectTimeoutMs(loopSelector));
+                finishConnectedProbes(loopSelector);
+                expireProbes(loopSelector);
+            }
+        } catch (Exception e) {
+            // Selector has failed, probes in progress are failed below
+        } finally {
+            closeProbes(loopSelector);
+        }
+    }
+
+
+    /**
+     * Start a non-blocking connect for every probe requested since the last loop
+     *
+     * @param loopSelector selector
+     */
+    private void connectPendingProbes(final Selector loopSelector) {
+        Probe probe;
+        while ((probe = pendingProbes.poll()) != null) {
+            SocketChannel channel = null;
+            try {
+                channel = SocketChannel.open();
+                channel.configureBlocking(false);
+                probe.startTimeNanos = System.nanoTime();
+                probe.deadlineNanos = probe.startTimeNanos + TimeUnit.MILLISECONDS.toNanos(probe.timeoutMs);
+                if (channel.connect(probe.address)) {
+                    probe.succeed();
+                    closeQuietly(channel);
+                } else {
+                    channel.register(loopSelector, SelectionKey.OP_CONNECT, probe);
+                }
+            } catch (Exception e) {
+                probe.fail(e);
+                closeQuietly(channel);
+            }
+        }
+    }
+
+
+    /**
+     * @param loopSelector selector
+     * @return time in ms until the closest probe deadline or zero to wait until a probe is requested
+     */
+    private long getSelectTimeoutMs(final Selector loopSelector) {
+        long closestDeadline = Long.MAX_VALUE;
+        for (SelectionKey key : loopSelector.keys()) {
+            closestDeadline = Math.min(closestDeadline, ((Probe) key.attachment()).deadlineNanos);
+        }
+
+        if (closestDeadline == Long.MAX_VALUE) {
+            return 0;
+        }
+        return Math.max(1L, TimeUnit.NANOSECONDS.toMillis(closestDeadline - System.nanoTime()) + 1);
+    }
+
+
+    /**
+     * Complete the probes whose channel has finished connecting
+     *
+     * @param loopSelector selector
+     */
+    private void finishConnectedProbes(final Selector loopSelector) {
+        final Iterator<SelectionKey> keys = loopSelector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+            final SelectionKey key = keys.next();
+            keys.remove();
+            final Probe probe = (Probe) key.attachment();
+            try {
+                if (((SocketChannel) key.channel()).finishConnect()) {
+                    probe.succeed();
+                    closeQuietly(key);
+                }
+            } catch (Exception e) {
+                probe.fail(e);
+                closeQuietly(key);
+            }
+        }
+    }
+
+
+    /**
+     * Fail the probes whose deadline has passed
+     *
+     * @param loopSelector selector
+     */
+    private void expireProbes(final Selector loopSelector) {
+        final long now = System.nanoTime();
+        for (SelectionKey key : loopSelector.keys()) {
+            final Probe probe = (Probe) key.attachment();
+            if (key.isValid() && probe.deadlineNanos - now <= 0) {
+                probe.fail(new SocketTimeoutException("Connection to " + probe.address + " timed out"));
+                closeQuietly(key);
+            }
+        }
+    }
+
+
+    /**
+     * Fail every probe in progress and close the selector
+     *
+     * @param loopSelector selector
+     */
+    private void closeProbes(final Selector loopSelector) {
+        final IllegalStateException closed = new IllegalStateException("Connect prober has been stopped");
+        for (SelectionKey key : loopSelector.keys()) {
+            ((Probe) key.attachment()).fail(closed);
+            closeQuietly(key);
+        }
+
+        Probe probe;
+        while ((probe = pendingProbes.poll()) != null) {
+            probe.fail(closed);
+        }
+
+        try {
+            loopSelector.close();
+        } catch (IOException e) {
+        }
+    }
+
+
+    private static void closeQuietly(final SelectionKey key) {
+        key.cancel();
+        closeQuietly((SocketChannel) key.channel());
+    }
+
+
+    private static void closeQuietly(final SocketChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+            }
+        }
+    }
+
+
+    /**
+     * A connection attempt in progress
+     */
+    private static final class Probe {
+        private final InetSocketAddress address;
+        private final int timeoutMs;
+        private final CompletableFuture<Long> result = new CompletableFuture<>();
+        private long startTimeNanos;
+        private long deadlineNanos;
+
+        Probe(final InetSocketAddress address, final int timeoutMs) {
+            this.address = address;
+            this.timeoutMs = timeoutMs;
+        }
+
+        void succeed() {
+            result.complete(System.nanoTime() - startTimeNanos);
+        }
+
+        void fail(final Throwable cause) {
+            result.completeExceptionally(cause);
+        }
+    }
+}
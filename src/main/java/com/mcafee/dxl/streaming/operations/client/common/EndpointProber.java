@@ -0,0 +1,40 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.common;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * It checks the health of TCP endpoints without blocking the caller.
+ * <p>
+ * {@link EndpointProber#start()} must be called before probing endpoints.
+ */
+public interface EndpointProber extends AutoCloseable {
+
+    /**
+     * Start the prober. Calling this method more than once does not have effect.
+     *
+     * @throws com.mcafee.dxl.streaming.operations.client.exception.ConnectionException if the prober cannot be started
+     */
+    void start();
+
+    /**
+     * Probe an endpoint
+     *
+     * @param address   endpoint address
+     * @param timeoutMs probe timeout expressed in ms
+     * @return a future which completes with the probe latency expressed in nanoseconds when the endpoint is healthy,
+     * or completes exceptionally when it is unreachable or the timeout has expired
+     */
+    CompletableFuture<Long> probe(InetSocketAddress address, int timeoutMs);
+
+    /**
+     * Stop the prober. Probes in progress are completed exceptionally.
+     * Calling this method more than once does not have effect.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.common;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link ProbeScheduler} backed by a single {@link ScheduledThreadPoolExecutor} with a small pool of daemon threads
+ */
+public final class ExecutorProbeScheduler implements ProbeScheduler {
+
+    /**
+     * Class constants
+     */
+    private static final long SCHEDULER_AWAIT_TERMINATION_MS = 200L;
+    private static final AtomicInteger SCHEDULER_COUNTER = new AtomicInteger();
+
+    private final ScheduledThreadPoolExecutor executor;
+
+    /**
+     * @param poolSize number of threads used to execute polling commands
+     * @throws IllegalArgumentException if pool size is less than one
+     */
+    public ExecutorProbeScheduler(final int poolSize) {
+        if (poolSize <= 0) {
+            throw new IllegalArgumentException("Probe scheduler pool size must be greather than zero");
+        }
+        this.executor = new ScheduledThreadPoolExecutor(poolSize, threadFactory());
+        this.executor.setRemoveOnCancelPolicy(true);
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(final Runnable command, final long delayMs) {
+        return executor.schedule(command, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        executor.execute(command);
+    }
+
+    /**
+     * @return number of threads used to execute polling commands
+     */
+    public int getPoolSize() {
+        return executor.getCorePoolSize();
+    }
+
+    @Override
+    public void close() {
+        try {
+            executor.shutdown();
+            executor.awaitTermination(SCHEDULER_AWAIT_TERMINATION_MS, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+        } finally {
+            if (!executor.isTerminated()) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * @return a factory of daemon threads, so the scheduler does not prevent the JVM from exiting
+     */
+    private static ThreadFactory threadFactory() {
+        final int schedulerId = SCHEDULER_COUNTER.incrementAndGet();
+        final AtomicInteger threadCounter = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable,
+                    "probe-scheduler-" + schedulerId + "-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
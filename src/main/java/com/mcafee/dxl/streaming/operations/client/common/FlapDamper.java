@@ -0,0 +1,185 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.common;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * It damps the status transitions of a single Kafka broker or Zookeeper node watcher according to a
+ * {@link FlapDampingPolicy}.
+ * <p>
+ * Every probe result is passed to {@link FlapDamper#onObservation(Object)}, which returns the status that must be
+ * reported to clients. The reported status only changes once the transition has been confirmed and it is not
+ * suppressed by the flap penalty.
+ *
+ * @param <S> status type
+ */
+public final class FlapDamper<S> {
+
+    /**
+     * Class constants
+     */
+    private static final int MAX_SUPPRESS_HALF_LIVES = 4;
+
+    private final FlapDampingPolicy policy;
+    private final LongSupplier nanoClock;
+    private final double maxPenalty;
+
+    /**
+     * Last observations, used as a ring buffer
+     */
+    private final Object[] observations;
+    private int nextObservation = 0;
+
+    private S reportedStatus;
+    private S lastObservedStatus;
+    private S suppressedStatus = null;
+    private double penalty = 0;
+    private long penaltyTimeNanos;
+    private boolean isSuppressing = false;
+
+    private long unconfirmedObservationCount = 0;
+    private long suppressedTransitionCount = 0;
+
+
+    /**
+     * @param policy        flap damping policy
+     * @param initialStatus status reported before any observation
+     * @param nanoClock     time source expressed in nanoseconds
+     */
+    FlapDamper(final FlapDampingPolicy policy, final S initialStatus, final LongSupplier nanoClock) {
+        this.policy = policy;
+        this.nanoClock = nanoClock;
+        this.observations = new Object[policy.getConfirmationWindow()];
+        this.reportedStatus = initialStatus;
+        this.lastObservedStatus = initialStatus;
+        this.penaltyTimeNanos = nanoClock.getAsLong();
+        // A transition is never suppressed longer than MAX_SUPPRESS_HALF_LIVES half-lives
+        this.maxPenalty = Math.max(policy.getSuppressThreshold(),
+                (double) policy.getReuseThreshold() * (1 << MAX_SUPPRESS_HALF_LIVES));
+    }
+
+
+    /**
+     * Record a probe result
+     *
+     * @param observedStatus status observed by the probe
+     * @return status to be reported to clients
+     */
+    public synchronized S onObservation(final S observedStatus) {
+        observations[nextObservation] = observedStatus;
+        nextObservation = (nextObservation + 1) % observations.length;
+
+        updatePenalty(!observedStatus.equals(lastObservedStatus));
+        lastObservedStatus = observedStatus;
+
+        if (observedStatus.equals(reportedStatus)) {
+            suppressedStatus = null;
+            return reportedStatus;
+        }
+
+        if (!isConfirmed(observedStatus)) {
+            unconfirmedObservationCount++;
+            return reportedStatus;
+        }
+
+        if (isSuppressing) {
+            if (!observedStatus.equals(suppressedStatus)) {
+                suppressedTransitionCount++;
+                suppressedStatus = observedStatus;
+            }
+            return reportedStatus;
+        }
+
+        suppressedStatus = null;
+        reportedStatus = observedStatus;
+        return reportedStatus;
+    }
+
+
+    /**
+     * @return status reported to clients
+     */
+    public synchronized S getReportedStatus() {
+        return reportedStatus;
+    }
+
+
+    /**
+     * @return status observed by the last probe
+     */
+    public synchronized S getLastObservedStatus() {
+        return lastObservedStatus;
+    }
+
+
+    /**
+     * @return number of observations that differed from the reported status but did not confirm a transition
+     */
+    public synchronized long getUnconfirmedObservationCount() {
+        return unconfirmedObservationCount;
+    }
+
+
+    /**
+     * @return number of confirmed transitions which have been suppressed because of the flap penalty
+     */
+    public synchronized long getSuppressedTransitionCount() {
+        return suppressedTransitionCount;
+    }
+
+
+    /**
+     * @return true if transitions are being suppressed
+     */
+    public synchronized boolean isSuppressing() {
+        return isSuppressing;
+    }
+
+
+    /**
+     * @param status status to confirm
+     * @return true if the status has been observed in confirmationCount of the last confirmationWindow probes
+     */
+    private boolean isConfirmed(final S status) {
+        int count = 0;
+        for (Object observation : observations) {
+            if (status.equals(observation)) {
+                count++;
+            }
+        }
+        return count >= policy.getConfirmationCount();
+    }
+
+
+    /**
+     * Decay the penalty since the last update, add the flap penalty if the observation is a flap and update
+     * the suppression state
+     *
+     * @param isFlap true if the observed status differs from the previous observation
+     */
+    private void updatePenalty(final boolean isFlap) {
+        if (policy.getSuppressThreshold() == 0) {
+            return;
+        }
+
+        final long now = nanoClock.getAsLong();
+        final double elapsedHalfLives =
+                (double) TimeUnit.NANOSECONDS.toMillis(now - penaltyTimeNanos) / policy.getHalfLifeMs();
+        penalty = penalty * Math.pow(0.5, elapsedHalfLives);
+        penaltyTimeNanos = now;
+
+        if (isFlap) {
+            penalty = Math.min(maxPenalty, penalty + FlapDampingPolicy.FLAP_PENALTY);
+        }
+
+        if (penalty >= policy.getSuppressThreshold()) {
+            isSuppressing = true;
+        } else if (penalty < policy.getReuseThreshold()) {
+            isSuppressing = false;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.common;
+
+import com.mcafee.dxl.streaming.operations.client.configuration.ConfigHelp;
+import com.mcafee.dxl.streaming.operations.client.configuration.PropertyNames;
+
+import java.util.Map;
+
+/**
+ * It holds the settings used by Kafka broker and Zookeeper node watchers to damp status transitions
+ * before notifying clients.
+ * <p>
+ * A status transition is confirmed when the new status has been observed in at least confirmationCount of the last
+ * confirmationWindow probes. Additionally, every observed transition adds {@value #FLAP_PENALTY} to a penalty that
+ * decays exponentially with the given half-life. While the penalty is above suppressThreshold, confirmed transitions
+ * are suppressed until it decays below reuseThreshold, like BGP route flap dampening.
+ *
+ * @see FlapDamper
+ */
+public final class FlapDampingPolicy {
+
+    /**
+     * Class constants
+     */
+    public static final int FLAP_PENALTY = 1000;
+    private static final FlapDampingPolicy DISABLED = new FlapDampingPolicy(1, 1, 0, 0, 1);
+
+    private final int confirmationCount;
+    private final int confirmationWindow;
+    private final int suppressThreshold;
+    private final int reuseThreshold;
+    private final long halfLifeMs;
+
+
+    /**
+     * @param confirmationCount  number of probes that must observe a new status to confirm the transition
+     * @param confirmationWindow number of last probes considered to confirm a transition
+     * @param suppressThreshold  penalty above which transitions are suppressed. Zero disables suppression
+     * @param reuseThreshold     penalty below which transitions are not suppressed anymore
+     * @param halfLifeMs         time expressed in ms for the penalty to decay by half
+     * @throws IllegalArgumentException if any argument is invalid
+     */
+    public FlapDampingPolicy(final int confirmationCount,
+                             final int confirmationWindow,
+                             final int suppressThreshold,
+                             final int reuseThreshold,
+                             final long halfLifeMs) {
+
+        if (confirmationCount <= 0 || confirmationCount > confirmationWindow) {
+            throw new IllegalArgumentException("Flap confirmation count must be greather than zero and less or " +
+                    "equal than confirmation window");
+        }
+
+        if (suppressThreshold < 0) {
+            throw new IllegalArgumentException("Flap suppress threshold must be greather or equal than zero");
+        }
+
+        if (suppressThreshold > 0 && (reuseThreshold <= 0 || reuseThreshold >= suppressThreshold)) {
+            throw new IllegalArgumentException("Flap reuse threshold must be greather than zero and less than " +
+                    "suppress threshold");
+        }
+
+        if (halfLifeMs <= 0) {
+            throw new IllegalArgumentException("Flap half-life must be greather than zero");
+        }
+
+        this.confirmationCount = confirmationCount;
+        this.confirmationWindow = confirmationWindow;
+        this.suppressThreshold = suppressThreshold;
+        this.reuseThreshold = reuseThreshold;
+        this.halfLifeMs = halfLifeMs;
+    }
+
+
+    /**
+     * @return a policy which reports every transition as soon as it is observed
+     */
+    public static FlapDampingPolicy disabled() {
+        return DISABLED;
+    }
+
+
+    /**
+     * Create a policy according to {@link PropertyNames#FLAP_CONFIRMATION_COUNT},
+     * {@link PropertyNames#FLAP_CONFIRMATION_WINDOW}, {@link PropertyNames#FLAP_SUPPRESS_THRESHOLD},
+     * {@link PropertyNames#FLAP_REUSE_THRESHOLD} and {@link PropertyNames#FLAP_HALF_LIFE_MS} properties
+     *
+     * @param configuration configuration
+     * @return flap damping policy
+     * @throws IllegalArgumentException if any property is invalid
+     */
+    public static FlapDampingPolicy fromConfiguration(final Map<String, String> configuration) {
+        return new FlapDampingPolicy(
+                ConfigHelp.getOrDefaultIntProperty(configuration, PropertyNames.FLAP_CONFIRMATION_COUNT),
+                ConfigHelp.getOrDefaultIntProperty(configuration, PropertyNames.FLAP_CONFIRMATION_WINDOW),
+                ConfigHelp.getOrDefaultIntProperty(configuration, PropertyNames.FLAP_SUPPRESS_THRESHOLD),
+                ConfigHelp.getOrDefaultIntProperty(configuration, PropertyNames.FLAP_REUSE_THRESHOLD),
+                ConfigHelp.getOrDefaultIntProperty(configuration, PropertyNames.FLAP_HALF_LIFE_MS));
+    }
+
+
+    /**
+     * @param initialStatus status reported before any observation
+     * @param <S>           status type
+     * @return a new damper for a single watcher
+     */
+    public <S> FlapDamper<S> newDamper(final S initialStatus) {
+        return new FlapDamper<>(this, initialStatus, System::nanoTime);
+    }
+
+
+    public int getConfirmationCount() {
+        return confirmationCount;
+    }
+
+    public int getConfirmationWindow() {
+        return confirmationWindow;
+    }
+
+    public int getSuppressThreshold() {
+        return suppressThreshold;
+    }
+
+    public int getReuseThreshold() {
+        return reuseThreshold;
+    }
+
+    public long getHalfLifeMs() {
+        return halfLifeMs;
+    }
+}
@@ -0,0 +1,255 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.common;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Fixed-size log-bucketed histogram of probe latencies expressed in microseconds over a rolling time window.
+ * <p>
+ * Every power of two range is split into {@value #SUB_BUCKETS} buckets, so a reported percentile is at most
+ * 12.5% above the real value. Recording a latency does not allocate memory and does not lock, so it can be called
+ * from probe completion callbacks.
+ * <p>
+ * The window is split into intervals, each one with its own buckets. An interval is reset when it is reused, so
+ * percentiles only reflect the latencies recorded during the latest window and a latency spike ages out instead of
+ * being diluted by every previous probe. Latencies recorded while an interval is being reset may be lost.
+ */
+public final class LatencyHistogram {
+
+    /**
+     * Class constants
+     */
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+    private static final long DEFAULT_WINDOW_MS = TimeUnit.MINUTES.toMillis(5);
+    private static final int DEFAULT_INTERVALS = 5;
+
+    private final Interval[] intervals;
+    private final long intervalNanos;
+    private final LongSupplier nanoClock;
+
+
+    /**
+     * Creates a histogram over the latest {@value #DEFAULT_INTERVALS} one minute intervals
+     */
+    public LatencyHistogram() {
+        this(DEFAULT_WINDOW_MS, DEFAULT_INTERVALS);
+    }
+
+
+    /**
+     * @param windowMs  length of the rolling window expressed in ms
+     * @param intervals number of intervals the window is split into. The window moves forward one interval at a time
+     */
+    public LatencyHistogram(final long windowMs, final int intervals) {
+        this(windowMs, intervals, System::nanoTime);
+    }
+
+
+    /**
+     * @param windowMs  length of the rolling window expressed in ms
+     * @param intervals number of intervals the window is split into
+     * @param nanoClock time source expressed in nanoseconds
+     */
+    LatencyHistogram(final long windowMs, final int intervals, final LongSupplier nanoClock) {
+        if (intervals <= 0) {
+            throw new IllegalArgumentException("Number of intervals must be greather than zero");
+        }
+        if (windowMs < intervals) {
+            throw new IllegalArgumentException("Window must be greather or equal than one ms per interval");
+        }
+        this.intervals = new Interval[intervals];
+        for (int i = 0; i < intervals; i++) {
+            this.intervals[i] = new Interval();
+        }
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(windowMs) / intervals;
+        this.nanoClock = nanoClock;
+    }
+
+
+    /**
+     * Record a latency
+     *
+     * @param latencyMicros latency expressed in microseconds. Negative values are recorded as zero.
+     */
+    public void record(final long latencyMicros) {
+        final long value = Math.max(0L, latencyMicros);
+        final long sequence = currentSequence();
+        final Interval interval = intervals[(int) Math.floorMod(sequence, (long) intervals.length)];
+        if (interval.sequence != sequence) {
+            interval.reset(sequence);
+        }
+        interval.bucketCounts.incrementAndGet(bucketIndex(value));
+        interval.count.incrementAndGet();
+
+        long currentMax = interval.max.get();
+        while (value > currentMax && !interval.max.compareAndSet(currentMax, value)) {
+            currentMax = interval.max.get();
+        }
+    }
+
+
+    /**
+     * @return number of latencies recorded during the window
+     */
+    public long getCount() {
+        final long sequence = currentSequence();
+        long count = 0;
+        for (Interval interval : intervals) {
+            if (interval.isWithinWindow(sequence, intervals.length)) {
+                count += interval.count.get();
+            }
+        }
+        return count;
+    }
+
+
+    /**
+     * @return maximum latency recorded during the window expressed in microseconds
+     */
+    public long getMaxMicros() {
+        final long sequence = currentSequence();
+        long max = 0;
+        for (Interval interval : intervals) {
+            if (interval.isWithinWindow(sequence, intervals.length)) {
+                max = Math.max(max, interval.max.get());
+            }
+        }
+        return max;
+    }
+
+
+    /**
+     * Get a percentile of the latencies recorded during the window
+     *
+     * @param percentile percentile between 0 and 100
+     * @return upper bound of the bucket which holds the percentile expressed in microseconds,
+     * or zero if no latency has been recorded
+     */
+    public long getPercentileMicros(final double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100");
+        }
+
+        final long sequence = currentSequence();
+        final long[] bucketCounts = new long[BUCKETS];
+        long total = 0;
+        long max = 0;
+        for (Interval interval : intervals) {
+            if (!interval.isWithinWindow(sequence, intervals.length)) {
+                continue;
+            }
+            for (int i = 0; i < BUCKETS; i++) {
+                final long bucketCount = interval.bucketCounts.get(i);
+                bucketCounts[i] += bucketCount;
+                total += bucketCount;
+            }
+            max = Math.max(max, interval.max.get());
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        final long rank = Math.max(1L, (long) Math.ceil(percentile / 100 * total));
+        long accumulated = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            accumulated += bucketCounts[i];
+            if (accumulated >= rank) {
+                return Math.min(bucketUpperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+
+    /**
+     * @return a snapshot of latency percentiles during the window
+     */
+    public LatencySummary getSummary() {
+        return new LatencySummary(getPercentileMicros(50), getPercentileMicros(99), getMaxMicros(), getCount());
+    }
+
+
+    /**
+     * @return sequence number of the current interval
+     */
+    private long currentSequence() {
+        return Math.floorDiv(nanoClock.getAsLong(), intervalNanos);
+    }
+
+
+    /**
+     * @param value latency
+     * @return index of the bucket which holds the latency
+     */
+    static int bucketIndex(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+
+    /**
+     * @param index bucket index
+     * @return greatest latency held by the bucket
+     */
+    static long bucketUpperBound(final int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int shift = index / SUB_BUCKETS - 1;
+        final long lowerBound = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+
+
+    /**
+     * Latencies recorded during one interval of the window
+     */
+    private static final class Interval {
+
+        private final AtomicLongArray bucketCounts = new AtomicLongArray(BUCKETS);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+        private volatile long sequence = Long.MIN_VALUE;
+
+
+        /**
+         * Clear the interval so that it can be reused, unless another thread has already done it
+         *
+         * @param newSequence sequence number of the interval which reuses it
+         */
+        synchronized void reset(final long newSequence) {
+            if (sequence == newSequence) {
+                return;
+            }
+            for (int i = 0; i < BUCKETS; i++) {
+                bucketCounts.set(i, 0);
+            }
+            count.set(0);
+            max.set(0);
+            sequence = newSequence;
+        }
+
+
+        /**
+         * @param currentSequence sequence number of the current interval
+         * @param intervals       number of intervals of the window
+         * @return true if the latencies of the interval belong to the window
+         */
+        boolean isWithinWindow(final long currentSequence, final int intervals) {
+            final long intervalSequence = sequence;
+            return intervalSequence <= currentSequence && intervalSequence > currentSequence - intervals;
+        }
+    }
+}
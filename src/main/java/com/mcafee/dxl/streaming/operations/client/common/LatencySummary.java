@@ -0,0 +1,57 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.common;
+
+/**
+ * Snapshot of probe latency percentiles of a Kafka broker or Zookeeper node over a rolling window
+ */
+public final class LatencySummary {
+
+    private static final LatencySummary EMPTY = new LatencySummary(0, 0, 0, 0);
+
+    private final long p50Micros;
+    private final long p99Micros;
+    private final long maxMicros;
+    private final long count;
+
+
+    /**
+     * @param p50Micros median latency expressed in microseconds
+     * @param p99Micros 99th percentile latency expressed in microseconds
+     * @param maxMicros maximum latency expressed in microseconds
+     * @param count     number of recorded latencies
+     */
+    public LatencySummary(final long p50Micros, final long p99Micros, final long maxMicros, final long count) {
+        this.p50Micros = p50Micros;
+        this.p99Micros = p99Micros;
+        this.maxMicros = maxMicros;
+        this.count = count;
+    }
+
+
+    /**
+     * @return a summary without recorded latencies
+     */
+    public static LatencySummary empty() {
+        return EMPTY;
+    }
+
+
+    public long getP50Micros() {
+        return p50Micros;
+    }
+
+    public long getP99Micros() {
+        return p99Micros;
+    }
+
+    public long getMaxMicros() {
+        return maxMicros;
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.common;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * It schedules the polling commands of Kafka broker and Zookeeper node watchers.
+ * <p>
+ * A single instance can be shared by every watcher of one or more monitors, so the number of threads
+ * does not depend on the number of watched endpoints.
+ *
+ * @see ExecutorProbeScheduler
+ */
+public interface ProbeScheduler extends Executor, AutoCloseable {
+
+    /**
+     * Schedule a command that is executed once
+     *
+     * @param command command
+     * @param delayMs time in ms to delay the execution
+     * @return a {@link ScheduledFuture} to cancel the command
+     */
+    ScheduledFuture<?> schedule(Runnable command, long delayMs);
+
+    /**
+     * Stop the scheduler. Polling commands that have not been cancelled will not be executed anymore
+     */
+    @Override
+    void close();
+}
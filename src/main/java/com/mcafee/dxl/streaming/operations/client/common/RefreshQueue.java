@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.common;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * It runs the refresh requests of Kafka broker and Zookeeper node watchers on a bounded executor.
+ * <p>
+ * Requests of a refresh command which is already waiting to be executed are collapsed into that pending execution,
+ * so a burst of Zookeeper session events results in at most one pending refresh per command.
+ * A request received while the command is running causes a new execution afterwards.
+ */
+public final class RefreshQueue {
+
+    private final Executor executor;
+    private final Set<Runnable> pendingRefreshes = ConcurrentHashMap.newKeySet();
+    private final AtomicLong requestedRefreshes = new AtomicLong();
+    private final AtomicLong executedRefreshes = new AtomicLong();
+
+    /**
+     * @param executor bounded executor which runs the refresh commands
+     */
+    public RefreshQueue(final Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Refresh queue executor cannot be null");
+        }
+        this.executor = executor;
+    }
+
+
+    /**
+     * Request a refresh. Requests are collapsed by command instance, so callers must reuse the same
+     * {@link Runnable} instance for the same refresh.
+     *
+     * @param refresh refresh command
+     */
+    public void request(final Runnable refresh) {
+        requestedRefreshes.incrementAndGet();
+
+        if (!pendingRefreshes.add(refresh)) {
+            return; // Already pending
+        }
+
+        try {
+            executor.execute(() -> {
+                pendingRefreshes.remove(refresh);
+                executedRefreshes.incrementAndGet();
+                refresh.run();
+            });
+        } catch (RejectedExecutionException e) { // Executor has been stopped
+            pendingRefreshes.remove(refresh);
+        }
+    }
+
+
+    /**
+     * @return number of refreshes requested
+     */
+    public long getRequestedRefreshes() {
+        return requestedRefreshes.get();
+    }
+
+
+    /**
+     * @return number of refreshes executed. The difference with requested ones are collapsed or pending refreshes
+     */
+    public long getExecutedRefreshes() {
+        return executedRefreshes.get();
+    }
+}
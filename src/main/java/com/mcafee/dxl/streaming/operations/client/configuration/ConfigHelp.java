@@ -33,6 +33,34 @@ public final class ConfigHelp {
         }
     }
 
+    /**
+     * Get a property value as int. If it does not exists or it is zero, it returns the fallback value
+     *
+     * @param configuration Map of properties
+     * @param property name to be searched
+     * @param fallbackValue value returned when the property is not set or it is zero
+     * @return property value as int
+     * @throws IllegalArgumentException when the value is not a number
+     */
+    public static int getOrFallbackIntProperty(final Map<String, String> configuration,
+                                               final PropertyNames property,
+                                               final int fallbackValue) {
+        final int value = getOrDefaultIntProperty(configuration, property);
+        return value != 0 ? value : fallbackValue;
+    }
+
+    /**
+     * Get a property value as String. If it does not exists, it returns the default value
+     *
+     * @param configuration Map of properties
+     * @param property name to be searched
+     * @return property value as String
+     */
+    public static String getOrDefaultStringProperty(final Map<String, String> configuration,
+                                                    final PropertyNames property) {
+        return configuration.getOrDefault(property.getPropertyName(), property.getDefaultValue());
+    }
+
     /**
      * Get a property value as String. If it does not exists, it throws an exception
      *
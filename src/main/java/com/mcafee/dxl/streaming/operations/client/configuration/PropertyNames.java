@@ -65,6 +65,69 @@ public enum PropertyNames {
     ZK_NODE_POLL_INITIAL_DELAY_TIME_MS("zookeeper.node.poll.initial.delay.time.ms","0","The initial amount of time before " +
             "starting zookeeper broker polling expressed in ms"),
 
+    /**
+     * Zookeeper node polling min delay.
+     * It is the delay time in ms between Zookeeper node pollings right after the node status has changed or
+     * its response time has spiked. 0 means zookeeper.node.poll.delay.time.ms
+     * <p>
+     * Property Name: zookeeper.node.poll.min.delay.time.ms
+     * <p>
+     * Default Value: 0
+     */
+    ZK_NODE_POLL_MIN_DELAY_TIME_MS("zookeeper.node.poll.min.delay.time.ms","0","Zookeeper node polling time " +
+            "expressed in ms after a status change"),
+
+    /**
+     * Zookeeper node polling max delay.
+     * The delay time between Zookeeper node pollings is doubled on every polling that does not change the node status
+     * until it reaches this time in ms. 0 means zookeeper.node.poll.delay.time.ms
+     * <p>
+     * Property Name: zookeeper.node.poll.max.delay.time.ms
+     * <p>
+     * Default Value: 0
+     */
+    ZK_NODE_POLL_MAX_DELAY_TIME_MS("zookeeper.node.poll.max.delay.time.ms","0","Maximum zookeeper node polling time " +
+            "expressed in ms while the status is steady"),
+
+    /**
+     * Zookeeper node collection mode.
+     * stat: Zookeeper nodes are polled by the stat command.
+     * mntr: Zookeeper nodes are also polled by the mntr command, which reports metrics such as the approximate
+     * data size, watch count, open file descriptors, followers and pending syncs.
+     * <p>
+     * Property Name: zookeeper.node.collection.mode
+     * <p>
+     * Default Value: stat
+     */
+    ZK_NODE_COLLECTION_MODE("zookeeper.node.collection.mode","stat","Zookeeper node collection mode: " +
+            "stat or mntr"),
+
+    /**
+     * Zookeeper node history retention.
+     * Time in ms the statistics samples of a Zookeeper node are kept to query trends, such as the maximum
+     * outstanding requests over the last minutes. The history is sized from it and from
+     * zookeeper.node.poll.min.delay.time.ms, the shortest delay between samples. 0 disables the history.
+     * <p>
+     * Property Name: zookeeper.node.history.retention.ms
+     * <p>
+     * Default Value: 600000
+     */
+    ZK_NODE_HISTORY_RETENTION_MS("zookeeper.node.history.retention.ms","600000","Time expressed in ms the " +
+            "statistics samples of a zookeeper node are kept"),
+
+    /**
+     * Zookeeper node history capacity.
+     * Number of statistics samples kept per Zookeeper node. Once it is full, the oldest sample is overwritten,
+     * so it overrides zookeeper.node.history.retention.ms. 0 disables the history and -1 means that it is sized
+     * from zookeeper.node.history.retention.ms.
+     * <p>
+     * Property Name: zookeeper.node.history.capacity
+     * <p>
+     * Default Value: -1
+     */
+    ZK_NODE_HISTORY_CAPACITY("zookeeper.node.history.capacity","-1","Number of statistics samples " +
+            "kept per zookeeper node. -1 means sized from the retention"),
+
     /**
      * List of Kafka brokers endpoints
      * <p>
@@ -93,7 +156,197 @@ public enum PropertyNames {
      * Default Value: 0
      */
     KF_BROKER_POLL_INITIAL_DELAY_TIME_MS("kafka.broker.poll.initial.delay.time.ms","0","The initial amount of time before " +
-            "starting kafka broker polling expressed in ms");
+            "starting kafka broker polling expressed in ms"),
+
+    /**
+     * Kafka broker polling min delay.
+     * It is the delay time in ms between Kafka broker pollings right after the broker status has changed or
+     * its response time has spiked. 0 means kafka.broker.poll.delay.time.ms
+     * <p>
+     * Property Name: kafka.broker.poll.min.delay.time.ms
+     * <p>
+     * Default Value: 0
+     */
+    KF_BROKER_POLL_MIN_DELAY_TIME_MS("kafka.broker.poll.min.delay.time.ms","0","Kafka broker polling time " +
+            "expressed in ms after a status change"),
+
+    /**
+     * Kafka broker polling max delay.
+     * The delay time between Kafka broker pollings is doubled on every polling that does not change the broker status
+     * until it reaches this time in ms. 0 means kafka.broker.poll.delay.time.ms
+     * <p>
+     * Property Name: kafka.broker.poll.max.delay.time.ms
+     * <p>
+     * Default Value: 0
+     */
+    KF_BROKER_POLL_MAX_DELAY_TIME_MS("kafka.broker.poll.max.delay.time.ms","0","Maximum kafka broker polling time " +
+            "expressed in ms while the status is steady"),
+
+    /**
+     * Probe scheduler pool size.
+     * It is the number of threads shared by all Kafka broker or Zookeeper node watchers of a monitor to poll
+     * their endpoints. It is not used when a probe scheduler is injected by the client.
+     * <p>
+     * Property Name: monitor.probe.scheduler.pool.size
+     * <p>
+     * Default Value: 4
+     */
+    PROBE_SCHEDULER_POOL_SIZE("monitor.probe.scheduler.pool.size","4","Number of threads used to poll " +
+            "Kafka brokers or Zookeeper nodes"),
+
+    /**
+     * Kafka broker probe mode.
+     * connect: a Kafka broker is up if it accepts a TCP connection.
+     * request: a Kafka broker is up if it answers a Kafka protocol request sent over a persistent connection.
+     * It detects brokers which accept connections but do not serve requests. The request is only sent to plaintext
+     * endpoints: SSL and SASL endpoints are probed as in connect mode.
+     * <p>
+     * Property Name: kafka.broker.probe.mode
+     * <p>
+     * Default Value: connect
+     */
+    KF_BROKER_PROBE_MODE("kafka.broker.probe.mode","connect","Kafka broker probe mode: connect or request"),
+
+    /**
+     * Kafka broker slow probe threshold.
+     * When the probe mode is request, a Kafka broker whose response takes longer than this time in ms
+     * is reported as warning.
+     * <p>
+     * Property Name: kafka.broker.probe.slow.threshold.ms
+     * <p>
+     * Default Value: 500
+     */
+    KF_BROKER_PROBE_SLOW_THRESHOLD_MS("kafka.broker.probe.slow.threshold.ms","500","Kafka broker response time " +
+            "expressed in ms above which the broker is reported as warning"),
+
+    /**
+     * Kafka partition tracking.
+     * When it is true, the Kafka monitor keeps the under-replicated and offline partitions of the cluster. It reads
+     * every partition state once when it starts and sets a Zookeeper watch on each of them.
+     * <p>
+     * Property Name: kafka.partition.tracking.enabled
+     * <p>
+     * Default Value: false
+     */
+    KF_PARTITION_TRACKING_ENABLED("kafka.partition.tracking.enabled","false","Keep under-replicated and offline " +
+            "partitions by watching partition states"),
+
+    /**
+     * Flap confirmation count.
+     * Number of probes out of the last monitor.flap.confirmation.window ones that must observe a new Kafka broker or
+     * Zookeeper node status before the transition is notified.
+     * <p>
+     * Property Name: monitor.flap.confirmation.count
+     * <p>
+     * Default Value: 1
+     */
+    FLAP_CONFIRMATION_COUNT("monitor.flap.confirmation.count","1","Number of probes that must observe " +
+            "a new status to notify the transition"),
+
+    /**
+     * Flap confirmation window.
+     * Number of last probes considered to confirm a Kafka broker or Zookeeper node status transition.
+     * <p>
+     * Property Name: monitor.flap.confirmation.window
+     * <p>
+     * Default Value: 1
+     */
+    FLAP_CONFIRMATION_WINDOW("monitor.flap.confirmation.window","1","Number of last probes considered " +
+            "to confirm a status transition"),
+
+    /**
+     * Flap suppress threshold.
+     * Every Kafka broker or Zookeeper node status flap adds 1000 to a penalty that decays exponentially.
+     * Transitions are not notified while the penalty is above this threshold. 0 disables suppression.
+     * <p>
+     * Property Name: monitor.flap.suppress.threshold
+     * <p>
+     * Default Value: 0
+     */
+    FLAP_SUPPRESS_THRESHOLD("monitor.flap.suppress.threshold","0","Flap penalty above which status " +
+            "transitions are suppressed"),
+
+    /**
+     * Flap reuse threshold.
+     * Suppressed transitions are notified again once the flap penalty decays below this threshold.
+     * <p>
+     * Property Name: monitor.flap.reuse.threshold
+     * <p>
+     * Default Value: 750
+     */
+    FLAP_REUSE_THRESHOLD("monitor.flap.reuse.threshold","750","Flap penalty below which status " +
+            "transitions are not suppressed anymore"),
+
+    /**
+     * Flap penalty half-life.
+     * Time in ms for the flap penalty to decay by half.
+     * <p>
+     * Property Name: monitor.flap.half.life.ms
+     * <p>
+     * Default Value: 60000
+     */
+    FLAP_HALF_LIFE_MS("monitor.flap.half.life.ms","60000","Time expressed in ms for the flap penalty " +
+            "to decay by half"),
+
+    /**
+     * Topic service max in flight Zookeeper requests.
+     * Maximum number of asynchronous Zookeeper requests sent by batch topic operations without waiting for
+     * their responses.
+     * <p>
+     * Property Name: topic.zookeeper.max.in.flight.requests
+     * <p>
+     * Default Value: 1000
+     */
+    TOPIC_ZK_MAX_IN_FLIGHT_REQUESTS("topic.zookeeper.max.in.flight.requests","1000","Maximum number of " +
+            "outstanding Zookeeper requests of batch topic operations"),
+
+    /**
+     * Topic metadata cache capacity.
+     * Maximum number of topic configurations kept in memory by the topic service. The topic list and configurations
+     * are invalidated by Zookeeper watches. 0 disables the cache.
+     * <p>
+     * Property Name: topic.metadata.cache.capacity
+     * <p>
+     * Default Value: 0
+     */
+    TOPIC_METADATA_CACHE_CAPACITY("topic.metadata.cache.capacity","0","Number of topic configurations " +
+            "cached by the topic service"),
+
+    /**
+     * Topic deletion timeout.
+     * Time in ms after which topics marked for deletion by the topic service which still exist are reported as
+     * failed.
+     * <p>
+     * Property Name: topic.deletion.timeout.ms
+     * <p>
+     * Default Value: 300000
+     */
+    TOPIC_DELETION_TIMEOUT_MS("topic.deletion.timeout.ms","300000","Time in ms to wait for the deletion " +
+            "of topics"),
+
+    /**
+     * Topic reassignment timeout.
+     * Time in ms after which the topic service stops waiting for a partition reassignment and submits no further
+     * batch. The batch being moved is completed by the controller.
+     * <p>
+     * Property Name: topic.reassignment.timeout.ms
+     * <p>
+     * Default Value: 3600000
+     */
+    TOPIC_REASSIGNMENT_TIMEOUT_MS("topic.reassignment.timeout.ms","3600000","Time in ms to wait for a " +
+            "partition reassignment"),
+
+    /**
+     * Topic preferred leader election timeout.
+     * Time in ms after which the topic service stops waiting for preferred leader elections and submits no further
+     * batch. The batch being elected is completed by the controller.
+     * <p>
+     * Property Name: topic.preferred.election.timeout.ms
+     * <p>
+     * Default Value: 300000
+     */
+    TOPIC_PREFERRED_ELECTION_TIMEOUT_MS("topic.preferred.election.timeout.ms","300000","Time in ms to wait " +
+            "for preferred leader elections");
 
     private String propertyName;
     private String defaultValue;
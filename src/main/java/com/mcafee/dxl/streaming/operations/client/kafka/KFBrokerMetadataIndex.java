@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.kafka;
+
+import com.mcafee.dxl.streaming.operations.client.kafka.entities.KFBrokerMetadata;
+import kafka.cluster.Broker;
+import scala.collection.JavaConversions;
+
+import java.net.InetSocketAddress;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable index of Kafka broker metadata by endpoint host and port
+ * <p>
+ * It is built once every time the registered brokers change, so broker watchers look up their metadata
+ * in constant time instead of walking every broker endpoint on each poll.
+ * Metadata instances are shared by all broker watchers and must not be modified.
+ */
+public final class KFBrokerMetadataIndex {
+
+    /**
+     * Class constants
+     */
+    private static final KFBrokerMetadataIndex EMPTY_INDEX =
+            new KFBrokerMetadataIndex(Collections.<String, KFBrokerMetadata>emptyMap());
+
+    private final Map<String, KFBrokerMetadata> brokerMetadataByAddress;
+
+
+    private KFBrokerMetadataIndex(final Map<String, KFBrokerMetadata> brokerMetadataByAddress) {
+        this.brokerMetadataByAddress = brokerMetadataByAddress;
+    }
+
+
+    /**
+     * @return an index without brokers
+     */
+    public static KFBrokerMetadataIndex empty() {
+        return EMPTY_INDEX;
+    }
+
+
+    /**
+     * Build an index with an entry per broker endpoint
+     *
+     * @param brokers registered Kafka brokers
+     * @return broker metadata index
+     */
+    public static KFBrokerMetadataIndex build(final Collection<Broker> brokers) {
+        if (brokers.isEmpty()) {
+            return EMPTY_INDEX;
+        }
+
+        final Map<String, KFBrokerMetadata> brokerMetadataByAddress = new HashMap<>();
+        brokers.forEach(broker ->
+                JavaConversions.mapAsJavaMap(broker.endPoints())
+                        .forEach((protocol, endpoint) -> {
+                            final KFBrokerMetadata brokerMetadata = new KFBrokerMetadata(broker.id(),
+                                    endpoint.host(),
+                                    endpoint.port(),
+                                    endpoint.connectionString(),
+                                    protocol.name);
+                            brokerMetadataByAddress.put(toKey(endpoint.host(), endpoint.port()), brokerMetadata);
+                        })
+        );
+        return new KFBrokerMetadataIndex(Collections.unmodifiableMap(brokerMetadataByAddress));
+    }
+
+
+    /**
+     * Get the index key of a broker address. Callers that look up the same address repeatedly should keep it.
+     *
+     * @param kfBrokerAddress broker address
+     * @return index key
+     */
+    public static String toKey(final InetSocketAddress kfBrokerAddress) {
+        return toKey(kfBrokerAddress.getHostName(), kfBrokerAddress.getPort());
+    }
+
+
+    /**
+     * Get Kafka broker metadata for a specific address
+     *
+     * @param kfBrokerAddressKey address key got from {@link KFBrokerMetadataIndex#toKey(InetSocketAddress)}
+     * @return Kafka broker metadata or null if no broker endpoint matches the address
+     */
+    public KFBrokerMetadata get(final String kfBrokerAddressKey) {
+        return brokerMetadataByAddress.get(kfBrokerAddressKey);
+    }
+
+
+    /**
+     * @return number of indexed broker endpoints
+     */
+    public int size() {
+        return brokerMetadataByAddress.size();
+    }
+
+
+    private static String toKey(final String host, final int port) {
+        return host + ":" + port;
+    }
+}
@@ -0,0 +1,40 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.kafka;
+
+/**
+ * It enumerates the ways a Kafka broker watcher checks whether a Kafka broker is healthy
+ */
+public enum KFBrokerProbeModeName {
+
+    /**
+     * Kafka broker is healthy if it accepts a TCP connection
+     */
+    CONNECT,
+
+    /**
+     * Kafka broker is healthy if it answers a Kafka protocol request sent over a persistent connection.
+     * Slow responses are reported as warning.
+     * <p>
+     * The request is only sent to brokers registered with a plaintext endpoint at the probed address. SSL and SASL
+     * endpoints and brokers which are not registered yet are probed as in {@link #CONNECT} mode.
+     */
+    REQUEST;
+
+
+    /**
+     * @param probeMode probe mode name, case insensitive
+     * @return probe mode
+     * @throws IllegalArgumentException if the name does not match any probe mode
+     */
+    public static KFBrokerProbeModeName fromName(final String probeMode) {
+        for (KFBrokerProbeModeName mode : values()) {
+            if (mode.name().equalsIgnoreCase(probeMode)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Invalid Kafka broker probe mode: " + probeMode);
+    }
+}
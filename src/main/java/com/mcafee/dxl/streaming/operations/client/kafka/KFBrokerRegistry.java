@@ -0,0 +1,207 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.kafka;
+
+import com.mcafee.dxl.streaming.operations.client.kafka.entities.KFBrokerMetadata;
+import kafka.cluster.Broker;
+import kafka.common.KafkaException;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.ZooKeeper;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * It keeps the Kafka brokers registered in Zookeeper
+ * <p>
+ * It is owned by {@link KFClusterWatcher}, which refreshes it by using its own Zookeeper session every time
+ * a broker znode has appeared/disappeared. {@link KFBrokerWatcher} instances read their metadata from it
+ * without touching Zookeeper, through a {@link KFBrokerMetadataIndex} which is rebuilt only when the registered
+ * brokers change.
+ * <p>
+ * A broker whose registration has changed stays registered until it is read again, so it is never reported as
+ * unregistered while it is being refreshed. Only the deletion of its znode removes it.
+ */
+public final class KFBrokerRegistry {
+
+    /**
+     * Class constants
+     */
+    static final String KAFKA_BROKERS_ZNODE_PATH = "/brokers/ids";
+
+    /**
+     * Registered Kafka brokers by broker id
+     */
+    private final ConcurrentMap<Integer, Broker> registeredBrokers = new ConcurrentHashMap<>();
+
+    /**
+     * Registered brokers which must be read again in the next refresh
+     */
+    private final Set<Integer> staleBrokers = new HashSet<>();
+
+    /**
+     * Broker metadata index by endpoint address. It is replaced every time registered brokers change
+     */
+    private volatile KFBrokerMetadataIndex brokerMetadataIndex = KFBrokerMetadataIndex.empty();
+
+
+    /**
+     * Read the broker ids registered under /brokers/ids and set a child watcher on it.
+     * Only brokers which were not known yet or were invalidated are read from Zookeeper, the ones that have gone
+     * are removed.
+     * <p>
+     * Zookeeper events are sent to the default watcher of the given connection.
+     *
+     * @param zkClient Zookeeper connection
+     * @throws KeeperException      if Zookeeper is off line
+     * @throws InterruptedException if the thread is interrupted
+     */
+    public synchronized void refresh(final ZooKeeper zkClient) throws KeeperException, InterruptedException {
+        final List<String> brokerIds = zkClient.getChildren(KAFKA_BROKERS_ZNODE_PATH, true);
+
+        final Set<Integer> currentBrokerIds = new HashSet<>();
+        brokerIds.forEach(brokerId -> currentBrokerIds.add(Integer.valueOf(brokerId)));
+        boolean hasChanged = registeredBrokers.keySet().retainAll(currentBrokerIds);
+
+        staleBrokers.retainAll(currentBrokerIds);
+
+        for (Integer brokerId : currentBrokerIds) {
+            if (!registeredBrokers.containsKey(brokerId) || staleBrokers.contains(brokerId)) {
+                hasChanged |= readBroker(zkClient, brokerId);
+                staleBrokers.remove(brokerId);
+            }
+        }
+
+        if (hasChanged) {
+            rebuildIndex();
+        }
+    }
+
+
+    /**
+     * Mark a broker registration as changed. It is kept until it is read again in the next
+     * {@link KFBrokerRegistry#refresh(ZooKeeper)}
+     *
+     * @param znodePath path of the broker znode which has changed
+     */
+    public synchronized void invalidate(final String znodePath) {
+        final Integer brokerId = toBrokerId(znodePath);
+        if (brokerId != null && registeredBrokers.containsKey(brokerId)) {
+            staleBrokers.add(brokerId);
+        }
+    }
+
+
+    /**
+     * Mark all broker registrations as changed, for instance because the data watches of an expired Zookeeper
+     * session are lost. They are kept until they are read again in the next
+     * {@link KFBrokerRegistry#refresh(ZooKeeper)}
+     */
+    public synchronized void invalidateAll() {
+        staleBrokers.addAll(registeredBrokers.keySet());
+    }
+
+
+    /**
+     * Forget a broker registration
+     *
+     * @param znodePath path of the broker znode which has been deleted
+     */
+    public synchronized void remove(final String znodePath) {
+        final Integer brokerId = toBrokerId(znodePath);
+        if (brokerId == null) {
+            return;
+        }
+        staleBrokers.remove(brokerId);
+        if (registeredBrokers.remove(brokerId) != null) {
+            rebuildIndex();
+        }
+    }
+
+
+    /**
+     * Get Kafka broker metadata for a specific address
+     *
+     * @param kfBrokerAddress address to look for
+     * @return Kafka broker metadata. If the broker is not registered, it returns an empty metadata
+     */
+    public KFBrokerMetadata getBrokerMetadata(final InetSocketAddress kfBrokerAddress) {
+        return getBrokerMetadata(KFBrokerMetadataIndex.toKey(kfBrokerAddress));
+    }
+
+
+    /**
+     * Get Kafka broker metadata for a specific address key
+     *
+     * @param kfBrokerAddressKey address key got from {@link KFBrokerMetadataIndex#toKey(InetSocketAddress)}
+     * @return Kafka broker metadata. If the broker is not registered, it returns an empty metadata
+     */
+    public KFBrokerMetadata getBrokerMetadata(final String kfBrokerAddressKey) {
+        final KFBrokerMetadata brokerMetadata = brokerMetadataIndex.get(kfBrokerAddressKey);
+        return brokerMetadata != null ? brokerMetadata : new KFBrokerMetadata();
+    }
+
+
+    /**
+     * @return current broker metadata index
+     */
+    public KFBrokerMetadataIndex getBrokerMetadataIndex() {
+        return brokerMetadataIndex;
+    }
+
+
+    /**
+     * Replace the broker metadata index with a new one built from the registered brokers
+     */
+    private synchronized void rebuildIndex() {
+        brokerMetadataIndex = KFBrokerMetadataIndex.build(registeredBrokers.values());
+    }
+
+
+    /**
+     * Read a broker registration and set a data watcher on it, so that a broker re-registration is noticed
+     *
+     * @param zkClient Zookeeper connection
+     * @param brokerId broker id
+     * @return true if the registered brokers have changed
+     * @throws KeeperException      if Zookeeper is off line
+     * @throws InterruptedException if the thread is interrupted
+     */
+    private boolean readBroker(final ZooKeeper zkClient, final Integer brokerId)
+            throws KeeperException, InterruptedException {
+        try {
+            final byte[] brokerInfo = zkClient.getData(KAFKA_BROKERS_ZNODE_PATH + "/" + brokerId, true, null);
+            registeredBrokers.put(brokerId,
+                    Broker.createBroker(brokerId, new String(brokerInfo, StandardCharsets.UTF_8)));
+            return true;
+        } catch (KeeperException.NoNodeException e) {
+            // Broker has gone between reading the ids and its registration
+        } catch (KafkaException e) {
+            // Broker registration cannot be parsed, it is considered not registered
+        }
+        return registeredBrokers.remove(brokerId) != null;
+    }
+
+
+    /**
+     * @param znodePath znode path
+     * @return id of the broker registered at znodePath, or null if it is not a broker znode
+     */
+    private static Integer toBrokerId(final String znodePath) {
+        if (znodePath == null || !znodePath.startsWith(KAFKA_BROKERS_ZNODE_PATH + "/")) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(znodePath.substring(KAFKA_BROKERS_ZNODE_PATH.length() + 1));
+        } catch (NumberFormatException e) {
+            return null; // Not a broker znode
+        }
+    }
+}
@@ -15,7 +15,8 @@ public enum KFBrokerStatusName {
     UP,
 
     /**
-     * Kafka broker endpoint is reachable but it is not registered in Zookeeper
+     * Kafka broker endpoint is reachable but it is not registered in Zookeeper,
+     * or it answers requests slowly when probe mode is {@link KFBrokerProbeModeName#REQUEST}
      */
     WARNING,
 
@@ -4,23 +4,27 @@
 
 package com.mcafee.dxl.streaming.operations.client.kafka;
 
-import com.mcafee.dxl.streaming.operations.client.common.ClusterConnection;
-import com.mcafee.dxl.streaming.operations.client.common.ClusterTools;
-import com.mcafee.dxl.streaming.operations.client.configuration.PropertyNames;
+import com.mcafee.dxl.streaming.operations.client.common.AdaptiveProbeInterval;
+import com.mcafee.dxl.streaming.operations.client.common.ConnectProber;
+import com.mcafee.dxl.streaming.operations.client.common.EndpointProber;
+import com.mcafee.dxl.streaming.operations.client.common.ExecutorProbeScheduler;
+import com.mcafee.dxl.streaming.operations.client.common.FlapDamper;
+import com.mcafee.dxl.streaming.operations.client.common.FlapDampingPolicy;
+import com.mcafee.dxl.streaming.operations.client.common.LatencyHistogram;
+import com.mcafee.dxl.streaming.operations.client.common.LatencySummary;
+import com.mcafee.dxl.streaming.operations.client.common.ProbeScheduler;
+import com.mcafee.dxl.streaming.operations.client.common.RefreshQueue;
 import com.mcafee.dxl.streaming.operations.client.exception.KFMonitorException;
 import com.mcafee.dxl.streaming.operations.client.kafka.entities.KFBrokerMetadata;
 import com.mcafee.dxl.streaming.operations.client.zookeeper.ZKClusterStatusName;
-import kafka.cluster.Broker;
-import scala.collection.JavaConversions;
 
 import java.net.InetSocketAddress;
-import java.net.Socket;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -34,27 +38,69 @@ public final class KFBrokerWatcher {
      * Class constants
      */
     private static final int SOCKET_CONNECTION_TIMEOUT = 1500;
-    private static final long WATCHER_AWAIT_TERMINATION_MS = 200L;
+    private static final int INITIAL_PROBE_WAIT_MS = 2 * SOCKET_CONNECTION_TIMEOUT;
 
     /**
      * They are used to poll kafka broker server
      */
-    private final int kfNodePollingDelay;
+    private final AdaptiveProbeInterval kfNodePollingInterval;
     private final int kfNodePollingInitialDelay;
-    private final ScheduledExecutorService executor;
-    private ScheduledFuture<?> executorController;
+    private final ProbeScheduler probeScheduler;
+    private final boolean isProbeSchedulerOwner;
+    private volatile ScheduledFuture<?> executorController;
+    private volatile boolean isStopped = false;
+
+    /**
+     * It is used to probe kafka broker server without blocking a thread
+     */
+    private final EndpointProber endpointProber;
+    private final boolean isEndpointProberOwner;
+    private final AtomicBoolean isProbing = new AtomicBoolean(false);
+
+    /**
+     * Probe which sets the initial status when monitoring starts
+     */
+    private volatile CompletableFuture<?> initialProbe = CompletableFuture.completedFuture(null);
+
+    /**
+     * Latency of the probes answered by the broker
+     */
+    private final LatencyHistogram probeLatency = new LatencyHistogram();
+
+    /**
+     * Probe latency above which the broker is reported as warning. Zero means that latency is not checked
+     */
+    private final long slowProbeThresholdNanos;
+
+    /**
+     * Queue shared by broker watchers to run status and metadata refreshes requested by Zookeeper events
+     */
+    private final RefreshQueue refreshQueue;
+    private final Runnable statusRefresh = () -> probeStatus();
+    private final Runnable metadataRefresh = () -> updateMetadataSync();
 
     /**
      * Broker watcher address
      */
     private InetSocketAddress kfBrokerAddress;
 
+    /**
+     * Broker watcher address key used to look up its metadata in the broker registry
+     */
+    private final String kfBrokerAddressKey;
+
     /**
      * Broker watcher status
      */
     private AtomicReference<KFBrokerStatusName> kfBrokerStatus =
             new AtomicReference<>(KFBrokerStatusName.DOWN);
 
+    /**
+     * It damps broker status transitions before notifying the client. It is replaced once the initial status is known
+     */
+    private final FlapDampingPolicy flapDampingPolicy;
+    private volatile FlapDamper<KFBrokerStatusName> statusDamper;
+
     /**
      * Broker watcher metadata
      */
@@ -67,45 +113,76 @@ public final class KFBrokerWatcher {
     private KFMonitorCallback kfMonitorListener;
 
     /**
-     * Zookeeper connection fields
+     * Registered Kafka brokers shared by all broker watchers of the cluster
+     */
+    private final KFBrokerRegistry kfBrokerRegistry;
+
+    /**
+     * Zookeeper cluster status
      */
-    private String zkConnectionString;
-    private int zkSessionTimeout;
     private AtomicReference<ZKClusterStatusName> zkClusterStatus =
             new AtomicReference<>(ZKClusterStatusName.NO_QUORUM);
 
 
     /**
-     * Creates a instance
+     * Creates a watcher that probes the Kafka broker by connecting to it, by using its own single thread scheduler
      *
      * @param kfMonitorListener         {@link KFMonitorCallback} instance to notify clients when a broker change
-     * @param kfBrokerAddress           List of kafka broker addresses
-     * @param zkConnectionString        Coma-separated list of Zookeepers host
-     * @param zkSessionTimeout          Zookeeper session timeout
+     * @param kfBrokerAddress           Kafka broker address
+     * @param kfBrokerRegistry          Registered Kafka brokers, used to look up broker metadata
      * @param kfNodePollingDelay        Amount of time to poll Kafka broker expressed in ms
      * @param kfNodePollingInitialDelay Amount of time expressed in ms before starting Kafka broker poll
      */
     public KFBrokerWatcher(final KFMonitorCallback kfMonitorListener,
                            final InetSocketAddress kfBrokerAddress,
-                           final String zkConnectionString,
-                           final int zkSessionTimeout,
+                           final KFBrokerRegistry kfBrokerRegistry,
                            final int kfNodePollingDelay,
                            final int kfNodePollingInitialDelay) {
-
-        validateArguments(kfMonitorListener,
+        this(kfMonitorListener,
                 kfBrokerAddress,
-                zkConnectionString,
-                kfNodePollingDelay,
-                kfNodePollingInitialDelay);
+                kfBrokerRegistry,
+                new KFBrokerWatcherOptions(kfNodePollingDelay, kfNodePollingInitialDelay));
+    }
+
+
+    /**
+     * Creates a watcher according to its options. See {@link KFBrokerWatcherOptions} for the optional settings.
+     *
+     * @param kfMonitorListener {@link KFMonitorCallback} instance to notify clients when a broker change
+     * @param kfBrokerAddress   Kafka broker address
+     * @param kfBrokerRegistry  Registered Kafka brokers, used to look up broker metadata
+     * @param options           polling delays, shared components and status settings of the watcher
+     */
+    public KFBrokerWatcher(final KFMonitorCallback kfMonitorListener,
+                           final InetSocketAddress kfBrokerAddress,
+                           final KFBrokerRegistry kfBrokerRegistry,
+                           final KFBrokerWatcherOptions options) {
+
+        validateArguments(kfMonitorListener, kfBrokerAddress, kfBrokerRegistry, options);
+
+        final ProbeScheduler probeScheduler = options.getProbeScheduler();
+        final EndpointProber endpointProber = options.getEndpointProber();
 
         this.kfMonitorListener = kfMonitorListener;
-        this.kfNodePollingDelay = kfNodePollingDelay;
-        this.kfNodePollingInitialDelay = kfNodePollingInitialDelay;
+        this.kfNodePollingInterval = new AdaptiveProbeInterval(options.getPollingDelay(),
+                options.getPollingMinDelay(),
+                options.getPollingMaxDelay());
+        this.kfNodePollingInitialDelay = options.getPollingInitialDelay();
         this.kfBrokerAddress = kfBrokerAddress;
-        this.executor = Executors.newScheduledThreadPool(1);
-        this.zkConnectionString = zkConnectionString;
-        this.zkSessionTimeout = zkSessionTimeout;
-        getAndSetStatus();
+        this.kfBrokerAddressKey = KFBrokerMetadataIndex.toKey(kfBrokerAddress);
+        this.isProbeSchedulerOwner = probeScheduler == null;
+        this.probeScheduler = isProbeSchedulerOwner ? new ExecutorProbeScheduler(1) : probeScheduler;
+        this.kfBrokerRegistry = kfBrokerRegistry;
+        this.isEndpointProberOwner = endpointProber == null;
+        this.endpointProber = isEndpointProberOwner
+                ? new ConnectProber(kfBrokerAddress.getHostString())
+                : endpointProber;
+        this.slowProbeThresholdNanos = TimeUnit.MILLISECONDS.toNanos(options.getSlowProbeThresholdMs());
+        this.refreshQueue = options.getRefreshQueue() == null
+                ? new RefreshQueue(this.probeScheduler)
+                : options.getRefreshQueue();
+        this.flapDampingPolicy = options.getFlapDampingPolicy();
+        this.statusDamper = flapDampingPolicy.newDamper(kfBrokerStatus.get());
     }
 
     /**
@@ -125,13 +202,52 @@ public final class KFBrokerWatcher {
      * @throws KFMonitorException if {@link KFBrokerWatcher#startMonitoring()} has been not been called
      */
     public KFBrokerStatusName getStatus() {
-        if (executor.isShutdown()) {
+        if (isStopped) {
             throw new KFMonitorException("Kafka broker watcher has not been started", null, this.getClass());
         }
 
         return kfBrokerStatus.get();
     }
 
+    /**
+     * Get the current delay between Kafka broker polls. It grows while the broker status is steady and drops
+     * after a status change or a probe latency spike.
+     *
+     * @return delay expressed in ms between Kafka broker polls
+     */
+    public long getProbeIntervalMs() {
+        return kfNodePollingInterval.getDelayMs();
+    }
+
+    /**
+     * @return number of probes done to Kafka broker
+     */
+    public long getProbeCount() {
+        return kfNodePollingInterval.getProbeCount();
+    }
+
+    /**
+     * @return latency percentiles of the probes answered by Kafka broker during the last five minutes
+     */
+    public LatencySummary getProbeLatency() {
+        return probeLatency.getSummary();
+    }
+
+    /**
+     * @return number of confirmed Kafka broker status transitions which have not been notified because the broker
+     * is flapping
+     */
+    public long getSuppressedTransitionCount() {
+        return statusDamper.getSuppressedTransitionCount();
+    }
+
+    /**
+     * @return number of probes whose status differed from the notified one but did not confirm a transition
+     */
+    public long getUnconfirmedObservationCount() {
+        return statusDamper.getUnconfirmedObservationCount();
+    }
+
     /**
      * Get Kafka broker address
      * <p>
@@ -146,6 +262,8 @@ public final class KFBrokerWatcher {
     /**
      * It starts to monitor a Kafka broker
      * <p>
+     * The broker is probed right away without blocking the caller to set its initial status, which is not notified
+     * to the client. Until then the status is DOWN. See {@link KFBrokerWatcher#awaitInitialStatus()}.
      * Calls this method more than once will not have effect.
      */
     public void startMonitoring() {
@@ -153,80 +271,186 @@ public final class KFBrokerWatcher {
             return;
         }
 
-        this.executorController = executor.scheduleWithFixedDelay(pollingCommand(),
-                kfNodePollingInitialDelay,
-                kfNodePollingDelay,
-                TimeUnit.MILLISECONDS);
+        if (isEndpointProberOwner) {
+            endpointProber.start();
+        }
+        this.initialProbe = probeInitialStatus();
+        this.executorController = probeScheduler.schedule(pollingCommand(), kfNodePollingInitialDelay);
+    }
+
+    /**
+     * It waits until the initial probe started by {@link KFBrokerWatcher#startMonitoring()} has set the initial
+     * status. The wait is bounded because the probe expires after its connection timeout.
+     */
+    public void awaitInitialStatus() {
+        try {
+            initialProbe.get(INITIAL_PROBE_WAIT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // The status is updated by the next poll
+        }
     }
 
     /**
-     * It stops Kafka broker monitor
+     * It stops Kafka broker monitor. The probe scheduler and the endpoint prober are stopped only if they are owned
+     * by this watcher.
      * <p>
      * Calls this method more than once will not have effect.
      */
     public void stopMonitoring() {
 
-        if (executorController != null) {
-            executorController.cancel(true);
+        isStopped = true;
+
+        final ScheduledFuture<?> pollingController = executorController;
+        if (pollingController != null) {
+            pollingController.cancel(true);
             executorController = null;
         }
 
-        try {
-            executor.shutdown();
-            executor.awaitTermination(WATCHER_AWAIT_TERMINATION_MS, TimeUnit.MILLISECONDS);
-        } catch (Exception e) {
-        } finally {
-            if (!executor.isTerminated()) {
-                executor.shutdownNow();
-            }
-            initializeBrokerMetadata();
+        if (isProbeSchedulerOwner) {
+            probeScheduler.close();
+        }
+
+        if (isEndpointProberOwner) {
+            endpointProber.close();
         }
+
+        initializeBrokerMetadata();
     }
 
     /**
-     * It is called periodically by {@link KFBrokerWatcher#startMonitoring()} method to verify broker node status
+     * It is called periodically by {@link KFBrokerWatcher#startMonitoring()} method to verify broker node status.
+     * Once the probe has finished, the next poll is scheduled according to the current polling interval.
      *
      * @return {@link Runnable}
      */
     private Runnable pollingCommand() {
-        return () -> emitEventIfBrokerStatusHasChanged();
+        return () -> {
+            if (isStopped) {
+                return;
+            }
+            probeStatus().whenComplete((result, error) -> {
+                if (!isStopped) {
+                    executorController = probeScheduler.schedule(pollingCommand(), kfNodePollingInterval.getDelayMs());
+                }
+            });
+        };
     }
 
 
     /**
-     * Try to connect to Kafka broker server
-     * and set the new status according to the connection result. Additionally, updates broker metadata if
-     * Zookeeper cluster has quorum.
+     * Try to probe Kafka broker server without blocking the caller.
+     * Once the probe has finished, the new status is set, the client is notified if it has changed and
+     * the polling interval is updated.
+     * A new probe is not started while the previous one is still in progress.
      *
-     * @return {@link KFBrokerStatusName} that represents the previous status
+     * @return a future which completes once the probe has finished
      */
-    private KFBrokerStatusName getAndSetStatus() {
-        KFBrokerStatusName kfBrokerPreviousStatus;
+    private CompletableFuture<?> probeStatus() {
+        if (!isProbing.compareAndSet(false, true)) {
+            return CompletableFuture.completedFuture(null);
+        }
 
-        final Socket socket = new Socket();
+        return endpointProber.probe(kfBrokerAddress, SOCKET_CONNECTION_TIMEOUT)
+                .whenCompleteAsync((probeLatencyNanos, error) -> {
+                    isProbing.set(false);
+                    if (error == null) {
+                        probeLatency.record(TimeUnit.NANOSECONDS.toMicros(probeLatencyNanos));
+                    }
+                    final boolean hasStatusChanged = emitEventIfBrokerStatusHasChanged(error == null,
+                            error == null && slowProbeThresholdNanos > 0 && probeLatencyNanos > slowProbeThresholdNanos);
+                    kfNodePollingInterval.onProbe(hasStatusChanged, error == null ? probeLatencyNanos : -1);
+                }, probeScheduler);
+    }
 
-        try {
-            socket.connect(kfBrokerAddress, SOCKET_CONNECTION_TIMEOUT);
-            socket.close();
-            updateMetadataSync();
-
-            if (kfBrokerMetadata.get().getConnectionString().isEmpty()) { // true means broker is not registered
-                kfBrokerPreviousStatus = this.kfBrokerStatus.getAndSet(KFBrokerStatusName.WARNING);
-            } else {
-                kfBrokerPreviousStatus = this.kfBrokerStatus.getAndSet(KFBrokerStatusName.UP);
-            }
-        } catch (Exception ex) {  // Broker is unreachable
-            kfBrokerPreviousStatus = this.kfBrokerStatus.getAndSet(KFBrokerStatusName.DOWN);
+
+    /**
+     * Probe Kafka broker server once without blocking the caller and set the initial status without notifying the
+     * client. Polls started meanwhile are skipped.
+     *
+     * @return a future which completes once the initial status has been set
+     */
+    private CompletableFuture<?> probeInitialStatus() {
+        isProbing.set(true);
+
+        return endpointProber.probe(kfBrokerAddress, SOCKET_CONNECTION_TIMEOUT)
+                .handle((probeLatencyNanos, error) -> {
+                    if (error == null) {
+                        probeLatency.record(TimeUnit.NANOSECONDS.toMicros(probeLatencyNanos));
+                    }
+                    setInitialStatus(error == null,
+                            error == null && slowProbeThresholdNanos > 0 && probeLatencyNanos > slowProbeThresholdNanos);
+                    kfNodePollingInterval.onProbe(false, error == null ? probeLatencyNanos : -1);
+                    isProbing.set(false);
+                    return null;
+                });
+    }
+
+
+    /**
+     * Set the initial status according to the probe result. Status transitions are damped from then on.
+     *
+     * @param isReachable true if Kafka broker server has answered the probe
+     * @param isSlow      true if Kafka broker server has answered the probe slower than expected
+     */
+    private synchronized void setInitialStatus(final boolean isReachable, final boolean isSlow) {
+        final KFBrokerStatusName kfBrokerObservedStatus = observeStatus(isReachable, isSlow);
+        statusDamper = flapDampingPolicy.newDamper(kfBrokerObservedStatus);
+        if (kfBrokerObservedStatus == KFBrokerStatusName.DOWN) {
+            initializeBrokerMetadata();
+        }
+        kfBrokerStatus.set(kfBrokerObservedStatus);
+    }
+
+
+    /**
+     * Set the new status according to the probe result once it has been damped. Additionally, updates broker
+     * metadata if Kafka broker is reachable.
+     *
+     * @param isReachable true if Kafka broker server has answered the probe
+     * @param isSlow      true if Kafka broker server has answered the probe slower than expected
+     * @return {@link KFBrokerStatusName} that represents the previous status
+     */
+    private KFBrokerStatusName getAndSetStatus(final boolean isReachable, final boolean isSlow) {
+        final KFBrokerStatusName kfBrokerNewStatus = statusDamper.onObservation(observeStatus(isReachable, isSlow));
+        if (kfBrokerNewStatus == KFBrokerStatusName.DOWN) {
             initializeBrokerMetadata();
         }
-        return kfBrokerPreviousStatus;
+        return this.kfBrokerStatus.getAndSet(kfBrokerNewStatus);
+    }
+
+    /**
+     * Get the status observed by a probe. Additionally, updates broker metadata if Kafka broker is reachable.
+     *
+     * @param isReachable true if Kafka broker server has answered the probe
+     * @param isSlow      true if Kafka broker server has answered the probe slower than expected
+     * @return observed {@link KFBrokerStatusName}
+     */
+    private KFBrokerStatusName observeStatus(final boolean isReachable, final boolean isSlow) {
+        if (!isReachable) {
+            return KFBrokerStatusName.DOWN;
+        }
+
+        updateMetadataSync();
+
+        // Empty connection string means broker is not registered
+        if (isSlow || kfBrokerMetadata.get().getConnectionString().isEmpty()) {
+            return KFBrokerStatusName.WARNING;
+        }
+        return KFBrokerStatusName.UP;
     }
 
     /**
      * Notify the client if Kafka broker status has changed
+     *
+     * @param isReachable true if Kafka broker server has answered the probe
+     * @param isSlow      true if Kafka broker server has answered the probe slower than expected
+     * @return true if the observed Kafka broker status has changed, even if the transition has been damped
      */
-    private synchronized void emitEventIfBrokerStatusHasChanged() {
-        final KFBrokerStatusName previousStatus = getAndSetStatus();
+    private synchronized boolean emitEventIfBrokerStatusHasChanged(final boolean isReachable, final boolean isSlow) {
+        final KFBrokerStatusName previousObservedStatus = statusDamper.getLastObservedStatus();
+        final KFBrokerStatusName previousStatus = getAndSetStatus(isReachable, isSlow);
         if (previousStatus != kfBrokerStatus.get()) {
             switch (kfBrokerStatus.get()) {
                 case UP:
@@ -241,16 +465,15 @@ public final class KFBrokerWatcher {
                 default:
             }
         }
-
+        return previousObservedStatus != statusDamper.getLastObservedStatus();
     }
 
     /**
-     * Update Kafka broker status in asynchronous way
+     * Update Kafka broker status in asynchronous way.
+     * Requests received before a pending update has started are collapsed into it.
      */
     public void updateStatusAsync() {
-        Runnable runnable = () -> emitEventIfBrokerStatusHasChanged();
-        Thread thread = new Thread(runnable);
-        thread.start();
+        refreshQueue.request(statusRefresh);
     }
 
     /**
@@ -258,15 +481,13 @@ public final class KFBrokerWatcher {
      *
      * @param kfMonitorListener
      * @param kfNodeAddress
-     * @param zkConnectionString
-     * @param kfNodePollingDelay
-     * @param kfNodePollingInitialDelay
+     * @param kfBrokerRegistry
+     * @param options
      */
     private void validateArguments(final KFMonitorCallback kfMonitorListener,
                                    final InetSocketAddress kfNodeAddress,
-                                   final String zkConnectionString,
-                                   final int kfNodePollingDelay,
-                                   final int kfNodePollingInitialDelay) {
+                                   final KFBrokerRegistry kfBrokerRegistry,
+                                   final KFBrokerWatcherOptions options) {
 
         if (kfMonitorListener == null) {
             throw new IllegalArgumentException("Kafka monitor listener cannot be null");
@@ -276,77 +497,62 @@ public final class KFBrokerWatcher {
             throw new IllegalArgumentException("Kafka address cannot be null");
         }
 
-        if (zkConnectionString == null) {
-            throw new IllegalArgumentException("Zookeeper connection string cannot be null");
+        if (kfBrokerRegistry == null) {
+            throw new IllegalArgumentException("Kafka broker registry cannot be null");
+        }
+
+        if (options == null) {
+            throw new IllegalArgumentException("Kafka broker watcher options cannot be null");
         }
 
+        final int kfNodePollingDelay = options.getPollingDelay();
+        final int kfNodePollingMinDelay = options.getPollingMinDelay();
+        final int kfNodePollingMaxDelay = options.getPollingMaxDelay();
+        final int kfNodePollingInitialDelay = options.getPollingInitialDelay();
+        final int slowProbeThresholdMs = options.getSlowProbeThresholdMs();
+        final FlapDampingPolicy flapDampingPolicy = options.getFlapDampingPolicy();
+
         if (kfNodePollingDelay <= 0) {
             throw new IllegalArgumentException("Kafka broker polling delay time must be greather than zero");
         }
 
+        if (kfNodePollingMinDelay <= 0 || kfNodePollingMinDelay > kfNodePollingDelay) {
+            throw new IllegalArgumentException("Kafka broker polling min delay time must be greather than zero " +
+                    "and less or equal than polling delay time");
+        }
+
+        if (kfNodePollingMaxDelay < kfNodePollingDelay) {
+            throw new IllegalArgumentException("Kafka broker polling max delay time must be greather or equal " +
+                    "than polling delay time");
+        }
+
         if (kfNodePollingInitialDelay < 0) {
             throw new IllegalArgumentException("Kafka broker polling initial delay time must be greather or equal than zero");
         }
-    }
 
+        if (slowProbeThresholdMs < 0) {
+            throw new IllegalArgumentException("Kafka broker slow probe threshold must be greather or equal than zero");
+        }
 
-    /**
-     * It spawns a new thread and update Kafka broker metadata
-     */
-    public void updateMetadataAsync() {
-        final Runnable runnable = () -> updateMetadataSync();
-        new Thread(runnable).start();
+        if (flapDampingPolicy == null) {
+            throw new IllegalArgumentException("Flap damping policy cannot be null");
+        }
     }
 
-    public void updateMetadataSync() {
-        final List<Broker> kafkaBrokers = getRegisteredKafkaBrokers();
-        kfBrokerMetadata.set(getBrokerMetadataByAddress(kafkaBrokers, kfBrokerAddress));
-    }
 
     /**
-     * Get a list of registered Kafka broker.
-     * If the connection has failed or any other exception is thrown, it return an empty list
-     *
-     * @return list of registered Kafka brokers
+     * Update Kafka broker metadata in asynchronous way.
+     * Requests received before a pending update has started are collapsed into it.
      */
-    private List<Broker> getRegisteredKafkaBrokers() {
-        try (ClusterConnection cnx = new ClusterConnection(zkConnectionString,
-                PropertyNames.ZK_CONNECTION_TIMEOUT_MS.getDefaultValue(),
-                String.valueOf(zkSessionTimeout))) {
-
-            final ClusterTools clusterTools = new ClusterTools();
-            return clusterTools.getKafkaBrokers(cnx.getConnection());
-        } catch (Exception e) {
-        }
-        return new ArrayList<>();
+    public void updateMetadataAsync() {
+        refreshQueue.request(metadataRefresh);
     }
 
     /**
-     * Get Kafka broker metadata for a specific address
-     *
-     * @param kafkaBrokers    list of registered Kafka brokers
-     * @param kfBrokerAddress address to look for
-     * @return Kafka broker metadata
+     * Update Kafka broker metadata from the registered Kafka brokers
      */
-    private KFBrokerMetadata getBrokerMetadataByAddress(final List<Broker> kafkaBrokers,
-                                                        final InetSocketAddress kfBrokerAddress) {
-
-        KFBrokerMetadata brokerMetadata = new KFBrokerMetadata();
-
-        kafkaBrokers.forEach(broker -> {
-            JavaConversions.mapAsJavaMap(broker.endPoints())
-                    .forEach((protocol, endpoint) -> {
-                        if (endpoint.host().equals(kfBrokerAddress.getHostName())
-                                && endpoint.port() == kfBrokerAddress.getPort()) {
-                            brokerMetadata.setBrokerId(broker.id());
-                            brokerMetadata.setHost(endpoint.host());
-                            brokerMetadata.setPort(endpoint.port());
-                            brokerMetadata.setConnectionString(endpoint.connectionString());
-                            brokerMetadata.setSecurityProtocol(protocol.name);
-                        }
-                    });
-        });
-        return brokerMetadata;
+    public void updateMetadataSync() {
+        kfBrokerMetadata.set(kfBrokerRegistry.getBrokerMetadata(kfBrokerAddressKey));
     }
 
 
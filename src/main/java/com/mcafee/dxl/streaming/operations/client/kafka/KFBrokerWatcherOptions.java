@@ -0,0 +1,160 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.kafka;
+
+import com.mcafee.dxl.streaming.operations.client.common.EndpointProber;
+import com.mcafee.dxl.streaming.operations.client.common.FlapDampingPolicy;
+import com.mcafee.dxl.streaming.operations.client.common.ProbeScheduler;
+import com.mcafee.dxl.streaming.operations.client.common.RefreshQueue;
+
+/**
+ * Optional settings of a {@link KFBrokerWatcher}
+ * <p>
+ * Only the polling delays are mandatory. Settings which are not set keep the behavior of a standalone watcher:
+ * fixed polling delay, no flap damping, no slow probe check, and its own scheduler, refresh queue and connect prober.
+ * <p>
+ * {@code
+ * KFBrokerWatcherOptions options = new KFBrokerWatcherOptions(1000, 100)   // mandatory args
+ *                                      .withPollingMaxDelay(5000)          // optional argument
+ *                                      .withProbeScheduler(probeScheduler); // optional argument
+ * }
+ */
+public final class KFBrokerWatcherOptions {
+
+    private final int pollingDelay;
+    private final int pollingInitialDelay;
+    private int pollingMinDelay;
+    private int pollingMaxDelay;
+    private ProbeScheduler probeScheduler = null;
+    private RefreshQueue refreshQueue = null;
+    private EndpointProber endpointProber = null;
+    private int slowProbeThresholdMs = 0;
+    private FlapDampingPolicy flapDampingPolicy = FlapDampingPolicy.disabled();
+
+
+    /**
+     * @param pollingDelay        Amount of time in ms to poll Kafka broker
+     * @param pollingInitialDelay Amount of initial time in ms before starting poll
+     */
+    public KFBrokerWatcherOptions(final int pollingDelay, final int pollingInitialDelay) {
+        this.pollingDelay = pollingDelay;
+        this.pollingInitialDelay = pollingInitialDelay;
+        this.pollingMinDelay = pollingDelay;
+        this.pollingMaxDelay = pollingDelay;
+    }
+
+
+    /**
+     * @param pollingMinDelay Amount of time in ms to poll Kafka broker after a status change or a response time
+     *                        spike. By default, it is the polling delay
+     * @return the current {@link KFBrokerWatcherOptions} instance
+     */
+    public KFBrokerWatcherOptions withPollingMinDelay(final int pollingMinDelay) {
+        this.pollingMinDelay = pollingMinDelay;
+        return this;
+    }
+
+
+    /**
+     * @param pollingMaxDelay Maximum amount of time in ms to poll Kafka broker while its status is steady.
+     *                        By default, it is the polling delay
+     * @return the current {@link KFBrokerWatcherOptions} instance
+     */
+    public KFBrokerWatcherOptions withPollingMaxDelay(final int pollingMaxDelay) {
+        this.pollingMaxDelay = pollingMaxDelay;
+        return this;
+    }
+
+
+    /**
+     * @param probeScheduler scheduler shared by broker watchers to poll Kafka brokers. If it is null, the watcher
+     *                       creates its own single thread scheduler
+     * @return the current {@link KFBrokerWatcherOptions} instance
+     */
+    public KFBrokerWatcherOptions withProbeScheduler(final ProbeScheduler probeScheduler) {
+        this.probeScheduler = probeScheduler;
+        return this;
+    }
+
+
+    /**
+     * @param refreshQueue queue shared by broker watchers to run asynchronous refreshes. If it is null, the
+     *                     watcher creates its own queue on top of the probe scheduler
+     * @return the current {@link KFBrokerWatcherOptions} instance
+     */
+    public KFBrokerWatcherOptions withRefreshQueue(final RefreshQueue refreshQueue) {
+        this.refreshQueue = refreshQueue;
+        return this;
+    }
+
+
+    /**
+     * @param endpointProber prober shared by broker watchers to probe Kafka brokers. It must be started by the
+     *                       caller. If it is null, the watcher creates its own connect prober
+     * @return the current {@link KFBrokerWatcherOptions} instance
+     */
+    public KFBrokerWatcherOptions withEndpointProber(final EndpointProber endpointProber) {
+        this.endpointProber = endpointProber;
+        return this;
+    }
+
+
+    /**
+     * @param slowProbeThresholdMs probe latency expressed in ms above which the broker is reported as warning.
+     *                             Zero, the default, means that probe latency is not checked
+     * @return the current {@link KFBrokerWatcherOptions} instance
+     */
+    public KFBrokerWatcherOptions withSlowProbeThreshold(final int slowProbeThresholdMs) {
+        this.slowProbeThresholdMs = slowProbeThresholdMs;
+        return this;
+    }
+
+
+    /**
+     * @param flapDampingPolicy policy used to damp broker status transitions before notifying the client
+     * @return the current {@link KFBrokerWatcherOptions} instance
+     */
+    public KFBrokerWatcherOptions withFlapDampingPolicy(final FlapDampingPolicy flapDampingPolicy) {
+        this.flapDampingPolicy = flapDampingPolicy;
+        return this;
+    }
+
+
+    int getPollingDelay() {
+        return pollingDelay;
+    }
+
+    int getPollingInitialDelay() {
+        return pollingInitialDelay;
+    }
+
+    int getPollingMinDelay() {
+        return pollingMinDelay;
+    }
+
+    int getPollingMaxDelay() {
+        return pollingMaxDelay;
+    }
+
+    ProbeScheduler getProbeScheduler() {
+        return probeScheduler;
+    }
+
+    RefreshQueue getRefreshQueue() {
+        return refreshQueue;
+    }
+
+    EndpointProber getEndpointProber() {
+        return endpointProber;
+    }
+
+    int getSlowProbeThresholdMs() {
+        return slowProbeThresholdMs;
+    }
+
+    FlapDampingPolicy getFlapDampingPolicy() {
+        return flapDampingPolicy;
+    }
+}
@@ -4,12 +4,19 @@
 
 package com.mcafee.dxl.streaming.operations.client.kafka;
 
+import com.mcafee.dxl.streaming.operations.client.common.ConnectProber;
+import com.mcafee.dxl.streaming.operations.client.common.EndpointProber;
+import com.mcafee.dxl.streaming.operations.client.common.ExecutorProbeScheduler;
+import com.mcafee.dxl.streaming.operations.client.common.FlapDampingPolicy;
 import com.mcafee.dxl.streaming.operations.client.common.HostAdapter;
+import com.mcafee.dxl.streaming.operations.client.common.ProbeScheduler;
+import com.mcafee.dxl.streaming.operations.client.common.RefreshQueue;
 import com.mcafee.dxl.streaming.operations.client.configuration.ConfigHelp;
 import com.mcafee.dxl.streaming.operations.client.configuration.PropertyNames;
 import com.mcafee.dxl.streaming.operations.client.kafka.entities.KFBroker;
 import com.mcafee.dxl.streaming.operations.client.kafka.entities.KFCluster;
 import com.mcafee.dxl.streaming.operations.client.zookeeper.ZKConnection;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.zookeeper.KeeperException;
 import org.apache.zookeeper.WatchedEvent;
 import org.apache.zookeeper.Watcher;
@@ -20,8 +27,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 /**
@@ -38,7 +43,6 @@ public final class KFClusterWatcher implements Watcher {
     /**
      * Class constants
      */
-    private static final String KAFKA_BROKERS_ZNODE_PATH = "/brokers/ids";
     private static final long WATCHER_SLEEP_TIME_MS = 5000;
 
 
@@ -48,6 +52,42 @@ public final class KFClusterWatcher implements Watcher {
     private ArrayList<KFBrokerWatcher> brokerWatchers = new ArrayList<>();
 
 
+    /**
+     * Kafka brokers registered in Zookeeper. It is shared by all brokers watcher
+     */
+    private final KFBrokerRegistry kfBrokerRegistry = new KFBrokerRegistry();
+
+
+    /**
+     * Scheduler used by brokers watcher to poll Kafka brokers.
+     * It is stopped along with this instance only if it was not provided by the client
+     */
+    private final ProbeScheduler probeScheduler;
+    private final boolean isProbeSchedulerOwner;
+
+
+    /**
+     * Prober used by brokers watcher to probe all Kafka brokers from a single thread.
+     * It is chosen according to {@link PropertyNames#KF_BROKER_PROBE_MODE} property
+     */
+    private final EndpointProber endpointProber;
+
+
+    /**
+     * Queue used to run the refreshes requested by Zookeeper events on the probe scheduler.
+     * Duplicated requests are collapsed.
+     */
+    private final RefreshQueue refreshQueue;
+    private final Runnable brokerRegistryRefresh = () -> refreshBrokerRegistry();
+
+
+    /**
+     * Under-replicated and offline partitions tracker. It is null if
+     * {@link PropertyNames#KF_PARTITION_TRACKING_ENABLED} property is false
+     */
+    private final KFPartitionTracker partitionTracker;
+
+
     /**
      * Zookeeper connection fields
      */
@@ -57,17 +97,26 @@ public final class KFClusterWatcher implements Watcher {
 
 
     /**
-     * Constructs a Kafka watcher instance that monitors Kafka cluster and notify clients when broker status has changed
+     * Constructs a Kafka watcher instance that monitors Kafka cluster and notify clients when broker status or
+     * the number of under-replicated or offline partitions has changed
      * <p>
      *
-     * @param configuration     Map containing configuration properties.
-     *                          {@link PropertyNames#KF_SERVERS} and {@link PropertyNames#KF_SERVERS} properties are mandatory.
-     * @param kfMonitorListener {@link KFMonitorCallback} instance implemented by client that wants to be notified when kafka broker
-     *                          status has changed
+     * @param configuration       Map containing configuration properties.
+     *                            {@link PropertyNames#KF_SERVERS} and {@link PropertyNames#KF_SERVERS} properties are mandatory.
+     * @param kfMonitorListener   {@link KFMonitorCallback} instance implemented by client that wants to be notified when kafka broker
+     *                            status has changed
+     * @param kfPartitionListener {@link KFPartitionCallback} instance implemented by client that wants to be notified
+     *                            when the number of under-replicated or offline partitions has changed. It is only
+     *                            notified if {@link PropertyNames#KF_PARTITION_TRACKING_ENABLED} property is true
+     * @param probeScheduler      {@link ProbeScheduler} instance used to poll Kafka brokers. It could be shared by several
+     *                            monitors. If it is null, a new one is created according to
+     *                            {@link PropertyNames#PROBE_SCHEDULER_POOL_SIZE} property
      * @throws IllegalArgumentException when any argument is null or required configuration is missing
      */
     public KFClusterWatcher(final Map<String, String> configuration,
-                            final KFMonitorCallback kfMonitorListener) {
+                            final KFMonitorCallback kfMonitorListener,
+                            final KFPartitionCallback kfPartitionListener,
+                            final ProbeScheduler probeScheduler) {
 
         if (configuration == null) {
             throw new IllegalArgumentException("Kafka watcher Configuration cannot be null");
@@ -86,11 +135,44 @@ public final class KFClusterWatcher implements Watcher {
         final int kfBrokerPollingInitialDelay = ConfigHelp
                 .getOrDefaultIntProperty(configuration, PropertyNames.KF_BROKER_POLL_INITIAL_DELAY_TIME_MS);
 
+        final int kfBrokerPollingMinDelay = ConfigHelp.getOrFallbackIntProperty(configuration,
+                PropertyNames.KF_BROKER_POLL_MIN_DELAY_TIME_MS, kfBrokerPollingDelay);
+
+        final int kfBrokerPollingMaxDelay = ConfigHelp.getOrFallbackIntProperty(configuration,
+                PropertyNames.KF_BROKER_POLL_MAX_DELAY_TIME_MS, kfBrokerPollingDelay);
+
         final String kfConnectionString = ConfigHelp
                 .getRequiredStringProperty(configuration, PropertyNames.KF_SERVERS);
 
         final List<InetSocketAddress> kfHostsAddress = HostAdapter.toList(kfConnectionString);
 
+        final int probeSchedulerPoolSize = ConfigHelp
+                .getOrDefaultIntProperty(configuration, PropertyNames.PROBE_SCHEDULER_POOL_SIZE);
+
+        final KFBrokerProbeModeName kfBrokerProbeMode = KFBrokerProbeModeName.fromName(ConfigHelp
+                .getOrDefaultStringProperty(configuration, PropertyNames.KF_BROKER_PROBE_MODE));
+
+        final int kfBrokerSlowProbeThreshold = kfBrokerProbeMode == KFBrokerProbeModeName.REQUEST
+                ? ConfigHelp.getOrDefaultIntProperty(configuration, PropertyNames.KF_BROKER_PROBE_SLOW_THRESHOLD_MS)
+                : 0;
+
+        final FlapDampingPolicy flapDampingPolicy = FlapDampingPolicy.fromConfiguration(configuration);
+
+        this.endpointProber = kfBrokerProbeMode == KFBrokerProbeModeName.REQUEST
+                ? new KFEndpointProber("kafka", kfBrokerRegistry)
+                : new ConnectProber("kafka");
+
+        this.isProbeSchedulerOwner = probeScheduler == null;
+        this.probeScheduler = Optional.ofNullable(probeScheduler)
+                .orElseGet(() -> new ExecutorProbeScheduler(probeSchedulerPoolSize));
+        this.refreshQueue = new RefreshQueue(this.probeScheduler);
+
+        final boolean kfPartitionTrackingEnabled = Boolean.parseBoolean(ConfigHelp
+                .getOrDefaultStringProperty(configuration, PropertyNames.KF_PARTITION_TRACKING_ENABLED));
+        this.partitionTracker = kfPartitionTrackingEnabled
+                ? new KFPartitionTracker(kfPartitionListener, this.probeScheduler)
+                : null;
+
         final KFMonitorCallback kfMonitorCallback = Optional.ofNullable(kfMonitorListener).orElse(new KFMonitorCallback() {
             @Override
             public void onBrokerUp(final String zkBrokerName) {
@@ -109,28 +191,51 @@ public final class KFClusterWatcher implements Watcher {
         });
 
         // Create Kafka broker watchers
+        final KFBrokerWatcherOptions brokerWatcherOptions =
+                new KFBrokerWatcherOptions(kfBrokerPollingDelay, kfBrokerPollingInitialDelay)
+                        .withPollingMinDelay(kfBrokerPollingMinDelay)
+                        .withPollingMaxDelay(kfBrokerPollingMaxDelay)
+                        .withProbeScheduler(this.probeScheduler)
+                        .withEndpointProber(endpointProber)
+                        .withSlowProbeThreshold(kfBrokerSlowProbeThreshold)
+                        .withFlapDampingPolicy(flapDampingPolicy)
+                        .withRefreshQueue(refreshQueue);
         brokerWatchers.addAll(kfHostsAddress
                 .stream()
                 .map(kfAddress -> new KFBrokerWatcher(kfMonitorCallback,
                         kfAddress,
-                        zkConnectionString,
-                        zkSessionTimeout,
-                        kfBrokerPollingDelay,
-                        kfBrokerPollingInitialDelay))
+                        kfBrokerRegistry,
+                        brokerWatcherOptions))
                 .collect(Collectors.toList()));
     }
 
 
+    /**
+     * Constructs a Kafka watcher instance that monitors Kafka cluster and notify clients when broker status has changed
+     * <p>
+     *
+     * @param configuration     Configuration properties.
+     * @param kfMonitorListener {@link KFMonitorCallback} instance implemented by client that wants to be notified when kafka broker
+     *                          status has changed
+     * @throws IllegalArgumentException when any argument is null or required configuration is missing
+     * @see KFClusterWatcher#KFClusterWatcher(Map, KFMonitorCallback, KFPartitionCallback, ProbeScheduler) for more details
+     */
+    public KFClusterWatcher(final Map<String, String> configuration,
+                            final KFMonitorCallback kfMonitorListener) {
+        this(configuration, kfMonitorListener, null, null);
+    }
+
+
     /**
      * Creates a Kafka watcher instance that monitors Kafka cluster.
      * <p>
      *
      * @param configuration Configuration properties.
      * @throws IllegalArgumentException when any argument is null or required configuration is missing
-     * @see KFClusterWatcher#KFClusterWatcher(Map, KFMonitorCallback) for more details
+     * @see KFClusterWatcher#KFClusterWatcher(Map, KFMonitorCallback, KFPartitionCallback, ProbeScheduler) for more details
      */
     public KFClusterWatcher(final Map<String, String> configuration) {
-        this(configuration, null);
+        this(configuration, null, null, null);
     }
 
 
@@ -139,6 +244,8 @@ public final class KFClusterWatcher implements Watcher {
      * <p>
      * This method should be called after creating a {@link KFClusterWatcher} instance
      * and before calling any other method. Calling this method more than once does not have effect.
+     * It returns once every broker has been probed, so broker status is accurate right away. Brokers are probed in
+     * parallel, so it takes at most a probe timeout.
      *
      * @throws com.mcafee.dxl.streaming.operations.client.exception.ConnectionException if zookeeper connection fails
      */
@@ -146,9 +253,13 @@ public final class KFClusterWatcher implements Watcher {
         if (zkClient != null) {
             return;
         }
-        brokerWatchers.forEach(brokerWatcher -> brokerWatcher.startMonitoring());
+        endpointProber.start();
         openZKConnection();
-        setupWatcherAsync();
+        loadBrokerRegistry();
+        // Brokers are probed in parallel, so their initial status is known before returning
+        brokerWatchers.forEach(brokerWatcher -> brokerWatcher.startMonitoring());
+        brokerWatchers.forEach(brokerWatcher -> brokerWatcher.awaitInitialStatus());
+        startPartitionTracker();
     }
 
 
@@ -160,7 +271,14 @@ public final class KFClusterWatcher implements Watcher {
      */
     public void stop() {
         brokerWatchers.forEach(brokerWatcher -> brokerWatcher.stopMonitoring());
+        endpointProber.close();
+        if (partitionTracker != null) {
+            partitionTracker.stop();
+        }
         closeConnection();
+        if (isProbeSchedulerOwner) {
+            probeScheduler.close();
+        }
     }
 
 
@@ -182,11 +300,49 @@ public final class KFClusterWatcher implements Watcher {
             final KFBroker kfBroker =
                     new KFBroker(brokerWatcher.getKfBrokerAddress().getHostName(),
                             brokerWatcher.getBrokerMetadata(),
-                            brokerWatcher.getStatus());
+                            brokerWatcher.getStatus(),
+                            brokerWatcher.getProbeIntervalMs(),
+                            brokerWatcher.getProbeCount(),
+                            brokerWatcher.getSuppressedTransitionCount(),
+                            brokerWatcher.getUnconfirmedObservationCount(),
+                            brokerWatcher.getProbeLatency());
             kfBrokers.add(kfBroker);
         });
 
-        return new KFCluster(getHealth(), kfBrokers);
+        return new KFCluster(getHealth(),
+                kfBrokers,
+                refreshQueue.getRequestedRefreshes(),
+                refreshQueue.getExecutedRefreshes(),
+                partitionTracker != null ? partitionTracker.getUnderReplicatedPartitionCount() : 0,
+                partitionTracker != null ? partitionTracker.getOfflinePartitionCount() : 0);
+    }
+
+
+    /**
+     * It returns the partitions which have a leader and fewer in-sync replicas than assigned.
+     *
+     * @return under-replicated partitions. It is empty if partition tracking is disabled
+     * @throws IllegalStateException if {@link KFClusterWatcher#start()} method was not called.
+     */
+    public List<TopicPartition> getUnderReplicatedPartitions() {
+        if (zkClient == null) {
+            throw new IllegalStateException("Kafka monitoring has not been started yet.");
+        }
+        return partitionTracker != null ? partitionTracker.getUnderReplicatedPartitions() : new ArrayList<>();
+    }
+
+
+    /**
+     * It returns the partitions which have no leader.
+     *
+     * @return offline partitions. It is empty if partition tracking is disabled
+     * @throws IllegalStateException if {@link KFClusterWatcher#start()} method was not called.
+     */
+    public List<TopicPartition> getOfflinePartitions() {
+        if (zkClient == null) {
+            throw new IllegalStateException("Kafka monitoring has not been started yet.");
+        }
+        return partitionTracker != null ? partitionTracker.getOfflinePartitions() : new ArrayList<>();
     }
 
 
@@ -246,17 +402,22 @@ public final class KFClusterWatcher implements Watcher {
         }
 
         if (event.getType() != Event.EventType.None) {
-            setupWatcherAsync(); // Must initialize the watcher because it is one-shot.
             switch (event.getType()) {
-                case NodeChildrenChanged:   // A kafka broker has appeared / disappeared
-                    updateBrokerStatus();   // Force to update brokers' status
+                case NodeDataChanged:       // A kafka broker has been registered again
+                    kfBrokerRegistry.invalidate(event.getPath());
+                    break;
+                case NodeDeleted:           // A kafka broker has disappeared
+                    kfBrokerRegistry.remove(event.getPath());
                     break;
 
                 default:
             }
+            setupWatcherAsync(); // Must initialize the watcher because it is one-shot. It updates brokers' status
         } else {
             switch (event.getState()) {
                 case SyncConnected:
+                    setupWatcherAsync();    // Reload registered brokers and update brokers' status
+                    break;
                 case Disconnected:
                     updateBrokerStatus();   // Force to update brokers' status
                     break;
@@ -302,42 +463,68 @@ public final class KFClusterWatcher implements Watcher {
     private void restartZKConnection() {
         closeConnection();
         openZKConnection();
+        kfBrokerRegistry.invalidateAll(); // Data watches of the expired session are lost
         setupWatcherAsync();
+        startPartitionTracker();
     }
 
+
     /**
-     * Try to setup a Zookeeper watcher for znode path where Kafka brokers are registered
-     * Kafka brokers are registered under /brokers/ids
-     * <p>
-     * If Zookeeer cluster has not quorum it will sleep for a while then will retry.
+     * Read all partition states again with the current Zookeeper connection, since watches of an expired session
+     * are lost
+     */
+    private void startPartitionTracker() {
+        if (partitionTracker != null) {
+            partitionTracker.start(zkClient);
+        }
+    }
+
+    /**
+     * Request to setup the Zookeeper watcher and refresh the registered brokers in asynchronous way.
+     * Requests received before a pending refresh has started are collapsed into it.
      */
     private void setupWatcherAsync() {
-        final ExecutorService executor = Executors.newSingleThreadExecutor();
-        executor.submit(() -> {
-            boolean isLooping = true;
-            while (isLooping) {
-                try {
-                    zkClient.getChildren(KAFKA_BROKERS_ZNODE_PATH, true); // Set the watcher
-                    isLooping = false;
-                } catch (KeeperException e) { // Zookeeper is off line
-                    justWait(WATCHER_SLEEP_TIME_MS);
-                } catch (InterruptedException e) {
-                    isLooping = false;
-                }
-            }
-        });
-        executor.shutdown();
+        refreshQueue.request(brokerRegistryRefresh);
+    }
+
+
+    /**
+     * Setup the Zookeeper watcher and load the registered brokers before probing them for the first time, so that
+     * registered brokers are not reported as warning. If Zookeeper cluster has not quorum it will retry in
+     * asynchronous way.
+     */
+    private void loadBrokerRegistry() {
+        try {
+            kfBrokerRegistry.refresh(zkClient); // Set the watcher
+        } catch (KeeperException e) { // Zookeeper is off line
+            setupWatcherAsync();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            setupWatcherAsync();
+        }
     }
 
 
     /**
-     * @param time period of time to sleep the thread
+     * Try to setup a Zookeeper watcher for znode path where Kafka brokers are registered
+     * and refresh the registered brokers. Kafka brokers are registered under /brokers/ids
+     * Once registered brokers have been refreshed, it asks Kafka brokers to update its status
+     * <p>
+     * If Zookeeer cluster has not quorum it will retry after a while.
      */
-    private void justWait(final long time) {
+    private void refreshBrokerRegistry() {
+        final ZooKeeper zooKeeper = zkClient;
+        if (zooKeeper == null) { // Monitoring has been stopped
+            return;
+        }
+
         try {
-            Thread.sleep(time);
+            kfBrokerRegistry.refresh(zooKeeper); // Set the watcher
+            updateBrokerStatus();
+        } catch (KeeperException e) { // Zookeeper is off line
+            probeScheduler.schedule(() -> setupWatcherAsync(), WATCHER_SLEEP_TIME_MS);
         } catch (InterruptedException e) {
-            // Do nothing
+            Thread.currentThread().interrupt();
         }
     }
 
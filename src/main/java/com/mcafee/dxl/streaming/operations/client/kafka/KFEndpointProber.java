@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.kafka;
+
+import com.mcafee.dxl.streaming.operations.client.common.ConnectProber;
+import com.mcafee.dxl.streaming.operations.client.common.EndpointProber;
+import org.apache.kafka.common.protocol.SecurityProtocol;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * It probes Kafka brokers with a Kafka protocol request when they are registered with a plaintext endpoint at the
+ * probed address, and by connecting otherwise.
+ * <p>
+ * {@link KFRequestProber} only speaks plaintext, so SSL and SASL endpoints would never answer its request and would
+ * be reported as down. Those endpoints, and brokers which are not registered yet, are probed as in
+ * {@link KFBrokerProbeModeName#CONNECT} mode instead, so slow responses are not detected for them.
+ * <p>
+ * {@link KFEndpointProber#start()} must be called before probing brokers.
+ */
+public final class KFEndpointProber implements EndpointProber {
+
+    private final KFBrokerRegistry kfBrokerRegistry;
+    private final EndpointProber requestProber;
+    private final EndpointProber connectProber;
+
+
+    /**
+     * @param name             it is used to name the prober threads
+     * @param kfBrokerRegistry registered Kafka brokers, used to look up the security protocol of the probed endpoint
+     */
+    public KFEndpointProber(final String name, final KFBrokerRegistry kfBrokerRegistry) {
+        if (kfBrokerRegistry == null) {
+            throw new IllegalArgumentException("Kafka broker registry cannot be null");
+        }
+        this.kfBrokerRegistry = kfBrokerRegistry;
+        this.requestProber = new KFRequestProber(name);
+        this.connectProber = new ConnectProber(name);
+    }
+
+
+    @Override
+    public void start() {
+        requestProber.start();
+        connectProber.start();
+    }
+
+
+    @Override
+    public CompletableFuture<Long> probe(final InetSocketAddress address, final int timeoutMs) {
+        final String securityProtocol = kfBrokerRegistry.getBrokerMetadata(address).getSecurityProtocol();
+        if (SecurityProtocol.PLAINTEXT.name.equals(securityProtocol)) {
+            return requestProber.probe(address, timeoutMs);
+        }
+        return connectProber.probe(address, timeoutMs);
+    }
+
+
+    @Override
+    public void close() {
+        requestProber.close();
+        connectProber.close();
+    }
+}
@@ -0,0 +1,24 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.kafka;
+
+
+/**
+ * It represents a client's callback. It should be implemented by clients
+ * that wants to receive notifications when the number of under-replicated or offline partitions has changed.
+ * Clients use an implementation of this to create a
+ * {@link com.mcafee.dxl.streaming.operations.client.KafkaMonitor} instance with partition tracking enabled
+ */
+public interface KFPartitionCallback {
+
+    /**
+     * It is called once all partitions have been read after the monitor has started or reconnected, and every time
+     * the counts change afterwards. Calls are not concurrent and always carry the latest counts.
+     *
+     * @param underReplicatedPartitionCount number of partitions with a leader and fewer in-sync replicas than assigned
+     * @param offlinePartitionCount         number of partitions without leader
+     */
+    void onPartitionStatusChanged(final int underReplicatedPartitionCount, final int offlinePartitionCount);
+}
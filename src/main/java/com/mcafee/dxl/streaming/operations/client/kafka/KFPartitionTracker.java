@@ -0,0 +1,502 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.kafka;
+
+import com.mcafee.dxl.streaming.operations.client.common.ProbeScheduler;
+import com.mcafee.dxl.streaming.operations.client.topic.TopicJson;
+import com.mcafee.dxl.streaming.operations.client.topic.TopicZKPaths;
+import com.mcafee.dxl.streaming.operations.client.topic.ZKPipeline;
+import com.mcafee.dxl.streaming.operations.client.topic.entities.PartitionDescription;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.WatchedEvent;
+import org.apache.zookeeper.Watcher;
+import org.apache.zookeeper.ZooKeeper;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * It keeps the under-replicated and offline partitions of a Kafka cluster
+ * <p>
+ * It is owned by {@link KFClusterWatcher}, which starts it with the Zookeeper session it shares with the broker
+ * registry, and starts it again with the new session when the session expires. All partition state znodes are read
+ * once with pipelined requests, which also set a data watch on each of them. Afterwards only the partitions whose
+ * state znode has changed are read again. New and deleted topics are followed through a child watch on the topics
+ * znode, and partitions reported by ISR change notifications are read again as well.
+ * <p>
+ * Partitions are kept in one bit set per topic, so the tracked sets do not box any partition. Deleted topics are
+ * forgotten. Reads which fail for other reason than a missing znode are retried after a while, since the watch of a
+ * znode is only set once it has been read.
+ */
+final class KFPartitionTracker implements Watcher {
+
+    /**
+     * Class constants
+     */
+    private static final int MAX_IN_FLIGHT_REQUESTS = 1000;
+    private static final long RETRY_DELAY_MS = 5000;
+    private static final String TOPIC_PATH_PREFIX = TopicZKPaths.BROKER_TOPICS_PATH + "/";
+    private static final String PARTITION_PATH = "/partitions/";
+    private static final String STATE_PATH = "/state";
+
+
+    private final KFPartitionCallback listener;
+    private final ProbeScheduler probeScheduler;
+
+
+    /**
+     * Existing topics whose assignment has been read, by topic name
+     */
+    private final Map<String, TrackedTopic> topics = new HashMap<>();
+    private final Set<String> isrChangeNotifications = new HashSet<>();
+    private int underReplicatedPartitionCount = 0;
+    private int offlinePartitionCount = 0;
+
+
+    /**
+     * Pipeline of the current Zookeeper session. It is null when the tracker is stopped
+     */
+    private ZKPipeline pipeline;
+
+
+    /**
+     * It is increased on every restart, so responses to reads of a previous session are discarded
+     */
+    private long generation = 0;
+
+
+    /**
+     * Reads which have not completed yet. The listener is not notified until the first time it reaches zero, so the
+     * initial scan is reported once
+     */
+    private int pendingReads = 0;
+    private boolean initialized = false;
+
+
+    /**
+     * Counts last reported to the listener and the generation they belong to. They are guarded by the notification
+     * lock, which is never taken while holding the tracker lock
+     */
+    private final Object notificationLock = new Object();
+    private final AtomicBoolean notificationRequested = new AtomicBoolean(false);
+    private long notifiedGeneration = -1;
+    private int notifiedUnderReplicatedPartitionCount = 0;
+    private int notifiedOfflinePartitionCount = 0;
+
+
+    /**
+     * @param listener       listener notified when the counts change or null
+     * @param probeScheduler scheduler which retries failed reads and notifies the listener
+     */
+    KFPartitionTracker(final KFPartitionCallback listener, final ProbeScheduler probeScheduler) {
+        this.listener = listener;
+        this.probeScheduler = probeScheduler;
+    }
+
+
+    /**
+     * Forget tracked partitions and read them all again from a Zookeeper session
+     *
+     * @param zooKeeper Zookeeper session
+     */
+    synchronized void start(final ZooKeeper zooKeeper) {
+        reset();
+        pipeline = new ZKPipeline(zooKeeper, MAX_IN_FLIGHT_REQUESTS);
+        readTopics(generation);
+        readIsrChangeNotifications(generation);
+    }
+
+
+    /**
+     * Forget tracked partitions and stop reading Zookeeper
+     */
+    synchronized void stop() {
+        reset();
+        pipeline = null;
+    }
+
+
+    /**
+     * @return number of partitions with a leader and fewer in-sync replicas than assigned
+     */
+    synchronized int getUnderReplicatedPartitionCount() {
+        return underReplicatedPartitionCount;
+    }
+
+
+    /**
+     * @return number of partitions without leader
+     */
+    synchronized int getOfflinePartitionCount() {
+        return offlinePartitionCount;
+    }
+
+
+    /**
+     * @return partitions with a leader and fewer in-sync replicas than assigned
+     */
+    synchronized List<TopicPartition> getUnderReplicatedPartitions() {
+        final List<TopicPartition> partitions = new ArrayList<>(underReplicatedPartitionCount);
+        for (TrackedTopic topic : topics.values()) {
+            topic.addPartitions(topic.underReplicated, partitions);
+        }
+        return partitions;
+    }
+
+
+    /**
+     * @return partitions without leader
+     */
+    synchronized List<TopicPartition> getOfflinePartitions() {
+        final List<TopicPartition> partitions = new ArrayList<>(offlinePartitionCount);
+        for (TrackedTopic topic : topics.values()) {
+            topic.addPartitions(topic.offline, partitions);
+        }
+        return partitions;
+    }
+
+
+    /**
+     * Read again the znode whose watch has fired
+     *
+     * @param event Zookeeper event
+     */
+    @Override
+    public synchronized void process(final WatchedEvent event) {
+        // Session events are handled by the cluster watcher, which restarts the tracker when the session expires
+        final String path = event.getPath();
+        if (pipeline == null || event.getType() == Event.EventType.None || path == null) {
+            return;
+        }
+
+        if (TopicZKPaths.BROKER_TOPICS_PATH.equals(path)) {
+            readTopics(generation);
+        } else if (TopicZKPaths.ISR_CHANGE_NOTIFICATION_PATH.equals(path)) {
+            readIsrChangeNotifications(generation);
+        } else if (path.startsWith(TOPIC_PATH_PREFIX) && event.getType() != Event.EventType.NodeDeleted) {
+            // Deleted topics are forgotten when the topic list changes
+            final int topicEnd = path.indexOf('/', TOPIC_PATH_PREFIX.length());
+            if (topicEnd < 0) {
+                readAssignment(generation, path.substring(TOPIC_PATH_PREFIX.length()));
+            } else if (path.startsWith(PARTITION_PATH, topicEnd) && path.endsWith(STATE_PATH)) {
+                final int partition;
+                try {
+                    partition = Integer.parseInt(path.substring(topicEnd + PARTITION_PATH.length(),
+                            path.length() - STATE_PATH.length()));
+                } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                    return; // Not a partition state znode
+                }
+                readState(generation, path.substring(TOPIC_PATH_PREFIX.length(), topicEnd), partition);
+            }
+        }
+    }
+
+
+    /**
+     * Read the topic list, forget deleted topics and read new ones
+     *
+     * @param readGeneration generation the read belongs to
+     */
+    private void readTopics(final long readGeneration) {
+        read(readGeneration, zk -> zk.getChildren(TopicZKPaths.BROKER_TOPICS_PATH, this), topicNames -> {
+            final Set<String> current = topicNames != null ? new HashSet<>(topicNames) : new HashSet<>();
+            final Iterator<TrackedTopic> tracked = topics.values().iterator();
+            while (tracked.hasNext()) {
+                final TrackedTopic topic = tracked.next();
+                if (!current.contains(topic.topicName)) {
+                    removeTopic(topic);
+                    tracked.remove();
+                }
+            }
+            for (String topicName : current) {
+                if (!topics.containsKey(topicName)) {
+                    readAssignment(readGeneration, topicName);
+                }
+            }
+        });
+    }
+
+
+    /**
+     * Read the replicas of a topic and the state of all its partitions
+     *
+     * @param readGeneration generation the read belongs to
+     * @param topicName      topic name
+     */
+    private void readAssignment(final long readGeneration, final String topicName) {
+        read(readGeneration, zk -> zk.getData(TopicZKPaths.getTopicPath(topicName), this), data -> {
+            if (data == null) {
+                return;
+            }
+            final int[][] replicas;
+            try {
+                replicas = TopicJson.decodeAssignment(data);
+            } catch (IllegalArgumentException e) {
+                return; // Not written by Kafka. It is read again when it changes.
+            }
+            final TrackedTopic topic = topics.computeIfAbsent(topicName, TrackedTopic::new);
+            topic.replicas = replicas;
+            // Replicas may have changed, so every state is evaluated again
+            for (int partition = 0; partition < replicas.length; partition++) {
+                readState(readGeneration, topicName, partition);
+            }
+        });
+    }
+
+
+    /**
+     * Read the state of a partition
+     *
+     * @param readGeneration generation the read belongs to
+     * @param topicName      topic name
+     * @param partition      partition id
+     */
+    private void readState(final long readGeneration, final String topicName, final int partition) {
+        final String path = TopicZKPaths.getPartitionStatePath(topicName, partition);
+        read(readGeneration, zk -> zk.getData(path, this), data -> {
+            final TrackedTopic topic = topics.get(topicName);
+            if (topic == null || partition >= topic.replicas.length) {
+                return;
+            }
+            if (data == null) {
+                // A watch on a missing znode is only set by exists. The state is written once a leader is elected,
+                // until then the partition is offline.
+                read(readGeneration, zk -> zk.exists(path, this), stat -> {
+                    if (stat != null) {
+                        readState(readGeneration, topicName, partition);
+                    }
+                });
+            }
+            final PartitionDescription description;
+            try {
+                description = TopicJson.decodePartitionState(partition, topic.replicas[partition], data);
+            } catch (IllegalArgumentException e) {
+                return; // Not written by Kafka. It is read again when it changes.
+            }
+            updatePartition(topic, partition, description.hasLeader() && description.isUnderReplicated(),
+                    !description.hasLeader());
+        });
+    }
+
+
+    /**
+     * Read ISR change notifications which have not been read yet and the state of the partitions they report
+     *
+     * @param readGeneration generation the read belongs to
+     */
+    private void readIsrChangeNotifications(final long readGeneration) {
+        read(readGeneration, zk -> zk.getChildren(TopicZKPaths.ISR_CHANGE_NOTIFICATION_PATH, this), children -> {
+            if (children == null) {
+                // Brokers create it on the first ISR change
+                read(readGeneration, zk -> zk.exists(TopicZKPaths.ISR_CHANGE_NOTIFICATION_PATH, this), stat -> {
+                    if (stat != null) {
+                        readIsrChangeNotifications(readGeneration);
+                    }
+                });
+                return;
+            }
+            // The controller deletes notifications once it has read them
+            isrChangeNotifications.retainAll(children);
+            for (String child : children) {
+                if (isrChangeNotifications.add(child)) {
+                    readIsrChangeNotification(readGeneration, TopicZKPaths.ISR_CHANGE_NOTIFICATION_PATH + "/" + child);
+                }
+            }
+        });
+    }
+
+
+    /**
+     * @param readGeneration generation the read belongs to
+     * @param path           ISR change notification path
+     */
+    private void readIsrChangeNotification(final long readGeneration, final String path) {
+        read(readGeneration, zk -> zk.getData(path, null), data -> {
+            if (data == null) {
+                return; // Already deleted by the controller. The state watches have seen the change anyway.
+            }
+            try {
+                for (TopicPartition partition : TopicJson.decodeTopicPartitions(data)) {
+                    if (topics.containsKey(partition.topic())) {
+                        readState(readGeneration, partition.topic(), partition.partition());
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                // Not written by Kafka
+            }
+        });
+    }
+
+
+    /**
+     * Send a read and handle its response unless the tracker has been restarted meanwhile
+     *
+     * @param readGeneration generation the read belongs to
+     * @param request        it sends the read through the pipeline
+     * @param onResponse     it handles the response, which is null if the znode does not exist. It is called while
+     *                       holding the tracker lock.
+     * @param <T>            response type
+     */
+    private <T> void read(final long readGeneration,
+                          final Function<ZKPipeline, CompletableFuture<T>> request,
+                          final Consumer<T> onResponse) {
+        if (readGeneration != generation) {
+            return;
+        }
+        pendingReads++;
+        send(readGeneration, request, onResponse);
+    }
+
+
+    private <T> void send(final long readGeneration,
+                          final Function<ZKPipeline, CompletableFuture<T>> request,
+                          final Consumer<T> onResponse) {
+        request.apply(pipeline).whenComplete((value, e) -> {
+            synchronized (this) {
+                if (readGeneration != generation) {
+                    return;
+                }
+                if (e != null && ZKPipeline.errorCode(e) != KeeperException.Code.NONODE) {
+                    // It stays pending, so the initial scan is not reported until it succeeds
+                    try {
+                        probeScheduler.schedule(() -> {
+                            synchronized (this) {
+                                if (readGeneration == generation) {
+                                    send(readGeneration, request, onResponse);
+                                }
+                            }
+                        }, RETRY_DELAY_MS);
+                    } catch (RejectedExecutionException rejected) {
+                        // The scheduler has been closed, so the cluster watcher is stopping the tracker
+                    }
+                    return;
+                }
+                onResponse.accept(e == null ? value : null);
+                if (--pendingReads == 0) {
+                    initialized = true;
+                }
+                if (initialized) {
+                    requestNotification();
+                }
+            }
+        });
+    }
+
+
+    /**
+     * Uncount the partitions of a deleted topic. The caller forgets the topic.
+     *
+     * @param topic topic which has been deleted
+     */
+    private void removeTopic(final TrackedTopic topic) {
+        underReplicatedPartitionCount -= topic.underReplicated.cardinality();
+        offlinePartitionCount -= topic.offline.cardinality();
+    }
+
+
+    /**
+     * @param topic           tracked topic
+     * @param partition       partition id
+     * @param underReplicated true if the partition has a leader and fewer in-sync replicas than assigned
+     * @param offline         true if the partition has no leader
+     */
+    private void updatePartition(final TrackedTopic topic,
+                                 final int partition,
+                                 final boolean underReplicated,
+                                 final boolean offline) {
+        if (topic.underReplicated.get(partition) != underReplicated) {
+            topic.underReplicated.set(partition, underReplicated);
+            underReplicatedPartitionCount += underReplicated ? 1 : -1;
+        }
+        if (topic.offline.get(partition) != offline) {
+            topic.offline.set(partition, offline);
+            offlinePartitionCount += offline ? 1 : -1;
+        }
+    }
+
+
+    private void reset() {
+        generation++;
+        topics.clear();
+        isrChangeNotifications.clear();
+        underReplicatedPartitionCount = 0;
+        offlinePartitionCount = 0;
+        pendingReads = 0;
+        initialized = false;
+    }
+
+
+    /**
+     * Notify the listener on the probe scheduler. Requests received before the notification runs are collapsed
+     * into it and it reports the latest counts.
+     */
+    private void requestNotification() {
+        if (listener == null || !notificationRequested.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            probeScheduler.execute(() -> {
+                synchronized (notificationLock) {
+                    notificationRequested.set(false);
+                    final long currentGeneration;
+                    final int underReplicated;
+                    final int offline;
+                    synchronized (this) {
+                        if (!initialized) {
+                            return; // Restarted after it was requested
+                        }
+                        currentGeneration = generation;
+                        underReplicated = underReplicatedPartitionCount;
+                        offline = offlinePartitionCount;
+                    }
+                    if (currentGeneration != notifiedGeneration
+                            || underReplicated != notifiedUnderReplicatedPartitionCount
+                            || offline != notifiedOfflinePartitionCount) {
+                        notifiedGeneration = currentGeneration;
+                        notifiedUnderReplicatedPartitionCount = underReplicated;
+                        notifiedOfflinePartitionCount = offline;
+                        listener.onPartitionStatusChanged(underReplicated, offline);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The scheduler has been closed, so the cluster watcher is stopping the tracker
+            notificationRequested.set(false);
+        }
+    }
+
+
+    /**
+     * Partitions of a topic
+     */
+    private static final class TrackedTopic {
+        private final String topicName;
+        private int[][] replicas = new int[0][];
+        private final BitSet underReplicated = new BitSet();
+        private final BitSet offline = new BitSet();
+
+        private TrackedTopic(final String topicName) {
+            this.topicName = topicName;
+        }
+
+        private void addPartitions(final BitSet set, final List<TopicPartition> partitions) {
+            for (int partition = set.nextSetBit(0); partition >= 0; partition = set.nextSetBit(partition + 1)) {
+                partitions.add(new TopicPartition(topicName, partition));
+            }
+        }
+    }
+}
@@ -0,0 +1,487 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.kafka;
+
+import com.mcafee.dxl.streaming.operations.client.common.EndpointProber;
+import com.mcafee.dxl.streaming.operations.client.exception.ConnectionException;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.protocol.ApiKeys;
+import org.apache.kafka.common.requests.ListOffsetRequest;
+import org.apache.kafka.common.requests.RequestHeader;
+import org.apache.kafka.common.requests.ResponseHeader;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * It checks whether Kafka brokers serve requests by sending a Kafka protocol request and waiting for its response.
+ * <p>
+ * Unlike {@link com.mcafee.dxl.streaming.operations.client.common.ConnectProber}, the request goes through the
+ * broker request handler threads, so a broker stuck in GC or with exhausted request handlers is detected by
+ * the probe latency or timeout.
+ * <p>
+ * It keeps one persistent connection per broker, driven by a single selector thread. Requests are pipelined on
+ * that connection and matched with their responses by correlation id. When a probe times out or the connection
+ * fails, the connection is closed and opened again by the next probe.
+ * <p>
+ * The request is a ListOffsets request without partitions. Kafka 0.9 does not support ApiVersions, and a
+ * Metadata request without topics asks for every topic in the cluster, so it is not a cheap probe.
+ * <p>
+ * {@link KFRequestProber#start()} must be called before probing brokers.
+ */
+public final class KFRequestProber implements EndpointProber {
+
+    /**
+     * Class constants
+     */
+    private static final long PROBER_AWAIT_TERMINATION_MS = 200L;
+    private static final short LIST_OFFSETS_REQUEST_VERSION = 0;
+    private static final int RESPONSE_SIZE_LENGTH = 4;
+    private static final int MAX_RESPONSE_SIZE = 1024 * 1024;
+
+    private final Queue<Probe> pendingProbes = new ConcurrentLinkedQueue<>();
+    private final String name;
+    private final String clientId;
+    private final byte[] requestBody;
+    private volatile Selector selector;
+    private volatile Thread selectorThread;
+
+    /**
+     * Broker connections by broker address. They are only used by the selector thread.
+     */
+    private final Map<InetSocketAddress, BrokerConnection> brokerConnections = new HashMap<>();
+    private int nextCorrelationId = 0;
+
+
+    /**
+     * @param name it is used to name the selector thread and as Kafka client id
+     */
+    public KFRequestProber(final String name) {
+        this.name = name;
+        this.clientId = "request-prober-" + name;
+
+        final ListOffsetRequest request =
+                new ListOffsetRequest(Collections.<TopicPartition, ListOffsetRequest.PartitionData>emptyMap());
+        final ByteBuffer body = ByteBuffer.allocate(request.sizeOf());
+        request.writeTo(body);
+        this.requestBody = body.array();
+    }
+
+
+    /**
+     * It starts the selector thread
+     * <p>
+     * Calling this method more than once does not have effect.
+     *
+     * @throws ConnectionException if the selector cannot be opened
+     */
+    @Override
+    public synchronized void start() {
+        if (selectorThread != null) {
+            return;
+        }
+
+        try {
+            selector = Selector.open();
+        } catch (IOException e) {
+            throw new ConnectionException(name, e.getMessage(), e, this.getClass());
+        }
+
+        selectorThread = new Thread(this::selectLoop, clientId);
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+    }
+
+
+    /**
+     * It stops the selector thread and closes broker connections. Probes in progress are completed exceptionally.
+     * <p>
+     * Calling this method more than once does not have effect.
+     */
+    @Override
+    public synchronized void close() {
+        final Thread thread = selectorThread;
+        if (thread == null) {
+            return;
+        }
+        selectorThread = null;
+        selector.wakeup();
+
+        try {
+            thread.join(PROBER_AWAIT_TERMINATION_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * Send a request to a Kafka broker without blocking the caller
+     *
+     * @param address   broker address
+     * @param timeoutMs time expressed in ms to wait for the response, including the connection time
+     *                  when there is no connection to the broker yet
+     * @return a future which completes with the request latency expressed in nanoseconds when the broker has
+     * responded, or completes exceptionally when it is unreachable or the timeout has expired
+     */
+    @Override
+    public CompletableFuture<Long> probe(final InetSocketAddress address, final int timeoutMs) {
+        final Probe probe = new Probe(address, timeoutMs);
+
+        if (selectorThread == null) {
+            probe.fail(new IllegalStateException("Request prober is not running"));
+            return probe.result;
+        }
+
+        pendingProbes.add(probe);
+        selector.wakeup();
+
+        if (selectorThread == null && pendingProbes.remove(probe)) { // Stopped while it was being requested
+            probe.fail(new IllegalStateException("Request prober is not running"));
+        }
+        return probe.result;
+    }
+
+
+    /**
+     * Selector thread main loop. It sends pending probes, reads responses and expires the probes whose
+     * deadline has passed.
+     */
+    private void selectLoop() {
+        final Selector loopSelector = selector;
+        try {
+            while (selectorThread != null) {
+                sendPendingProbes(loopSelector);
+                loopSelector.select(getSelectTimeoutMs());
+                handleSelectedConnections(loopSelector);
+                expireProbes();
+            }
+        } catch (Exception e) {
+            // Selector has failed, probes in progress are failed below
+        } finally {
+            closeConnections(loopSelector);
+        }
+    }
+
+
+    /**
+     * Queue a request on the broker connection for every probe requested since the last loop.
+     * A connection is opened if there is no one for the broker.
+     *
+     * @param loopSelector selector
+     */
+    private void sendPendingProbes(final Selector loopSelector) {
+        Probe probe;
+        while ((probe = pendingProbes.poll()) != null) {
+            probe.startTimeNanos = System.nanoTime();
+            probe.deadlineNanos = probe.startTimeNanos + TimeUnit.MILLISECONDS.toNanos(probe.timeoutMs);
+            probe.correlationId = nextCorrelationId++;
+
+            BrokerConnection connection = brokerConnections.get(probe.address);
+            if (connection == null) {
+                try {
+                    connection = openConnection(loopSelector, probe.address);
+                } catch (Exception e) {
+                    probe.fail(e);
+                    continue;
+                }
+            }
+            connection.send(probe, serializeRequest(probe.correlationId));
+        }
+    }
+
+
+    /**
+     * @param loopSelector selector
+     * @param address      broker address
+     * @return a new connection which is being connected
+     * @throws IOException if the connection cannot be started
+     */
+    private BrokerConnection openConnection(final Selector loopSelector, final InetSocketAddress address)
+            throws IOException {
+        final SocketChannel channel = SocketChannel.open();
+        try {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            final BrokerConnection connection = new BrokerConnection(address, channel);
+            if (channel.connect(address)) {
+                connection.isConnected = true;
+            }
+            connection.key = channel.register(loopSelector, 0, connection);
+            connection.updateInterestOps();
+            brokerConnections.put(address, connection);
+            return connection;
+        } catch (IOException e) {
+            closeQuietly(channel);
+            throw e;
+        }
+    }
+
+
+    /**
+     * @param correlationId request correlation id
+     * @return a size delimited ListOffsets request
+     */
+    private ByteBuffer serializeRequest(final int correlationId) {
+        final RequestHeader header = new RequestHeader(ApiKeys.LIST_OFFSETS.id,
+                LIST_OFFSETS_REQUEST_VERSION,
+                clientId,
+                correlationId);
+        final int size = header.sizeOf() + requestBody.length;
+        final ByteBuffer request = ByteBuffer.allocate(RESPONSE_SIZE_LENGTH + size);
+        request.putInt(size);
+        header.writeTo(request);
+        request.put(requestBody);
+        request.flip();
+        return request;
+    }
+
+
+    /**
+     * @return time in ms until the closest probe deadline or zero to wait until a probe is requested
+     */
+    private long getSelectTimeoutMs() {
+        long closestDeadline = Long.MAX_VALUE;
+        for (BrokerConnection connection : brokerConnections.values()) {
+            final Probe oldestProbe = connection.inFlightProbes.peekFirst();
+            if (oldestProbe != null) {
+                closestDeadline = Math.min(closestDeadline, oldestProbe.deadlineNanos);
+            }
+        }
+
+        if (closestDeadline == Long.MAX_VALUE) {
+            return 0;
+        }
+        return Math.max(1L, TimeUnit.NANOSECONDS.toMillis(closestDeadline - System.nanoTime()) + 1);
+    }
+
+
+    /**
+     * Finish connects, write queued requests and read responses of the selected connections
+     *
+     * @param loopSelector selector
+     */
+    private void handleSelectedConnections(final Selector loopSelector) {
+        final Iterator<SelectionKey> keys = loopSelector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+            final SelectionKey key = keys.next();
+            keys.remove();
+            final BrokerConnection connection = (BrokerConnection) key.attachment();
+            try {
+                if (key.isConnectable() && connection.channel.finishConnect()) {
+                    connection.isConnected = true;
+                }
+                if (connection.isConnected && key.isWritable()) {
+                    connection.write();
+                }
+                if (connection.isConnected && key.isReadable()) {
+                    connection.read();
+                }
+                connection.updateInterestOps();
+            } catch (Exception e) {
+                closeConnection(connection, e);
+            }
+        }
+    }
+
+
+    /**
+     * Close the connections whose oldest in-flight probe has expired. Responses arrive in request order,
+     * so the remaining probes of the connection cannot be answered before that one.
+     */
+    private void expireProbes() {
+        final long now = System.nanoTime();
+        for (BrokerConnection connection : new ArrayList<>(brokerConnections.values())) {
+            final Probe oldestProbe = connection.inFlightProbes.peekFirst();
+            if (oldestProbe != null && oldestProbe.deadlineNanos - now <= 0) {
+                closeConnection(connection,
+                        new SocketTimeoutException("Request to " + connection.address + " timed out"));
+            }
+        }
+    }
+
+
+    /**
+     * Close a broker connection and fail its in-flight probes
+     *
+     * @param connection broker connection
+     * @param cause      reason to fail in-flight probes
+     */
+    private void closeConnection(final BrokerConnection connection, final Throwable cause) {
+        brokerConnections.remove(connection.address, connection);
+        Probe probe;
+        while ((probe = connection.inFlightProbes.pollFirst()) != null) {
+            probe.fail(cause);
+        }
+        if (connection.key != null) {
+            connection.key.cancel();
+        }
+        closeQuietly(connection.channel);
+    }
+
+
+    /**
+     * Fail every probe in progress, close broker connections and the selector
+     *
+     * @param loopSelector selector
+     */
+    private void closeConnections(final Selector loopSelector) {
+        final IllegalStateException closed = new IllegalStateException("Request prober has been stopped");
+        new ArrayList<>(brokerConnections.values()).forEach(connection -> closeConnection(connection, closed));
+
+        Probe probe;
+        while ((probe = pendingProbes.poll()) != null) {
+            probe.fail(closed);
+        }
+
+        try {
+            loopSelector.close();
+        } catch (IOException e) {
+        }
+    }
+
+
+    private static void closeQuietly(final SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+        }
+    }
+
+
+    /**
+     * A persistent connection to a Kafka broker. Requests are written in order and responses are read in the
+     * same order.
+     */
+    private static final class BrokerConnection {
+        private final InetSocketAddress address;
+        private final SocketChannel channel;
+        private final Deque<Probe> inFlightProbes = new ArrayDeque<>();
+        private final Deque<ByteBuffer> pendingWrites = new ArrayDeque<>();
+        private final ByteBuffer responseSize = ByteBuffer.allocate(RESPONSE_SIZE_LENGTH);
+        private ByteBuffer response;
+        private SelectionKey key;
+        private boolean isConnected = false;
+
+        BrokerConnection(final InetSocketAddress address, final SocketChannel channel) {
+            this.address = address;
+            this.channel = channel;
+        }
+
+        void send(final Probe probe, final ByteBuffer request) {
+            inFlightProbes.addLast(probe);
+            pendingWrites.addLast(request);
+            updateInterestOps();
+        }
+
+        void updateInterestOps() {
+            if (!key.isValid()) {
+                return;
+            }
+            if (!isConnected) {
+                key.interestOps(SelectionKey.OP_CONNECT);
+            } else if (pendingWrites.isEmpty()) {
+                key.interestOps(SelectionKey.OP_READ);
+            } else {
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+        }
+
+        void write() throws IOException {
+            ByteBuffer request;
+            while ((request = pendingWrites.peekFirst()) != null) {
+                channel.write(request);
+                if (request.hasRemaining()) {
+                    return; // Socket buffer is full
+                }
+                pendingWrites.pollFirst();
+            }
+        }
+
+        void read() throws IOException {
+            while (true) {
+                if (response == null) {
+                    if (channel.read(responseSize) < 0) {
+                        throw new EOFException("Connection to " + address + " closed by the broker");
+                    }
+                    if (responseSize.hasRemaining()) {
+                        return;
+                    }
+                    responseSize.flip();
+                    final int size = responseSize.getInt();
+                    responseSize.clear();
+                    if (size < RESPONSE_SIZE_LENGTH || size > MAX_RESPONSE_SIZE) {
+                        throw new IOException("Invalid response size " + size + " from " + address);
+                    }
+                    response = ByteBuffer.allocate(size);
+                }
+
+                if (channel.read(response) < 0) {
+                    throw new EOFException("Connection to " + address + " closed by the broker");
+                }
+                if (response.hasRemaining()) {
+                    return;
+                }
+                response.flip();
+                completeOldestProbe(ResponseHeader.parse(response).correlationId());
+                response = null;
+            }
+        }
+
+        private void completeOldestProbe(final int correlationId) throws IOException {
+            final Probe probe = inFlightProbes.pollFirst();
+            if (probe == null || probe.correlationId != correlationId) {
+                if (probe != null) {
+                    inFlightProbes.addFirst(probe);
+                }
+                throw new IOException("Unexpected response correlation id " + correlationId + " from " + address);
+            }
+            probe.succeed();
+        }
+    }
+
+
+    /**
+     * A request in progress
+     */
+    private static final class Probe {
+        private final InetSocketAddress address;
+        private final int timeoutMs;
+        private final CompletableFuture<Long> result = new CompletableFuture<>();
+        private long startTimeNanos;
+        private long deadlineNanos;
+        private int correlationId;
+
+        Probe(final InetSocketAddress address, final int timeoutMs) {
+            this.address = address;
+            this.timeoutMs = timeoutMs;
+        }
+
+        void succeed() {
+            result.complete(System.nanoTime() - startTimeNanos);
+        }
+
+        void fail(final Throwable cause) {
+            result.completeExceptionally(cause);
+        }
+    }
+}
@@ -5,6 +5,7 @@
 package com.mcafee.dxl.streaming.operations.client.kafka.entities;
 
 
+import com.mcafee.dxl.streaming.operations.client.common.LatencySummary;
 import com.mcafee.dxl.streaming.operations.client.kafka.KFBrokerStatusName;
 
 /**
@@ -15,6 +16,11 @@ public class KFBroker {
     private KFBrokerStatusName status;
     private String brokerName;
     private KFBrokerMetadata brokerMetadata;
+    private long probeIntervalMs;
+    private long probeCount;
+    private long suppressedTransitionCount;
+    private long unconfirmedObservationCount;
+    private LatencySummary probeLatency;
 
     /**
      * @param brokerName broker name
@@ -24,10 +30,36 @@ public class KFBroker {
     public KFBroker(final String brokerName,
                     final KFBrokerMetadata brokerMetadata,
                     final KFBrokerStatusName status) {
+        this(brokerName, brokerMetadata, status, 0, 0, 0, 0, LatencySummary.empty());
+    }
+
+    /**
+     * @param brokerName broker name
+     * @param brokerMetadata Kafka broker metadata
+     * @param status Kafka broker status
+     * @param probeIntervalMs current delay expressed in ms between Kafka broker probes
+     * @param probeCount number of probes done to Kafka broker
+     * @param suppressedTransitionCount number of status transitions not notified because the broker is flapping
+     * @param unconfirmedObservationCount number of probes whose status did not confirm a transition
+     * @param probeLatency latency percentiles of the probes answered by Kafka broker
+     */
+    public KFBroker(final String brokerName,
+                    final KFBrokerMetadata brokerMetadata,
+                    final KFBrokerStatusName status,
+                    final long probeIntervalMs,
+                    final long probeCount,
+                    final long suppressedTransitionCount,
+                    final long unconfirmedObservationCount,
+                    final LatencySummary probeLatency) {
 
         this.brokerName = brokerName;
         this.brokerMetadata = brokerMetadata;
         this.status = status;
+        this.probeIntervalMs = probeIntervalMs;
+        this.probeCount = probeCount;
+        this.suppressedTransitionCount = suppressedTransitionCount;
+        this.unconfirmedObservationCount = unconfirmedObservationCount;
+        this.probeLatency = probeLatency;
     }
 
 
@@ -59,4 +91,67 @@ public class KFBroker {
         return brokerMetadata.getSecurityProtocol();
     }
 
+    /**
+     * @return current delay expressed in ms between Kafka broker probes
+     */
+    public long getProbeIntervalMs() {
+        return probeIntervalMs;
+    }
+
+    /**
+     * @return current Kafka broker probe rate expressed in probes per minute
+     */
+    public double getProbeRatePerMinute() {
+        return probeIntervalMs > 0 ? 60000.0 / probeIntervalMs : 0;
+    }
+
+    /**
+     * @return number of probes done to Kafka broker
+     */
+    public long getProbeCount() {
+        return probeCount;
+    }
+
+    /**
+     * @return number of status transitions not notified because the broker is flapping
+     */
+    public long getSuppressedTransitionCount() {
+        return suppressedTransitionCount;
+    }
+
+    /**
+     * @return number of probes whose status differed from the notified one but did not confirm a transition
+     */
+    public long getUnconfirmedObservationCount() {
+        return unconfirmedObservationCount;
+    }
+
+    /**
+     * @return median latency expressed in microseconds of the probes answered by Kafka broker
+     */
+    public long getProbeLatencyP50Micros() {
+        return probeLatency.getP50Micros();
+    }
+
+    /**
+     * @return 99th percentile latency expressed in microseconds of the probes answered by Kafka broker
+     */
+    public long getProbeLatencyP99Micros() {
+        return probeLatency.getP99Micros();
+    }
+
+    /**
+     * @return maximum latency expressed in microseconds of the probes answered by Kafka broker
+     */
+    public long getProbeLatencyMaxMicros() {
+        return probeLatency.getMaxMicros();
+    }
+
+    /**
+     * @return number of probes answered by Kafka broker
+     */
+    public long getProbeLatencyCount() {
+        return probeLatency.getCount();
+    }
+
 }
@@ -6,33 +6,41 @@ package com.mcafee.dxl.streaming.operations.client.kafka.entities;
 
 /**
  * It represents Kafka broker metadata
+ * <p>
+ * It is immutable, so the same instance is safely shared by the broker registry, the broker watchers and clients.
  */
 public class KFBrokerMetadata {
 
 
-    private int brokerId = 0;
-    private String host = "";
-    private int port = 0;
-    private String connectionString = "";
-    private String securityProtocol = "";
+    private final int brokerId;
+    private final String host;
+    private final int port;
+    private final String connectionString;
+    private final String securityProtocol;
 
-    public void setBrokerId(final int brokerId) {
-        this.brokerId = brokerId;
+    /**
+     * Creates an empty metadata, used when the broker is not registered
+     */
+    public KFBrokerMetadata() {
+        this(0, "", 0, "", "");
     }
 
-    public void setHost(final String host) {
+    /**
+     * @param brokerId         broker id
+     * @param host             registered host name
+     * @param port             registered port
+     * @param connectionString registered endpoint connection string
+     * @param securityProtocol registered endpoint security protocol
+     */
+    public KFBrokerMetadata(final int brokerId,
+                            final String host,
+                            final int port,
+                            final String connectionString,
+                            final String securityProtocol) {
+        this.brokerId = brokerId;
         this.host = host;
-    }
-
-    public void setPort(final int port) {
         this.port = port;
-    }
-
-    public void setConnectionString(final String connectionString) {
         this.connectionString = connectionString;
-    }
-
-    public void setSecurityProtocol(final String securityProtocol) {
         this.securityProtocol = securityProtocol;
     }
 
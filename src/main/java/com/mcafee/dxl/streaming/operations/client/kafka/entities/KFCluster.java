@@ -15,6 +15,10 @@ public class KFCluster {
 
     private KFClusterStatusName kfClusterStatus;
     private List<KFBroker> kfBrokers;
+    private long requestedRefreshes;
+    private long executedRefreshes;
+    private int underReplicatedPartitionCount;
+    private int offlinePartitionCount;
 
     /**
      *
@@ -23,8 +27,30 @@ public class KFCluster {
      */
     public KFCluster(final KFClusterStatusName kfClusterStatus,
                      final List<KFBroker> kfBrokers) {
+        this(kfClusterStatus, kfBrokers, 0, 0, 0, 0);
+    }
+
+    /**
+     *
+     * @param kfClusterStatus Kafka cluster status
+     * @param kfBrokers List of kafka brokers
+     * @param requestedRefreshes number of broker refreshes requested by Zookeeper events
+     * @param executedRefreshes number of broker refreshes executed
+     * @param underReplicatedPartitionCount number of partitions with a leader and fewer in-sync replicas than assigned
+     * @param offlinePartitionCount number of partitions without leader
+     */
+    public KFCluster(final KFClusterStatusName kfClusterStatus,
+                     final List<KFBroker> kfBrokers,
+                     final long requestedRefreshes,
+                     final long executedRefreshes,
+                     final int underReplicatedPartitionCount,
+                     final int offlinePartitionCount) {
         this.kfClusterStatus = kfClusterStatus;
         this.kfBrokers = kfBrokers;
+        this.requestedRefreshes = requestedRefreshes;
+        this.executedRefreshes = executedRefreshes;
+        this.underReplicatedPartitionCount = underReplicatedPartitionCount;
+        this.offlinePartitionCount = offlinePartitionCount;
     }
 
     public List<KFBroker> getKFBrokers() {
@@ -34,4 +60,33 @@ public class KFCluster {
     public KFClusterStatusName getKfClusterStatus() {
         return kfClusterStatus;
     }
+
+    /**
+     * @return number of broker refreshes requested by Zookeeper events
+     */
+    public long getRequestedRefreshes() {
+        return requestedRefreshes;
+    }
+
+    /**
+     * @return number of broker refreshes executed. Duplicated requests are collapsed into a single execution
+     */
+    public long getExecutedRefreshes() {
+        return executedRefreshes;
+    }
+
+    /**
+     * @return number of partitions with a leader and fewer in-sync replicas than assigned. It is zero if partition
+     * tracking is disabled
+     */
+    public int getUnderReplicatedPartitionCount() {
+        return underReplicatedPartitionCount;
+    }
+
+    /**
+     * @return number of partitions without leader. It is zero if partition tracking is disabled
+     */
+    public int getOfflinePartitionCount() {
+        return offlinePartitionCount;
+    }
 }
@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.topic;
+
+import com.mcafee.dxl.streaming.operations.client.exception.TopicOperationException;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.Watcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * It writes batches of work to a Kafka admin znode one at a time.
+ * <p>
+ * The controller deletes an admin znode once it has done all the work it holds. The znode is watched rather than
+ * polled and the next batch is written as soon as it is deleted. Work written by someone else is waited for as well,
+ * since the controller only reads the znode when it is created.
+ */
+final class AdminBatchWriter {
+
+    private final ZKPipeline pipeline;
+    private final String path;
+
+
+    /**
+     * @param pipeline Zookeeper pipeline
+     * @param path     admin znode path
+     */
+    AdminBatchWriter(final ZKPipeline pipeline, final String path) {
+        this.pipeline = pipeline;
+        this.path = path;
+    }
+
+
+    /**
+     * Write batches
+     *
+     * @param batches znode data of every batch
+     * @return future completed once the controller has done the work of every batch. It completes exceptionally with
+     * {@link TopicOperationException} if Zookeeper fails. Cancelling it stops before the next batch is written.
+     */
+    CompletableFuture<Void> write(final List<byte[]> batches) {
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+        writeBatch(new ArrayList<>(batches), 0, result);
+        return result;
+    }
+
+
+    /**
+     * Wait for the running work, write a batch and wait for it
+     *
+     * @param batches znode data of every batch
+     * @param index   index of the batch to write
+     * @param result  future completed once every batch has been done
+     */
+    private void writeBatch(final List<byte[]> batches, final int index, final CompletableFuture<Void> result) {
+        if (result.isDone()) {
+            return;
+        }
+        if (index >= batches.size()) {
+            result.complete(null);
+            return;
+        }
+
+        awaitDeletion()
+                .thenCompose(ignored -> pipeline.create(path, batches.get(index)))
+                .thenCompose(ignored -> awaitDeletion())
+                .whenComplete((ignored, e) -> {
+                    if (e == null) {
+                        writeBatch(batches, index + 1, result);
+                    } else if (ZKPipeline.errorCode(e) == KeeperException.Code.NODEEXISTS) {
+                        // Someone else wrote the znode after the previous work was done
+                        writeBatch(batches, index, result);
+                    } else {
+                        result.completeExceptionally(ZKPipeline.toTopicOperationException("", e, this.getClass()));
+                    }
+                });
+    }
+
+
+    /**
+     * @return future completed once the znode does not exist
+     */
+    private CompletableFuture<Void> awaitDeletion() {
+        final CompletableFuture<Void> deleted = new CompletableFuture<>();
+        watch(deleted);
+        return deleted;
+    }
+
+
+    /**
+     * Check the znode and check it again whenever it changes, until it is deleted
+     *
+     * @param deleted future completed once the znode does not exist
+     */
+    private void watch(final CompletableFuture<Void> deleted) {
+        final Watcher watcher = event -> {
+            if (deleted.isDone()) {
+                return;
+            }
+            if (event.getType() == Watcher.Event.EventType.None) {
+                // Watches survive disconnections but not session expiration
+                if (event.getState() == Watcher.Event.KeeperState.Expired) {
+                    deleted.completeExceptionally(new TopicOperationException("",
+                            "Zookeeper session expired while waiting for " + path, null, AdminBatchWriter.class));
+                }
+                return;
+            }
+            // The controller may rewrite the znode as work is done
+            watch(deleted);
+        };
+
+        pipeline.exists(path, watcher).whenComplete((stat, e) -> {
+            if (e != null) {
+                deleted.completeExceptionally(e);
+            } else if (stat == null) {
+                deleted.complete(null);
+            }
+        });
+    }
+
+}
@@ -0,0 +1,278 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.topic;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Streaming reader of the small JSON documents Kafka keeps in Zookeeper.
+ * <p>
+ * It reads tokens straight from the znode bytes without building a document tree. Names and string values are
+ * decoded as UTF-8. Malformed documents raise {@link IllegalArgumentException}.
+ */
+final class JsonReader {
+
+    private final byte[] json;
+    private int position = 0;
+
+    /**
+     * True if a value has been read in the current object or array and a comma is expected before the next one
+     */
+    private boolean needsComma = false;
+
+
+    /**
+     * @param json UTF-8 encoded JSON document
+     */
+    JsonReader(final byte[] json) {
+        this.json = json;
+    }
+
+
+    void beginObject() {
+        skipComma();
+        expect('{');
+        needsComma = false;
+    }
+
+    void endObject() {
+        expect('}');
+        needsComma = true;
+    }
+
+    void beginArray() {
+        skipComma();
+        expect('[');
+        needsComma = false;
+    }
+
+    void endArray() {
+        expect(']');
+        needsComma = true;
+    }
+
+
+    /**
+     * @return true if the current object or array has more elements
+     */
+    boolean hasNext() {
+        final byte c = peekByte();
+        return c != '}' && c != ']';
+    }
+
+
+    /**
+     * @return true if the next value is null
+     */
+    boolean isNextNull() {
+        skipComma();
+        return peekByte() == 'n';
+    }
+
+
+    /**
+     * @return name of the next object member
+     */
+    String nextName() {
+        skipComma();
+        final String name = readString();
+        expect(':');
+        needsComma = false;
+        return name;
+    }
+
+
+    /**
+     * @return next value as a string. Numbers and booleans are returned as their literal text.
+     */
+    String nextString() {
+        skipComma();
+        final String value;
+        if (peekByte() == '"') {
+            value = readString();
+        } else {
+            final int start = position;
+            while (position < json.length && isLiteral(json[position])) {
+                position++;
+            }
+            if (start == position) {
+                throw malformed();
+            }
+            value = new String(json, start, position - start, StandardCharsets.UTF_8);
+        }
+        needsComma = true;
+        return value;
+    }
+
+
+    /**
+     * @return next value as an int
+     */
+    int nextInt() {
+        skipComma();
+        if (peekByte() == '"') {
+            return Integer.parseInt(nextString());
+        }
+        boolean negative = false;
+        if (json[position] == '-') {
+            negative = true;
+            position++;
+        }
+        final int start = position;
+        int value = 0;
+        while (position < json.length && json[position] >= '0' && json[position] <= '9') {
+            value = value * 10 + (json[position++] - '0');
+        }
+        if (start == position) {
+            throw malformed();
+        }
+        needsComma = true;
+        return negative ? -value : value;
+    }
+
+
+    /**
+     * @return next value as an array of ints
+     */
+    int[] nextIntArray() {
+        beginArray();
+        int[] values = new int[4];
+        int count = 0;
+        while (hasNext()) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = nextInt();
+        }
+        endArray();
+        return count == values.length ? values : Arrays.copyOf(values, count);
+    }
+
+
+    /**
+     * Skip the next value, including nested objects and arrays
+     */
+    void skipValue() {
+        skipComma();
+        final byte c = peekByte();
+        if (c == '{') {
+            beginObject();
+            while (hasNext()) {
+                nextName();
+                skipValue();
+            }
+            endObject();
+        } else if (c == '[') {
+            beginArray();
+            while (hasNext()) {
+                skipValue();
+            }
+            endArray();
+        } else {
+            nextString();
+        }
+    }
+
+
+    private void skipComma() {
+        if (needsComma) {
+            expect(',');
+            needsComma = false;
+        }
+    }
+
+
+    private String readString() {
+        expect('"');
+        final int start = position;
+        boolean escaped = false;
+        while (position < json.length && json[position] != '"') {
+            if (json[position] == '\\') {
+                escaped = true;
+                position++;
+            }
+            position++;
+        }
+        if (position >= json.length) {
+            throw malformed();
+        }
+        final String value = escaped ? unescape(start, position) : new String(json, start, position - start,
+                StandardCharsets.UTF_8);
+        position++;
+        return value;
+    }
+
+
+    private String unescape(final int start, final int end) {
+        final String raw = new String(json, start, end - start, StandardCharsets.UTF_8);
+        final StringBuilder value = new StringBuilder(raw.length());
+        for (int i = 0; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (c == '\\' && i + 1 < raw.length()) {
+                c = raw.charAt(++i);
+                switch (c) {
+                    case 'n':
+                        c = '\n';
+                        break;
+                    case 'r':
+                        c = '\r';
+                        break;
+                    case 't':
+                        c = '\t';
+                        break;
+                    case 'b':
+                        c = '\b';
+                        break;
+                    case 'f':
+                        c = '\f';
+                        break;
+                    case 'u':
+                        if (i + 4 >= raw.length()) {
+                            throw malformed();
+                        }
+                        c = (char) Integer.parseInt(raw.substring(i + 1, i + 5), 16);
+                        i += 4;
+                        break;
+                    default:
+                        // '"', '\\' and '/' stand for themselves
+                }
+            }
+            value.append(c);
+        }
+        return value.toString();
+    }
+
+
+    private void expect(final char c) {
+        if (peekByte() != c) {
+            throw malformed();
+        }
+        position++;
+    }
+
+
+    private byte peekByte() {
+        while (position < json.length && json[position] <= ' ') {
+            position++;
+        }
+        if (position >= json.length) {
+            throw malformed();
+        }
+        return json[position];
+    }
+
+
+    private static boolean isLiteral(final byte c) {
+        return c >= '0' && c <= '9' || c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c == '-' || c == '+'
+                || c == '.';
+    }
+
+
+    private IllegalArgumentException malformed() {
+        return new IllegalArgumentException("Malformed JSON at position " + position + ": "
+                + new String(json, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,349 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.topic;
+
+import com.mcafee.dxl.streaming.operations.client.exception.TopicOperationException;
+import com.mcafee.dxl.streaming.operations.client.topic.entities.TopicOperationResult;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.data.Stat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * It adds partitions to many topics writing the same znodes as Kafka admin tools, placing new replicas on the least
+ * loaded brokers.
+ * <p>
+ * The assignments of all topics are read once with pipelined requests to count the replicas and preferred leaders
+ * of every broker. Preferred leaders are counted rather than current leaders because leadership goes back to them
+ * after every preferred replica election. The replicas of every new partition go to the brokers with fewest
+ * replicas, and the one of them with fewest preferred leaders becomes the preferred leader. Counts are updated as
+ * partitions are placed, so the partitions of a batch are spread as well. The new assignments of all topics are
+ * then written with pipelined requests, and the controller creates the new partitions. Every write is conditioned on
+ * the version of the assignment which was read, so a topic modified concurrently is failed rather than overwritten.
+ */
+public final class PartitionExpander {
+
+    private final ZKPipeline pipeline;
+
+
+    /**
+     * @param pipeline Zookeeper pipeline
+     */
+    public PartitionExpander(final ZKPipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+
+
+    /**
+     * Add partitions to topics
+     *
+     * @param partitionCounts new number of partitions by topic name
+     * @param brokerIds       ids of the brokers which may hold the new replicas
+     * @return per-topic results in the iteration order of partitionCounts
+     */
+    public List<TopicOperationResult> addPartitions(final Map<String, Integer> partitionCounts,
+                                                    final Collection<Integer> brokerIds) {
+        return addPartitionsAsync(partitionCounts, brokerIds).join();
+    }
+
+
+    /**
+     * Add partitions to topics without blocking
+     *
+     * @param partitionCounts new number of partitions by topic name
+     * @param brokerIds       ids of the brokers which may hold the new replicas
+     * @return future completed with per-topic results in the iteration order of partitionCounts. It is completed on
+     * the Zookeeper event thread and never completes exceptionally.
+     */
+    public CompletableFuture<List<TopicOperationResult>> addPartitionsAsync(final Map<String, Integer> partitionCounts,
+                                                                            final Collection<Integer> brokerIds) {
+        final Map<String, Integer> requests = new LinkedHashMap<>(partitionCounts);
+        final int[] sortedBrokerIds = brokerIds.stream().mapToInt(Integer::intValue).sorted().distinct().toArray();
+
+        return readAssignments()
+                .thenCompose(assignments -> {
+                    final List<int[][]> replicas = new ArrayList<>(assignments.size());
+                    for (TopicAssignment assignment : assignments.values()) {
+                        if (assignment.replicas != null) {
+                            replicas.add(assignment.replicas);
+                        }
+                    }
+                    final BrokerLoad load = new BrokerLoad(sortedBrokerIds, replicas);
+                    final List<CompletableFuture<TopicOperationResult>> futures = new ArrayList<>(requests.size());
+                    for (Map.Entry<String, Integer> request : requests.entrySet()) {
+                        futures.add(addPartitions(request.getKey(), request.getValue(),
+                                assignments.get(request.getKey()), load));
+                    }
+
+                    return ZKPipeline.allOf(futures);
+                })
+                .exceptionally(e -> {
+                    final List<TopicOperationResult> results = new ArrayList<>(requests.size());
+                    for (String topicName : requests.keySet()) {
+                        results.add(toResult(topicName, e));
+                    }
+                    return results;
+                });
+    }
+
+
+    /**
+     * Place the new partitions of a topic and pipeline its assignment write
+     *
+     * @param topicName      topic name
+     * @param partitionCount new number of partitions
+     * @param topicAssignment current assignment of the topic, or null if the topic does not exist
+     * @param load            replica and preferred leader counts of every broker. It is updated.
+     * @return future completed with the topic result. It never completes exceptionally.
+     */
+    private CompletableFuture<TopicOperationResult> addPartitions(final String topicName,
+                                                                  final Integer partitionCount,
+                                                                  final TopicAssignment topicAssignment,
+                                                                  final BrokerLoad load) {
+        final byte[] newAssignment;
+        try {
+            if (topicAssignment == null) {
+                throw new IllegalArgumentException("Topic " + topicName + " does not exist");
+            }
+            final int[][] assignment = topicAssignment.replicas;
+            if (assignment == null) {
+                throw new IllegalArgumentException("Topic " + topicName + " has a malformed partition assignment");
+            }
+            if (partitionCount == null || partitionCount <= assignment.length) {
+                throw new IllegalArgumentException("Topic " + topicName + " has " + assignment.length
+                        + " partitions. The number of partitions can only be increased");
+            }
+            final int[][] replicas = Arrays.copyOf(assignment, partitionCount);
+            final int[][] newReplicas = load.assign(partitionCount - assignment.length, assignment[0].length);
+            System.arraycopy(newReplicas, 0, replicas, assignment.length, newReplicas.length);
+            newAssignment = TopicJson.encodeAssignment(replicas);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(failed(topicName, e.getMessage(), e));
+        }
+
+        return pipeline.setData(TopicZKPaths.getTopicPath(topicName), newAssignment, topicAssignment.version)
+                .handle((stat, e) -> e == null ? TopicOperationResult.succeeded(topicName) : toResult(topicName, e));
+    }
+
+
+    /**
+     * Pipeline a getData request per topic
+     *
+     * @return future completed with the assignment of every topic, by topic name. Topics deleted while reading are
+     * not mapped.
+     */
+    private CompletableFuture<Map<String, TopicAssignment>> readAssignments() {
+        return pipeline.getChildren(TopicZKPaths.BROKER_TOPICS_PATH, null)
+                .exceptionally(e -> {
+                    if (ZKPipeline.errorCode(e) == KeeperException.Code.NONODE) {
+                        return new ArrayList<>();
+                    }
+                    throw ZKPipeline.toTopicOperationException("", e, this.getClass());
+                })
+                .thenCompose(topics -> {
+                    final List<CompletableFuture<TopicAssignment>> futures = new ArrayList<>(topics.size());
+                    for (String topicName : topics) {
+                        final Stat stat = new Stat();
+                        futures.add(pipeline.getData(TopicZKPaths.getTopicPath(topicName), null, stat)
+                                .handle((data, e) -> {
+                                    if (e != null) {
+                                        if (ZKPipeline.errorCode(e) == KeeperException.Code.NONODE) {
+                                            return null;
+                                        }
+                                        throw ZKPipeline.toTopicOperationException(topicName, e, this.getClass());
+                                    }
+                                    int[][] assignment;
+                                    try {
+                                        assignment = TopicJson.decodeAssignment(data);
+                                    } catch (IllegalArgumentException malformed) {
+                                        assignment = null;
+                                    }
+                                    return new TopicAssignment(assignment != null && assignment.length > 0
+                                            && assignment[0] != null ? assignment : null, stat.getVersion());
+                                }));
+                    }
+
+                    return ZKPipeline.allOf(futures)
+                            .thenApply(results -> {
+                                final Map<String, TopicAssignment> assignments =
+                                        new HashMap<>(topics.size() * 4 / 3 + 1);
+                                for (int i = 0; i < topics.size(); i++) {
+                                    final TopicAssignment assignment = results.get(i);
+                                    if (assignment != null) {
+                                        assignments.put(topics.get(i), assignment);
+                                    }
+                                }
+                                return assignments;
+                            });
+                });
+    }
+
+
+
+    private TopicOperationResult toResult(final String topicName, final Throwable throwable) {
+        final Throwable cause = ZKPipeline.unwrap(throwable);
+        if (cause instanceof TopicOperationException) {
+            return TopicOperationResult.failed(topicName, (TopicOperationException) cause);
+        }
+        if (ZKPipeline.errorCode(cause) == KeeperException.Code.NONODE) {
+            return failed(topicName, "Topic " + topicName + " does not exist", cause);
+        }
+        if (ZKPipeline.errorCode(cause) == KeeperException.Code.BADVERSION) {
+            return failed(topicName, "Topic " + topicName + " was modified concurrently", cause);
+        }
+        return failed(topicName, cause.getMessage(), cause);
+    }
+
+
+    /**
+     * Partition assignment of a topic and the znode version it was read from
+     */
+    private static final class TopicAssignment {
+
+        private final int[][] replicas;
+        private final int version;
+
+
+        /**
+         * @param replicas replica broker ids indexed by partition id, or null if the assignment is malformed or has
+         *                 no partitions
+         * @param version  version of the topic znode
+         */
+        private TopicAssignment(final int[][] replicas, final int version) {
+            this.replicas = replicas;
+            this.version = version;
+        }
+    }
+
+
+    private TopicOperationResult failed(final String topicName, final String message, final Throwable cause) {
+        return TopicOperationResult.failed(topicName,
+                new TopicOperationException(topicName, message, cause, this.getClass()));
+    }
+
+
+    /**
+     * Replica and preferred leader counts of the brokers which may hold new replicas
+     */
+    static final class BrokerLoad {
+
+        private final int[] brokerIds;
+        private final int[] replicaCounts;
+        private final int[] leaderCounts;
+
+
+        /**
+         * @param brokerIds   sorted broker ids without duplicates
+         * @param assignments replica broker ids indexed by partition id of every topic. Replicas on other brokers
+         *                    are not counted.
+         */
+        BrokerLoad(final int[] brokerIds, final Collection<int[][]> assignments) {
+            this.brokerIds = brokerIds;
+            this.replicaCounts = new int[brokerIds.length];
+            this.leaderCounts = new int[brokerIds.length];
+            for (int[][] assignment : assignments) {
+                for (int[] replicas : assignment) {
+                    if (replicas == null) {
+                        continue;
+                    }
+                    for (int i = 0; i < replicas.length; i++) {
+                        final int broker = Arrays.binarySearch(brokerIds, replicas[i]);
+                        if (broker >= 0) {
+                            replicaCounts[broker]++;
+                            leaderCounts[broker] += i == 0 ? 1 : 0;
+                        }
+                    }
+                }
+            }
+        }
+
+
+        /**
+         * Place new partitions and count their replicas
+         *
+         * @param partitions        number of partitions to place
+         * @param replicationFactor number of replicas of each partition
+         * @return replica broker ids of every new partition
+         * @throws IllegalArgumentException if the replication factor is greater than the number of brokers
+         */
+        int[][] assign(final int partitions, final int replicationFactor) {
+            if (replicationFactor > brokerIds.length) {
+                throw new IllegalArgumentException("Replication factor " + replicationFactor
+                        + " larger than available brokers " + brokerIds.length);
+            }
+            final int[][] assignment = new int[partitions][];
+            for (int partition = 0; partition < partitions; partition++) {
+                final int[] brokers = new int[replicationFactor];
+                int leader = 0;
+                for (int i = 0; i < replicationFactor; i++) {
+                    brokers[i] = leastLoaded(brokers, i);
+                    if (leaderCounts[brokers[i]] < leaderCounts[brokers[leader]]) {
+                        leader = i;
+                    }
+                }
+                // The replica with fewest preferred leaders leads, the others keep their order
+                final int leaderBroker = brokers[leader];
+                System.arraycopy(brokers, 0, brokers, 1, leader);
+                brokers[0] = leaderBroker;
+
+                assignment[partition] = new int[replicationFactor];
+                for (int i = 0; i < replicationFactor; i++) {
+                    replicaCounts[brokers[i]]++;
+                    assignment[partition][i] = brokerIds[brokers[i]];
+                }
+                leaderCounts[leaderBroker]++;
+            }
+            return assignment;
+        }
+
+
+        /**
+         * @param chosen      indexes of the brokers already holding a replica of the partition
+         * @param chosenCount number of brokers already holding a replica of the partition
+         * @return index of the broker with fewest replicas, then fewest preferred leaders, which does not hold a
+         * replica of the partition
+         */
+        private int leastLoaded(final int[] chosen, final int chosenCount) {
+            int best = -1;
+            for (int broker = 0; broker < brokerIds.length; broker++) {
+                if (contains(chosen, chosenCount, broker)) {
+                    continue;
+                }
+                if (best < 0 || replicaCounts[broker] < replicaCounts[best]
+                        || replicaCounts[broker] == replicaCounts[best] && leaderCounts[broker] < leaderCounts[best]) {
+                    best = broker;
+                }
+            }
+            return best;
+        }
+
+
+        int getReplicaCount(final int brokerId) {
+            return replicaCounts[Arrays.binarySearch(brokerIds, brokerId)];
+        }
+
+
+        int getLeaderCount(final int brokerId) {
+            return leaderCounts[Arrays.binarySearch(brokerIds, brokerId)];
+        }
+
+
+        private static boolean contains(final int[] brokers, final int count, final int broker) {
+            for (int i = 0; i < count; i++) {
+                if (brokers[i] == broker) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
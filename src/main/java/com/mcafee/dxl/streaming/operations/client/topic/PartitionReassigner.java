@@ -0,0 +1,56 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.topic;
+
+import com.mcafee.dxl.streaming.operations.client.exception.TopicOperationException;
+import com.mcafee.dxl.streaming.operations.client.topic.entities.PartitionReassignment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * It submits partition reassignments to the Kafka controller in batches of bounded size, so the cluster never
+ * copies more than a batch of partitions at once.
+ * <p>
+ * A batch is written to the reassignment znode, which the controller deletes when every partition of the batch has
+ * been moved. The next batch is written as soon as it is deleted. A reassignment started by someone else is waited
+ * for as well, since the controller runs one at a time.
+ */
+public final class PartitionReassigner {
+
+    private final ZKPipeline pipeline;
+
+
+    /**
+     * @param pipeline Zookeeper pipeline
+     */
+    public PartitionReassigner(final ZKPipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+
+
+    /**
+     * Reassign partitions
+     *
+     * @param reassignments         partition reassignments
+     * @param maxPartitionsPerBatch maximum number of partitions moved at once
+     * @return future completed once every partition has been moved. It completes exceptionally with
+     * {@link TopicOperationException} if Zookeeper fails. Cancelling it stops before the next batch is submitted.
+     * @throws IllegalArgumentException if maxPartitionsPerBatch is not greater than zero
+     */
+    public CompletableFuture<Void> reassign(final List<PartitionReassignment> reassignments,
+                                            final int maxPartitionsPerBatch) {
+        if (maxPartitionsPerBatch <= 0) {
+            throw new IllegalArgumentException("Maximum partitions per batch must be greater than zero");
+        }
+        final List<byte[]> batches = new ArrayList<>();
+        for (int from = 0; from < reassignments.size(); from += maxPartitionsPerBatch) {
+            final int to = Math.min(reassignments.size(), from + maxPartitionsPerBatch);
+            batches.add(TopicJson.encodeReassignment(reassignments.subList(from, to)));
+        }
+        return new AdminBatchWriter(pipeline, TopicZKPaths.REASSIGN_PARTITIONS_PATH).write(batches);
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.topic;
+
+import com.mcafee.dxl.streaming.operations.client.exception.TopicOperationException;
+import com.mcafee.dxl.streaming.operations.client.topic.entities.BrokerLeadership;
+import com.mcafee.dxl.streaming.operations.client.topic.entities.PartitionDescription;
+import com.mcafee.dxl.streaming.operations.client.topic.entities.TopicDescription;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * It measures how far partition leadership is from the preferred replicas and moves it back in batches.
+ * <p>
+ * The preferred leader of a partition is its first assigned replica. Leadership drifts away from it when brokers
+ * restart and is moved back by a preferred replica election, which the controller runs for the partitions written
+ * to the election znode. Batches are written one at a time, the next one once the controller has deleted the znode,
+ * so a large election does not stall the controller.
+ */
+public final class PreferredLeaderElector {
+
+    private final ZKPipeline pipeline;
+
+
+    /**
+     * @param pipeline Zookeeper pipeline
+     */
+    public PreferredLeaderElector(final ZKPipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+
+
+    /**
+     * Count the partitions every broker leads and should lead
+     *
+     * @param topics topic descriptions
+     * @return leadership counts by broker id, ordered by broker id. Brokers which are neither leader nor preferred
+     * leader of any partition are not mapped.
+     */
+    public static Map<Integer, BrokerLeadership> getBrokerLeadership(final Collection<TopicDescription> topics) {
+        // Counts are leaders, preferred leaders and preferred leaders which do not lead
+        final Map<Integer, int[]> counts = new TreeMap<>();
+        for (TopicDescription topic : topics) {
+            for (PartitionDescription partition : topic.getPartitions()) {
+                if (partition.hasLeader()) {
+                    counts.computeIfAbsent(partition.getLeader(), brokerId -> new int[3])[0]++;
+                }
+                final int preferredLeader = partition.getPreferredLeader();
+                if (preferredLeader != PartitionDescription.NO_LEADER) {
+                    final int[] preferredCounts = counts.computeIfAbsent(preferredLeader, brokerId -> new int[3]);
+                    preferredCounts[1]++;
+                    if (partition.getLeader() != preferredLeader) {
+                        preferredCounts[2]++;
+                    }
+                }
+            }
+        }
+
+        final Map<Integer, BrokerLeadership> leadership = new TreeMap<>();
+        for (Map.Entry<Integer, int[]> entry : counts.entrySet()) {
+            final int[] brokerCounts = entry.getValue();
+            leadership.put(entry.getKey(),
+                    new BrokerLeadership(entry.getKey(), brokerCounts[0], brokerCounts[1], brokerCounts[2]));
+        }
+        return leadership;
+    }
+
+
+    /**
+     * Find the partitions a preferred replica election would move
+     *
+     * @param topics topic descriptions
+     * @return partitions which are not led by their preferred leader while it is in sync
+     */
+    public static List<TopicPartition> getImbalancedPartitions(final Collection<TopicDescription> topics) {
+        final List<TopicPartition> partitions = new ArrayList<>();
+        for (TopicDescription topic : topics) {
+            for (PartitionDescription partition : topic.getPartitions()) {
+                final int preferredLeader = partition.getPreferredLeader();
+                // The controller cannot elect a preferred leader which is out of sync
+                if (partition.getLeader() != preferredLeader && partition.isInSync(preferredLeader)) {
+                    partitions.add(new TopicPartition(topic.getTopicName(), partition.getPartition()));
+                }
+            }
+        }
+        return partitions;
+    }
+
+
+    /**
+     * Run preferred replica elections
+     *
+     * @param partitions            partitions whose leadership moves to the preferred replica
+     * @param maxPartitionsPerBatch maximum number of partitions elected at once
+     * @return future completed once the controller has run the election of every partition. It completes
+     * exceptionally with {@link TopicOperationException} if Zookeeper fails. Cancelling it stops before the next
+     * batch is written.
+     * @throws IllegalArgumentException if maxPartitionsPerBatch is not greater than zero
+     */
+    public CompletableFuture<Void> elect(final List<TopicPartition> partitions, final int maxPartitionsPerBatch) {
+        if (maxPartitionsPerBatch <= 0) {
+            throw new IllegalArgumentException("Maximum partitions per batch must be greater than zero");
+        }
+        final List<byte[]> batches = new ArrayList<>();
+        for (int from = 0; from < partitions.size(); from += maxPartitionsPerBatch) {
+            final int to = Math.min(partitions.size(), from + maxPartitionsPerBatch);
+            batches.add(TopicJson.encodePreferredReplicaElection(partitions.subList(from, to)));
+        }
+        return new AdminBatchWriter(pipeline, TopicZKPaths.PREFERRED_REPLICA_ELECTION_PATH).write(batches);
+    }
+}
@@ -0,0 +1,228 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.topic;
+
+import com.mcafee.dxl.streaming.operations.client.topic.entities.PartitionDescription;
+import com.mcafee.dxl.streaming.operations.client.topic.entities.PartitionReassignment;
+import com.mcafee.dxl.streaming.operations.client.topic.entities.TopicDescription;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * It plans a partition reassignment which spreads replicas evenly over a set of target brokers while moving few
+ * replicas.
+ * <p>
+ * Every target broker gets a capacity of either floor or ceil of the average number of replicas per broker, the
+ * ceil going to the brokers which already hold most replicas. Only replicas on brokers outside the target set and
+ * replicas above the capacity of their broker are moved. Follower replicas are moved before preferred leaders. Each
+ * moved replica goes to the target broker with most free capacity which does not hold the partition yet, and keeps
+ * its position in the replica list.
+ * <p>
+ * The plan is greedy, not optimal. When every broker with free capacity already holds a partition, its replica goes
+ * to a broker at capacity, so a few brokers may end up above their share, and a plan moving fewer replicas may
+ * exist.
+ * <p>
+ * It runs in O(R log B) time for R replicas and B brokers, so plans for hundreds of thousands of partitions are
+ * computed in well under a second.
+ */
+public final class ReassignmentPlanner {
+
+    /**
+     * Class constants
+     */
+    private static final int UNASSIGNED = -1;
+
+    private ReassignmentPlanner() {
+
+    }
+
+
+    /**
+     * Plan a reassignment
+     *
+     * @param topics          current assignment of the topics to rebalance
+     * @param targetBrokerIds ids of the brokers which hold the replicas after the reassignment
+     * @return reassignments of the partitions whose replicas change
+     * @throws IllegalArgumentException if there are no target brokers or a partition has more replicas than target
+     *                                  brokers
+     */
+    public static List<PartitionReassignment> plan(final Collection<TopicDescription> topics,
+                                                   final int[] targetBrokerIds) {
+        final Map<Integer, Integer> brokerIndexes = new HashMap<>();
+        for (int brokerId : targetBrokerIds) {
+            brokerIndexes.putIfAbsent(brokerId, brokerIndexes.size());
+        }
+        final int brokerCount = brokerIndexes.size();
+        if (brokerCount == 0) {
+            throw new IllegalArgumentException("Target brokers cannot be empty");
+        }
+        final int[] brokerIds = new int[brokerCount];
+        for (Map.Entry<Integer, Integer> entry : brokerIndexes.entrySet()) {
+            brokerIds[entry.getValue()] = entry.getKey();
+        }
+
+        // Replicas are tracked as target broker indexes, UNASSIGNED standing for a replica which must move
+        final List<PartitionDescription> partitions = new ArrayList<>();
+        final List<String> topicNames = new ArrayList<>();
+        final List<int[]> assignment = new ArrayList<>();
+        final int[] load = new int[brokerCount];
+        int replicaCount = 0;
+        for (TopicDescription topic : topics) {
+            for (PartitionDescription partition : topic.getPartitions()) {
+                final int[] replicas = partition.getReplicas();
+                if (replicas.length > brokerCount) {
+                    throw new IllegalArgumentException("Partition " + topic.getTopicName() + "-"
+                            + partition.getPartition() + " replication factor " + replicas.length
+                            + " larger than target brokers " + brokerCount);
+                }
+                final int[] brokers = new int[replicas.length];
+                for (int i = 0; i < replicas.length; i++) {
+                    final Integer brokerIndex = brokerIndexes.get(replicas[i]);
+                    brokers[i] = brokerIndex != null ? brokerIndex : UNASSIGNED;
+                    if (brokerIndex != null) {
+                        load[brokerIndex]++;
+                    }
+                }
+                partitions.add(partition);
+                topicNames.add(topic.getTopicName());
+                assignment.add(brokers);
+                replicaCount += replicas.length;
+            }
+        }
+
+        final int[] capacity = getCapacities(load, brokerIds, replicaCount);
+        unassignExcessReplicas(assignment, load, capacity);
+        assignReplicas(assignment, load, capacity, brokerIds);
+
+        final List<PartitionReassignment> reassignments = new ArrayList<>();
+        for (int i = 0; i < partitions.size(); i++) {
+            final int[] replicas = partitions.get(i).getReplicas();
+            final int[] targetReplicas = new int[replicas.length];
+            for (int j = 0; j < replicas.length; j++) {
+                targetReplicas[j] = brokerIds[assignment.get(i)[j]];
+            }
+            if (!Arrays.equals(replicas, targetReplicas)) {
+                reassignments.add(new PartitionReassignment(topicNames.get(i), partitions.get(i).getPartition(),
+                        replicas, targetReplicas));
+            }
+        }
+        return reassignments;
+    }
+
+
+    /**
+     * @param load         number of replicas on every target broker
+     * @param brokerIds    target broker ids
+     * @param replicaCount number of replicas to spread
+     * @return number of replicas every target broker holds after the reassignment
+     */
+    private static int[] getCapacities(final int[] load, final int[] brokerIds, final int replicaCount) {
+        final Integer[] byLoad = new Integer[load.length];
+        for (int i = 0; i < load.length; i++) {
+            byLoad[i] = i;
+        }
+        // Giving the extra replicas to the most loaded brokers keeps them where they are
+        Arrays.sort(byLoad, Comparator.<Integer>comparingInt(i -> -load[i]).thenComparingInt(i -> brokerIds[i]));
+
+        final int[] capacity = new int[load.length];
+        for (int i = 0; i < byLoad.length; i++) {
+            capacity[byLoad[i]] = replicaCount / load.length + (i < replicaCount % load.length ? 1 : 0);
+        }
+        return capacity;
+    }
+
+
+    /**
+     * Unassign replicas above the capacity of their broker, followers first
+     *
+     * @param assignment target broker indexes of every partition
+     * @param load       number of replicas on every target broker. It is updated.
+     * @param capacity   number of replicas every target broker holds after the reassignment
+     */
+    private static void unassignExcessReplicas(final List<int[]> assignment, final int[] load, final int[] capacity) {
+        final int[] excess = new int[load.length];
+        boolean overloaded = false;
+        for (int i = 0; i < load.length; i++) {
+            excess[i] = Math.max(0, load[i] - capacity[i]);
+            overloaded |= excess[i] > 0;
+        }
+        if (!overloaded) {
+            return;
+        }
+
+        // Moving a preferred leader moves leadership, so they are only moved when followers are not enough
+        for (boolean leaders : new boolean[]{false, true}) {
+            for (int[] brokers : assignment) {
+                final int from = leaders ? 0 : 1;
+                final int to = leaders ? Math.min(1, brokers.length) : brokers.length;
+                for (int j = from; j < to; j++) {
+                    final int broker = brokers[j];
+                    if (broker != UNASSIGNED && excess[broker] > 0) {
+                        excess[broker]--;
+                        load[broker]--;
+                        brokers[j] = UNASSIGNED;
+                    }
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Assign every unassigned replica to the broker with most free capacity which does not hold the partition
+     *
+     * @param assignment target broker indexes of every partition. It is updated.
+     * @param load       number of replicas on every target broker. It is updated.
+     * @param capacity   number of replicas every target broker holds after the reassignment
+     * @param brokerIds  target broker ids
+     */
+    private static void assignReplicas(final List<int[]> assignment,
+                                       final int[] load,
+                                       final int[] capacity,
+                                       final int[] brokerIds) {
+        final PriorityQueue<Integer> byFreeCapacity = new PriorityQueue<>(load.length,
+                Comparator.<Integer>comparingInt(i -> load[i] - capacity[i]).thenComparingInt(i -> brokerIds[i]));
+        for (int i = 0; i < load.length; i++) {
+            byFreeCapacity.add(i);
+        }
+
+        final List<Integer> skipped = new ArrayList<>();
+        for (int[] brokers : assignment) {
+            for (int j = 0; j < brokers.length; j++) {
+                if (brokers[j] != UNASSIGNED) {
+                    continue;
+                }
+                // A partition holds fewer brokers than there are target brokers, so a candidate is always found
+                Integer candidate = byFreeCapacity.poll();
+                while (contains(brokers, candidate)) {
+                    skipped.add(candidate);
+                    candidate = byFreeCapacity.poll();
+                }
+                brokers[j] = candidate;
+                load[candidate]++;
+                byFreeCapacity.add(candidate);
+                byFreeCapacity.addAll(skipped);
+                skipped.clear();
+            }
+        }
+    }
+
+
+    private static boolean contains(final int[] brokers, final int broker) {
+        for (int b : brokers) {
+            if (b == broker) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.topic;
+
+import java.util.Random;
+
+/**
+ * It assigns partition replicas to brokers with the same algorithm as Kafka admin tools, so it can be computed
+ * locally for many topics from a single broker list.
+ * <p>
+ * The first replica of each partition is assigned round-robin starting at a random broker, and the remaining
+ * replicas are shifted by an increasing amount so replicas of a failed broker are spread across the cluster.
+ */
+public final class ReplicaAssigner {
+
+    private ReplicaAssigner() {
+
+    }
+
+
+    /**
+     * Assign replicas starting at random positions
+     *
+     * @param brokerIds         sorted broker ids
+     * @param partitions        number of partitions to assign
+     * @param replicationFactor number of replicas of each partition
+     * @param startPartitionId  id of the first partition to assign
+     * @param random            random source of the start positions
+     * @return replica broker ids indexed by partition id minus startPartitionId
+     * @throws IllegalArgumentException if the replication factor is greater than the number of brokers
+     */
+    public static int[][] assignReplicas(final int[] brokerIds,
+                                         final int partitions,
+                                         final int replicationFactor,
+                                         final int startPartitionId,
+                                         final Random random) {
+        final int brokerCount = Math.max(1, brokerIds.length);
+        return assignReplicas(brokerIds, partitions, replicationFactor, startPartitionId,
+                random.nextInt(brokerCount), random.nextInt(brokerCount));
+    }
+
+
+    /**
+     * Assign replicas
+     *
+     * @param brokerIds         sorted broker ids
+     * @param partitions        number of partitions to assign
+     * @param replicationFactor number of replicas of each partition
+     * @param startPartitionId  id of the first partition to assign
+     * @param startIndex        index of the broker which holds the first replica of partition zero
+     * @param replicaShift      initial shift between the first and the second replica
+     * @return replica broker ids indexed by partition id minus startPartitionId
+     * @throws IllegalArgumentException if the replication factor is greater than the number of brokers
+     */
+    static int[][] assignReplicas(final int[] brokerIds,
+                                  final int partitions,
+                                  final int replicationFactor,
+                                  final int startPartitionId,
+                                  final int startIndex,
+                                  final int replicaShift) {
+        if (partitions <= 0) {
+            throw new IllegalArgumentException("Number of partitions must be greater than zero");
+        }
+        if (replicationFactor <= 0) {
+            throw new IllegalArgumentException("Replication factor must be greater than zero");
+        }
+        if (replicationFactor > brokerIds.length) {
+            throw new IllegalArgumentException("Replication factor " + replicationFactor
+                    + " larger than available brokers " + brokerIds.length);
+        }
+
+        final int brokerCount = brokerIds.length;
+        final int[][] assignment = new int[partitions][];
+        int nextReplicaShift = replicaShift;
+        int partitionId = Math.max(0, startPartitionId);
+        for (int i = 0; i < partitions; i++, partitionId++) {
+            if (partitionId > 0 && partitionId % brokerCount == 0) {
+                nextReplicaShift++;
+            }
+            final int firstReplicaIndex = (partitionId + startIndex) % brokerCount;
+            final int[] replicas = new int[replicationFactor];
+            replicas[0] = brokerIds[firstReplicaIndex];
+            for (int j = 1; j < replicationFactor; j++) {
+                final int shift = 1 + (nextReplicaShift + j - 1) % (brokerCount - 1);
+                replicas[j] = brokerIds[(firstReplicaIndex + shift) % brokerCount];
+            }
+            assignment[i] = replicas;
+        }
+        return assignment;
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.topic;
+
+import com.mcafee.dxl.streaming.operations.client.exception.TopicOperationException;
+import org.apache.zookeeper.KeeperException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * It reads the configuration overrides of many topics in a single pipelined sweep.
+ * <p>
+ * The topic list is read once and a getData request is sent for the configuration znode of every requested topic
+ * that exists, without waiting for previous responses. The pipeline window bounds the outstanding requests, so
+ * throughput is limited by Zookeeper rather than by round trip latency.
+ * <p>
+ * A configuration znode which is malformed or cannot be read only leaves its topic out of the result, so one bad
+ * topic does not hide the configurations of the others. The sweep fails only if the topic list cannot be read.
+ */
+public final class TopicConfigReader {
+
+    private final ZKPipeline pipeline;
+
+
+    /**
+     * @param pipeline Zookeeper pipeline
+     */
+    public TopicConfigReader(final ZKPipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+
+
+    /**
+     * Read the configuration overrides of all topics
+     *
+     * @return future completed with the configuration overrides by topic name. A topic without overrides is mapped
+     * to empty properties. Topics whose configuration is malformed or could not be read are not mapped. It completes
+     * exceptionally with {@link TopicOperationException} if the topic list could not be read.
+     */
+    public CompletableFuture<Map<String, Properties>> readAllTopicProperties() {
+        return readTopics().thenCompose(this::readTopicProperties);
+    }
+
+
+    /**
+     * Read the configuration overrides of some topics
+     *
+     * @param topicNames topic names
+     * @return future completed with the configuration overrides by topic name. Topics which do not exist and topics
+     * whose configuration is malformed or could not be read are not mapped. It completes exceptionally with
+     * {@link TopicOperationException} if the topic list could not be read.
+     */
+    public CompletableFuture<Map<String, Properties>> readTopicProperties(final Collection<String> topicNames) {
+        final List<String> requestedTopics = new ArrayList<>(topicNames);
+        return readTopics().thenCompose(existingTopics -> {
+            final Set<String> existing = new HashSet<>(existingTopics);
+            final List<String> topics = new ArrayList<>(requestedTopics.size());
+            for (String topicName : requestedTopics) {
+                if (existing.remove(topicName)) {
+                    topics.add(topicName);
+                }
+            }
+            return readTopicProperties(topics);
+        });
+    }
+
+
+    /**
+     * @return future completed with all topic names
+     */
+    private CompletableFuture<List<String>> readTopics() {
+        final CompletableFuture<List<String>> result = new CompletableFuture<>();
+        pipeline.getChildren(TopicZKPaths.BROKER_TOPICS_PATH, null).whenComplete((topics, e) -> {
+            if (e == null) {
+                result.complete(topics);
+            } else if (ZKPipeline.errorCode(e) == KeeperException.Code.NONODE) {
+                result.complete(new ArrayList<>());
+            } else {
+                result.completeExceptionally(ZKPipeline.toTopicOperationException("", e, this.getClass()));
+            }
+        });
+        return result;
+    }
+
+
+    /**
+     * Pipeline a getData request per topic
+     *
+     * @param topics names of existing topics, without duplicates
+     * @return future completed with the configuration overrides by topic name. Topics whose configuration is
+     * malformed or could not be read are not mapped. It never completes exceptionally.
+     */
+    private CompletableFuture<Map<String, Properties>> readTopicProperties(final List<String> topics) {
+        final List<CompletableFuture<Properties>> futures = new ArrayList<>(topics.size());
+        for (String topicName : topics) {
+            futures.add(pipeline.getData(TopicZKPaths.getTopicConfigPath(topicName), null)
+                    .handle((data, e) -> {
+                        if (e != null) {
+                            // A topic without configuration znode has no overrides
+                            return ZKPipeline.errorCode(e) == KeeperException.Code.NONODE ? new Properties() : null;
+                        }
+                        try {
+                            return TopicJson.decodeConfig(data);
+                        } catch (IllegalArgumentException malformed) {
+                            return null;
+                        }
+                    }));
+        }
+
+        return ZKPipeline.allOf(futures)
+                .thenApply(results -> {
+                    final Map<String, Properties> topicProperties = new HashMap<>(topics.size() * 4 / 3 + 1);
+                    for (int i = 0; i < topics.size(); i++) {
+                        final Properties properties = results.get(i);
+                        if (properties != null) {
+                            topicProperties.put(topics.get(i), properties);
+                        }
+                    }
+                    return topicProperties;
+                });
+    }
+
+}
@@ -0,0 +1,223 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.topic;
+
+import com.mcafee.dxl.streaming.operations.client.exception.TopicOperationException;
+import com.mcafee.dxl.streaming.operations.client.topic.entities.TopicConfigApplyResult;
+import kafka.log.LogConfig;
+import org.apache.kafka.common.KafkaException;
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.data.Stat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * It overrides topic configurations writing the same znodes as Kafka admin tools: the configuration znode and then
+ * a sequential change notification which makes brokers reload it.
+ * <p>
+ * Configurations can also be applied: the current configuration is read first, and nothing is written when it is
+ * already the desired one, so re-applying unchanged configurations does not make every broker reload them.
+ */
+public final class TopicConfigUpdater {
+
+    private final ZKPipeline pipeline;
+
+
+    /**
+     * @param pipeline Zookeeper pipeline
+     */
+    public TopicConfigUpdater(final ZKPipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+
+
+    /**
+     * Override a topic configuration without blocking
+     *
+     * @param topicName       topic name
+     * @param topicProperties topic configuration overrides. They replace the current ones.
+     * @return future completed on the Zookeeper event thread once brokers have been notified. It completes
+     * exceptionally with {@link TopicOperationException} if the topic does not exist, the configuration is invalid
+     * or Zookeeper fails.
+     */
+    public CompletableFuture<Void> overrideTopicProperties(final String topicName, final Properties topicProperties) {
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+        final byte[] config;
+        try {
+            LogConfig.validate(topicProperties);
+            config = TopicJson.encodeConfig(topicProperties);
+        } catch (IllegalArgumentException | KafkaException e) {
+            result.completeExceptionally(new TopicOperationException(topicName, e.getMessage(), e, this.getClass()));
+            return result;
+        }
+
+        pipeline.exists(TopicZKPaths.getTopicPath(topicName), null)
+                .thenCompose(stat -> {
+                    if (stat == null) {
+                        throw new TopicOperationException(topicName, "Topic " + topicName + " does not exist",
+                                null, this.getClass());
+                    }
+                    return writeConfig(topicName, config);
+                })
+                .whenComplete((path, e) -> {
+                    if (e == null) {
+                        result.complete(null);
+                    } else {
+                        result.completeExceptionally(
+                                ZKPipeline.toTopicOperationException(topicName, e, this.getClass()));
+                    }
+                });
+        return result;
+    }
+
+
+    /**
+     * Apply a topic configuration without blocking, writing it only if it differs from the current one
+     *
+     * @param topicName       topic name
+     * @param topicProperties topic configuration overrides. They replace the current ones.
+     * @return future completed on the Zookeeper event thread with true if the configuration was written and brokers
+     * notified, or false if it was already in place. It completes exceptionally with {@link TopicOperationException}
+     * if the topic does not exist, the configuration is invalid or Zookeeper fails.
+     */
+    public CompletableFuture<Boolean> applyTopicProperties(final String topicName, final Properties topicProperties) {
+        final CompletableFuture<Boolean> result = new CompletableFuture<>();
+        try {
+            LogConfig.validate(topicProperties);
+        } catch (IllegalArgumentException | KafkaException e) {
+            result.completeExceptionally(new TopicOperationException(topicName, e.getMessage(), e, this.getClass()));
+            return result;
+        }
+
+        // Both reads are pipelined
+        final CompletableFuture<Stat> exists = pipeline.exists(TopicZKPaths.getTopicPath(topicName), null);
+        final CompletableFuture<byte[]> config = pipeline.getData(TopicZKPaths.getTopicConfigPath(topicName), null)
+                .exceptionally(e -> {
+                    if (ZKPipeline.errorCode(e) == KeeperException.Code.NONODE) {
+                        return null;
+                    }
+                    throw ZKPipeline.toTopicOperationException(topicName, e, this.getClass());
+                });
+        final CompletableFuture<Properties> currentProperties = exists.thenCombine(config, (stat, data) -> {
+            if (stat == null) {
+                throw new TopicOperationException(topicName, "Topic " + topicName + " does not exist", null,
+                        this.getClass());
+            }
+            try {
+                return TopicJson.decodeConfig(data);
+            } catch (IllegalArgumentException malformed) {
+                // A malformed configuration is overwritten
+                return null;
+            }
+        });
+        currentProperties.thenCompose(properties -> applyIfChanged(topicName, properties, topicProperties))
+                .whenComplete((changed, e) -> {
+                    if (e == null) {
+                        result.complete(changed);
+                    } else {
+                        result.completeExceptionally(
+                                ZKPipeline.toTopicOperationException(topicName, e, this.getClass()));
+                    }
+                });
+        return result;
+    }
+
+
+    /**
+     * Apply the configurations of many topics without blocking, writing only those which differ from the current
+     * ones
+     * <p>
+     * The existence and the current configuration of every topic are read with pipelined requests, and the writes
+     * and change notifications of the changed topics are pipelined as well. A malformed current configuration is
+     * overwritten. A topic failure, including a failure to read its configuration, does not affect the rest of the
+     * batch.
+     *
+     * @param topicProperties topic configuration overrides by topic name. They replace the current ones.
+     * @return future completed on the Zookeeper event thread with per-topic results in the iteration order of
+     * topicProperties. It never completes exceptionally.
+     */
+    public CompletableFuture<List<TopicConfigApplyResult>> applyTopicProperties(
+            final Map<String, Properties> topicProperties) {
+        final List<CompletableFuture<TopicConfigApplyResult>> futures = new ArrayList<>(topicProperties.size());
+        for (Map.Entry<String, Properties> request : topicProperties.entrySet()) {
+            futures.add(toResult(request.getKey(), request.getValue()));
+        }
+
+        return ZKPipeline.allOf(futures);
+    }
+
+
+    /**
+     * Apply a topic configuration of a batch
+     *
+     * @param topicName       topic name
+     * @param topicProperties desired configuration overrides
+     * @return future completed with the topic result. It never completes exceptionally.
+     */
+    private CompletableFuture<TopicConfigApplyResult> toResult(final String topicName,
+                                                               final Properties topicProperties) {
+        if (topicProperties == null) {
+            return CompletableFuture.completedFuture(TopicConfigApplyResult.failed(topicName,
+                    new TopicOperationException(topicName, "Topic properties cannot be null", null,
+                            this.getClass())));
+        }
+        return applyTopicProperties(topicName, topicProperties)
+                .handle((changed, e) -> {
+                    if (e != null) {
+                        return TopicConfigApplyResult.failed(topicName,
+                                ZKPipeline.toTopicOperationException(topicName, e, this.getClass()));
+                    }
+                    return changed ? TopicConfigApplyResult.changed(topicName)
+                            : TopicConfigApplyResult.unchanged(topicName);
+                });
+    }
+
+
+    /**
+     * @param topicName         topic name
+     * @param currentProperties current configuration overrides, or null if they are unknown
+     * @param topicProperties   desired configuration overrides
+     * @return future completed with true once the desired configuration has been written and brokers notified, or
+     * with false right away if it is the current one
+     */
+    private CompletableFuture<Boolean> applyIfChanged(final String topicName,
+                                                      final Properties currentProperties,
+                                                      final Properties topicProperties) {
+        if (currentProperties != null && toMap(currentProperties).equals(toMap(topicProperties))) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return writeConfig(topicName, TopicJson.encodeConfig(topicProperties)).thenApply(path -> true);
+    }
+
+
+    /**
+     * Write a configuration and notify brokers, in the same order as Kafka admin tools
+     *
+     * @param topicName topic name
+     * @param config    encoded configuration overrides
+     * @return future completed with the path of the change notification
+     */
+    private CompletableFuture<String> writeConfig(final String topicName, final byte[] config) {
+        return pipeline.createOrSetData(TopicZKPaths.getTopicConfigPath(topicName), config)
+                .thenCompose(ignored -> pipeline.create(TopicZKPaths.CONFIG_CHANGE_PREFIX,
+                        TopicJson.encodeConfigChange(topicName), CreateMode.PERSISTENT_SEQUENTIAL));
+    }
+
+
+    static Map<String, String> toMap(final Properties properties) {
+        final Map<String, String> map = new HashMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            map.put(name, properties.getProperty(name));
+        }
+        return map;
+    }
+
+}
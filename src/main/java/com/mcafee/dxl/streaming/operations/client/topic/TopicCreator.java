@@ -0,0 +1,214 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.topic;
+
+import com.mcafee.dxl.streaming.operations.client.exception.TopicOperationException;
+import com.mcafee.dxl.streaming.operations.client.topic.entities.TopicOperationResult;
+import com.mcafee.dxl.streaming.operations.client.topic.entities.TopicSpec;
+import kafka.log.LogConfig;
+import org.apache.kafka.common.KafkaException;
+import org.apache.zookeeper.KeeperException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * It creates a batch of topics writing the same znodes as Kafka admin tools.
+ * <p>
+ * Replica assignments are computed locally from a single broker list. Existence checks and znode writes of all
+ * topics are pipelined, so the batch costs a few Zookeeper round trips regardless of its size. A topic failure does
+ * not affect the rest of the batch.
+ */
+public final class TopicCreator {
+
+    private final ZKPipeline pipeline;
+    private final Random random;
+
+
+    /**
+     * @param pipeline Zookeeper pipeline
+     */
+    public TopicCreator(final ZKPipeline pipeline) {
+        this(pipeline, new Random());
+    }
+
+
+    /**
+     * @param pipeline Zookeeper pipeline
+     * @param random   random source of replica assignment start positions
+     */
+    TopicCreator(final ZKPipeline pipeline, final Random random) {
+        this.pipeline = pipeline;
+        this.random = random;
+    }
+
+
+    /**
+     * Create topics
+     *
+     * @param topicSpecs specifications of the topics to be created
+     * @param brokerIds  ids of the brokers which will hold the replicas
+     * @return per-topic results in the same order as topicSpecs
+     */
+    public List<TopicOperationResult> createTopics(final Collection<TopicSpec> topicSpecs,
+                                                   final Collection<Integer> brokerIds) {
+        return createTopicsAsync(topicSpecs, brokerIds).join();
+    }
+
+
+    /**
+     * Create topics without blocking
+     *
+     * @param topicSpecs specifications of the topics to be created
+     * @param brokerIds  ids of the brokers which will hold the replicas
+     * @return future completed with per-topic results in the same order as topicSpecs. It is completed on the
+     * Zookeeper event thread and never completes exceptionally.
+     * @throws IllegalArgumentException if topicSpecs contains a null specification
+     */
+    public CompletableFuture<List<TopicOperationResult>> createTopicsAsync(final Collection<TopicSpec> topicSpecs,
+                                                                           final Collection<Integer> brokerIds) {
+        final int[] sortedBrokerIds = brokerIds.stream().mapToInt(Integer::intValue).sorted().toArray();
+        final List<TopicSpec> specs = new ArrayList<>(topicSpecs);
+        if (specs.contains(null)) {
+            throw new IllegalArgumentException("Topic specifications cannot contain null");
+        }
+
+        return getCollisionCandidates(specs).thenCompose(topicsByMetricName -> {
+            final Set<String> batchTopics = new HashSet<>();
+            final List<CompletableFuture<TopicOperationResult>> futures = new ArrayList<>(specs.size());
+            for (TopicSpec topicSpec : specs) {
+                futures.add(createTopic(topicSpec, sortedBrokerIds, topicsByMetricName, batchTopics));
+            }
+
+            return ZKPipeline.allOf(futures);
+        });
+    }
+
+
+    /**
+     * Validate a topic and pipeline its znode writes
+     *
+     * @param topicSpec          topic specification
+     * @param brokerIds          sorted broker ids
+     * @param topicsByMetricName existing and already submitted topics whose names may collide, by metric name
+     * @param batchTopics        names of the topics of the batch already submitted
+     * @return future completed with the topic result. It never completes exceptionally.
+     */
+    private CompletableFuture<TopicOperationResult> createTopic(final TopicSpec topicSpec,
+                                                                final int[] brokerIds,
+                                                                final Map<String, String> topicsByMetricName,
+                                                                final Set<String> batchTopics) {
+        final String topicName = topicSpec.getTopicName();
+        final byte[] config;
+        final byte[] assignment;
+        try {
+            if (!batchTopics.add(topicName)) {
+                throw new IllegalArgumentException("Topic " + topicName + " is duplicated in the batch");
+            }
+            if (hasCollisionChars(topicName)) {
+                final String collidingTopic = topicsByMetricName.putIfAbsent(toMetricName(topicName), topicName);
+                if (collidingTopic != null && !collidingTopic.equals(topicName)) {
+                    throw new IllegalArgumentException("Topic " + topicName + " collides with topic "
+                            + collidingTopic);
+                }
+            }
+            LogConfig.validate(topicSpec.getTopicProperties());
+            config = TopicJson.encodeConfig(topicSpec.getTopicProperties());
+            assignment = TopicJson.encodeAssignment(ReplicaAssigner.assignReplicas(brokerIds,
+                    topicSpec.getPartitions(), topicSpec.getReplicationFactor(), 0, random));
+        } catch (IllegalArgumentException | KafkaException e) {
+            return CompletableFuture.completedFuture(failed(topicName, e.getMessage(), e));
+        }
+
+        final String topicPath = TopicZKPaths.getTopicPath(topicName);
+        final String configPath = TopicZKPaths.getTopicConfigPath(topicName);
+
+        // Same order as Kafka admin tools: the controller reacts to the topic znode, so the configuration goes first
+        return pipeline.exists(topicPath, null)
+                .thenCompose(stat -> {
+                    if (stat != null) {
+                        throw new TopicOperationException(topicName, "Topic " + topicName + " already exists",
+                                null, this.getClass());
+                    }
+                    return pipeline.createOrSetData(configPath, config);
+                })
+                .thenCompose(ignored -> pipeline.create(topicPath, assignment))
+                .handle((path, e) -> e == null ? TopicOperationResult.succeeded(topicName) : toResult(topicName, e));
+    }
+
+
+    /**
+     * Read existing topics only if a topic of the batch may collide with them
+     *
+     * @param topicSpecs specifications of the topics to be created
+     * @return future completed with existing topic names which may collide, by metric name
+     */
+    private CompletableFuture<Map<String, String>> getCollisionCandidates(final Collection<TopicSpec> topicSpecs) {
+        final Map<String, String> topicsByMetricName = new HashMap<>();
+        for (TopicSpec topicSpec : topicSpecs) {
+            if (hasCollisionChars(topicSpec.getTopicName())) {
+                return pipeline.getChildren(TopicZKPaths.BROKER_TOPICS_PATH, null).handle((topicNames, e) -> {
+                    // On failure, topics are still checked for existence before being created
+                    if (topicNames != null) {
+                        for (String topicName : topicNames) {
+                            if (hasCollisionChars(topicName)) {
+                                topicsByMetricName.put(toMetricName(topicName), topicName);
+                            }
+                        }
+                    }
+                    return topicsByMetricName;
+                });
+            }
+        }
+        return CompletableFuture.completedFuture(topicsByMetricName);
+    }
+
+
+    private TopicOperationResult toResult(final String topicName, final Throwable throwable) {
+        Throwable cause = throwable;
+        while (cause.getCause() != null && !(cause instanceof TopicOperationException)
+                && !(cause instanceof KeeperException)) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof TopicOperationException) {
+            return TopicOperationResult.failed(topicName, (TopicOperationException) cause);
+        }
+        if (ZKPipeline.errorCode(cause) == KeeperException.Code.NODEEXISTS) {
+            return failed(topicName, "Topic " + topicName + " already exists", cause);
+        }
+        return failed(topicName, cause.getMessage(), cause);
+    }
+
+
+    private TopicOperationResult failed(final String topicName, final String message, final Throwable cause) {
+        return TopicOperationResult.failed(topicName,
+                new TopicOperationException(topicName, message, cause, this.getClass()));
+    }
+
+
+    /**
+     * @param topicName topic name
+     * @return true if the topic name contains characters which are mapped to the same metric name
+     */
+    private static boolean hasCollisionChars(final String topicName) {
+        return topicName.indexOf('.') >= 0 || topicName.indexOf('_') >= 0;
+    }
+
+
+    /**
+     * @param topicName topic name
+     * @return name used by Kafka metrics. Topics whose metric names are equal collide.
+     */
+    private static String toMetricName(final String topicName) {
+        return topicName.replace('.', '_');
+    }
+}
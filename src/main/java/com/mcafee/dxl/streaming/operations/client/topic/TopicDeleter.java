@@ -0,0 +1,246 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.topic;
+
+import com.mcafee.dxl.streaming.operations.client.common.ProbeScheduler;
+import com.mcafee.dxl.streaming.operations.client.exception.TopicOperationException;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.WatchedEvent;
+import org.apache.zookeeper.Watcher;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Supplier;
+
+/**
+ * It deletes many topics the same way as Kafka admin tools, by marking them for deletion under the delete topics
+ * znode, and follows their deletion.
+ * <p>
+ * Markers of all topics are created with pipelined requests. Then a child watch is kept on the delete topics znode
+ * and on the topics znode, and both children lists are read again whenever either changes. A topic is deleted once
+ * it is gone from the topics znode. Its deletion was refused if its marker is gone while the topic still exists,
+ * since the controller deletes a topic before its marker. Topics which are still pending when the deadline passes
+ * are failed, although the controller may still delete them later. Closing the deleter fails the pending topics of
+ * every deletion it is still following.
+ */
+public final class TopicDeleter implements AutoCloseable {
+
+    /**
+     * Class constants
+     */
+    private static final long RETRY_DELAY_MS = 1000;
+    private static final byte[] MARKER_DATA = new byte[0];
+    private static final String CLOSED_REASON = "was not deleted before the topic deleter was closed";
+
+    private final Supplier<ZKPipeline> pipelineSupplier;
+    private final ProbeScheduler scheduler;
+    private final Set<TopicDeletion> deletions = new HashSet<>();
+    private boolean closed;
+
+
+    /**
+     * @param pipelineSupplier it provides the Zookeeper pipeline used to mark and follow deletions
+     * @param scheduler        scheduler which fails pending topics when the deadline passes
+     */
+    public TopicDeleter(final Supplier<ZKPipeline> pipelineSupplier, final ProbeScheduler scheduler) {
+        this.pipelineSupplier = pipelineSupplier;
+        this.scheduler = scheduler;
+    }
+
+
+    /**
+     * Delete topics
+     *
+     * @param topicNames topic names
+     * @param timeoutMs  time in ms after which topics which are still pending are failed
+     * @return progress of the deletion. Topics which do not exist are failed, and every topic is failed if the
+     * deleter is closed.
+     * @throws IllegalArgumentException if timeoutMs is not greater than zero
+     */
+    public TopicDeletion deleteTopics(final Collection<String> topicNames, final long timeoutMs) {
+        if (timeoutMs <= 0) {
+            throw new IllegalArgumentException("Topic deletion timeout must be greater than zero");
+        }
+        final TopicDeletion deletion = new TopicDeletion(new LinkedHashSet<>(topicNames));
+        if (deletion.isDone()) {
+            return deletion;
+        }
+        final ZKPipeline pipeline = pipelineSupplier.get();
+        synchronized (this) {
+            if (closed) {
+                failPendingTopics(deletion, CLOSED_REASON);
+                return deletion;
+            }
+            deletions.add(deletion);
+        }
+        deletion.getResult().whenComplete((results, e) -> {
+            synchronized (this) {
+                deletions.remove(deletion);
+            }
+        });
+
+        final ScheduledFuture<?> deadline;
+        try {
+            deadline = scheduler.schedule(() -> failPendingTopics(deletion, "was not deleted within " + timeoutMs
+                    + " ms"), timeoutMs);
+        } catch (RejectedExecutionException e) { // Scheduler has been closed
+            failPendingTopics(deletion, CLOSED_REASON);
+            return deletion;
+        }
+        deletion.getResult().whenComplete((results, e) -> deadline.cancel(false));
+
+        pipeline.getChildren(TopicZKPaths.BROKER_TOPICS_PATH, null).whenComplete((existingTopics, e) -> {
+            if (e != null) {
+                failPendingTopics(deletion, e);
+                return;
+            }
+            final Set<String> existing = new HashSet<>(existingTopics);
+            final List<CompletableFuture<Void>> markers = new ArrayList<>();
+            for (String topicName : deletion.getPendingTopics()) {
+                if (!existing.contains(topicName)) {
+                    deletion.failed(topicName, new TopicOperationException(topicName,
+                            "Topic " + topicName + " does not exist", null, this.getClass()));
+                } else {
+                    markers.add(markForDeletion(pipeline, deletion, topicName));
+                }
+            }
+            CompletableFuture.allOf(markers.toArray(new CompletableFuture[markers.size()]))
+                    .whenComplete((ignored, markerError) -> watchDeletion(deletion, deletionWatcher(deletion)));
+        });
+        return deletion;
+    }
+
+
+    /**
+     * @param pipeline  Zookeeper pipeline
+     * @param deletion  deletion progress
+     * @param topicName topic name
+     * @return future completed once the marker has been created. A topic which was already marked is not failed.
+     */
+    private CompletableFuture<Void> markForDeletion(final ZKPipeline pipeline,
+                                                    final TopicDeletion deletion,
+                                                    final String topicName) {
+        return pipeline.create(TopicZKPaths.getDeleteTopicPath(topicName), MARKER_DATA).handle((path, e) -> {
+            if (e != null && ZKPipeline.errorCode(e) != KeeperException.Code.NODEEXISTS) {
+                deletion.failed(topicName, ZKPipeline.toTopicOperationException(topicName, e, this.getClass()));
+            }
+            return null;
+        });
+    }
+
+
+    /**
+     * @param deletion deletion progress
+     * @return watcher which reads both children lists again. A single instance is used per deletion, so Zookeeper
+     * keeps at most one watch per znode for it.
+     */
+    private Watcher deletionWatcher(final TopicDeletion deletion) {
+        return new Watcher() {
+            @Override
+            public void process(final WatchedEvent event) {
+                if (deletion.isDone()) {
+                    return;
+                }
+                if (event.getType() == Event.EventType.None) {
+                    // Watches survive disconnections but not session expiration
+                    if (event.getState() == Event.KeeperState.Expired) {
+                        failPendingTopics(deletion, new TopicOperationException("",
+                                "Zookeeper session expired while waiting for topic deletion", null,
+                                TopicDeleter.class));
+                    }
+                    return;
+                }
+                watchDeletion(deletion, this);
+            }
+        };
+    }
+
+
+    /**
+     * Read the markers and the topics, setting a child watch on both, and update the deletion progress
+     *
+     * @param deletion deletion progress
+     * @param watcher  watcher of the deletion
+     */
+    private void watchDeletion(final TopicDeletion deletion, final Watcher watcher) {
+        if (deletion.isDone()) {
+            return;
+        }
+        // Markers are read first, so a topic whose marker is gone and which still exists has been refused
+        final ZKPipeline pipeline = pipelineSupplier.get();
+        final CompletableFuture<List<String>> markers = pipeline.getChildren(TopicZKPaths.DELETE_TOPICS_PATH, watcher);
+        final CompletableFuture<List<String>> topics = pipeline.getChildren(TopicZKPaths.BROKER_TOPICS_PATH, watcher);
+        markers.thenCombine(topics, (markedTopics, existingTopics) -> {
+            final Set<String> marked = new HashSet<>(markedTopics);
+            final Set<String> existing = new HashSet<>(existingTopics);
+            for (String topicName : deletion.getPendingTopics()) {
+                if (!existing.contains(topicName)) {
+                    deletion.deleted(topicName);
+                } else if (!marked.contains(topicName)) {
+                    deletion.failed(topicName, new TopicOperationException(topicName, "Deletion of topic "
+                            + topicName + " was refused. Brokers may have delete.topic.enable set to false", null,
+                            TopicDeleter.class));
+                }
+            }
+            return null;
+        }).whenComplete((ignored, e) -> {
+            if (e != null) {
+                // A watch is only set once its read succeeds. The deadline bounds the retries.
+                try {
+                    scheduler.schedule(() -> watchDeletion(deletion, watcher), RETRY_DELAY_MS);
+                } catch (RejectedExecutionException rejected) { // Scheduler has been closed
+                    failPendingTopics(deletion, e);
+                }
+            }
+        });
+    }
+
+
+    /**
+     * Fail the pending topics of every deletion which is still followed, and fail any later deletion
+     */
+    @Override
+    public void close() {
+        final List<TopicDeletion> liveDeletions;
+        synchronized (this) {
+            closed = true;
+            liveDeletions = new ArrayList<>(deletions);
+        }
+        for (TopicDeletion deletion : liveDeletions) {
+            failPendingTopics(deletion, CLOSED_REASON);
+        }
+    }
+
+
+    /**
+     * @param deletion deletion progress
+     * @param reason   reason why pending topics could not be deleted, following the topic name in the message
+     */
+    private static void failPendingTopics(final TopicDeletion deletion, final String reason) {
+        for (String topicName : deletion.getPendingTopics()) {
+            deletion.failed(topicName, new TopicOperationException(topicName,
+                    "Topic " + topicName + " " + reason, null, TopicDeleter.class));
+        }
+    }
+
+
+    /**
+     * @param deletion  deletion progress
+     * @param throwable reason why pending topics could not be deleted
+     */
+    private void failPendingTopics(final TopicDeletion deletion, final Throwable throwable) {
+        for (String topicName : deletion.getPendingTopics()) {
+            deletion.failed(topicName, ZKPipeline.toTopicOperationException(topicName, throwable, this.getClass()));
+        }
+    }
+
+}
@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.topic;
+
+import com.mcafee.dxl.streaming.operations.client.exception.TopicOperationException;
+import com.mcafee.dxl.streaming.operations.client.topic.entities.TopicOperationResult;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Progress of a batch topic deletion
+ * <p>
+ * Kafka deletes topics asynchronously, so the status of every topic is updated as the controller deletes them.
+ * The result completes once every topic is either deleted or failed.
+ */
+public final class TopicDeletion {
+
+    private final Map<String, TopicDeletionStatusName> statuses = new LinkedHashMap<>();
+    private final Map<String, TopicOperationException> errors = new HashMap<>();
+    private final CompletableFuture<List<TopicOperationResult>> result = new CompletableFuture<>();
+    private int pendingTopicCount;
+
+
+    /**
+     * @param topicNames names of the topics to be deleted, without duplicates
+     */
+    TopicDeletion(final Collection<String> topicNames) {
+        for (String topicName : topicNames) {
+            statuses.put(topicName, TopicDeletionStatusName.PENDING);
+        }
+        pendingTopicCount = statuses.size();
+        if (pendingTopicCount == 0) {
+            result.complete(new ArrayList<>());
+        }
+    }
+
+
+    /**
+     * @param topicName topic name
+     * @return deletion status of the topic, or null if its deletion was not requested
+     */
+    public synchronized TopicDeletionStatusName getStatus(final String topicName) {
+        return statuses.get(topicName);
+    }
+
+
+    /**
+     * @return a copy of the deletion status of every topic, in request order
+     */
+    public synchronized Map<String, TopicDeletionStatusName> getStatuses() {
+        return new LinkedHashMap<>(statuses);
+    }
+
+
+    /**
+     * @return number of topics which are still being deleted
+     */
+    public synchronized int getPendingTopicCount() {
+        return pendingTopicCount;
+    }
+
+
+    /**
+     * @return future completed with per-topic results in request order once no topic is pending
+     */
+    public CompletableFuture<List<TopicOperationResult>> getResult() {
+        return result;
+    }
+
+
+    /**
+     * @return true if no topic is pending
+     */
+    public boolean isDone() {
+        return result.isDone();
+    }
+
+
+    /**
+     * @return names of the pending topics
+     */
+    synchronized List<String> getPendingTopics() {
+        final List<String> pendingTopics = new ArrayList<>(pendingTopicCount);
+        for (Map.Entry<String, TopicDeletionStatusName> entry : statuses.entrySet()) {
+            if (entry.getValue() == TopicDeletionStatusName.PENDING) {
+                pendingTopics.add(entry.getKey());
+            }
+        }
+        return pendingTopics;
+    }
+
+
+    /**
+     * @param topicName name of a topic which does not exist anymore
+     */
+    void deleted(final String topicName) {
+        complete(topicName, TopicDeletionStatusName.DELETED, null);
+    }
+
+
+    /**
+     * @param topicName name of a topic which could not be deleted
+     * @param error     reason why it could not be deleted
+     */
+    void failed(final String topicName, final TopicOperationException error) {
+        complete(topicName, TopicDeletionStatusName.FAILED, error);
+    }
+
+
+    /**
+     * Update the status of a pending topic. The result is completed outside the lock, so its dependent actions
+     * cannot block status updates.
+     *
+     * @param topicName topic name
+     * @param status    final status of the topic
+     * @param error     reason why it could not be deleted, or null
+     */
+    private void complete(final String topicName,
+                          final TopicDeletionStatusName status,
+                          final TopicOperationException error) {
+        final List<TopicOperationResult> results;
+        synchronized (this) {
+            if (statuses.get(topicName) != TopicDeletionStatusName.PENDING) {
+                return;
+            }
+            statuses.put(topicName, status);
+            if (error != null) {
+                errors.put(topicName, error);
+            }
+            pendingTopicCount--;
+            results = pendingTopicCount == 0 ? getResults() : null;
+        }
+        if (results != null) {
+            result.complete(results);
+        }
+    }
+
+
+    /**
+     * @return per-topic results in request order
+     */
+    private List<TopicOperationResult> getResults() {
+        final List<TopicOperationResult> results = new ArrayList<>(statuses.size());
+        for (String topicName : statuses.keySet()) {
+            final TopicOperationException error = errors.get(topicName);
+            results.add(error == null ? TopicOperationResult.succeeded(topicName)
+                    : TopicOperationResult.failed(topicName, error));
+        }
+        return results;
+    }
+}
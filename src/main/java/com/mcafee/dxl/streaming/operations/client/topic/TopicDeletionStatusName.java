@@ -0,0 +1,26 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.topic;
+
+/**
+ * It enumerates the status names of a topic being deleted
+ */
+public enum TopicDeletionStatusName {
+    /**
+     * The topic is marked for deletion and still exists
+     */
+    PENDING,
+
+    /**
+     * The topic does not exist anymore
+     */
+    DELETED,
+
+    /**
+     * The topic could not be marked for deletion, the brokers refused to delete it or it was not deleted before
+     * the deadline
+     */
+    FAILED
+}
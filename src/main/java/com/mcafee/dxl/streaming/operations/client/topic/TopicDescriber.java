@@ -0,0 +1,173 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.topic;
+
+import com.mcafee.dxl.streaming.operations.client.exception.TopicOperationException;
+import com.mcafee.dxl.streaming.operations.client.topic.entities.PartitionDescription;
+import com.mcafee.dxl.streaming.operations.client.topic.entities.TopicDescription;
+import org.apache.zookeeper.KeeperException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * It describes topic partitions reading the same znodes as Kafka admin tools: the partition assignment of every
+ * topic and the leader and in-sync replicas of every partition.
+ * <p>
+ * All reads are pipelined. The assignments of all topics are requested at once, and the partition states of a
+ * topic are requested as soon as its assignment arrives. When many topics are described, a topic whose assignment
+ * or partition state is malformed is left out rather than failing the others.
+ */
+public final class TopicDescriber {
+
+    private final ZKPipeline pipeline;
+
+
+    /**
+     * @param pipeline Zookeeper pipeline
+     */
+    public TopicDescriber(final ZKPipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+
+
+    /**
+     * Describe all topics
+     *
+     * @return future completed with topic descriptions by topic name. Topics whose assignment or partition state is
+     * malformed are not mapped. It completes exceptionally with {@link TopicOperationException} if Zookeeper fails.
+     */
+    public CompletableFuture<Map<String, TopicDescription>> describeAllTopics() {
+        return pipeline.getChildren(TopicZKPaths.BROKER_TOPICS_PATH, null)
+                .exceptionally(e -> {
+                    if (ZKPipeline.errorCode(e) == KeeperException.Code.NONODE) {
+                        return new ArrayList<>();
+                    }
+                    throw ZKPipeline.toTopicOperationException("", e, this.getClass());
+                })
+                .thenCompose(this::describeTopics);
+    }
+
+
+    /**
+     * Describe some topics
+     *
+     * @param topicNames topic names
+     * @return future completed with topic descriptions by topic name, in the order of topicNames. Topics which do
+     * not exist and topics whose assignment or partition state is malformed are not mapped. It completes
+     * exceptionally with {@link TopicOperationException} if Zookeeper fails.
+     */
+    public CompletableFuture<Map<String, TopicDescription>> describeTopics(final Collection<String> topicNames) {
+        final List<String> topics = new ArrayList<>(topicNames);
+        final List<CompletableFuture<TopicDescription>> futures = new ArrayList<>(topics.size());
+        for (String topicName : topics) {
+            futures.add(describeTopic(topicName).exceptionally(e -> {
+                if (isMalformed(e)) {
+                    return null;
+                }
+                throw ZKPipeline.toTopicOperationException(topicName, e, this.getClass());
+            }));
+        }
+
+        return ZKPipeline.allOf(futures)
+                .handle((results, e) -> {
+                    if (e != null) {
+                        throw ZKPipeline.toTopicOperationException("", e, this.getClass());
+                    }
+                    final Map<String, TopicDescription> descriptions = new LinkedHashMap<>();
+                    for (int i = 0; i < topics.size(); i++) {
+                        final TopicDescription description = results.get(i);
+                        if (description != null) {
+                            descriptions.put(topics.get(i), description);
+                        }
+                    }
+                    return descriptions;
+                });
+    }
+
+
+    /**
+     * Describe a topic
+     *
+     * @param topicName topic name
+     * @return future completed with the topic description, or null if the topic does not exist. It completes
+     * exceptionally with {@link TopicOperationException} if its assignment or a partition state is malformed or if
+     * Zookeeper fails.
+     */
+    public CompletableFuture<TopicDescription> describeTopic(final String topicName) {
+        return pipeline.getData(TopicZKPaths.getTopicPath(topicName), null)
+                .handle((data, e) -> {
+                    if (e == null) {
+                        return decode(topicName, () -> TopicJson.decodeAssignment(data));
+                    }
+                    if (ZKPipeline.errorCode(e) == KeeperException.Code.NONODE) {
+                        return null;
+                    }
+                    throw ZKPipeline.toTopicOperationException(topicName, e, this.getClass());
+                })
+                .thenCompose(assignment -> assignment == null
+                        ? CompletableFuture.completedFuture(null)
+                        : describePartitions(topicName, assignment));
+    }
+
+
+    /**
+     * Pipeline a state read per partition
+     *
+     * @param topicName  topic name
+     * @param assignment replica broker ids indexed by partition id
+     * @return future completed with the topic description
+     */
+    private CompletableFuture<TopicDescription> describePartitions(final String topicName, final int[][] assignment) {
+        final PartitionDescription[] partitions = new PartitionDescription[assignment.length];
+        final CompletableFuture<?>[] futures = new CompletableFuture[assignment.length];
+        for (int partition = 0; partition < assignment.length; partition++) {
+            final int partitionId = partition;
+            futures[partition] = pipeline.getData(TopicZKPaths.getPartitionStatePath(topicName, partition), null)
+                    .handle((data, e) -> {
+                        if (e != null && ZKPipeline.errorCode(e) != KeeperException.Code.NONODE) {
+                            throw ZKPipeline.toTopicOperationException(topicName, e, this.getClass());
+                        }
+                        // A partition has no state until the controller elects its first leader
+                        partitions[partitionId] = decode(topicName,
+                                () -> TopicJson.decodePartitionState(partitionId, assignment[partitionId], data));
+                        return null;
+                    });
+        }
+        return CompletableFuture.allOf(futures).thenApply(ignored -> new TopicDescription(topicName, partitions));
+    }
+
+
+    /**
+     * @param topicName topic name
+     * @param decoder   decoder of znode data
+     * @param <T>       decoded type
+     * @return decoded znode data
+     * @throws TopicOperationException if the znode data is malformed
+     */
+    private <T> T decode(final String topicName, final Supplier<T> decoder) {
+        try {
+            return decoder.get();
+        } catch (IllegalArgumentException e) {
+            throw new TopicOperationException(topicName, e.getMessage(), e, this.getClass());
+        }
+    }
+
+
+    /**
+     * @param throwable failure of a topic description
+     * @return true if it failed because some znode data was malformed
+     */
+    private static boolean isMalformed(final Throwable throwable) {
+        final Throwable cause = ZKPipeline.unwrap(throwable);
+        return cause instanceof TopicOperationException && cause.getCause() instanceof IllegalArgumentException;
+    }
+
+}
@@ -0,0 +1,353 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.topic;
+
+import com.mcafee.dxl.streaming.operations.client.topic.entities.PartitionDescription;
+import com.mcafee.dxl.streaming.operations.client.topic.entities.PartitionReassignment;
+import org.apache.kafka.common.TopicPartition;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * It encodes and decodes topic znode data with the same JSON layout as Kafka admin tools
+ */
+public final class TopicJson {
+
+    /**
+     * Class constants
+     */
+    private static final int VERSION = 1;
+    private static final int[] NO_REPLICAS = new int[0];
+
+    private TopicJson() {
+
+    }
+
+    /**
+     * Encode topic configuration overrides as {"version":1,"config":{"name":"value",...}}
+     *
+     * @param topicProperties topic configuration overrides
+     * @return UTF-8 encoded JSON
+     */
+    public static byte[] encodeConfig(final Properties topicProperties) {
+        final StringBuilder json = new StringBuilder(64).append("{\"version\":").append(VERSION)
+                .append(",\"config\":{");
+        boolean first = true;
+        for (String name : topicProperties.stringPropertyNames()) {
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            appendString(json, name).append(':');
+            appendString(json, topicProperties.getProperty(name));
+        }
+        return json.append("}}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+
+    /**
+     * Encode the notification which makes brokers reload a topic configuration as
+     * {"version":1,"entity_type":"topics","entity_name":"topic"}
+     *
+     * @param topicName topic name
+     * @return UTF-8 encoded JSON
+     */
+    public static byte[] encodeConfigChange(final String topicName) {
+        final StringBuilder json = new StringBuilder(64).append("{\"version\":").append(VERSION)
+                .append(",\"entity_type\":\"topics\",\"entity_name\":");
+        return appendString(json, topicName).append('}').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+
+    /**
+     * Decode topic configuration overrides
+     *
+     * @param json UTF-8 encoded JSON as {"version":1,"config":{"name":"value",...}}, or null
+     * @return topic configuration overrides. They are empty if json is null or has no config.
+     * @throws IllegalArgumentException if json is malformed
+     */
+    public static Properties decodeConfig(final byte[] json) {
+        final Properties topicProperties = new Properties();
+        if (json == null || json.length == 0) {
+            return topicProperties;
+        }
+        final JsonReader reader = new JsonReader(json);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!"config".equals(reader.nextName()) || reader.isNextNull()) {
+                reader.skipValue();
+                continue;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                final String name = reader.nextName();
+                topicProperties.setProperty(name, reader.nextString());
+            }
+            reader.endObject();
+        }
+        reader.endObject();
+        return topicProperties;
+    }
+
+
+    /**
+     * Encode a partition assignment as {"version":1,"partitions":{"0":[1,2],...}}
+     *
+     * @param replicas replica broker ids indexed by partition id
+     * @return UTF-8 encoded JSON
+     */
+    public static byte[] encodeAssignment(final int[][] replicas) {
+        final StringBuilder json = new StringBuilder(32 + replicas.length * 16).append("{\"version\":")
+                .append(VERSION).append(",\"partitions\":{");
+        for (int partition = 0; partition < replicas.length; partition++) {
+            if (partition > 0) {
+                json.append(',');
+            }
+            json.append('"').append(partition).append("\":[");
+            for (int i = 0; i < replicas[partition].length; i++) {
+                if (i > 0) {
+                    json.append(',');
+                }
+                json.append(replicas[partition][i]);
+            }
+            json.append(']');
+        }
+        return json.append("}}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+
+    /**
+     * Encode partition reassignments as {"version":1,"partitions":[{"topic":"t","partition":0,"replicas":[1,2]},...]}
+     *
+     * @param reassignments partition reassignments
+     * @return UTF-8 encoded JSON
+     */
+    public static byte[] encodeReassignment(final List<PartitionReassignment> reassignments) {
+        final StringBuilder json = new StringBuilder(32 + reassignments.size() * 64).append("{\"version\":")
+                .append(VERSION).append(",\"partitions\":[");
+        for (int i = 0; i < reassignments.size(); i++) {
+            final PartitionReassignment reassignment = reassignments.get(i);
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"topic\":");
+            appendString(json, reassignment.getTopicName()).append(",\"partition\":")
+                    .append(reassignment.getPartition()).append(",\"replicas\":[");
+            final int[] targetReplicas = reassignment.getTargetReplicas();
+            for (int j = 0; j < targetReplicas.length; j++) {
+                if (j > 0) {
+                    json.append(',');
+                }
+                json.append(targetReplicas[j]);
+            }
+            json.append("]}");
+        }
+        return json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+
+    /**
+     * Encode the partitions of a preferred replica election as
+     * {"version":1,"partitions":[{"topic":"t","partition":0},...]}
+     *
+     * @param partitions topic partitions
+     * @return UTF-8 encoded JSON
+     */
+    public static byte[] encodePreferredReplicaElection(final List<TopicPartition> partitions) {
+        final StringBuilder json = new StringBuilder(32 + partitions.size() * 48).append("{\"version\":")
+                .append(VERSION).append(",\"partitions\":[");
+        for (int i = 0; i < partitions.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"topic\":");
+            appendString(json, partitions.get(i).topic()).append(",\"partition\":")
+                    .append(partitions.get(i).partition()).append('}');
+        }
+        return json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+
+    /**
+     * Decode a list of partitions, as written for preferred replica elections and ISR change notifications
+     *
+     * @param json UTF-8 encoded JSON as {"version":1,"partitions":[{"topic":"t","partition":0},...]}
+     * @return topic partitions
+     * @throws IllegalArgumentException if json is malformed
+     */
+    public static List<TopicPartition> decodeTopicPartitions(final byte[] json) {
+        final List<TopicPartition> partitions = new ArrayList<>();
+        final JsonReader reader = new JsonReader(json);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!"partitions".equals(reader.nextName())) {
+                reader.skipValue();
+                continue;
+            }
+            reader.beginArray();
+            while (reader.hasNext()) {
+                String topicName = null;
+                int partition = -1;
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    final String name = reader.nextName();
+                    if ("topic".equals(name)) {
+                        topicName = reader.nextString();
+                    } else if ("partition".equals(name)) {
+                        partition = reader.nextInt();
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+                if (topicName == null || partition < 0) {
+                    throw new IllegalArgumentException("Invalid partition " + topicName + "-" + partition);
+                }
+                partitions.add(new TopicPartition(topicName, partition));
+            }
+            reader.endArray();
+        }
+        reader.endObject();
+        return partitions;
+    }
+
+
+    /**
+     * Decode a partition assignment
+     *
+     * @param json UTF-8 encoded JSON as {"version":1,"partitions":{"0":[1,2],...}}
+     * @return replica broker ids indexed by partition id. Missing partitions have no replicas.
+     * @throws IllegalArgumentException if json is malformed
+     */
+    public static int[][] decodeAssignment(final byte[] json) {
+        int[][] replicas = new int[0][];
+        final JsonReader reader = new JsonReader(json);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!"partitions".equals(reader.nextName())) {
+                reader.skipValue();
+                continue;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                final int partition = parsePartition(reader.nextName());
+                if (partition >= replicas.length) {
+                    replicas = Arrays.copyOf(replicas, Math.max(partition + 1, replicas.length * 2));
+                }
+                replicas[partition] = reader.nextIntArray();
+            }
+            reader.endObject();
+        }
+        reader.endObject();
+
+        int partitionCount = replicas.length;
+        while (partitionCount > 0 && replicas[partitionCount - 1] == null) {
+            partitionCount--;
+        }
+        final int[][] assignment = Arrays.copyOf(replicas, partitionCount);
+        for (int partition = 0; partition < partitionCount; partition++) {
+            if (assignment[partition] == null) {
+                assignment[partition] = new int[0];
+            }
+        }
+        return assignment;
+    }
+
+
+    /**
+     * Decode a partition state
+     *
+     * @param partition partition id
+     * @param replicas  replica broker ids of the partition
+     * @param json      UTF-8 encoded JSON as {"controller_epoch":1,"leader":1,"version":1,"leader_epoch":0,"isr":[1,2]},
+     *                  or null if the partition has no state yet
+     * @return partition description
+     * @throws IllegalArgumentException if json is malformed
+     */
+    public static PartitionDescription decodePartitionState(final int partition,
+                                                            final int[] replicas,
+                                                            final byte[] json) {
+        int leader = PartitionDescription.NO_LEADER;
+        int leaderEpoch = -1;
+        int[] isr = NO_REPLICAS;
+        if (json != null) {
+            final JsonReader reader = new JsonReader(json);
+            reader.beginObject();
+            while (reader.hasNext()) {
+                final String name = reader.nextName();
+                if ("leader".equals(name)) {
+                    leader = reader.nextInt();
+                } else if ("leader_epoch".equals(name)) {
+                    leaderEpoch = reader.nextInt();
+                } else if ("isr".equals(name)) {
+                    isr = reader.nextIntArray();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        return new PartitionDescription(partition, replicas, leader, leaderEpoch, isr);
+    }
+
+
+    /**
+     * @param name partition id
+     * @return partition id
+     * @throws IllegalArgumentException if the partition id is not a non-negative number
+     */
+    private static int parsePartition(final String name) {
+        try {
+            final int partition = Integer.parseInt(name);
+            if (partition >= 0) {
+                return partition;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("Invalid partition id " + name);
+    }
+
+
+    /**
+     * @param json  JSON being built
+     * @param value string to append quoted and escaped
+     * @return JSON being built
+     */
+    private static StringBuilder appendString(final StringBuilder json, final String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        return json.append('"');
+    }
+}
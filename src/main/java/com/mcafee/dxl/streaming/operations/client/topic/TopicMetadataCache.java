@@ -0,0 +1,229 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.topic;
+
+import com.mcafee.dxl.streaming.operations.client.exception.TopicOperationException;
+import com.mcafee.dxl.streaming.operations.client.topic.entities.TopicMetadataCacheStatistics;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.WatchedEvent;
+import org.apache.zookeeper.Watcher;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * In-memory cache of the topic list and topic configuration overrides.
+ * <p>
+ * Entries are loaded from Zookeeper on the first lookup, which also sets a watch: a child watch on the topics znode
+ * for the topic list and a data watch on every cached configuration znode. The watch fires when Zookeeper data
+ * changes and the entry is dropped, so the next lookup reads it again. Configurations are evicted in least recently
+ * used order when the capacity is reached. Everything is dropped when the Zookeeper session is lost, since watch
+ * events may have been missed.
+ */
+public final class TopicMetadataCache implements Watcher {
+
+    private final Supplier<ZKPipeline> pipelineSupplier;
+    private final Map<String, Properties> configs;
+    private Set<String> topics = null;
+
+    /**
+     * It is increased on every invalidation of the topic list, so a load which raced with it is not cached
+     */
+    private long topicsEpoch = 0;
+
+    /**
+     * Token of the latest configuration load of every topic being loaded. Invalidating a topic drops its token, so
+     * a load which raced with it is not cached, while loads of other topics are.
+     */
+    private final Map<String, Object> configLoads = new HashMap<>();
+
+    private long hitCount = 0;
+    private long missCount = 0;
+    private long invalidationCount = 0;
+
+
+    /**
+     * @param pipelineSupplier it provides the Zookeeper pipeline used to load entries
+     * @param capacity         maximum number of topic configurations held in memory
+     */
+    public TopicMetadataCache(final Supplier<ZKPipeline> pipelineSupplier, final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Topic metadata cache capacity must be greater than zero");
+        }
+        this.pipelineSupplier = pipelineSupplier;
+        this.configs = new LinkedHashMap<String, Properties>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Properties> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+
+    /**
+     * Get all topics
+     *
+     * @return names of all topics
+     * @throws TopicOperationException if topics could not be read from Zookeeper
+     */
+    public Set<String> getTopics() {
+        final long epoch;
+        synchronized (this) {
+            if (topics != null) {
+                hitCount++;
+                return topics;
+            }
+            missCount++;
+            epoch = topicsEpoch;
+        }
+
+        final List<String> children;
+        try {
+            children = pipelineSupplier.get().getChildren(TopicZKPaths.BROKER_TOPICS_PATH, this).join();
+        } catch (RuntimeException e) {
+            if (ZKPipeline.errorCode(e) == KeeperException.Code.NONODE) {
+                // No topic has been created yet and no watch could be set, so it is not cached
+                return Collections.emptySet();
+            }
+            throw ZKPipeline.toTopicOperationException("", e, this.getClass());
+        }
+
+        final Set<String> loaded = Collections.unmodifiableSet(new HashSet<>(children));
+        synchronized (this) {
+            if (epoch == topicsEpoch) {
+                topics = loaded;
+            }
+        }
+        return loaded;
+    }
+
+
+    /**
+     * Get topic configuration overrides
+     *
+     * @param topicName topic name
+     * @return a copy of the topic configuration overrides. They are empty if the topic has no configuration znode.
+     * @throws TopicOperationException if the configuration could not be read from Zookeeper
+     */
+    public Properties getTopicProperties(final String topicName) {
+        final Object load = new Object();
+        synchronized (this) {
+            final Properties cached = configs.get(topicName);
+            if (cached != null) {
+                hitCount++;
+                return copy(cached);
+            }
+            missCount++;
+            configLoads.put(topicName, load);
+        }
+
+        final Properties loaded;
+        try {
+            loaded = TopicJson.decodeConfig(pipelineSupplier.get()
+                    .getData(TopicZKPaths.getTopicConfigPath(topicName), this).join());
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                configLoads.remove(topicName, load);
+            }
+            if (ZKPipeline.errorCode(e) == KeeperException.Code.NONODE) {
+                return new Properties();
+            }
+            throw ZKPipeline.toTopicOperationException(topicName, e, this.getClass());
+        }
+
+        synchronized (this) {
+            if (configLoads.remove(topicName, load)) {
+                configs.put(topicName, loaded);
+            }
+        }
+        return copy(loaded);
+    }
+
+
+    /**
+     * Drop the topic list. It is called when it is known to have changed, before the watch event arrives.
+     */
+    public synchronized void invalidateTopics() {
+        topicsEpoch++;
+        if (topics != null) {
+            topics = null;
+            invalidationCount++;
+        }
+    }
+
+
+    /**
+     * Drop a topic configuration. It is called when it is known to have changed, before the watch event arrives.
+     *
+     * @param topicName topic name
+     */
+    public synchronized void invalidateTopicProperties(final String topicName) {
+        configLoads.remove(topicName);
+        if (configs.remove(topicName) != null) {
+            invalidationCount++;
+        }
+    }
+
+
+    /**
+     * Drop every entry
+     */
+    public synchronized void invalidateAll() {
+        topicsEpoch++;
+        configLoads.clear();
+        if (topics != null) {
+            topics = null;
+            invalidationCount++;
+        }
+        invalidationCount += configs.size();
+        configs.clear();
+    }
+
+
+    /**
+     * @return a snapshot of the cache counters
+     */
+    public synchronized TopicMetadataCacheStatistics getStatistics() {
+        return new TopicMetadataCacheStatistics(hitCount, missCount, invalidationCount, configs.size());
+    }
+
+
+    /**
+     * Invalidate the entry whose watch has fired
+     *
+     * @param event Zookeeper event
+     */
+    @Override
+    public void process(final WatchedEvent event) {
+        if (event.getType() == Event.EventType.None) {
+            if (event.getState() != Event.KeeperState.SyncConnected) {
+                invalidateAll();
+            }
+            return;
+        }
+
+        final String path = event.getPath();
+        if (TopicZKPaths.BROKER_TOPICS_PATH.equals(path)) {
+            invalidateTopics();
+        } else if (path != null && path.startsWith(TopicZKPaths.TOPIC_CONFIG_PATH + "/")) {
+            invalidateTopicProperties(path.substring(TopicZKPaths.TOPIC_CONFIG_PATH.length() + 1));
+        }
+    }
+
+
+
+    private static Properties copy(final Properties topicProperties) {
+        final Properties copy = new Properties();
+        copy.putAll(topicProperties);
+        return copy;
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.topic;
+
+/**
+ * Zookeeper paths where Kafka keeps topic metadata
+ */
+public final class TopicZKPaths {
+
+    /**
+     * Class constants
+     */
+    public static final String BROKER_IDS_PATH = "/brokers/ids";
+    public static final String BROKER_TOPICS_PATH = "/brokers/topics";
+    public static final String TOPIC_CONFIG_PATH = "/config/topics";
+    public static final String CONFIG_CHANGES_PATH = "/config/changes";
+    public static final String CONFIG_CHANGE_PREFIX = CONFIG_CHANGES_PATH + "/config_change_";
+    public static final String REASSIGN_PARTITIONS_PATH = "/admin/reassign_partitions";
+    public static final String PREFERRED_REPLICA_ELECTION_PATH = "/admin/preferred_replica_election";
+    public static final String ISR_CHANGE_NOTIFICATION_PATH = "/isr_change_notification";
+    public static final String DELETE_TOPICS_PATH = "/admin/delete_topics";
+
+    private TopicZKPaths() {
+
+    }
+
+    /**
+     * @param topicName topic name
+     * @return path of the znode which holds the topic partition assignment
+     */
+    public static String getTopicPath(final String topicName) {
+        return BROKER_TOPICS_PATH + "/" + topicName;
+    }
+
+    /**
+     * @param topicName topic name
+     * @param partition partition id
+     * @return path of the znode which holds the partition leader and in-sync replicas
+     */
+    public static String getPartitionStatePath(final String topicName, final int partition) {
+        return BROKER_TOPICS_PATH + "/" + topicName + "/partitions/" + partition + "/state";
+    }
+
+    /**
+     * @param topicName topic name
+     * @return path of the znode which holds the topic configuration overrides
+     */
+    public static String getTopicConfigPath(final String topicName) {
+        return TOPIC_CONFIG_PATH + "/" + topicName;
+    }
+
+    /**
+     * @param topicName topic name
+     * @return path of the znode which marks the topic for deletion
+     */
+    public static String getDeleteTopicPath(final String topicName) {
+        return DELETE_TOPICS_PATH + "/" + topicName;
+    }
+}
@@ -0,0 +1,398 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.topic;
+
+import com.mcafee.dxl.streaming.operations.client.exception.TopicOperationException;
+import org.apache.zookeeper.AsyncCallback;
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.Watcher;
+import org.apache.zookeeper.ZooDefs;
+import org.apache.zookeeper.ZooKeeper;
+import org.apache.zookeeper.data.Stat;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * It pipelines asynchronous Zookeeper operations over a single session.
+ * <p>
+ * Operations are sent without waiting for previous responses, so a batch of N operations costs about one round trip
+ * instead of N. At most maxInFlight operations are outstanding; the rest are queued and sent as responses arrive.
+ * Submitting an operation never blocks, so it is safe to chain operations from completion callbacks, which run on
+ * the Zookeeper event thread. Callbacks must not block either.
+ */
+public final class ZKPipeline {
+
+    private final ZooKeeper zooKeeper;
+    private final int maxInFlight;
+
+    private final Queue<Operation> pending = new ArrayDeque<>();
+    private int inFlight = 0;
+
+
+    /**
+     * @param zooKeeper   Zookeeper handle
+     * @param maxInFlight maximum number of outstanding operations
+     */
+    public ZKPipeline(final ZooKeeper zooKeeper, final int maxInFlight) {
+        if (zooKeeper == null) {
+            throw new IllegalArgumentException("Zookeeper cannot be null");
+        }
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("Max in flight operations must be greater than zero");
+        }
+        this.zooKeeper = zooKeeper;
+        this.maxInFlight = maxInFlight;
+    }
+
+
+    /**
+     * @return Zookeeper handle operations are sent to
+     */
+    public ZooKeeper getZooKeeper() {
+        return zooKeeper;
+    }
+
+
+    /**
+     * Check whether a znode exists
+     *
+     * @param path    znode path
+     * @param watcher watcher to set on the znode or null
+     * @return future completed with the znode stat, or null if it does not exist
+     */
+    public CompletableFuture<Stat> exists(final String path, final Watcher watcher) {
+        final CompletableFuture<Stat> result = new CompletableFuture<>();
+        submit(result, done -> {
+            final AsyncCallback.StatCallback callback = (rc, p, ctx, stat) -> {
+                done.run();
+                final KeeperException.Code code = KeeperException.Code.get(rc);
+                if (code == KeeperException.Code.OK || code == KeeperException.Code.NONODE) {
+                    result.complete(code == KeeperException.Code.OK ? stat : null);
+                } else {
+                    result.completeExceptionally(KeeperException.create(code, p));
+                }
+            };
+            if (watcher == null) {
+                zooKeeper.exists(path, false, callback, null);
+            } else {
+                zooKeeper.exists(path, watcher, callback, null);
+            }
+        });
+        return result;
+    }
+
+
+    /**
+     * Create a persistent znode with an open ACL
+     *
+     * @param path znode path
+     * @param data znode data
+     * @return future completed with the znode path
+     */
+    public CompletableFuture<String> create(final String path, final byte[] data) {
+        return create(path, data, CreateMode.PERSISTENT);
+    }
+
+
+    /**
+     * Create a znode with an open ACL
+     *
+     * @param path       znode path
+     * @param data       znode data
+     * @param createMode znode mode
+     * @return future completed with the created znode path
+     */
+    public CompletableFuture<String> create(final String path, final byte[] data, final CreateMode createMode) {
+        final CompletableFuture<String> result = new CompletableFuture<>();
+        submit(result, done -> zooKeeper.create(path, data, ZooDefs.Ids.OPEN_ACL_UNSAFE, createMode,
+                (rc, p, ctx, name) -> {
+                    done.run();
+                    complete(result, rc, p, name);
+                }, null));
+        return result;
+    }
+
+
+    /**
+     * Create a persistent znode with an open ACL, or overwrite its data if it already exists
+     *
+     * @param path znode path
+     * @param data znode data
+     * @return future completed once the data is written
+     */
+    public CompletableFuture<Void> createOrSetData(final String path, final byte[] data) {
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+        create(path, data).whenComplete((name, createError) -> {
+            if (createError == null) {
+                result.complete(null);
+            } else if (errorCode(createError) == KeeperException.Code.NODEEXISTS) {
+                setData(path, data, -1).whenComplete((stat, setError) -> {
+                    if (setError == null) {
+                        result.complete(null);
+                    } else {
+                        result.completeExceptionally(setError);
+                    }
+                });
+            } else {
+                result.completeExceptionally(createError);
+            }
+        });
+        return result;
+    }
+
+
+    /**
+     * Get the data of a znode
+     *
+     * @param path    znode path
+     * @param watcher watcher to set on the znode or null
+     * @return future completed with the znode data
+     */
+    public CompletableFuture<byte[]> getData(final String path, final Watcher watcher) {
+        return getData(path, watcher, null);
+    }
+
+
+    /**
+     * Get the data and the stat of a znode
+     *
+     * @param path    znode path
+     * @param watcher watcher to set on the znode or null
+     * @param stat    stat filled with the znode stat before the future is completed, or null
+     * @return future completed with the znode data
+     */
+    public CompletableFuture<byte[]> getData(final String path, final Watcher watcher, final Stat stat) {
+        final CompletableFuture<byte[]> result = new CompletableFuture<>();
+        submit(result, done -> {
+            final AsyncCallback.DataCallback callback = (rc, p, ctx, data, znodeStat) -> {
+                done.run();
+                if (stat != null && znodeStat != null) {
+                    copyStat(znodeStat, stat);
+                }
+                complete(result, rc, p, data);
+            };
+            if (watcher == null) {
+                zooKeeper.getData(path, false, callback, null);
+            } else {
+                zooKeeper.getData(path, watcher, callback, null);
+            }
+        });
+        return result;
+    }
+
+
+    /**
+     * Set the data of a znode
+     *
+     * @param path    znode path
+     * @param data    znode data
+     * @param version expected znode version, or -1 to match any version
+     * @return future completed with the znode stat
+     */
+    public CompletableFuture<Stat> setData(final String path, final byte[] data, final int version) {
+        final CompletableFuture<Stat> result = new CompletableFuture<>();
+        submit(result, done -> zooKeeper.setData(path, data, version,
+                (rc, p, ctx, stat) -> {
+                    done.run();
+                    complete(result, rc, p, stat);
+                }, null));
+        return result;
+    }
+
+
+    /**
+     * Get the children of a znode
+     *
+     * @param path    znode path
+     * @param watcher watcher to set on the znode or null
+     * @return future completed with the children names
+     */
+    public CompletableFuture<List<String>> getChildren(final String path, final Watcher watcher) {
+        final CompletableFuture<List<String>> result = new CompletableFuture<>();
+        submit(result, done -> {
+            final AsyncCallback.ChildrenCallback callback = (rc, p, ctx, children) -> {
+                done.run();
+                complete(result, rc, p, children);
+            };
+            if (watcher == null) {
+                zooKeeper.getChildren(path, false, callback, null);
+            } else {
+                zooKeeper.getChildren(path, watcher, callback, null);
+            }
+        });
+        return result;
+    }
+
+
+    /**
+     * Delete a znode
+     *
+     * @param path    znode path
+     * @param version expected znode version, or -1 to match any version
+     * @return future completed once the znode is deleted
+     */
+    public CompletableFuture<Void> delete(final String path, final int version) {
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+        submit(result, done -> zooKeeper.delete(path, version,
+                (rc, p, ctx) -> {
+                    done.run();
+                    complete(result, rc, p, null);
+                }, null));
+        return result;
+    }
+
+
+    /**
+     * @param throwable failure of a pipelined operation
+     * @return Zookeeper error code of the failure, or null if it is not a Zookeeper error
+     */
+    public static KeeperException.Code errorCode(final Throwable throwable) {
+        final Throwable cause = unwrap(throwable);
+        return cause instanceof KeeperException ? ((KeeperException) cause).code() : null;
+    }
+
+
+    /**
+     * @param throwable failure of a pipelined operation, possibly wrapped by dependent futures
+     * @return original failure
+     */
+    public static Throwable unwrap(final Throwable throwable) {
+        Throwable cause = throwable;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+
+    /**
+     * @param topicName     name of the topic the operation was about, or empty
+     * @param throwable     failure of a pipelined operation, possibly wrapped by dependent futures
+     * @param causedByClass class which ran the operation
+     * @return the original failure if it is a {@link TopicOperationException}, or the original failure wrapped in one
+     */
+    public static TopicOperationException toTopicOperationException(final String topicName,
+                                                                    final Throwable throwable,
+                                                                    final Class causedByClass) {
+        final Throwable cause = unwrap(throwable);
+        if (cause instanceof TopicOperationException) {
+            return (TopicOperationException) cause;
+        }
+        return new TopicOperationException(topicName, cause.getMessage(), cause, causedByClass);
+    }
+
+
+    /**
+     * @param futures futures of pipelined operations
+     * @param <T>     result type
+     * @return future completed with the results in the order of futures once all of them are completed. It completes
+     * exceptionally if any of them does.
+     */
+    public static <T> CompletableFuture<List<T>> allOf(final List<CompletableFuture<T>> futures) {
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()]))
+                .thenApply(ignored -> {
+                    final List<T> results = new ArrayList<>(futures.size());
+                    for (CompletableFuture<T> future : futures) {
+                        results.add(future.join());
+                    }
+                    return results;
+                });
+    }
+
+
+    /**
+     * Send an operation or queue it if the window is full
+     *
+     * @param result future of the operation
+     * @param body   operation to send. It must call the given runnable once its response arrives.
+     */
+    private void submit(final CompletableFuture<?> result, final Consumer<Runnable> body) {
+        final Operation operation = new Operation(result, body);
+        synchronized (pending) {
+            if (inFlight >= maxInFlight) {
+                pending.add(operation);
+                return;
+            }
+            inFlight++;
+        }
+        send(operation);
+    }
+
+
+    /**
+     * @param operation operation to send
+     */
+    private void send(final Operation operation) {
+        try {
+            operation.body.accept(this::onResponse);
+        } catch (RuntimeException e) {
+            // An invalid path is rejected before the operation is sent
+            operation.result.completeExceptionally(e);
+            onResponse();
+        }
+    }
+
+
+    /**
+     * Release a slot of the window and send the next queued operation
+     */
+    private void onResponse() {
+        final Operation next;
+        synchronized (pending) {
+            next = pending.poll();
+            if (next == null) {
+                inFlight--;
+                return;
+            }
+        }
+        send(next);
+    }
+
+
+    /**
+     * Pipelined operation
+     */
+    private static final class Operation {
+        private final CompletableFuture<?> result;
+        private final Consumer<Runnable> body;
+
+        private Operation(final CompletableFuture<?> result, final Consumer<Runnable> body) {
+            this.result = result;
+            this.body = body;
+        }
+    }
+
+
+    private static void copyStat(final Stat from, final Stat to) {
+        to.setCzxid(from.getCzxid());
+        to.setMzxid(from.getMzxid());
+        to.setCtime(from.getCtime());
+        to.setMtime(from.getMtime());
+        to.setVersion(from.getVersion());
+        to.setCversion(from.getCversion());
+        to.setAversion(from.getAversion());
+        to.setEphemeralOwner(from.getEphemeralOwner());
+        to.setDataLength(from.getDataLength());
+        to.setNumChildren(from.getNumChildren());
+        to.setPzxid(from.getPzxid());
+    }
+
+
+    private static <T> void complete(final CompletableFuture<T> result, final int rc, final String path, final T value) {
+        final KeeperException.Code code = KeeperException.Code.get(rc);
+        if (code == KeeperException.Code.OK) {
+            result.complete(value);
+        } else {
+            result.completeExceptionally(KeeperException.create(code, path));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.topic.entities;
+
+/**
+ * It counts the partitions a broker leads and should lead
+ */
+public final class BrokerLeadership {
+
+    private final int brokerId;
+    private final int leaderCount;
+    private final int preferredLeaderCount;
+    private final int notLeadingPreferredCount;
+
+
+    /**
+     * @param brokerId                 broker id
+     * @param leaderCount              number of partitions the broker leads
+     * @param preferredLeaderCount     number of partitions the broker is the preferred leader of
+     * @param notLeadingPreferredCount number of partitions the broker is the preferred leader of but does not lead
+     */
+    public BrokerLeadership(final int brokerId,
+                            final int leaderCount,
+                            final int preferredLeaderCount,
+                            final int notLeadingPreferredCount) {
+        this.brokerId = brokerId;
+        this.leaderCount = leaderCount;
+        this.preferredLeaderCount = preferredLeaderCount;
+        this.notLeadingPreferredCount = notLeadingPreferredCount;
+    }
+
+
+    public int getBrokerId() {
+        return brokerId;
+    }
+
+    public int getLeaderCount() {
+        return leaderCount;
+    }
+
+    public int getPreferredLeaderCount() {
+        return preferredLeaderCount;
+    }
+
+    public int getNotLeadingPreferredCount() {
+        return notLeadingPreferredCount;
+    }
+
+    /**
+     * @return ratio of the partitions the broker should lead but does not, as computed by the Kafka controller for
+     * automatic leader rebalancing. It is zero if the broker is not the preferred leader of any partition.
+     */
+    public double getImbalanceRatio() {
+        return preferredLeaderCount > 0 ? (double) notLeadingPreferredCount / preferredLeaderCount : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "Broker: " + brokerId + "\tLeader: " + leaderCount + "\tPreferred Leader: " + preferredLeaderCount
+                + "\tImbalance Ratio: " + getImbalanceRatio();
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.topic.entities;
+
+import java.util.Arrays;
+
+/**
+ * It describes where a topic partition lives. Replica lists are kept as int arrays and copied when they are read,
+ * so instances are immutable.
+ */
+public final class PartitionDescription {
+
+    /**
+     * Class constants
+     */
+    public static final int NO_LEADER = -1;
+
+    private final int partition;
+    private final int[] replicas;
+    private final int leader;
+    private final int leaderEpoch;
+    private final int[] isr;
+
+
+    /**
+     * @param partition   partition id
+     * @param replicas    ids of the brokers assigned to the partition. The first one is the preferred leader.
+     * @param leader      id of the leader broker or {@link #NO_LEADER}
+     * @param leaderEpoch leader epoch or -1 if the partition has no state yet
+     * @param isr         ids of the in-sync replicas
+     */
+    public PartitionDescription(final int partition,
+                                final int[] replicas,
+                                final int leader,
+                                final int leaderEpoch,
+                                final int[] isr) {
+        this.partition = partition;
+        this.replicas = replicas.clone();
+        this.leader = leader;
+        this.leaderEpoch = leaderEpoch;
+        this.isr = isr.clone();
+    }
+
+
+    public int getPartition() {
+        return partition;
+    }
+
+    /**
+     * @return a copy of the ids of the brokers assigned to the partition
+     */
+    public int[] getReplicas() {
+        return replicas.clone();
+    }
+
+    public int getReplicationFactor() {
+        return replicas.length;
+    }
+
+    /**
+     * @return id of the leader broker or {@link #NO_LEADER}
+     */
+    public int getLeader() {
+        return leader;
+    }
+
+    public int getLeaderEpoch() {
+        return leaderEpoch;
+    }
+
+    /**
+     * @return a copy of the ids of the in-sync replicas
+     */
+    public int[] getIsr() {
+        return isr.clone();
+    }
+
+    /**
+     * @return id of the preferred leader, which is the first assigned replica, or {@link #NO_LEADER}
+     */
+    public int getPreferredLeader() {
+        return replicas.length > 0 ? replicas[0] : NO_LEADER;
+    }
+
+    /**
+     * @return true if the partition has a leader
+     */
+    public boolean hasLeader() {
+        return leader != NO_LEADER;
+    }
+
+    /**
+     * @return true if fewer replicas than assigned are in sync
+     */
+    public boolean isUnderReplicated() {
+        return isr.length < replicas.length;
+    }
+
+    /**
+     * @param brokerId broker id
+     * @return true if the broker is an in-sync replica of the partition
+     */
+    public boolean isInSync(final int brokerId) {
+        for (int replica : isr) {
+            if (replica == brokerId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "Partition: " + partition + "\tLeader: " + leader + "\tReplicas: " + Arrays.toString(replicas)
+                + "\tIsr: " + Arrays.toString(isr);
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.topic.entities;
+
+import java.util.Arrays;
+
+/**
+ * It moves the replicas of a topic partition to other brokers. Replica lists are kept as int arrays and copied when
+ * they are read, so instances are immutable.
+ */
+public final class PartitionReassignment {
+
+    private final String topicName;
+    private final int partition;
+    private final int[] replicas;
+    private final int[] targetReplicas;
+
+
+    /**
+     * @param topicName      topic name
+     * @param partition      partition id
+     * @param replicas       ids of the brokers currently assigned to the partition
+     * @param targetReplicas ids of the brokers the partition is assigned to after the reassignment. The first one
+     *                       is the preferred leader.
+     */
+    public PartitionReassignment(final String topicName,
+                                 final int partition,
+                                 final int[] replicas,
+                                 final int[] targetReplicas) {
+        this.topicName = topicName;
+        this.partition = partition;
+        this.replicas = replicas.clone();
+        this.targetReplicas = targetReplicas.clone();
+    }
+
+
+    public String getTopicName() {
+        return topicName;
+    }
+
+    public int getPartition() {
+        return partition;
+    }
+
+    /**
+     * @return a copy of the ids of the brokers currently assigned to the partition
+     */
+    public int[] getReplicas() {
+        return replicas.clone();
+    }
+
+    /**
+     * @return a copy of the ids of the brokers the partition is assigned to after the reassignment
+     */
+    public int[] getTargetReplicas() {
+        return targetReplicas.clone();
+    }
+
+    /**
+     * @return number of replicas which are copied to a broker that does not hold them yet
+     */
+    public int getMovedReplicaCount() {
+        int moved = 0;
+        for (int target : targetReplicas) {
+            boolean found = false;
+            for (int replica : replicas) {
+                if (replica == target) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                moved++;
+            }
+        }
+        return moved;
+    }
+
+    @Override
+    public String toString() {
+        return "Topic: " + topicName + "\tPartition: " + partition + "\tReplicas: " + Arrays.toString(replicas)
+                + "\tTarget Replicas: " + Arrays.toString(targetReplicas);
+    }
+}
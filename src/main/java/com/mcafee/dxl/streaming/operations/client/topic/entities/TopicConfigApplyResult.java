@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.topic.entities;
+
+import com.mcafee.dxl.streaming.operations.client.exception.TopicOperationException;
+
+/**
+ * Result of applying a configuration to a single topic of a batch
+ */
+public final class TopicConfigApplyResult {
+
+    private final String topicName;
+    private final boolean changed;
+    private final TopicOperationException error;
+
+
+    /**
+     * @param topicName topic name
+     * @param changed   true if the configuration was written
+     * @param error     reason why the configuration could not be applied or null if it was applied
+     */
+    private TopicConfigApplyResult(final String topicName, final boolean changed, final TopicOperationException error) {
+        this.topicName = topicName;
+        this.changed = changed;
+        this.error = error;
+    }
+
+
+    /**
+     * @param topicName topic name
+     * @return a result of a configuration which differed from the current one and was written
+     */
+    public static TopicConfigApplyResult changed(final String topicName) {
+        return new TopicConfigApplyResult(topicName, true, null);
+    }
+
+
+    /**
+     * @param topicName topic name
+     * @return a result of a configuration which was already in place, so nothing was written
+     */
+    public static TopicConfigApplyResult unchanged(final String topicName) {
+        return new TopicConfigApplyResult(topicName, false, null);
+    }
+
+
+    /**
+     * @param topicName topic name
+     * @param error     reason why the configuration could not be applied
+     * @return a result of a configuration which could not be applied
+     */
+    public static TopicConfigApplyResult failed(final String topicName, final TopicOperationException error) {
+        return new TopicConfigApplyResult(topicName, false, error);
+    }
+
+
+    public String getTopicName() {
+        return topicName;
+    }
+
+    /**
+     * @return true if the configuration was written and brokers were notified
+     */
+    public boolean isChanged() {
+        return changed;
+    }
+
+    /**
+     * @return true if the configuration is in place
+     */
+    public boolean isSucceeded() {
+        return error == null;
+    }
+
+    /**
+     * @return reason why the configuration could not be applied or null if it was applied
+     */
+    public TopicOperationException getError() {
+        return error;
+    }
+}
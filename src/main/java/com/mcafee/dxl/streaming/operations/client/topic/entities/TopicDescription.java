@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.topic.entities;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * It describes the partitions of a topic
+ */
+public final class TopicDescription {
+
+    private final String topicName;
+    private final List<PartitionDescription> partitions;
+
+
+    /**
+     * @param topicName  topic name
+     * @param partitions partition descriptions ordered by partition id
+     */
+    public TopicDescription(final String topicName, final PartitionDescription[] partitions) {
+        this.topicName = topicName;
+        this.partitions = Collections.unmodifiableList(Arrays.asList(partitions.clone()));
+    }
+
+
+    public String getTopicName() {
+        return topicName;
+    }
+
+    /**
+     * @return partition descriptions ordered by partition id
+     */
+    public List<PartitionDescription> getPartitions() {
+        return partitions;
+    }
+
+    public int getPartitionCount() {
+        return partitions.size();
+    }
+
+    /**
+     * @return number of partitions with fewer replicas than assigned in sync
+     */
+    public int getUnderReplicatedPartitionCount() {
+        int count = 0;
+        for (PartitionDescription partition : partitions) {
+            if (partition.isUnderReplicated()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return number of partitions without leader
+     */
+    public int getOfflinePartitionCount() {
+        int count = 0;
+        for (PartitionDescription partition : partitions) {
+            if (!partition.hasLeader()) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,60 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.topic.entities;
+
+/**
+ * Snapshot of the topic metadata cache counters
+ */
+public final class TopicMetadataCacheStatistics {
+
+    private static final TopicMetadataCacheStatistics EMPTY = new TopicMetadataCacheStatistics(0, 0, 0, 0);
+
+    private final long hitCount;
+    private final long missCount;
+    private final long invalidationCount;
+    private final int cachedConfigCount;
+
+
+    /**
+     * @param hitCount          number of lookups answered from memory
+     * @param missCount         number of lookups which read Zookeeper
+     * @param invalidationCount number of cached entries dropped because Zookeeper data changed
+     * @param cachedConfigCount number of topic configurations held in memory
+     */
+    public TopicMetadataCacheStatistics(final long hitCount,
+                                        final long missCount,
+                                        final long invalidationCount,
+                                        final int cachedConfigCount) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.invalidationCount = invalidationCount;
+        this.cachedConfigCount = cachedConfigCount;
+    }
+
+
+    /**
+     * @return statistics of a disabled cache
+     */
+    public static TopicMetadataCacheStatistics empty() {
+        return EMPTY;
+    }
+
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getInvalidationCount() {
+        return invalidationCount;
+    }
+
+    public int getCachedConfigCount() {
+        return cachedConfigCount;
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.topic.entities;
+
+import com.mcafee.dxl.streaming.operations.client.exception.TopicOperationException;
+
+/**
+ * Result of an operation applied to a single topic of a batch
+ */
+public final class TopicOperationResult {
+
+    private final String topicName;
+    private final TopicOperationException error;
+
+
+    /**
+     * @param topicName topic name
+     * @param error     reason why the operation failed or null if it succeeded
+     */
+    private TopicOperationResult(final String topicName, final TopicOperationException error) {
+        this.topicName = topicName;
+        this.error = error;
+    }
+
+
+    /**
+     * @param topicName topic name
+     * @return a result of an operation which succeeded
+     */
+    public static TopicOperationResult succeeded(final String topicName) {
+        return new TopicOperationResult(topicName, null);
+    }
+
+
+    /**
+     * @param topicName topic name
+     * @param error     reason why the operation failed
+     * @return a result of an operation which failed
+     */
+    public static TopicOperationResult failed(final String topicName, final TopicOperationException error) {
+        return new TopicOperationResult(topicName, error);
+    }
+
+
+    public String getTopicName() {
+        return topicName;
+    }
+
+    /**
+     * @return true if the operation succeeded
+     */
+    public boolean isSucceeded() {
+        return error == null;
+    }
+
+    /**
+     * @return reason why the operation failed or null if it succeeded
+     */
+    public TopicOperationException getError() {
+        return error;
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.topic.entities;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Properties;
+
+/**
+ * Specification of a topic to be created
+ */
+public final class TopicSpec {
+
+    /**
+     * Class constants
+     */
+    private static final int MAX_TOPIC_NAME_LENGTH = 249;
+
+    private final String topicName;
+    private final int partitions;
+    private final int replicationFactor;
+    private final Properties topicProperties;
+
+
+    /**
+     * @param topicName         topic name
+     * @param partitions        the number of partitions for the topic
+     * @param replicationFactor the replication factor for each partition in the topic
+     * @throws IllegalArgumentException if any argument is invalid
+     */
+    public TopicSpec(final String topicName, final int partitions, final int replicationFactor) {
+        this(topicName, partitions, replicationFactor, new Properties());
+    }
+
+
+    /**
+     * @param topicName         topic name
+     * @param partitions        the number of partitions for the topic
+     * @param replicationFactor the replication factor for each partition in the topic
+     * @param topicProperties   topic configuration overrides
+     * @throws IllegalArgumentException if any argument is invalid
+     */
+    public TopicSpec(final String topicName,
+                     final int partitions,
+                     final int replicationFactor,
+                     final Properties topicProperties) {
+        validateTopicName(topicName);
+        if (partitions <= 0) {
+            throw new IllegalArgumentException("Number of partitions must be greater than zero");
+        }
+        if (replicationFactor <= 0) {
+            throw new IllegalArgumentException("Replication factor must be greater than zero");
+        }
+        if (topicProperties == null) {
+            throw new IllegalArgumentException("Topic properties cannot be null");
+        }
+        this.topicName = topicName;
+        this.partitions = partitions;
+        this.replicationFactor = replicationFactor;
+        this.topicProperties = topicProperties;
+    }
+
+
+    public String getTopicName() {
+        return topicName;
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public int getReplicationFactor() {
+        return replicationFactor;
+    }
+
+    public Properties getTopicProperties() {
+        return topicProperties;
+    }
+
+
+    /**
+     * Validate a topic name with the same rules as Kafka brokers
+     *
+     * @param topicName topic name
+     * @throws IllegalArgumentException when the topic name is not legal
+     */
+    private static void validateTopicName(final String topicName) {
+        if (StringUtils.isEmpty(topicName)) {
+            throw new IllegalArgumentException("Topic name cannot be null or empty");
+        }
+        if (".".equals(topicName) || "..".equals(topicName)) {
+            throw new IllegalArgumentException("Topic name cannot be \".\" or \"..\"");
+        }
+        if (topicName.length() > MAX_TOPIC_NAME_LENGTH) {
+            throw new IllegalArgumentException("Topic name cannot be longer than " + MAX_TOPIC_NAME_LENGTH
+                    + " characters");
+        }
+        for (int i = 0; i < topicName.length(); i++) {
+            final char c = topicName.charAt(i);
+            if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9'
+                    || c == '.' || c == '_' || c == '-')) {
+                throw new IllegalArgumentException("Topic name " + topicName
+                        + " contains characters other than ASCII alphanumerics, '.', '_' and '-'");
+            }
+        }
+    }
+}
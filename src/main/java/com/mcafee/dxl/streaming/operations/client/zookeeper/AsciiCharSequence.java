@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.zookeeper;
+
+/**
+ * Immutable copy of ASCII text, such as a four letter word command response, which takes one byte per character.
+ * <p>
+ * The string is only built the first time it is asked for, so a response which is kept but never read does not
+ * create a string on every poll.
+ */
+final class AsciiCharSequence implements CharSequence {
+
+    private final byte[] bytes;
+    private final int offset;
+    private final int length;
+
+    /**
+     * String built on demand. Like {@link String#hashCode()}, it may be built more than once by racing threads
+     */
+    private String string;
+
+
+    private AsciiCharSequence(final byte[] bytes, final int offset, final int length) {
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+    }
+
+
+    /**
+     * @param text ASCII text. It may be a view which is only valid during the call
+     * @return a copy of the text
+     */
+    static AsciiCharSequence copyOf(final CharSequence text) {
+        final byte[] bytes = new byte[text.length()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) text.charAt(i);
+        }
+        return new AsciiCharSequence(bytes, 0, bytes.length);
+    }
+
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(final int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of length " + length);
+        }
+        return (char) (bytes[offset + index] & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(final int start, final int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("Range " + start + "-" + end + " out of length " + length);
+        }
+        return new AsciiCharSequence(bytes, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        String result = string;
+        if (result == null) {
+            final char[] chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                chars[i] = (char) (bytes[offset + i] & 0xFF);
+            }
+            result = new String(chars);
+            string = result;
+        }
+        return result;
+    }
+}
@@ -4,12 +4,17 @@
 
 package com.mcafee.dxl.streaming.operations.client.zookeeper;
 
+import com.mcafee.dxl.streaming.operations.client.common.ExecutorProbeScheduler;
+import com.mcafee.dxl.streaming.operations.client.common.FlapDampingPolicy;
 import com.mcafee.dxl.streaming.operations.client.common.HostAdapter;
+import com.mcafee.dxl.streaming.operations.client.common.ProbeScheduler;
+import com.mcafee.dxl.streaming.operations.client.common.RefreshQueue;
 import com.mcafee.dxl.streaming.operations.client.configuration.ConfigHelp;
 import com.mcafee.dxl.streaming.operations.client.configuration.PropertyNames;
 import com.mcafee.dxl.streaming.operations.client.exception.ZKMonitorException;
 import com.mcafee.dxl.streaming.operations.client.zookeeper.entities.ZKCluster;
 import com.mcafee.dxl.streaming.operations.client.zookeeper.entities.ZKNode;
+import com.mcafee.dxl.streaming.operations.client.zookeeper.entities.ZKNodeStatus;
 import org.apache.zookeeper.WatchedEvent;
 import org.apache.zookeeper.Watcher;
 
@@ -31,6 +36,28 @@ public final class ZKClusterWatcher implements Watcher {
     private AtomicReference<ZKClusterStatusName> zkClusterStatus =
             new AtomicReference<>(ZKClusterStatusName.NO_QUORUM);
 
+    /**
+     * Scheduler used by node watchers to poll Zookeeper nodes.
+     * It is stopped along with this instance only if it was not provided by the client
+     */
+    private final ProbeScheduler probeScheduler;
+    private final boolean isProbeSchedulerOwner;
+
+    /**
+     * Queue used by node watchers to run the status updates requested by Zookeeper events
+     */
+    private final RefreshQueue refreshQueue;
+
+    /**
+     * Client used by node watchers to send four letter word commands to all Zookeeper nodes from a single thread
+     */
+    private final ZKFourLetterWordClient fourLetterWordClient = new ZKFourLetterWordClient("zookeeper");
+
+    /**
+     * Ensemble analysis updated by node watchers after every poll
+     */
+    private final ZKEnsembleTracker zkEnsembleTracker;
+
     /**
      * Zookeeper connection fields
      */
@@ -45,10 +72,14 @@ public final class ZKClusterWatcher implements Watcher {
      *
      * @param configuration     configuration
      * @param zkMonitorListener a listener implementd by the client to be notified when zookeeper quorum event occurs
+     * @param probeScheduler    scheduler used to poll Zookeeper nodes. It could be shared by several monitors.
+     *                          If it is null, a new one is created according to
+     *                          {@link PropertyNames#PROBE_SCHEDULER_POOL_SIZE} property
      * @throws IllegalArgumentException if configuration is null or any of arguments properties is missing or invalid
      */
     public ZKClusterWatcher(final Map<String, String> configuration,
-                            final ZKMonitorCallback zkMonitorListener) {
+                            final ZKMonitorCallback zkMonitorListener,
+                            final ProbeScheduler probeScheduler) {
 
         if (configuration == null) {
             throw new IllegalArgumentException("Zookeeper Monitoring Configuration cannot be null");
@@ -66,6 +97,29 @@ public final class ZKClusterWatcher implements Watcher {
         final int zkNodePollingInitialDelay =
                 ConfigHelp.getOrDefaultIntProperty(configuration, PropertyNames.ZK_NODE_POLL_INITIAL_DELAY_TIME_MS);
 
+        final int zkNodePollingMinDelay = ConfigHelp.getOrFallbackIntProperty(configuration,
+                PropertyNames.ZK_NODE_POLL_MIN_DELAY_TIME_MS, zkNodePollingDelay);
+
+        final int zkNodePollingMaxDelay = ConfigHelp.getOrFallbackIntProperty(configuration,
+                PropertyNames.ZK_NODE_POLL_MAX_DELAY_TIME_MS, zkNodePollingDelay);
+
+        final int probeSchedulerPoolSize =
+                ConfigHelp.getOrDefaultIntProperty(configuration, PropertyNames.PROBE_SCHEDULER_POOL_SIZE);
+
+        final FlapDampingPolicy flapDampingPolicy = FlapDampingPolicy.fromConfiguration(configuration);
+
+        final ZKNodeCollectionModeName zkNodeCollectionMode = ZKNodeCollectionModeName.fromName(
+                ConfigHelp.getOrDefaultStringProperty(configuration, PropertyNames.ZK_NODE_COLLECTION_MODE));
+
+        final int zkNodeHistoryConfiguredCapacity =
+                ConfigHelp.getOrDefaultIntProperty(configuration, PropertyNames.ZK_NODE_HISTORY_CAPACITY);
+
+        final int zkNodeHistoryCapacity = zkNodeHistoryConfiguredCapacity >= 0
+                ? zkNodeHistoryConfiguredCapacity
+                : ZKNodeStatisticsHistory.getCapacity(
+                        ConfigHelp.getOrDefaultIntProperty(configuration, PropertyNames.ZK_NODE_HISTORY_RETENTION_MS),
+                        zkNodePollingMinDelay);
+
 
         this.zkMonitorListener = Optional.ofNullable(zkMonitorListener).orElse(new ZKMonitorCallback() {
             @Override
@@ -91,25 +145,61 @@ public final class ZKClusterWatcher implements Watcher {
 
         final List<InetSocketAddress> zkHosts = HostAdapter.toList(this.zkConnectionString);
 
+        this.isProbeSchedulerOwner = probeScheduler == null;
+        this.probeScheduler = Optional.ofNullable(probeScheduler)
+                .orElseGet(() -> new ExecutorProbeScheduler(probeSchedulerPoolSize));
+        this.refreshQueue = new RefreshQueue(this.probeScheduler);
+
         zkHosts.forEach(zkNodeAddress ->
                 zkNodeWatchers.add(new ZKNodeWatcher(
                         this.zkMonitorListener,
                         zkNodeAddress,
-                        zkNodePollingDelay,
-                        zkNodePollingInitialDelay))
+                        new ZKNodeWatcherOptions(zkNodePollingDelay, zkNodePollingInitialDelay)
+                                .withPollingMinDelay(zkNodePollingMinDelay)
+                                .withPollingMaxDelay(zkNodePollingMaxDelay)
+                                .withProbeScheduler(this.probeScheduler)
+                                .withFlapDampingPolicy(flapDampingPolicy)
+                                .withCollectionMode(zkNodeCollectionMode)
+                                .withFourLetterWordClient(fourLetterWordClient)
+                                .withHistoryCapacity(zkNodeHistoryCapacity)
+                                .withRefreshQueue(refreshQueue)))
         );
 
+        final List<String> zkNodeIds = new ArrayList<>();
+        zkNodeWatchers.forEach(zkNodeWatcher -> zkNodeIds.add(zkNodeWatcher.getZKNodeAddress().getHostName()));
+        this.zkEnsembleTracker = new ZKEnsembleTracker(zkNodeIds);
+        // Quorum is tracked from the raw probe results: damping only applies to client notifications
+        for (int i = 0; i < zkNodeWatchers.size(); i++) {
+            final int zkNodeIndex = i;
+            zkNodeWatchers.get(i).setStatusListener(zkNodeStatus ->
+                    zkEnsembleTracker.onNodeProbe(zkNodeIndex, zkNodeStatus));
+        }
+
         zkClusterStatus.getAndSet(ZKClusterStatusName.NO_QUORUM); // Set the initial zookeeper cluster status
     }
 
 
+    /**
+     * Constructs a Zookeeper watcher instance that monitors Zookeeper cluster and notify
+     * clients when Zookeeper node status has changed.
+     *
+     * @param configuration     configuration
+     * @param zkMonitorListener a listener implementd by the client to be notified when zookeeper quorum event occurs
+     * @throws IllegalArgumentException if configuration is null or any of arguments properties is missing or invalid
+     */
+    public ZKClusterWatcher(final Map<String, String> configuration,
+                            final ZKMonitorCallback zkMonitorListener) {
+        this(configuration, zkMonitorListener, null);
+    }
+
+
     /**
      * Creates a Zookeeper watcher instance that monitors Zookeeper cluster.
      *
      * @param configuration configuration
      */
     public ZKClusterWatcher(final Map<String, String> configuration) {
-        this(configuration, null);
+        this(configuration, null, null);
     }
 
 
@@ -129,15 +219,59 @@ public final class ZKClusterWatcher implements Watcher {
         List<ZKNode> zkNodes = new ArrayList<>();
         zkNodeWatchers.forEach(zkNodeWatcher -> {
 
+            final ZKNodeStatus zkNodeStatus = zkNodeWatcher.getStatus();
             ZKNode node = new ZKNode(
                     zkNodeWatcher.getZKNodeAddress().getHostName(),
-                    zkNodeWatcher.getStatus().getStatus(),
-                    zkNodeWatcher.getStatus().getZKNodeStatistics());
+                    zkNodeStatus.getStatus(),
+                    zkNodeStatus.getZKNodeStatistics(),
+                    zkNodeStatus.getZKNodeParsedStatistics(),
+                    zkNodeStatus.getZKNodeMetrics(),
+                    zkNodeWatcher.getProbeIntervalMs(),
+                    zkNodeWatcher.getProbeCount(),
+                    zkNodeWatcher.getSuppressedTransitionCount(),
+                    zkNodeWatcher.getUnconfirmedObservationCount(),
+                    zkNodeWatcher.getProbeLatency());
 
             zkNodes.add(node);
         });
 
-        return new ZKCluster(zkClusterStatus.get(), zkNodes);
+        return new ZKCluster(zkClusterStatus.get(),
+                zkNodes,
+                refreshQueue.getRequestedRefreshes(),
+                refreshQueue.getExecutedRefreshes(),
+                zkEnsembleTracker.getEnsemble());
+    }
+
+
+    /**
+     * Get the history of the statistics reported by a Zookeeper node
+     *
+     * @param zkNodeId zookeeper node address as host:port. A host name, as reported by {@link ZKNode#getZKNodeId()},
+     *                 is also accepted if a single zookeeper node runs on that host
+     * @return {@link ZKNodeStatisticsHistory}
+     * @throws IllegalArgumentException if there is not a zookeeper node with that id, or if the id is a host name
+     *                                  and several zookeeper nodes run on that host
+     */
+    public ZKNodeStatisticsHistory getStatisticsHistory(final String zkNodeId) {
+        ZKNodeWatcher hostMatch = null;
+        int hostMatchCount = 0;
+        for (ZKNodeWatcher zkNodeWatcher : zkNodeWatchers) {
+            final InetSocketAddress zkNodeAddress = zkNodeWatcher.getZKNodeAddress();
+            if ((zkNodeAddress.getHostName() + ":" + zkNodeAddress.getPort()).equals(zkNodeId)) {
+                return zkNodeWatcher.getStatisticsHistory();
+            }
+            if (zkNodeAddress.getHostName().equals(zkNodeId)) {
+                hostMatch = zkNodeWatcher;
+                hostMatchCount++;
+            }
+        }
+        if (hostMatchCount > 1) {
+            throw new IllegalArgumentException("Several zookeeper nodes run on " + zkNodeId + ", use host:port");
+        }
+        if (hostMatch == null) {
+            throw new IllegalArgumentException("Unknown zookeeper node: " + zkNodeId);
+        }
+        return hostMatch.getStatisticsHistory();
     }
 
 
@@ -151,6 +285,7 @@ public final class ZKClusterWatcher implements Watcher {
             return;
         }
         openZKConnection();
+        fourLetterWordClient.start();
         zkNodeStartMonitoring();
     }
 
@@ -161,6 +296,10 @@ public final class ZKClusterWatcher implements Watcher {
     public void stop() {
         closeZKConnection();
         zkNodeStopMonitoring();
+        fourLetterWordClient.close();
+        if (isProbeSchedulerOwner) {
+            probeScheduler.close();
+        }
     }
 
 
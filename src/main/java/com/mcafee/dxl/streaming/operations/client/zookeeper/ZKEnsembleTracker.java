@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.zookeeper;
+
+import com.mcafee.dxl.streaming.operations.client.zookeeper.entities.ZKEnsemble;
+import com.mcafee.dxl.streaming.operations.client.zookeeper.entities.ZKNodeStatistics;
+import com.mcafee.dxl.streaming.operations.client.zookeeper.entities.ZKNodeStatus;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * It tracks the role of every zookeeper node of an ensemble from the results of the node polls, so no additional
+ * connection is needed.
+ * <p>
+ * Every poll result updates the slot of its node and the leader, observer and live voter counters, which are kept
+ * incrementally. A node is a live voter if it is reachable and reports leader, follower or standalone mode.
+ * The last mode reported by a node is remembered while it is unreachable, so an unreachable observer is not
+ * counted as a voter.
+ */
+public final class ZKEnsembleTracker {
+
+    private final String[] zkNodeIds;
+    private final boolean[] isUp;
+    private final ZKNodeModeName[] observedModes;
+    private final ZKNodeModeName[] lastKnownModes;
+    private final long[] zxids;
+
+    private int leaderCount = 0;
+    private int observerCount = 0;
+    private int liveVoterCount = 0;
+
+
+    /**
+     * @param zkNodeIds zookeeper node ids in the order used by {@link ZKEnsembleTracker#onNodeProbe(int, ZKNodeStatus)}
+     * @throws IllegalArgumentException if zkNodeIds is null
+     */
+    public ZKEnsembleTracker(final List<String> zkNodeIds) {
+        if (zkNodeIds == null) {
+            throw new IllegalArgumentException("Zookeeper node ids cannot be null");
+        }
+
+        final int size = zkNodeIds.size();
+        this.zkNodeIds = zkNodeIds.toArray(new String[size]);
+        this.isUp = new boolean[size];
+        this.observedModes = new ZKNodeModeName[size];
+        this.lastKnownModes = new ZKNodeModeName[size];
+        this.zxids = new long[size];
+        for (int i = 0; i < size; i++) {
+            observedModes[i] = ZKNodeModeName.UNKNOWN;
+            lastKnownModes[i] = ZKNodeModeName.UNKNOWN;
+            zxids[i] = ZKNodeStatistics.NOT_REPORTED;
+        }
+    }
+
+
+    /**
+     * Update the slot of a zookeeper node with the result of a poll
+     *
+     * @param zkNodeIndex  index of the zookeeper node id
+     * @param zkNodeStatus zookeeper node status reported by the poll
+     */
+    public synchronized void onNodeProbe(final int zkNodeIndex, final ZKNodeStatus zkNodeStatus) {
+        count(zkNodeIndex, -1);
+
+        isUp[zkNodeIndex] = zkNodeStatus.getStatus() == ZKNodeStatusName.UP;
+        if (isUp[zkNodeIndex]) {
+            observedModes[zkNodeIndex] = zkNodeStatus.getZKNodeMode();
+            zxids[zkNodeIndex] = zkNodeStatus.getZKNodeParsedStatistics().getZxid();
+            if (observedModes[zkNodeIndex] != ZKNodeModeName.UNKNOWN) {
+                lastKnownModes[zkNodeIndex] = observedModes[zkNodeIndex];
+            }
+        } else {
+            observedModes[zkNodeIndex] = ZKNodeModeName.UNKNOWN;
+            zxids[zkNodeIndex] = ZKNodeStatistics.NOT_REPORTED;
+        }
+
+        count(zkNodeIndex, 1);
+    }
+
+
+    /**
+     * @return ensemble analysis according to the last poll of every zookeeper node
+     */
+    public synchronized ZKEnsemble getEnsemble() {
+        int leaderIndex = -1;
+        for (int i = 0; i < zkNodeIds.length; i++) {
+            // A stale leader has not seen the new epoch yet, so the leader with the greatest zxid is reported
+            if (observedModes[i] == ZKNodeModeName.LEADER && (leaderIndex < 0 || zxids[i] > zxids[leaderIndex])) {
+                leaderIndex = i;
+            }
+        }
+
+        final Map<String, Long> followerZxidSkews = new HashMap<>();
+        if (leaderIndex >= 0 && zxids[leaderIndex] != ZKNodeStatistics.NOT_REPORTED) {
+            for (int i = 0; i < zkNodeIds.length; i++) {
+                if (observedModes[i] == ZKNodeModeName.FOLLOWER && zxids[i] != ZKNodeStatistics.NOT_REPORTED) {
+                    followerZxidSkews.put(zkNodeIds[i], Math.max(0L, zxids[leaderIndex] - zxids[i]));
+                }
+            }
+        }
+
+        return new ZKEnsemble(leaderIndex >= 0 ? zkNodeIds[leaderIndex] : null,
+                leaderCount,
+                zkNodeIds.length - observerCount,
+                liveVoterCount,
+                followerZxidSkews);
+    }
+
+
+    /**
+     * Add or remove the contribution of a zookeeper node slot to the counters
+     *
+     * @param zkNodeIndex index of the zookeeper node id
+     * @param delta       1 to add the contribution or -1 to remove it
+     */
+    private void count(final int zkNodeIndex, final int delta) {
+        if (lastKnownModes[zkNodeIndex] == ZKNodeModeName.OBSERVER) {
+            observerCount += delta;
+        }
+        switch (observedModes[zkNodeIndex]) {
+            case LEADER:
+                leaderCount += delta;
+                liveVoterCount += delta;
+                break;
+            case FOLLOWER:
+            case STANDALONE:
+                liveVoterCount += delta;
+                break;
+            default:
+        }
+    }
+}
@@ -0,0 +1,505 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.zookeeper;
+
+import com.mcafee.dxl.streaming.operations.client.exception.ConnectionException;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * It sends Zookeeper four letter word commands, such as stat or mntr, to Zookeeper nodes.
+ * <p>
+ * Unlike {@link org.apache.zookeeper.client.FourLetterWordMain}, the requests to every Zookeeper node are driven by
+ * a single selector thread, so polling an ensemble does not block a thread per node. Every request connects, writes
+ * the command and reads the response until Zookeeper closes the connection, as required by the four letter word
+ * protocol. Requests whose deadline has passed are failed and their connections closed.
+ * <p>
+ * Requests and responses go through direct buffers taken from a pool which is only used by the selector thread.
+ * The response is not turned into a string: it is handed to a decoder as a {@link CharSequence} view over the
+ * buffer, so a decoder which does not keep the view creates no garbage.
+ * <p>
+ * Host names are never resolved by the selector thread, where a slow DNS lookup would delay the requests to every
+ * node. Unresolved addresses are resolved by the thread which sends the command.
+ * <p>
+ * {@link ZKFourLetterWordClient#start()} must be called before sending commands.
+ */
+public final class ZKFourLetterWordClient implements AutoCloseable {
+
+    /**
+     * Class constants
+     */
+    private static final long CLIENT_AWAIT_TERMINATION_MS = 200L;
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final int MAX_POOLED_BUFFERS = 16;
+    private static final int MAX_RESPONSE_SIZE = 1024 * 1024;
+    private static final int COMMAND_LENGTH = 4;
+
+    private final Queue<Request<?>> pendingRequests = new ConcurrentLinkedQueue<>();
+    private final String name;
+    private volatile Selector selector;
+    private volatile Thread selectorThread;
+
+    /**
+     * Requests in progress, idle buffers and the response view. They are only used by the selector thread.
+     */
+    private final List<Request<?>> inFlightRequests = new ArrayList<>();
+    private final Deque<ByteBuffer> bufferPool = new ArrayDeque<>();
+    private final ByteBufferCharSequence responseView = new ByteBufferCharSequence();
+
+
+    /**
+     * @param name it is used to name the selector thread
+     */
+    public ZKFourLetterWordClient(final String name) {
+        this.name = name;
+    }
+
+
+    /**
+     * It starts the selector thread
+     * <p>
+     * Calling this method more than once does not have effect.
+     *
+     * @throws ConnectionException if the selector cannot be opened
+     */
+    public synchronized void start() {
+        if (selectorThread != null) {
+            return;
+        }
+
+        try {
+            selector = Selector.open();
+        } catch (IOException e) {
+            throw new ConnectionException(name, e.getMessage(), e, this.getClass());
+        }
+
+        selectorThread = new Thread(this::selectLoop, "four-letter-word-client-" + name);
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+    }
+
+
+    /**
+     * It stops the selector thread and closes connections. Requests in progress are completed exceptionally.
+     * <p>
+     * Calling this method more than once does not have effect.
+     */
+    @Override
+    public synchronized void close() {
+        final Thread thread = selectorThread;
+        if (thread == null) {
+            return;
+        }
+        selectorThread = null;
+        selector.wakeup();
+
+        try {
+            thread.join(CLIENT_AWAIT_TERMINATION_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * Send a four letter word command to a Zookeeper node without blocking the caller
+     * <p>
+     * The decoder is called by the selector thread. The response view it receives is only valid during the call,
+     * so it must not be kept. The returned future is also completed by the selector thread, so dependent actions
+     * which may block must be run by another executor. In particular, they must send commands to an address
+     * which has already been resolved by {@link ZKFourLetterWordClient#resolve(InetSocketAddress)}.
+     *
+     * @param address   zookeeper node address. It is resolved by the calling thread if it is unresolved
+     * @param command   four letter word command
+     * @param timeoutMs time expressed in ms to wait for the whole response, including the connection time
+     * @param decoder   function which turns the response into the result
+     * @param <T>       result type
+     * @return a future which completes with the decoded response, or completes exceptionally when the node is
+     * unreachable, the timeout has expired or the decoder has failed
+     * @throws IllegalArgumentException if the command is not a four letter word
+     */
+    public <T> CompletableFuture<T> send(final InetSocketAddress address,
+                                         final String command,
+                                         final int timeoutMs,
+                                         final Function<CharSequence, T> decoder) {
+        if (command == null || command.length() != COMMAND_LENGTH) {
+            throw new IllegalArgumentException("Zookeeper command must be a four letter word");
+        }
+
+        final InetSocketAddress resolvedAddress = resolve(address);
+        final Request<T> request = new Request<>(resolvedAddress, command, timeoutMs, decoder);
+
+        if (resolvedAddress.isUnresolved()) {
+            request.fail(new UnknownHostException(resolvedAddress.getHostString()));
+            return request.result;
+        }
+
+        if (selectorThread == null) {
+            request.fail(new IllegalStateException("Four letter word client is not running"));
+            return request.result;
+        }
+
+        pendingRequests.add(request);
+        selector.wakeup();
+
+        if (selectorThread == null && pendingRequests.remove(request)) { // Stopped while it was being requested
+            request.fail(new IllegalStateException("Four letter word client is not running"));
+        }
+        return request.result;
+    }
+
+
+    /**
+     * Resolve the host name of an address. It may block while the name is looked up.
+     *
+     * @param address address
+     * @return the same address if it is already resolved, otherwise a new address which is unresolved only if
+     * the host name cannot be resolved
+     */
+    public static InetSocketAddress resolve(final InetSocketAddress address) {
+        return address.isUnresolved()
+                ? new InetSocketAddress(address.getHostString(), address.getPort())
+                : address;
+    }
+
+
+    /**
+     * Selector thread main loop. It starts pending requests, handles selected connections and expires the requests
+     * whose deadline has passed.
+     */
+    private void selectLoop() {
+        final Selector loopSelector = selector;
+        try {
+            while (selectorThread != null) {
+                startPendingRequests(loopSelector);
+                loopSelector.select(getSelectTimeoutMs());
+                handleSelectedRequests(loopSelector);
+                expireRequests();
+            }
+        } catch (Exception e) {
+            // Selector has failed, requests in progress are failed below
+        } finally {
+            closeRequests(loopSelector);
+        }
+    }
+
+
+    /**
+     * Open a connection for every request sent since the last loop
+     *
+     * @param loopSelector selector
+     */
+    private void startPendingRequests(final Selector loopSelector) {
+        Request<?> request;
+        while ((request = pendingRequests.poll()) != null) {
+            request.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(request.timeoutMs);
+            request.buffer = acquireBuffer();
+            for (int i = 0; i < COMMAND_LENGTH; i++) {
+                request.buffer.put((byte) request.command.charAt(i));
+            }
+            request.buffer.flip();
+            inFlightRequests.add(request);
+
+            try {
+                request.channel = SocketChannel.open();
+                request.channel.configureBlocking(false);
+                final boolean isConnected = request.channel.connect(request.address);
+                request.key = request.channel.register(loopSelector,
+                        isConnected ? SelectionKey.OP_WRITE : SelectionKey.OP_CONNECT,
+                        request);
+            } catch (Exception e) {
+                finishRequest(request, e);
+            }
+        }
+    }
+
+
+    /**
+     * @return time in ms until the closest request deadline or zero to wait until a request is sent
+     */
+    private long getSelectTimeoutMs() {
+        if (inFlightRequests.isEmpty()) {
+            return 0;
+        }
+
+        long closestDeadline = Long.MAX_VALUE;
+        for (Request<?> request : inFlightRequests) {
+            closestDeadline = Math.min(closestDeadline, request.deadlineNanos);
+        }
+        return Math.max(1L, TimeUnit.NANOSECONDS.toMillis(closestDeadline - System.nanoTime()) + 1);
+    }
+
+
+    /**
+     * Finish connects, write commands and read responses of the selected requests
+     *
+     * @param loopSelector selector
+     */
+    private void handleSelectedRequests(final Selector loopSelector) {
+        final Iterator<SelectionKey> keys = loopSelector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+            final SelectionKey key = keys.next();
+            keys.remove();
+            final Request<?> request = (Request<?>) key.attachment();
+            try {
+                if (key.isConnectable() && request.channel.finishConnect()) {
+                    key.interestOps(SelectionKey.OP_WRITE);
+                }
+                if (key.isValid() && key.isWritable()) {
+                    request.channel.write(request.buffer);
+                    if (!request.buffer.hasRemaining()) {
+                        request.buffer.clear();
+                        key.interestOps(SelectionKey.OP_READ);
+                    }
+                }
+                if (key.isValid() && key.isReadable() && readResponse(request)) {
+                    completeRequest(request);
+                }
+            } catch (Exception e) {
+                finishRequest(request, e);
+            }
+        }
+    }
+
+
+    /**
+     * Read the available response bytes. A full buffer is replaced by a larger one.
+     *
+     * @param request request
+     * @return true if Zookeeper has closed the connection, so the whole response has been read
+     * @throws IOException if the connection fails or the response is too large
+     */
+    private boolean readResponse(final Request<?> request) throws IOException {
+        while (true) {
+            if (!request.buffer.hasRemaining()) {
+                final int capacity = request.buffer.capacity() * 2;
+                if (capacity > MAX_RESPONSE_SIZE) {
+                    throw new IOException("Response from " + request.address + " is larger than "
+                            + MAX_RESPONSE_SIZE + " bytes");
+                }
+                final ByteBuffer largerBuffer = ByteBuffer.allocateDirect(capacity);
+                request.buffer.flip();
+                largerBuffer.put(request.buffer);
+                releaseBuffer(request.buffer);
+                request.buffer = largerBuffer;
+            }
+
+            final int read = request.channel.read(request.buffer);
+            if (read < 0) {
+                return true;
+            }
+            if (read == 0) {
+                return false;
+            }
+        }
+    }
+
+
+    /**
+     * Decode the response and complete the request
+     *
+     * @param request request whose response has been read
+     */
+    private void completeRequest(final Request<?> request) {
+        request.buffer.flip();
+        responseView.reset(request.buffer, 0, request.buffer.limit());
+        try {
+            request.succeed(responseView);
+            finishRequest(request, null);
+        } catch (Exception e) {
+            finishRequest(request, e);
+        } finally {
+            responseView.reset(null, 0, 0);
+        }
+    }
+
+
+    /**
+     * Fail the requests whose deadline has passed
+     */
+    private void expireRequests() {
+        final long now = System.nanoTime();
+        for (int i = inFlightRequests.size() - 1; i >= 0; i--) {
+            final Request<?> request = inFlightRequests.get(i);
+            if (request.deadlineNanos - now <= 0) {
+                finishRequest(request, new SocketTimeoutException("Request to " + request.address + " timed out"));
+            }
+        }
+    }
+
+
+    /**
+     * Close the request connection, give its buffer back to the pool and fail it if it has not been completed
+     *
+     * @param request request
+     * @param cause   reason to fail the request or null if it has been completed
+     */
+    private void finishRequest(final Request<?> request, final Throwable cause) {
+        inFlightRequests.remove(request);
+        if (cause != null) {
+            request.fail(cause);
+        }
+        if (request.key != null) {
+            request.key.cancel();
+        }
+        if (request.channel != null) {
+            try {
+                request.channel.close();
+            } catch (IOException e) {
+            }
+        }
+        if (request.buffer != null) {
+            releaseBuffer(request.buffer);
+            request.buffer = null;
+        }
+    }
+
+
+    /**
+     * Fail every request in progress and close the selector
+     *
+     * @param loopSelector selector
+     */
+    private void closeRequests(final Selector loopSelector) {
+        final IllegalStateException closed = new IllegalStateException("Four letter word client has been stopped");
+        new ArrayList<>(inFlightRequests).forEach(request -> finishRequest(request, closed));
+
+        Request<?> request;
+        while ((request = pendingRequests.poll()) != null) {
+            request.fail(closed);
+        }
+        bufferPool.clear();
+
+        try {
+            loopSelector.close();
+        } catch (IOException e) {
+        }
+    }
+
+
+    private ByteBuffer acquireBuffer() {
+        final ByteBuffer buffer = bufferPool.pollFirst();
+        return buffer != null ? buffer : ByteBuffer.allocateDirect(BUFFER_SIZE);
+    }
+
+
+    /**
+     * Give a buffer back to the pool. Buffers grown for large responses are not pooled.
+     *
+     * @param buffer buffer
+     */
+    private void releaseBuffer(final ByteBuffer buffer) {
+        if (buffer.capacity() == BUFFER_SIZE && bufferPool.size() < MAX_POOLED_BUFFERS) {
+            buffer.clear();
+            bufferPool.addFirst(buffer);
+        }
+    }
+
+
+    /**
+     * A command in progress
+     *
+     * @param <T> result type
+     */
+    private static final class Request<T> {
+        private final InetSocketAddress address;
+        private final String command;
+        private final int timeoutMs;
+        private final Function<CharSequence, T> decoder;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private long deadlineNanos;
+        private SocketChannel channel;
+        private SelectionKey key;
+        private ByteBuffer buffer;
+
+        Request(final InetSocketAddress address,
+                final String command,
+                final int timeoutMs,
+                final Function<CharSequence, T> decoder) {
+            this.address = address;
+            this.command = command;
+            this.timeoutMs = timeoutMs;
+            this.decoder = decoder;
+        }
+
+        void succeed(final CharSequence response) {
+            result.complete(decoder.apply(response));
+        }
+
+        void fail(final Throwable cause) {
+            result.completeExceptionally(cause);
+        }
+    }
+
+
+    /**
+     * A {@link CharSequence} view over the ASCII bytes of a buffer
+     */
+    static final class ByteBufferCharSequence implements CharSequence {
+        private ByteBuffer buffer;
+        private int offset;
+        private int length;
+
+        ByteBufferCharSequence() {
+        }
+
+        ByteBufferCharSequence(final ByteBuffer buffer, final int offset, final int length) {
+            reset(buffer, offset, length);
+        }
+
+        void reset(final ByteBuffer buffer, final int offset, final int length) {
+            this.buffer = buffer;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(final int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of length " + length);
+            }
+            return (char) (buffer.get(offset + index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(final int start, final int end) {
+            if (start < 0 || end > length || start > end) {
+                throw new IndexOutOfBoundsException("Range " + start + "-" + end + " out of length " + length);
+            }
+            return new ByteBufferCharSequence(buffer, offset + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            final char[] chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                chars[i] = (char) (buffer.get(offset + i) & 0xFF);
+            }
+            return new String(chars);
+        }
+    }
+}
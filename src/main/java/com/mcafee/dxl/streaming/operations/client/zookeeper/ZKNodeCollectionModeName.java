@@ -0,0 +1,37 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.zookeeper;
+
+/**
+ * It enumerates the ways a Zookeeper node watcher collects node statistics
+ */
+public enum ZKNodeCollectionModeName {
+
+    /**
+     * Zookeeper node is polled by the stat command
+     */
+    STAT,
+
+    /**
+     * Zookeeper node is polled by the stat command and, once it has answered, by the mntr command.
+     * mntr must be whitelisted by Zookeeper since 3.5.
+     */
+    MNTR;
+
+
+    /**
+     * @param collectionMode collection mode name, case insensitive
+     * @return collection mode
+     * @throws IllegalArgumentException if the name does not match any collection mode
+     */
+    public static ZKNodeCollectionModeName fromName(final String collectionMode) {
+        for (ZKNodeCollectionModeName mode : values()) {
+            if (mode.name().equalsIgnoreCase(collectionMode)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Invalid Zookeeper node collection mode: " + collectionMode);
+    }
+}
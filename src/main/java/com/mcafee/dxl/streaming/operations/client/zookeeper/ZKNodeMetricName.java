@@ -0,0 +1,53 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.zookeeper;
+
+/**
+ * It enumerates the numeric zookeeper node metrics reported by the mntr command
+ */
+public enum ZKNodeMetricName {
+
+    AVG_LATENCY("zk_avg_latency"),
+    MAX_LATENCY("zk_max_latency"),
+    MIN_LATENCY("zk_min_latency"),
+    PACKETS_RECEIVED("zk_packets_received"),
+    PACKETS_SENT("zk_packets_sent"),
+    NUM_ALIVE_CONNECTIONS("zk_num_alive_connections"),
+    OUTSTANDING_REQUESTS("zk_outstanding_requests"),
+    ZNODE_COUNT("zk_znode_count"),
+    WATCH_COUNT("zk_watch_count"),
+    EPHEMERALS_COUNT("zk_ephemerals_count"),
+    APPROXIMATE_DATA_SIZE("zk_approximate_data_size"),
+    OPEN_FILE_DESCRIPTOR_COUNT("zk_open_file_descriptor_count"),
+    MAX_FILE_DESCRIPTOR_COUNT("zk_max_file_descriptor_count"),
+
+    /**
+     * Reported by the leader only
+     */
+    FOLLOWERS("zk_followers"),
+
+    /**
+     * Reported by the leader only
+     */
+    SYNCED_FOLLOWERS("zk_synced_followers"),
+
+    /**
+     * Reported by the leader only
+     */
+    PENDING_SYNCS("zk_pending_syncs");
+
+    private final String mntrName;
+
+    ZKNodeMetricName(final String mntrName) {
+        this.mntrName = mntrName;
+    }
+
+    /**
+     * @return metric key as reported by the mntr command
+     */
+    public String getMntrName() {
+        return mntrName;
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.zookeeper;
+
+import com.mcafee.dxl.streaming.operations.client.zookeeper.entities.ZKNodeMetrics;
+
+/**
+ * It decodes the response of the Zookeeper mntr command into {@link ZKNodeMetrics}.
+ * <p>
+ * The response is a list of tab-separated key/value lines. It is decoded in a single pass: every key is matched
+ * in place against {@link ZKNodeMetricName} keys and its value is written straight into the metric array, so no map
+ * or intermediate string is built. Unknown keys and non-numeric values, such as zk_version, are skipped. Decimal
+ * values, such as zk_avg_latency since Zookeeper 3.5, are truncated.
+ */
+public final class ZKNodeMetricsParser {
+
+    /**
+     * Class constants
+     */
+    private static final String SERVER_STATE_KEY = "zk_server_state";
+    private static final ZKNodeMetricName[] METRICS = ZKNodeMetricName.values();
+
+    private ZKNodeMetricsParser() {
+    }
+
+
+    /**
+     * Decode the response of the mntr command
+     *
+     * @param mntrResponse mntr command response
+     * @return zookeeper node metrics, or {@link ZKNodeMetrics#empty()} if the response is null or empty
+     */
+    public static ZKNodeMetrics parse(final CharSequence mntrResponse) {
+        if (mntrResponse == null || mntrResponse.length() == 0) {
+            return ZKNodeMetrics.empty();
+        }
+
+        final long[] values = ZKNodeMetrics.notReported();
+        ZKNodeModeName mode = ZKNodeModeName.UNKNOWN;
+
+        final int length = mntrResponse.length();
+        int lineStart = 0;
+        while (lineStart < length) {
+            int lineEnd = lineStart;
+            int separator = -1;
+            while (lineEnd < length && mntrResponse.charAt(lineEnd) != '\n') {
+                if (separator < 0 && mntrResponse.charAt(lineEnd) == '\t') {
+                    separator = lineEnd;
+                }
+                lineEnd++;
+            }
+            final int valueEnd = lineEnd > lineStart && mntrResponse.charAt(lineEnd - 1) == '\r'
+                    ? lineEnd - 1
+                    : lineEnd;
+
+            if (separator > lineStart) {
+                if (matches(mntrResponse, lineStart, separator, SERVER_STATE_KEY)) {
+                    mode = ZKNodeModeName.fromStatName(mntrResponse, separator + 1, valueEnd);
+                } else {
+                    final ZKNodeMetricName metric = lookUpMetric(mntrResponse, lineStart, separator);
+                    if (metric != null) {
+                        values[metric.ordinal()] = readLong(mntrResponse, separator + 1, valueEnd);
+                    }
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+
+        return new ZKNodeMetrics(values, mode);
+    }
+
+
+    private static ZKNodeMetricName lookUpMetric(final CharSequence response, final int start, final int end) {
+        for (ZKNodeMetricName metric : METRICS) {
+            if (matches(response, start, end, metric.getMntrName())) {
+                return metric;
+            }
+        }
+        return null;
+    }
+
+
+    private static boolean matches(final CharSequence response, final int start, final int end, final String key) {
+        if (end - start != key.length()) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            if (response.charAt(start + i) != key.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * @return integer part of the decimal number held by the region, or {@link ZKNodeMetrics#NOT_REPORTED} if the
+     * region does not start with a digit
+     */
+    private static long readLong(final CharSequence response, final int start, final int end) {
+        long value = 0;
+        int position = start;
+        while (position < end) {
+            final int digit = Character.digit(response.charAt(position), 10);
+            if (digit < 0) {
+                break;
+            }
+            value = value * 10 + digit;
+            position++;
+        }
+        return position == start ? ZKNodeMetrics.NOT_REPORTED : value;
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.zookeeper;
+
+/**
+ * It enumerates the zookeeper node modes reported by the stat command
+ */
+public enum ZKNodeModeName {
+
+    /**
+     * Zookeeper node is the ensemble leader
+     */
+    LEADER("leader"),
+
+    /**
+     * Zookeeper node is an ensemble follower
+     */
+    FOLLOWER("follower"),
+
+    /**
+     * Zookeeper node is a non-voting ensemble member
+     */
+    OBSERVER("observer"),
+
+    /**
+     * Zookeeper node is not part of an ensemble
+     */
+    STANDALONE("standalone"),
+
+    /**
+     * Zookeeper node has lost the quorum and only serves read requests
+     */
+    READ_ONLY("read-only"),
+
+    /**
+     * Zookeeper node mode has not been reported
+     */
+    UNKNOWN("");
+
+    private static final ZKNodeModeName[] MODES = values();
+    private final String statName;
+
+    ZKNodeModeName(final String statName) {
+        this.statName = statName;
+    }
+
+    /**
+     * @return mode name as reported by the stat command
+     */
+    public String getStatName() {
+        return statName;
+    }
+
+
+    /**
+     * Look up the mode whose name is held by a region of a response, without creating a string
+     *
+     * @param response response of the stat or mntr command
+     * @param start    index of the first character of the mode name
+     * @param end      index after the last character of the mode name
+     * @return mode, or {@link #UNKNOWN} if the region does not match any mode
+     */
+    public static ZKNodeModeName fromStatName(final CharSequence response, final int start, final int end) {
+        for (ZKNodeModeName mode : MODES) {
+            final String name = mode.statName;
+            if (!name.isEmpty() && name.length() == end - start && regionMatches(response, start, name)) {
+                return mode;
+            }
+        }
+        return UNKNOWN;
+    }
+
+
+    private static boolean regionMatches(final CharSequence response, final int start, final String name) {
+        for (int i = 0; i < name.length(); i++) {
+            if (response.charAt(start + i) != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
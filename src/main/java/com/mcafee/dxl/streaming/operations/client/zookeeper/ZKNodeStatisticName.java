@@ -0,0 +1,36 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.zookeeper;
+
+/**
+ * It enumerates the zookeeper node statistics kept by {@link ZKNodeStatisticsHistory}
+ */
+public enum ZKNodeStatisticName {
+
+    /**
+     * Average request latency expressed in microseconds
+     */
+    AVG_LATENCY_MICROS,
+
+    /**
+     * Maximum request latency expressed in ms
+     */
+    MAX_LATENCY_MS,
+
+    /**
+     * Number of queued requests
+     */
+    OUTSTANDING,
+
+    /**
+     * Number of znodes
+     */
+    ZNODE_COUNT,
+
+    /**
+     * Number of client connections
+     */
+    CONNECTIONS
+}
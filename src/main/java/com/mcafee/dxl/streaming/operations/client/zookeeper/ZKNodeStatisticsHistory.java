@@ -0,0 +1,246 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.zookeeper;
+
+import com.mcafee.dxl.streaming.operations.client.zookeeper.entities.ZKNodeStatistics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded history of the statistics reported by a zookeeper node, used to query trends over time windows.
+ * <p>
+ * Samples are kept in a column-oriented ring buffer: one primitive array for timestamps and one per
+ * {@link ZKNodeStatisticName}, all of them allocated up front. Once it is full, every new sample overwrites the
+ * oldest one, so the history does not grow the heap however long the watcher runs. Statistics which have not been
+ * reported by a sample are {@link ZKNodeStatistics#NOT_REPORTED} and they are ignored by queries.
+ * <p>
+ * A query over a window longer than the time covered by the history only sees the retained samples. See
+ * {@link ZKNodeStatisticsHistory#getCapacity(long, int)} to size the history for a retention time, and
+ * {@link ZKNodeStatisticsHistory#getCoveredMs()} to know how far back it actually goes.
+ */
+public final class ZKNodeStatisticsHistory {
+
+    /**
+     * Class constants
+     */
+    private static final ZKNodeStatisticName[] STATISTICS = ZKNodeStatisticName.values();
+
+    private final LongSupplier clock;
+    private final long[] timestampsMs;
+    private final long[][] columns;
+    private int nextSample = 0;
+    private int size = 0;
+
+
+    /**
+     * @param capacity maximum number of samples. Zero disables the history
+     * @throws IllegalArgumentException if capacity is negative
+     */
+    public ZKNodeStatisticsHistory(final int capacity) {
+        this(capacity, System::currentTimeMillis);
+    }
+
+
+    /**
+     * @param capacity maximum number of samples. Zero disables the history
+     * @param clock    time source expressed in ms
+     * @throws IllegalArgumentException if capacity is negative
+     */
+    ZKNodeStatisticsHistory(final int capacity, final LongSupplier clock) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Zookeeper node history capacity must be greather or equal than zero");
+        }
+        this.clock = clock;
+        this.timestampsMs = new long[capacity];
+        this.columns = new long[STATISTICS.length][capacity];
+    }
+
+
+    /**
+     * Get the capacity needed to keep the samples of a retention time. Samples are taken at most once per minimum
+     * polling delay, except for status updates requested by Zookeeper events, which may shorten the time covered.
+     *
+     * @param retentionMs         time expressed in ms the samples must be kept. Zero disables the history
+     * @param pollingMinDelayMs   minimum delay expressed in ms between zookeeper node polls
+     * @return number of samples
+     * @throws IllegalArgumentException if retention is negative or polling min delay is not positive
+     */
+    public static int getCapacity(final long retentionMs, final int pollingMinDelayMs) {
+        if (retentionMs < 0) {
+            throw new IllegalArgumentException("Zookeeper node history retention must be greather or equal than zero");
+        }
+        if (pollingMinDelayMs <= 0) {
+            throw new IllegalArgumentException("Zookeeper node polling min delay time must be greather than zero");
+        }
+        if (retentionMs == 0) {
+            return 0;
+        }
+        // One more sample because both ends of the retention time are included
+        return (int) Math.min(Integer.MAX_VALUE - 1, (retentionMs + pollingMinDelayMs - 1) / pollingMinDelayMs) + 1;
+    }
+
+
+    /**
+     * Add a sample. The oldest one is overwritten when the history is full.
+     *
+     * @param statistics statistics reported by the zookeeper node
+     */
+    synchronized void record(final ZKNodeStatistics statistics) {
+        if (timestampsMs.length == 0) {
+            return;
+        }
+
+        timestampsMs[nextSample] = clock.getAsLong();
+        columns[ZKNodeStatisticName.AVG_LATENCY_MICROS.ordinal()][nextSample] =
+                statistics.getLatencyAvgMs() < 0
+                        ? ZKNodeStatistics.NOT_REPORTED
+                        : Math.round(statistics.getLatencyAvgMs() * 1000);
+        columns[ZKNodeStatisticName.MAX_LATENCY_MS.ordinal()][nextSample] = statistics.getLatencyMaxMs();
+        columns[ZKNodeStatisticName.OUTSTANDING.ordinal()][nextSample] = statistics.getOutstanding();
+        columns[ZKNodeStatisticName.ZNODE_COUNT.ordinal()][nextSample] = statistics.getNodeCount();
+        columns[ZKNodeStatisticName.CONNECTIONS.ordinal()][nextSample] = statistics.getConnections();
+
+        nextSample = (nextSample + 1) % timestampsMs.length;
+        size = Math.min(size + 1, timestampsMs.length);
+    }
+
+
+    /**
+     * @return maximum number of samples
+     */
+    public int getCapacity() {
+        return timestampsMs.length;
+    }
+
+
+    /**
+     * @return time expressed in ms between the oldest sample and now, or zero if there is no sample. Queries over
+     * longer windows are limited to it.
+     */
+    public synchronized long getCoveredMs() {
+        return size == 0 ? 0 : clock.getAsLong() - timestampsMs[oldestSample()];
+    }
+
+
+    /**
+     * @param windowMs time window expressed in ms before now
+     * @return number of samples taken within the window
+     */
+    public synchronized int getSampleCount(final long windowMs) {
+        final long fromMs = clock.getAsLong() - windowMs;
+        int count = 0;
+        for (int i = 0, sample = newestSample(); i < size; i++, sample = previousSample(sample)) {
+            if (timestampsMs[sample] < fromMs) {
+                break;
+            }
+            count++;
+        }
+        return count;
+    }
+
+
+    /**
+     * @param statistic statistic name
+     * @return value reported by the newest sample, or {@link ZKNodeStatistics#NOT_REPORTED} if there is no sample
+     */
+    public synchronized long getLatest(final ZKNodeStatisticName statistic) {
+        return size == 0 ? ZKNodeStatistics.NOT_REPORTED : columns[statistic.ordinal()][newestSample()];
+    }
+
+
+    /**
+     * @param statistic statistic name
+     * @param windowMs  time window expressed in ms before now
+     * @return maximum value within the window, or {@link ZKNodeStatistics#NOT_REPORTED} if there is no value
+     */
+    public synchronized long getMax(final ZKNodeStatisticName statistic, final long windowMs) {
+        final long[] column = columns[statistic.ordinal()];
+        final long fromMs = clock.getAsLong() - windowMs;
+        long max = ZKNodeStatistics.NOT_REPORTED;
+        for (int i = 0, sample = newestSample(); i < size && timestampsMs[sample] >= fromMs;
+             i++, sample = previousSample(sample)) {
+            max = Math.max(max, column[sample]);
+        }
+        return max;
+    }
+
+
+    /**
+     * @param statistic statistic name
+     * @param windowMs  time window expressed in ms before now
+     * @return minimum value within the window, or {@link ZKNodeStatistics#NOT_REPORTED} if there is no value
+     */
+    public synchronized long getMin(final ZKNodeStatisticName statistic, final long windowMs) {
+        final long[] column = columns[statistic.ordinal()];
+        final long fromMs = clock.getAsLong() - windowMs;
+        long min = Long.MAX_VALUE;
+        for (int i = 0, sample = newestSample(); i < size && timestampsMs[sample] >= fromMs;
+             i++, sample = previousSample(sample)) {
+            if (column[sample] != ZKNodeStatistics.NOT_REPORTED) {
+                min = Math.min(min, column[sample]);
+            }
+        }
+        return min == Long.MAX_VALUE ? ZKNodeStatistics.NOT_REPORTED : min;
+    }
+
+
+    /**
+     * @param statistic statistic name
+     * @param windowMs  time window expressed in ms before now
+     * @return average value within the window, or {@link ZKNodeStatistics#NOT_REPORTED} if there is no value
+     */
+    public synchronized double getAverage(final ZKNodeStatisticName statistic, final long windowMs) {
+        final long[] column = columns[statistic.ordinal()];
+        final long fromMs = clock.getAsLong() - windowMs;
+        long sum = 0;
+        int count = 0;
+        for (int i = 0, sample = newestSample(); i < size && timestampsMs[sample] >= fromMs;
+             i++, sample = previousSample(sample)) {
+            if (column[sample] != ZKNodeStatistics.NOT_REPORTED) {
+                sum += column[sample];
+                count++;
+            }
+        }
+        return count == 0 ? ZKNodeStatistics.NOT_REPORTED : (double) sum / count;
+    }
+
+
+    /**
+     * Copy the samples taken within a window, e.g. to draw a trend
+     *
+     * @param statistic    statistic name
+     * @param windowMs     time window expressed in ms before now
+     * @param timestampsMs array which receives the sample timestamps expressed in ms, oldest first
+     * @param values       array which receives the sample values, oldest first
+     * @return number of samples copied, limited by the length of the arrays
+     */
+    public synchronized int copy(final ZKNodeStatisticName statistic,
+                                 final long windowMs,
+                                 final long[] timestampsMs,
+                                 final long[] values) {
+        final int count = Math.min(getSampleCount(windowMs), Math.min(timestampsMs.length, values.length));
+        final long[] column = columns[statistic.ordinal()];
+        for (int i = count - 1, sample = newestSample(); i >= 0; i--, sample = previousSample(sample)) {
+            timestampsMs[i] = this.timestampsMs[sample];
+            values[i] = column[sample];
+        }
+        return count;
+    }
+
+
+    private int newestSample() {
+        return previousSample(nextSample);
+    }
+
+
+    private int oldestSample() {
+        return size < timestampsMs.length ? 0 : nextSample;
+    }
+
+
+    private int previousSample(final int sample) {
+        return sample == 0 ? timestampsMs.length - 1 : sample - 1;
+    }
+}
@@ -0,0 +1,226 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.zookeeper;
+
+import com.mcafee.dxl.streaming.operations.client.zookeeper.entities.ZKNodeStatistics;
+
+/**
+ * It parses the response of the Zookeeper stat command into {@link ZKNodeStatistics}.
+ * <p>
+ * The response is read in a single pass: every line is matched against the known keys in place and its value is
+ * decoded straight from the characters, so neither regular expressions nor intermediate strings are used.
+ * Unknown lines, such as the client connection list, are skipped. Keys which are missing or whose value cannot be
+ * decoded are reported as {@link ZKNodeStatistics#NOT_REPORTED}.
+ */
+public final class ZKNodeStatisticsParser {
+
+    /**
+     * Class constants
+     */
+    private static final String LATENCY_KEY = "Latency min/avg/max: ";
+    private static final String RECEIVED_KEY = "Received: ";
+    private static final String SENT_KEY = "Sent: ";
+    private static final String CONNECTIONS_KEY = "Connections: ";
+    private static final String OUTSTANDING_KEY = "Outstanding: ";
+    private static final String ZXID_KEY = "Zxid: ";
+    private static final String MODE_KEY = "Mode: ";
+    private static final String NODE_COUNT_KEY = "Node count: ";
+    private static final String HEX_PREFIX = "0x";
+
+    private final CharSequence text;
+    private final int length;
+    private int position = 0;
+
+    private ZKNodeStatisticsParser(final CharSequence text) {
+        this.text = text;
+        this.length = text.length();
+    }
+
+
+    /**
+     * Parse the response of the stat command
+     *
+     * @param statResponse stat command response
+     * @return zookeeper node statistics, or {@link ZKNodeStatistics#empty()} if the response is null or empty
+     */
+    public static ZKNodeStatistics parse(final CharSequence statResponse) {
+        if (statResponse == null || statResponse.length() == 0) {
+            return ZKNodeStatistics.empty();
+        }
+        return new ZKNodeStatisticsParser(statResponse).parse();
+    }
+
+
+    private ZKNodeStatistics parse() {
+        long latencyMinMs = ZKNodeStatistics.NOT_REPORTED;
+        double latencyAvgMs = ZKNodeStatistics.NOT_REPORTED;
+        long latencyMaxMs = ZKNodeStatistics.NOT_REPORTED;
+        long received = ZKNodeStatistics.NOT_REPORTED;
+        long sent = ZKNodeStatistics.NOT_REPORTED;
+        long connections = ZKNodeStatistics.NOT_REPORTED;
+        long outstanding = ZKNodeStatistics.NOT_REPORTED;
+        long zxid = ZKNodeStatistics.NOT_REPORTED;
+        ZKNodeModeName mode = ZKNodeModeName.UNKNOWN;
+        long nodeCount = ZKNodeStatistics.NOT_REPORTED;
+
+        while (position < length) {
+            if (skipKey(LATENCY_KEY)) {
+                latencyMinMs = readLong();
+                if (skipChar('/')) {
+                    latencyAvgMs = readDecimal();
+                    if (skipChar('/')) {
+                        latencyMaxMs = readLong();
+                    }
+                }
+            } else if (skipKey(RECEIVED_KEY)) {
+                received = readLong();
+            } else if (skipKey(SENT_KEY)) {
+                sent = readLong();
+            } else if (skipKey(CONNECTIONS_KEY)) {
+                connections = readLong();
+            } else if (skipKey(OUTSTANDING_KEY)) {
+                outstanding = readLong();
+            } else if (skipKey(ZXID_KEY)) {
+                zxid = readZxid();
+            } else if (skipKey(MODE_KEY)) {
+                mode = readMode();
+            } else if (skipKey(NODE_COUNT_KEY)) {
+                nodeCount = readLong();
+            }
+            skipLine();
+        }
+
+        return new ZKNodeStatistics(latencyMinMs, latencyAvgMs, latencyMaxMs, received, sent, connections,
+                outstanding, zxid, mode, nodeCount);
+    }
+
+
+    /**
+     * Move past the key if the current position starts with it
+     *
+     * @param key key including its separator
+     * @return true if the key has been found
+     */
+    private boolean skipKey(final String key) {
+        if (!matches(key, position)) {
+            return false;
+        }
+        position += key.length();
+        return true;
+    }
+
+
+    private boolean skipChar(final char c) {
+        if (position < length && text.charAt(position) == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+
+    private void skipLine() {
+        while (position < length && text.charAt(position) != '\n') {
+            position++;
+        }
+        position++;
+    }
+
+
+    /**
+     * @return decimal digits at the current position, or {@link ZKNodeStatistics#NOT_REPORTED} if there is none
+     */
+    private long readLong() {
+        final int start = position;
+        long value = 0;
+        while (position < length) {
+            final int digit = Character.digit(text.charAt(position), 10);
+            if (digit < 0) {
+                break;
+            }
+            value = value * 10 + digit;
+            position++;
+        }
+        return position == start ? ZKNodeStatistics.NOT_REPORTED : value;
+    }
+
+
+    /**
+     * Average latency is an integer up to Zookeeper 3.4 and a decimal number since 3.5
+     *
+     * @return decimal number at the current position, or {@link ZKNodeStatistics#NOT_REPORTED} if there is none
+     */
+    private double readDecimal() {
+        final long integerPart = readLong();
+        if (integerPart == ZKNodeStatistics.NOT_REPORTED || !skipChar('.')) {
+            return integerPart;
+        }
+
+        long fraction = 0;
+        long scale = 1;
+        while (position < length && scale < 1_000_000_000L) {
+            final int digit = Character.digit(text.charAt(position), 10);
+            if (digit < 0) {
+                break;
+            }
+            fraction = fraction * 10 + digit;
+            scale *= 10;
+            position++;
+        }
+        return integerPart + (double) fraction / scale;
+    }
+
+
+    /**
+     * @return hexadecimal zxid at the current position, or {@link ZKNodeStatistics#NOT_REPORTED} if there is none
+     */
+    private long readZxid() {
+        if (!skipKey(HEX_PREFIX)) {
+            return ZKNodeStatistics.NOT_REPORTED;
+        }
+
+        final int start = position;
+        long value = 0;
+        while (position < length) {
+            final int digit = Character.digit(text.charAt(position), 16);
+            if (digit < 0) {
+                break;
+            }
+            value = (value << 4) | digit;
+            position++;
+        }
+        return position == start ? ZKNodeStatistics.NOT_REPORTED : value;
+    }
+
+
+    /**
+     * @return mode at the current position, or {@link ZKNodeModeName#UNKNOWN} if it does not match any mode
+     */
+    private ZKNodeModeName readMode() {
+        final int start = position;
+        while (!isLineEnd(position)) {
+            position++;
+        }
+        return ZKNodeModeName.fromStatName(text, start, position);
+    }
+
+
+    private boolean matches(final String expected, final int from) {
+        if (from + expected.length() > length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length(); i++) {
+            if (text.charAt(from + i) != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    private boolean isLineEnd(final int index) {
+        return index >= length || text.charAt(index) == '\n' || text.charAt(index) == '\r';
+    }
+}
@@ -4,16 +4,26 @@
 
 package com.mcafee.dxl.streaming.operations.client.zookeeper;
 
+import com.mcafee.dxl.streaming.operations.client.common.AdaptiveProbeInterval;
+import com.mcafee.dxl.streaming.operations.client.common.ExecutorProbeScheduler;
+import com.mcafee.dxl.streaming.operations.client.common.FlapDamper;
+import com.mcafee.dxl.streaming.operations.client.common.FlapDampingPolicy;
+import com.mcafee.dxl.streaming.operations.client.common.LatencyHistogram;
+import com.mcafee.dxl.streaming.operations.client.common.LatencySummary;
+import com.mcafee.dxl.streaming.operations.client.common.ProbeScheduler;
+import com.mcafee.dxl.streaming.operations.client.common.RefreshQueue;
 import com.mcafee.dxl.streaming.operations.client.exception.ZKMonitorException;
+import com.mcafee.dxl.streaming.operations.client.zookeeper.entities.ZKNodeMetrics;
+import com.mcafee.dxl.streaming.operations.client.zookeeper.entities.ZKNodeStatistics;
 import com.mcafee.dxl.streaming.operations.client.zookeeper.entities.ZKNodeStatus;
-import org.apache.zookeeper.client.FourLetterWordMain;
 
 import java.net.InetSocketAddress;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 /**
  * Zookeeper node watcher
@@ -23,19 +33,55 @@ import java.util.concurrent.atomic.AtomicReference;
 public class ZKNodeWatcher {
 
     private static final String ZK_FOUR_LETTER_COMAND_STAT = "stat";
-    private final ScheduledExecutorService executor;
+    private static final String ZK_FOUR_LETTER_COMAND_MNTR = "mntr";
+    private static final int ZK_FOUR_LETTER_WORD_TIMEOUT_MS = 5000;
+    private static final ZKNodeStatus ZK_NODE_DOWN_STATUS =
+            new ZKNodeStatus(ZKNodeStatusName.DOWN, "", ZKNodeStatistics.empty(), ZKNodeMetrics.empty());
+    private final ProbeScheduler probeScheduler;
+    private final boolean isProbeSchedulerOwner;
+    private final RefreshQueue refreshQueue;
+    private final Runnable statusRefresh = () -> probeStatus();
     private final InetSocketAddress zkNodeAddress;
     private final AtomicReference<ZKNodeStatus> zkNodeStatus =
-            new AtomicReference<>(new ZKNodeStatus(ZKNodeStatusName.DOWN,""));
+            new AtomicReference<>(ZK_NODE_DOWN_STATUS);
 
-    private final int zkNodePollingDelay;
+    /**
+     * Client used to send four letter word commands. It is started and stopped along with this instance only if
+     * it was not provided by the client
+     */
+    private final ZKFourLetterWordClient fourLetterWordClient;
+    private final boolean isFourLetterWordClientOwner;
+
+    /**
+     * Resources shared with the other watchers built along with this one, or null. They are released once
+     * by a watcher which has started monitoring
+     */
+    private final ZKNodeWatcherResources sharedResources;
+    private final AtomicBoolean isUsingSharedResources = new AtomicBoolean(false);
+
+    /**
+     * It avoids overlapping probes when a status update is requested while a poll is in progress
+     */
+    private final AtomicBoolean isProbing = new AtomicBoolean(false);
+    private volatile long statLatencyNanos;
+
+    /**
+     * It is notified of the status observed by every probe, before it is damped
+     */
+    private volatile Consumer<ZKNodeStatus> statusListener = zkNodeStatus -> { };
+
+    private final AdaptiveProbeInterval zkNodePollingInterval;
+    private final FlapDamper<ZKNodeStatusName> statusDamper;
+    private final ZKNodeCollectionModeName zkNodeCollectionMode;
+    private final ZKNodeStatisticsHistory statisticsHistory;
+    private final LatencyHistogram probeLatency = new LatencyHistogram();
     private final int zkNodePollingInitialDelay;
     private final ZKMonitorCallback zkMonitorListener;
-    private ScheduledFuture<?> executorController;
-
-    private static final long WATCHER_AWAIT_TERMINATION_MS = 200L;
+    private volatile ScheduledFuture<?> executorController;
+    private volatile boolean isStopped = false;
 
     /**
+     * Creates a watcher that polls the Zookeeper node by using its own single thread scheduler
      *
      * @param zkMonitorListener a {@link ZKMonitorCallback} instance
      * @param zkNodeAddress Zookeeper server address
@@ -46,17 +92,54 @@ public class ZKNodeWatcher {
                          final InetSocketAddress zkNodeAddress,
                          final int zkNodePollingDelay,
                          final int zkNodePollingInitialDelay) {
-
-        validateArguments(zkMonitorListener,
+        this(zkMonitorListener,
                 zkNodeAddress,
-                zkNodePollingDelay,
-                zkNodePollingInitialDelay);
+                new ZKNodeWatcherOptions(zkNodePollingDelay, zkNodePollingInitialDelay));
+    }
+
+
+    /**
+     * Creates a watcher according to its options. See {@link ZKNodeWatcherOptions} for the optional settings.
+     *
+     * @param zkMonitorListener a {@link ZKMonitorCallback} instance
+     * @param zkNodeAddress Zookeeper server address
+     * @param options polling delays, shared components and collection settings of the watcher
+     */
+    public ZKNodeWatcher(final ZKMonitorCallback zkMonitorListener,
+                         final InetSocketAddress zkNodeAddress,
+                         final ZKNodeWatcherOptions options) {
+
+        validateArguments(zkMonitorListener, zkNodeAddress, options);
+
+        this.sharedResources = options.getSharedResources();
+        final ProbeScheduler probeScheduler = sharedResources != null
+                ? sharedResources.getProbeScheduler()
+                : options.getProbeScheduler();
+        final RefreshQueue refreshQueue = sharedResources != null
+                ? sharedResources.getRefreshQueue()
+                : options.getRefreshQueue();
+        final ZKFourLetterWordClient fourLetterWordClient = sharedResources != null
+                ? sharedResources.getFourLetterWordClient()
+                : options.getFourLetterWordClient();
 
         this.zkNodeAddress = zkNodeAddress;
         this.zkMonitorListener = zkMonitorListener;
-        this.zkNodePollingDelay = zkNodePollingDelay;
-        this.zkNodePollingInitialDelay = zkNodePollingInitialDelay;
-        this.executor = Executors.newScheduledThreadPool(1);
+        this.zkNodePollingInterval = new AdaptiveProbeInterval(options.getPollingDelay(),
+                options.getPollingMinDelay(),
+                options.getPollingMaxDelay());
+        this.zkNodePollingInitialDelay = options.getPollingInitialDelay();
+        this.isProbeSchedulerOwner = probeScheduler == null;
+        this.probeScheduler = isProbeSchedulerOwner ? new ExecutorProbeScheduler(1) : probeScheduler;
+        this.refreshQueue = refreshQueue == null
+                ? new RefreshQueue(this.probeScheduler)
+                : refreshQueue;
+        this.statusDamper = options.getFlapDampingPolicy().newDamper(zkNodeStatus.get().getStatus());
+        this.zkNodeCollectionMode = options.getCollectionMode();
+        this.statisticsHistory = new ZKNodeStatisticsHistory(options.getHistoryCapacity());
+        this.isFourLetterWordClientOwner = fourLetterWordClient == null;
+        this.fourLetterWordClient = isFourLetterWordClientOwner
+                ? new ZKFourLetterWordClient(zkNodeAddress.getHostString())
+                : fourLetterWordClient;
 
     }
 
@@ -66,13 +149,11 @@ public class ZKNodeWatcher {
      *
      * @param zkMonitorListener
      * @param zkNodeAddress
-     * @param zkNodePollingDelay
-     * @param zkNodePollingInitialDelay
+     * @param options
      */
     private void validateArguments(final ZKMonitorCallback zkMonitorListener,
                                    final InetSocketAddress zkNodeAddress,
-                                   final int zkNodePollingDelay,
-                                   final int zkNodePollingInitialDelay) {
+                                   final ZKNodeWatcherOptions options) {
 
         if (zkMonitorListener == null) {
             throw new IllegalArgumentException("Zookeeper monitor listener cannot be null");
@@ -82,13 +163,47 @@ public class ZKNodeWatcher {
             throw new IllegalArgumentException("Zookeeper Address cannot be null");
         }
 
+        if (options == null) {
+            throw new IllegalArgumentException("Zookeeper node watcher options cannot be null");
+        }
+
+        final int zkNodePollingDelay = options.getPollingDelay();
+        final int zkNodePollingMinDelay = options.getPollingMinDelay();
+        final int zkNodePollingMaxDelay = options.getPollingMaxDelay();
+        final int zkNodePollingInitialDelay = options.getPollingInitialDelay();
+        final FlapDampingPolicy flapDampingPolicy = options.getFlapDampingPolicy();
+        final ZKNodeCollectionModeName zkNodeCollectionMode = options.getCollectionMode();
+        final int zkNodeHistoryCapacity = options.getHistoryCapacity();
+
         if (zkNodePollingDelay <= 0) {
             throw new IllegalArgumentException("Zookeeper node polling delay time must be greather than zero");
         }
 
+        if (zkNodePollingMinDelay <= 0 || zkNodePollingMinDelay > zkNodePollingDelay) {
+            throw new IllegalArgumentException("Zookeeper node polling min delay time must be greather than zero " +
+                    "and less or equal than polling delay time");
+        }
+
+        if (zkNodePollingMaxDelay < zkNodePollingDelay) {
+            throw new IllegalArgumentException("Zookeeper node polling max delay time must be greather or equal " +
+                    "than polling delay time");
+        }
+
         if (zkNodePollingInitialDelay < 0) {
             throw new IllegalArgumentException("Zookeeper node polling initial delay time must be greather or equal than zero");
         }
+
+        if (flapDampingPolicy == null) {
+            throw new IllegalArgumentException("Flap damping policy cannot be null");
+        }
+
+        if (zkNodeCollectionMode == null) {
+            throw new IllegalArgumentException("Zookeeper node collection mode cannot be null");
+        }
+
+        if (zkNodeHistoryCapacity < 0) {
+            throw new IllegalArgumentException("Zookeeper node history capacity must be greather or equal than zero");
+        }
     }
 
 
@@ -96,40 +211,115 @@ public class ZKNodeWatcher {
      * Start Zookeeper monitoring by using polling mechanism.
      */
     public void startMonitoring() {
-        this.executorController = executor.scheduleWithFixedDelay(pollingCommand(),
-                zkNodePollingInitialDelay,
-                zkNodePollingDelay,
-                TimeUnit.MILLISECONDS);
+        if (isFourLetterWordClientOwner) {
+            fourLetterWordClient.start();
+        }
+        if (sharedResources != null && isUsingSharedResources.compareAndSet(false, true)) {
+            sharedResources.acquire();
+        }
+        this.executorController = probeScheduler.schedule(pollingCommand(), zkNodePollingInitialDelay);
     }
 
 
     /**
-     * It is called periodically by {@link ZKNodeWatcher#startMonitoring()} method to verify Zookeeper node status
+     * It is called periodically by {@link ZKNodeWatcher#startMonitoring()} method to verify Zookeeper node status.
+     * Once the probe has finished, the next poll is scheduled according to the current polling interval.
      *
      * @return {@link Runnable}
      */
     private Runnable pollingCommand() {
-        return () -> emitEventIfZKNodeStatusHasChanged();
+        return () -> {
+            if (isStopped) {
+                return;
+            }
+            probeStatus().whenComplete((result, error) -> {
+                if (!isStopped) {
+                    executorController = probeScheduler.schedule(pollingCommand(), zkNodePollingInterval.getDelayMs());
+                }
+            });
+        };
+    }
+
+
+    /**
+     * Probe zookeeper node without blocking the caller. Once the node has responded or the request has failed,
+     * the client is notified if the node status has changed and the polling interval is updated by the probe
+     * scheduler.
+     *
+     * @return a future which completes when the probe has finished
+     */
+    private CompletableFuture<?> probeStatus() {
+        if (!isProbing.compareAndSet(false, true)) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        // The mntr command is sent by the four letter word client thread, which must not resolve the address
+        final InetSocketAddress resolvedAddress = ZKFourLetterWordClient.resolve(zkNodeAddress);
+        final long probeStartTimeNanos = System.nanoTime();
+        return fourLetterWordClient.send(resolvedAddress,
+                ZK_FOUR_LETTER_COMAND_STAT,
+                ZK_FOUR_LETTER_WORD_TIMEOUT_MS,
+                ZKNodeWatcher::toUpStatus)
+                .thenApply(upStatus -> {
+                    statLatencyNanos = System.nanoTime() - probeStartTimeNanos;
+                    return upStatus;
+                })
+                .thenCompose(upStatus -> collectMetrics(resolvedAddress, upStatus))
+                .exceptionally(error -> ZK_NODE_DOWN_STATUS)
+                .thenAcceptAsync(zkNodeObservedStatus -> {
+                    try {
+                        final boolean hasStatusChanged = emitEventIfZKNodeStatusHasChanged(zkNodeObservedStatus);
+                        final boolean isReachable = zkNodeObservedStatus.getStatus() == ZKNodeStatusName.UP;
+                        if (isReachable) {
+                            probeLatency.record(TimeUnit.NANOSECONDS.toMicros(statLatencyNanos));
+                            statisticsHistory.record(zkNodeObservedStatus.getZKNodeParsedStatistics());
+                        }
+                        zkNodePollingInterval.onProbe(hasStatusChanged, isReachable ? statLatencyNanos : -1);
+                    } finally {
+                        isProbing.set(false);
+                    }
+                }, probeScheduler);
+    }
+
+
+    /**
+     * Decode the stat command response. It is called by the four letter word client thread.
+     * The statistics are parsed from the response view, and the raw response is kept as a compact copy which only
+     * becomes a string if a client reads it.
+     *
+     * @param statResponse stat command response
+     * @return status of a zookeeper node which has answered the stat command
+     */
+    private static ZKNodeStatus toUpStatus(final CharSequence statResponse) {
+        return new ZKNodeStatus(ZKNodeStatusName.UP,
+                AsciiCharSequence.copyOf(statResponse),
+                ZKNodeStatisticsParser.parse(statResponse),
+                ZKNodeMetrics.empty());
     }
 
 
     /**
-     * Stop Monitoring
+     * Stop Monitoring. The probe scheduler is stopped only if it is owned by this watcher
      */
     public void stopMonitoring() {
-        if(executorController != null) {
-            executorController.cancel(true);
+        isStopped = true;
+
+        final ScheduledFuture<?> pollingController = executorController;
+        if(pollingController != null) {
+            pollingController.cancel(true);
             executorController = null;
         }
 
-        try {
-            executor.shutdown();
-            executor.awaitTermination(WATCHER_AWAIT_TERMINATION_MS, TimeUnit.MILLISECONDS);
-        } catch (Exception e) {
-        } finally {
-            if (!executor.isTerminated()) {
-                executor.shutdownNow();
-            }
+        if (isProbeSchedulerOwner) {
+            probeScheduler.close();
+        }
+
+        if (isFourLetterWordClientOwner) {
+            fourLetterWordClient.close();
+        }
+
+        if (sharedResources != null && isUsingSharedResources.compareAndSet(true, false)) {
+            sharedResources.release();
         }
     }
 
@@ -141,13 +331,70 @@ public class ZKNodeWatcher {
      * @throws ZKMonitorException if zookeeper node monitoring has not been started
      */
     public ZKNodeStatus getStatus() {
-        if(executor.isShutdown()) {
+        if(isStopped) {
             throw new ZKMonitorException("Zookeeper node watcher has not been started",null,this.getClass());
         }
         return zkNodeStatus.get();
     }
 
 
+    /**
+     * Get the current delay between Zookeeper node polls. It grows while the node status is steady and drops
+     * after a status change or a response time spike.
+     *
+     * @return delay expressed in ms between Zookeeper node polls
+     */
+    public long getProbeIntervalMs() {
+        return zkNodePollingInterval.getDelayMs();
+    }
+
+
+    /**
+     *
+     * @return number of probes done to Zookeeper node
+     */
+    public long getProbeCount() {
+        return zkNodePollingInterval.getProbeCount();
+    }
+
+
+    /**
+     *
+     * @return latency percentiles of the stat requests answered by Zookeeper node during the last five minutes
+     */
+    public LatencySummary getProbeLatency() {
+        return probeLatency.getSummary();
+    }
+
+
+    /**
+     *
+     * @return history of the statistics reported by Zookeeper node, including the ones reported while a status
+     * transition was being damped
+     */
+    public ZKNodeStatisticsHistory getStatisticsHistory() {
+        return statisticsHistory;
+    }
+
+
+    /**
+     *
+     * @return number of confirmed node status transitions which have not been notified because the node is flapping
+     */
+    public long getSuppressedTransitionCount() {
+        return statusDamper.getSuppressedTransitionCount();
+    }
+
+
+    /**
+     *
+     * @return number of probes whose status differed from the notified one but did not confirm a transition
+     */
+    public long getUnconfirmedObservationCount() {
+        return statusDamper.getUnconfirmedObservationCount();
+    }
+
+
     /**
      *
      * @return Zookeeper node address
@@ -158,31 +405,53 @@ public class ZKNodeWatcher {
 
 
     /**
-     * Try to connect to a specific zookeeper server
-     * and set the new status according to the connection result
+     * Set the new status according to the probe result
      *
+     * @param zkNodeObservedStatus status observed by the probe
      * @return the previous status
      */
-    private ZKNodeStatus getAndSetStatus() {
-        ZKNodeStatus zkNodeStatus;
-        try {
-            final String zkNodeStatistics =
-                    FourLetterWordMain.send4LetterWord(zkNodeAddress.getHostName(),
-                            zkNodeAddress.getPort(),
-                            ZK_FOUR_LETTER_COMAND_STAT);
-            zkNodeStatus = this.zkNodeStatus.getAndSet(new ZKNodeStatus(ZKNodeStatusName.UP, zkNodeStatistics));
-        } catch (Exception ex) {
-            zkNodeStatus = this.zkNodeStatus.getAndSet(new ZKNodeStatus(ZKNodeStatusName.DOWN,""));
+    private ZKNodeStatus getAndSetStatus(final ZKNodeStatus zkNodeObservedStatus) {
+        final ZKNodeStatusName zkNodeNewStatus = statusDamper.onObservation(zkNodeObservedStatus.getStatus());
+        if (zkNodeNewStatus == zkNodeObservedStatus.getStatus()) {
+            return this.zkNodeStatus.getAndSet(zkNodeObservedStatus);
         }
-        return zkNodeStatus;
+        // Transition has been damped, last statistics are kept
+        return this.zkNodeStatus.get();
+    }
+
+
+    /**
+     * Send the mntr command to zookeeper node if the collection mode requires it. The node status only depends on
+     * the stat command, so a failed mntr command, e.g. because it is not whitelisted, just reports no metrics.
+     *
+     * @param resolvedAddress zookeeper node address which has already been resolved
+     * @param upStatus        status of a zookeeper node which has answered the stat command
+     * @return a future which completes with the status including zookeeper node metrics
+     */
+    private CompletableFuture<ZKNodeStatus> collectMetrics(final InetSocketAddress resolvedAddress,
+                                                           final ZKNodeStatus upStatus) {
+        if (zkNodeCollectionMode != ZKNodeCollectionModeName.MNTR) {
+            return CompletableFuture.completedFuture(upStatus);
+        }
+        return fourLetterWordClient.send(resolvedAddress,
+                ZK_FOUR_LETTER_COMAND_MNTR,
+                ZK_FOUR_LETTER_WORD_TIMEOUT_MS,
+                ZKNodeMetricsParser::parse)
+                .handle((zkNodeMetrics, error) ->
+                        upStatus.withZKNodeMetrics(error == null ? zkNodeMetrics : ZKNodeMetrics.empty()));
     }
 
 
     /**
      * Notify the client if a zookeeper node status has changed
+     *
+     * @param zkNodeObservedStatus status observed by the probe
+     * @return true if the observed zookeeper node status has changed, even if the transition has been damped
      */
-    private synchronized void emitEventIfZKNodeStatusHasChanged() {
-        final ZKNodeStatus previousStatus = getAndSetStatus();
+    private synchronized boolean emitEventIfZKNodeStatusHasChanged(final ZKNodeStatus zkNodeObservedStatus) {
+        final ZKNodeStatusName previousObservedStatus = statusDamper.getLastObservedStatus();
+        final ZKNodeStatus previousStatus = getAndSetStatus(zkNodeObservedStatus);
+        statusListener.accept(zkNodeObservedStatus);
         if (previousStatus.getStatus() != zkNodeStatus.get().getStatus()) {
             switch(zkNodeStatus.get().getStatus()) {
                 case UP:
@@ -194,15 +463,25 @@ public class ZKNodeWatcher {
                 default:
             }
         }
+        return previousObservedStatus != statusDamper.getLastObservedStatus();
+    }
+
+    /**
+     * Set the listener notified of the status observed by every probe. It is called by the probe scheduler.
+     * The status is not damped, so a flapping node is seen as it is rather than as it is reported to the client.
+     *
+     * @param statusListener status listener
+     */
+    void setStatusListener(final Consumer<ZKNodeStatus> statusListener) {
+        this.statusListener = statusListener;
     }
 
     /**
-     * Update zookeeper node status in asynchronous way
+     * Update zookeeper node status in asynchronous way.
+     * Requests received before a pending update has started are collapsed into it.
      */
     public void updateStatus() {
-        Runnable runnable = () -> emitEventIfZKNodeStatusHasChanged();
-        Thread thread = new Thread(runnable);
-        thread.start();
+        refreshQueue.request(statusRefresh);
     }
 
 }
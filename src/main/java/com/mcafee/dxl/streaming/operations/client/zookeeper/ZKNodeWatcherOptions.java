@@ -0,0 +1,190 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.zookeeper;
+
+import com.mcafee.dxl.streaming.operations.client.common.FlapDampingPolicy;
+import com.mcafee.dxl.streaming.operations.client.common.ProbeScheduler;
+import com.mcafee.dxl.streaming.operations.client.common.RefreshQueue;
+
+/**
+ * Optional settings of a {@link ZKNodeWatcher}
+ * <p>
+ * Only the polling delays are mandatory. Settings which are not set keep the behavior of a standalone watcher:
+ * fixed polling delay, no flap damping, stat command only, no statistics history, and its own scheduler, refresh
+ * queue and four letter word client.
+ * <p>
+ * {@code
+ * ZKNodeWatcherOptions options = new ZKNodeWatcherOptions(1000, 100)   // mandatory args
+ *                                    .withPollingMaxDelay(5000)         // optional argument
+ *                                    .withProbeScheduler(probeScheduler); // optional argument
+ * }
+ */
+public final class ZKNodeWatcherOptions {
+
+    private final int pollingDelay;
+    private final int pollingInitialDelay;
+    private int pollingMinDelay;
+    private int pollingMaxDelay;
+    private ProbeScheduler probeScheduler = null;
+    private RefreshQueue refreshQueue = null;
+    private FlapDampingPolicy flapDampingPolicy = FlapDampingPolicy.disabled();
+    private ZKNodeCollectionModeName collectionMode = ZKNodeCollectionModeName.STAT;
+    private ZKFourLetterWordClient fourLetterWordClient = null;
+    private int historyCapacity = 0;
+    private ZKNodeWatcherResources sharedResources = null;
+
+
+    /**
+     * @param pollingDelay        Amount of time in ms to poll zookeeper node
+     * @param pollingInitialDelay Amount of initial time in ms before starting poll
+     */
+    public ZKNodeWatcherOptions(final int pollingDelay, final int pollingInitialDelay) {
+        this.pollingDelay = pollingDelay;
+        this.pollingInitialDelay = pollingInitialDelay;
+        this.pollingMinDelay = pollingDelay;
+        this.pollingMaxDelay = pollingDelay;
+    }
+
+
+    /**
+     * @param pollingMinDelay Amount of time in ms to poll zookeeper node after a status change or a response time
+     *                        spike. By default, it is the polling delay
+     * @return the current {@link ZKNodeWatcherOptions} instance
+     */
+    public ZKNodeWatcherOptions withPollingMinDelay(final int pollingMinDelay) {
+        this.pollingMinDelay = pollingMinDelay;
+        return this;
+    }
+
+
+    /**
+     * @param pollingMaxDelay Maximum amount of time in ms to poll zookeeper node while its status is steady.
+     *                        By default, it is the polling delay
+     * @return the current {@link ZKNodeWatcherOptions} instance
+     */
+    public ZKNodeWatcherOptions withPollingMaxDelay(final int pollingMaxDelay) {
+        this.pollingMaxDelay = pollingMaxDelay;
+        return this;
+    }
+
+
+    /**
+     * @param probeScheduler scheduler shared by node watchers to poll zookeeper nodes. If it is null, the watcher
+     *                       creates its own single thread scheduler
+     * @return the current {@link ZKNodeWatcherOptions} instance
+     */
+    public ZKNodeWatcherOptions withProbeScheduler(final ProbeScheduler probeScheduler) {
+        this.probeScheduler = probeScheduler;
+        return this;
+    }
+
+
+    /**
+     * @param refreshQueue queue shared by node watchers to run asynchronous status updates. If it is null, the
+     *                     watcher creates its own queue on top of the probe scheduler
+     * @return the current {@link ZKNodeWatcherOptions} instance
+     */
+    public ZKNodeWatcherOptions withRefreshQueue(final RefreshQueue refreshQueue) {
+        this.refreshQueue = refreshQueue;
+        return this;
+    }
+
+
+    /**
+     * @param flapDampingPolicy policy used to damp node status transitions before notifying the client
+     * @return the current {@link ZKNodeWatcherOptions} instance
+     */
+    public ZKNodeWatcherOptions withFlapDampingPolicy(final FlapDampingPolicy flapDampingPolicy) {
+        this.flapDampingPolicy = flapDampingPolicy;
+        return this;
+    }
+
+
+    /**
+     * @param collectionMode commands sent to zookeeper node on every poll
+     * @return the current {@link ZKNodeWatcherOptions} instance
+     */
+    public ZKNodeWatcherOptions withCollectionMode(final ZKNodeCollectionModeName collectionMode) {
+        this.collectionMode = collectionMode;
+        return this;
+    }
+
+
+    /**
+     * @param fourLetterWordClient client shared by node watchers to send commands to zookeeper nodes. It must be
+     *                             started by the caller. If it is null, the watcher creates its own client
+     * @return the current {@link ZKNodeWatcherOptions} instance
+     */
+    public ZKNodeWatcherOptions withFourLetterWordClient(final ZKFourLetterWordClient fourLetterWordClient) {
+        this.fourLetterWordClient = fourLetterWordClient;
+        return this;
+    }
+
+
+    /**
+     * @param historyCapacity number of statistics samples kept by the node history. Zero disables it
+     * @return the current {@link ZKNodeWatcherOptions} instance
+     */
+    public ZKNodeWatcherOptions withHistoryCapacity(final int historyCapacity) {
+        this.historyCapacity = historyCapacity;
+        return this;
+    }
+
+
+    /**
+     * @param sharedResources scheduler, refresh queue and four letter word client shared by the watchers built
+     *                        together. They override the ones set in these options
+     * @return the current {@link ZKNodeWatcherOptions} instance
+     */
+    ZKNodeWatcherOptions withSharedResources(final ZKNodeWatcherResources sharedResources) {
+        this.sharedResources = sharedResources;
+        return this;
+    }
+
+
+    int getPollingDelay() {
+        return pollingDelay;
+    }
+
+    int getPollingInitialDelay() {
+        return pollingInitialDelay;
+    }
+
+    int getPollingMinDelay() {
+        return pollingMinDelay;
+    }
+
+    int getPollingMaxDelay() {
+        return pollingMaxDelay;
+    }
+
+    ProbeScheduler getProbeScheduler() {
+        return probeScheduler;
+    }
+
+    RefreshQueue getRefreshQueue() {
+        return refreshQueue;
+    }
+
+    FlapDampingPolicy getFlapDampingPolicy() {
+        return flapDampingPolicy;
+    }
+
+    ZKNodeCollectionModeName getCollectionMode() {
+        return collectionMode;
+    }
+
+    ZKFourLetterWordClient getFourLetterWordClient() {
+        return fourLetterWordClient;
+    }
+
+    int getHistoryCapacity() {
+        return historyCapacity;
+    }
+
+    ZKNodeWatcherResources getSharedResources() {
+        return sharedResources;
+    }
+}
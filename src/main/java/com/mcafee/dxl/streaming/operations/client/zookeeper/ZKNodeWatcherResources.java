@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.zookeeper;
+
+import com.mcafee.dxl.streaming.operations.client.common.ExecutorProbeScheduler;
+import com.mcafee.dxl.streaming.operations.client.common.ProbeScheduler;
+import com.mcafee.dxl.streaming.operations.client.common.RefreshQueue;
+
+/**
+ * Probe scheduler, refresh queue and four letter word client shared by the node watchers built together by
+ * {@link ZKNodeWatchersBuilder}, so that a list of watchers uses two threads instead of two threads per node.
+ * <p>
+ * The four letter word client is started when the first watcher starts monitoring. The client and the scheduler
+ * are stopped when the last watcher stops monitoring.
+ */
+final class ZKNodeWatcherResources {
+
+    private final ExecutorProbeScheduler probeScheduler = new ExecutorProbeScheduler(1);
+    private final RefreshQueue refreshQueue = new RefreshQueue(probeScheduler);
+    private final ZKFourLetterWordClient fourLetterWordClient = new ZKFourLetterWordClient("zookeeper");
+    private int monitoringWatcherCount = 0;
+
+
+    ProbeScheduler getProbeScheduler() {
+        return probeScheduler;
+    }
+
+    RefreshQueue getRefreshQueue() {
+        return refreshQueue;
+    }
+
+    ZKFourLetterWordClient getFourLetterWordClient() {
+        return fourLetterWordClient;
+    }
+
+
+    /**
+     * It is called by a watcher when it starts monitoring
+     */
+    synchronized void acquire() {
+        if (monitoringWatcherCount++ == 0) {
+            fourLetterWordClient.start();
+        }
+    }
+
+
+    /**
+     * It is called by a watcher which had started monitoring when it stops
+     */
+    synchronized void release() {
+        if (--monitoringWatcherCount == 0) {
+            fourLetterWordClient.close();
+            probeScheduler.close();
+        }
+    }
+}
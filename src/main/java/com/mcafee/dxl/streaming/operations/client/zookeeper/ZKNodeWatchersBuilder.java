@@ -17,7 +17,8 @@ public final class ZKNodeWatchersBuilder {
     }
 
     /**
-     * Build a list of Zookeeper node watchers
+     * Build a list of Zookeeper node watchers which share a single thread probe scheduler and a four letter word
+     * client. They are stopped once every watcher of the list which has been started has been stopped.
      *
      * @param zkHosts                   comma-separated list of zookeeper host names
      * @param zkMonitorListener         a listener to notify if a zookeeper node status has changed
@@ -31,13 +32,14 @@ public final class ZKNodeWatchersBuilder {
                                             final int zkNodePollingInitialDelay) {
 
         List<ZKNodeWatcher> zkNodeWatchers = new ArrayList<>();
+        final ZKNodeWatcherResources sharedResources = new ZKNodeWatcherResources();
 
         zkHosts.forEach(zkNodeAddress -> {
             zkNodeWatchers.add(new ZKNodeWatcher(
                     zkMonitorListener,
                     zkNodeAddress,
-                    zkNodePollingDelay,
-                    zkNodePollingInitialDelay));
+                    new ZKNodeWatcherOptions(zkNodePollingDelay, zkNodePollingInitialDelay)
+                            .withSharedResources(sharedResources)));
         });
 
         return zkNodeWatchers;
@@ -16,6 +16,9 @@ public final class ZKCluster {
 
     private final List<ZKNode> zkNodes;
     private final ZKClusterStatusName zookeeperState;
+    private final long requestedRefreshes;
+    private final long executedRefreshes;
+    private final ZKEnsemble zkEnsemble;
 
     /**
      *
@@ -24,8 +27,28 @@ public final class ZKCluster {
      */
     public ZKCluster(final ZKClusterStatusName zookeeperState,
                      final List<ZKNode> zkNodes) {
+        this(zookeeperState, zkNodes, 0, 0, ZKEnsemble.unknown());
+    }
+
+
+    /**
+     *
+     * @param zookeeperState Zookeeper cluster quorum status
+     * @param zkNodes list of zookeeper zkNodes
+     * @param requestedRefreshes number of node status updates requested by Zookeeper events
+     * @param executedRefreshes number of node status updates executed
+     * @param zkEnsemble ensemble analysis computed from zookeeper node polls
+     */
+    public ZKCluster(final ZKClusterStatusName zookeeperState,
+                     final List<ZKNode> zkNodes,
+                     final long requestedRefreshes,
+                     final long executedRefreshes,
+                     final ZKEnsemble zkEnsemble) {
         this.zookeeperState = zookeeperState;
         this.zkNodes = zkNodes;
+        this.requestedRefreshes = requestedRefreshes;
+        this.executedRefreshes = executedRefreshes;
+        this.zkEnsemble = zkEnsemble;
     }
 
 
@@ -46,4 +69,31 @@ public final class ZKCluster {
         return zookeeperState;
     }
 
+
+    /**
+     *
+     * @return number of node status updates requested by Zookeeper events
+     */
+    public long getRequestedRefreshes() {
+        return requestedRefreshes;
+    }
+
+
+    /**
+     *
+     * @return number of node status updates executed. Duplicated requests are collapsed into a single execution
+     */
+    public long getExecutedRefreshes() {
+        return executedRefreshes;
+    }
+
+
+    /**
+     *
+     * @return ensemble analysis: current leader, live voters against the majority and follower zxid skew
+     */
+    public ZKEnsemble getZKEnsemble() {
+        return zkEnsemble;
+    }
+
 }
@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.zookeeper.entities;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Zookeeper ensemble analysis. It is computed from the modes and zxids reported by zookeeper node polls.
+ */
+public final class ZKEnsemble {
+
+    /**
+     * Class constants
+     */
+    private static final ZKEnsemble UNKNOWN = new ZKEnsemble(null, 0, 0, 0, Collections.emptyMap());
+
+    private final String leaderId;
+    private final int leaderCount;
+    private final int voterCount;
+    private final int liveVoterCount;
+    private final Map<String, Long> followerZxidSkews;
+
+
+    /**
+     * @param leaderId          id of the zookeeper node which leads the ensemble or null if there is no leader
+     * @param leaderCount       number of reachable zookeeper nodes which claim to be leader
+     * @param voterCount        number of zookeeper nodes which are not observers
+     * @param liveVoterCount    number of reachable voters which serve requests
+     * @param followerZxidSkews transactions each reachable follower is behind the leader, by zookeeper node id
+     */
+    public ZKEnsemble(final String leaderId,
+                      final int leaderCount,
+                      final int voterCount,
+                      final int liveVoterCount,
+                      final Map<String, Long> followerZxidSkews) {
+        this.leaderId = leaderId;
+        this.leaderCount = leaderCount;
+        this.voterCount = voterCount;
+        this.liveVoterCount = liveVoterCount;
+        this.followerZxidSkews = Collections.unmodifiableMap(followerZxidSkews);
+    }
+
+
+    /**
+     * @return an ensemble analysis when no zookeeper node has been polled yet
+     */
+    public static ZKEnsemble unknown() {
+        return UNKNOWN;
+    }
+
+
+    /**
+     * @return id of the zookeeper node which leads the ensemble or null if there is no leader
+     */
+    public String getLeaderId() {
+        return leaderId;
+    }
+
+
+    /**
+     * @return number of reachable zookeeper nodes which claim to be leader. More than one means that a stale leader
+     * has not noticed yet that it has been replaced
+     */
+    public int getLeaderCount() {
+        return leaderCount;
+    }
+
+
+    /**
+     * @return number of zookeeper nodes which are not observers
+     */
+    public int getVoterCount() {
+        return voterCount;
+    }
+
+
+    /**
+     * @return number of reachable voters which serve requests
+     */
+    public int getLiveVoterCount() {
+        return liveVoterCount;
+    }
+
+
+    /**
+     * @return number of live voters required to keep the quorum
+     */
+    public int getMajority() {
+        return voterCount / 2 + 1;
+    }
+
+
+    /**
+     * @return number of live voters which can be lost before losing the quorum. It is negative if the quorum has
+     * been lost
+     */
+    public int getQuorumMargin() {
+        return liveVoterCount - getMajority();
+    }
+
+
+    /**
+     * @return transactions each reachable follower is behind the leader, by zookeeper node id. It is empty if there
+     * is no leader
+     */
+    public Map<String, Long> getFollowerZxidSkews() {
+        return followerZxidSkews;
+    }
+
+
+    /**
+     * @return transactions the most lagging reachable follower is behind the leader
+     */
+    public long getMaxFollowerZxidSkew() {
+        long maxSkew = 0;
+        for (long skew : followerZxidSkews.values()) {
+            maxSkew = Math.max(maxSkew, skew);
+        }
+        return maxSkew;
+    }
+}
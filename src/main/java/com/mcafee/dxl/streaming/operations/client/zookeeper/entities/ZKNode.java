@@ -4,6 +4,9 @@
 
 package com.mcafee.dxl.streaming.operations.client.zookeeper.entities;
 
+import com.mcafee.dxl.streaming.operations.client.common.LatencySummary;
+import com.mcafee.dxl.streaming.operations.client.zookeeper.ZKNodeModeName;
+import com.mcafee.dxl.streaming.operations.client.zookeeper.ZKNodeStatisticsParser;
 import com.mcafee.dxl.streaming.operations.client.zookeeper.ZKNodeStatusName;
 
 /**
@@ -16,7 +19,14 @@ public class ZKNode {
 
 
     private String zkNodeStatistics;
+    private final ZKNodeStatistics zkNodeParsedStatistics;
+    private final ZKNodeMetrics zkNodeMetrics;
     private final String zKNodeId;
+    private final long probeIntervalMs;
+    private final long probeCount;
+    private final long suppressedTransitionCount;
+    private final long unconfirmedObservationCount;
+    private final LatencySummary probeLatency;
 
 
     /**
@@ -27,10 +37,106 @@ public class ZKNode {
     public ZKNode(final String zKNodeId,
                   final ZKNodeStatusName zkNodeStatus,
                   final String zkNodeStatistics) {
+        this(zKNodeId, zkNodeStatus, zkNodeStatistics, 0, 0, 0, 0, LatencySummary.empty());
+    }
+
+
+    /**
+     * @param zKNodeId     zookeeper node id
+     * @param zkNodeStatus zookeeper node status
+     * @param zkNodeStatistics zookeeper node statistics
+     * @param probeIntervalMs current delay expressed in ms between zookeeper node probes
+     * @param probeCount number of probes done to zookeeper node
+     * @param suppressedTransitionCount number of status transitions not notified because the node is flapping
+     * @param unconfirmedObservationCount number of probes whose status did not confirm a transition
+     * @param probeLatency latency percentiles of the stat requests answered by zookeeper node
+     */
+    public ZKNode(final String zKNodeId,
+                  final ZKNodeStatusName zkNodeStatus,
+                  final String zkNodeStatistics,
+                  final long probeIntervalMs,
+                  final long probeCount,
+                  final long suppressedTransitionCount,
+                  final long unconfirmedObservationCount,
+                  final LatencySummary probeLatency) {
+        this(zKNodeId,
+                zkNodeStatus,
+                zkNodeStatistics,
+                ZKNodeStatisticsParser.parse(zkNodeStatistics),
+                probeIntervalMs,
+                probeCount,
+                suppressedTransitionCount,
+                unconfirmedObservationCount,
+                probeLatency);
+    }
+
+
+    /**
+     * @param zKNodeId     zookeeper node id
+     * @param zkNodeStatus zookeeper node status
+     * @param zkNodeStatistics zookeeper node statistics
+     * @param zkNodeParsedStatistics zookeeper node statistics parsed from zkNodeStatistics
+     * @param probeIntervalMs current delay expressed in ms between zookeeper node probes
+     * @param probeCount number of probes done to zookeeper node
+     * @param suppressedTransitionCount number of status transitions not notified because the node is flapping
+     * @param unconfirmedObservationCount number of probes whose status did not confirm a transition
+     * @param probeLatency latency percentiles of the stat requests answered by zookeeper node
+     */
+    public ZKNode(final String zKNodeId,
+                  final ZKNodeStatusName zkNodeStatus,
+                  final String zkNodeStatistics,
+                  final ZKNodeStatistics zkNodeParsedStatistics,
+                  final long probeIntervalMs,
+                  final long probeCount,
+                  final long suppressedTransitionCount,
+                  final long unconfirmedObservationCount,
+                  final LatencySummary probeLatency) {
+        this(zKNodeId,
+                zkNodeStatus,
+                zkNodeStatistics,
+                zkNodeParsedStatistics,
+                ZKNodeMetrics.empty(),
+                probeIntervalMs,
+                probeCount,
+                suppressedTransitionCount,
+                unconfirmedObservationCount,
+                probeLatency);
+    }
+
+
+    /**
+     * @param zKNodeId     zookeeper node id
+     * @param zkNodeStatus zookeeper node status
+     * @param zkNodeStatistics zookeeper node statistics
+     * @param zkNodeParsedStatistics zookeeper node statistics parsed from zkNodeStatistics
+     * @param zkNodeMetrics zookeeper node metrics reported by the mntr command
+     * @param probeIntervalMs current delay expressed in ms between zookeeper node probes
+     * @param probeCount number of probes done to zookeeper node
+     * @param suppressedTransitionCount number of status transitions not notified because the node is flapping
+     * @param unconfirmedObservationCount number of probes whose status did not confirm a transition
+     * @param probeLatency latency percentiles of the stat requests answered by zookeeper node
+     */
+    public ZKNode(final String zKNodeId,
+                  final ZKNodeStatusName zkNodeStatus,
+                  final String zkNodeStatistics,
+                  final ZKNodeStatistics zkNodeParsedStatistics,
+                  final ZKNodeMetrics zkNodeMetrics,
+                  final long probeIntervalMs,
+                  final long probeCount,
+                  final long suppressedTransitionCount,
+                  final long unconfirmedObservationCount,
+                  final LatencySummary probeLatency) {
 
         this.zKNodeId = zKNodeId;
         this.zkNodeStatus = zkNodeStatus;
         this.zkNodeStatistics = zkNodeStatistics;
+        this.zkNodeParsedStatistics = zkNodeParsedStatistics;
+        this.zkNodeMetrics = zkNodeMetrics;
+        this.probeIntervalMs = probeIntervalMs;
+        this.probeCount = probeCount;
+        this.suppressedTransitionCount = suppressedTransitionCount;
+        this.unconfirmedObservationCount = unconfirmedObservationCount;
+        this.probeLatency = probeLatency;
     }
 
 
@@ -57,4 +163,106 @@ public class ZKNode {
     public String getZkNodeStatistics() {
         return zkNodeStatistics;
     }
+
+
+    /**
+     *
+     * @return zookeeper node statistics parsed from the stat command response
+     */
+    public ZKNodeStatistics getZkNodeParsedStatistics() {
+        return zkNodeParsedStatistics;
+    }
+
+
+    /**
+     *
+     * @return zookeeper node metrics reported by the mntr command. They are not reported unless the collection mode
+     * is mntr
+     */
+    public ZKNodeMetrics getZkNodeMetrics() {
+        return zkNodeMetrics;
+    }
+
+
+    /**
+     *
+     * @return zookeeper node mode reported by the stat command, or by the mntr command if the stat command did not
+     * report it
+     */
+    public ZKNodeModeName getZkNodeMode() {
+        final ZKNodeModeName statMode = zkNodeParsedStatistics.getMode();
+        return statMode != ZKNodeModeName.UNKNOWN ? statMode : zkNodeMetrics.getMode();
+    }
+
+
+    /**
+     * @return current delay expressed in ms between zookeeper node probes
+     */
+    public long getProbeIntervalMs() {
+        return probeIntervalMs;
+    }
+
+
+    /**
+     * @return current zookeeper node probe rate expressed in probes per minute
+     */
+    public double getProbeRatePerMinute() {
+        return probeIntervalMs > 0 ? 60000.0 / probeIntervalMs : 0;
+    }
+
+
+    /**
+     * @return number of probes done to zookeeper node
+     */
+    public long getProbeCount() {
+        return probeCount;
+    }
+
+
+    /**
+     * @return number of status transitions not notified because the node is flapping
+     */
+    public long getSuppressedTransitionCount() {
+        return suppressedTransitionCount;
+    }
+
+
+    /**
+     * @return number of probes whose status differed from the notified one but did not confirm a transition
+     */
+    public long getUnconfirmedObservationCount() {
+        return unconfirmedObservationCount;
+    }
+
+
+    /**
+     * @return median latency expressed in microseconds of the stat requests answered by zookeeper node
+     */
+    public long getProbeLatencyP50Micros() {
+        return probeLatency.getP50Micros();
+    }
+
+
+    /**
+     * @return 99th percentile latency expressed in microseconds of the stat requests answered by zookeeper node
+     */
+    public long getProbeLatencyP99Micros() {
+        return probeLatency.getP99Micros();
+    }
+
+
+    /**
+     * @return maximum latency expressed in microseconds of the stat requests answered by zookeeper node
+     */
+    public long getProbeLatencyMaxMicros() {
+        return probeLatency.getMaxMicros();
+    }
+
+
+    /**
+     * @return number of stat requests answered by zookeeper node
+     */
+    public long getProbeLatencyCount() {
+        return probeLatency.getCount();
+    }
 }
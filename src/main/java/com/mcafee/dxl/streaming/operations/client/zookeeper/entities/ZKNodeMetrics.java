@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.zookeeper.entities;
+
+import com.mcafee.dxl.streaming.operations.client.zookeeper.ZKNodeMetricName;
+import com.mcafee.dxl.streaming.operations.client.zookeeper.ZKNodeModeName;
+
+import java.util.Arrays;
+
+/**
+ * Zookeeper node metrics reported by the mntr command. Metrics which have not been reported are -1.
+ */
+public final class ZKNodeMetrics {
+
+    /**
+     * Class constants
+     */
+    public static final long NOT_REPORTED = -1;
+    private static final ZKNodeMetrics EMPTY = new ZKNodeMetrics(notReported(), ZKNodeModeName.UNKNOWN);
+
+    /**
+     * Metric values indexed by {@link ZKNodeMetricName} ordinal
+     */
+    private final long[] values;
+    private final ZKNodeModeName mode;
+
+
+    /**
+     * @param values metric values indexed by {@link ZKNodeMetricName} ordinal. It is not copied
+     * @param mode   zookeeper node mode
+     * @throws IllegalArgumentException if there is not a value for every metric
+     */
+    public ZKNodeMetrics(final long[] values, final ZKNodeModeName mode) {
+        if (values == null || values.length != ZKNodeMetricName.values().length) {
+            throw new IllegalArgumentException("Zookeeper node metrics must have a value for every metric name");
+        }
+        this.values = values;
+        this.mode = mode;
+    }
+
+
+    /**
+     * @return metrics of a zookeeper node which has not answered the mntr command
+     */
+    public static ZKNodeMetrics empty() {
+        return EMPTY;
+    }
+
+
+    /**
+     * @return metric values indexed by {@link ZKNodeMetricName} ordinal, all of them not reported
+     */
+    public static long[] notReported() {
+        final long[] values = new long[ZKNodeMetricName.values().length];
+        Arrays.fill(values, NOT_REPORTED);
+        return values;
+    }
+
+
+    /**
+     * @param metric metric name
+     * @return metric value or {@link #NOT_REPORTED}
+     */
+    public long get(final ZKNodeMetricName metric) {
+        return values[metric.ordinal()];
+    }
+
+
+    /**
+     * @return zookeeper node mode reported as zk_server_state
+     */
+    public ZKNodeModeName getMode() {
+        return mode;
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.zookeeper.entities;
+
+import com.mcafee.dxl.streaming.operations.client.zookeeper.ZKNodeModeName;
+
+/**
+ * Zookeeper node statistics reported by the stat command. Values which have not been reported are -1.
+ */
+public final class ZKNodeStatistics {
+
+    /**
+     * Class constants
+     */
+    public static final long NOT_REPORTED = -1;
+    private static final ZKNodeStatistics EMPTY = new ZKNodeStatistics(NOT_REPORTED, NOT_REPORTED, NOT_REPORTED,
+            NOT_REPORTED, NOT_REPORTED, NOT_REPORTED, NOT_REPORTED, NOT_REPORTED, ZKNodeModeName.UNKNOWN, NOT_REPORTED);
+
+    private final long latencyMinMs;
+    private final double latencyAvgMs;
+    private final long latencyMaxMs;
+    private final long received;
+    private final long sent;
+    private final long connections;
+    private final long outstanding;
+    private final long zxid;
+    private final ZKNodeModeName mode;
+    private final long nodeCount;
+
+
+    /**
+     * @param latencyMinMs minimum request latency expressed in ms
+     * @param latencyAvgMs average request latency expressed in ms
+     * @param latencyMaxMs maximum request latency expressed in ms
+     * @param received     number of received packets
+     * @param sent         number of sent packets
+     * @param connections  number of client connections
+     * @param outstanding  number of queued requests
+     * @param zxid         last processed transaction id
+     * @param mode         zookeeper node mode
+     * @param nodeCount    number of znodes
+     */
+    public ZKNodeStatistics(final long latencyMinMs,
+                            final double latencyAvgMs,
+                            final long latencyMaxMs,
+                            final long received,
+                            final long sent,
+                            final long connections,
+                            final long outstanding,
+                            final long zxid,
+                            final ZKNodeModeName mode,
+                            final long nodeCount) {
+        this.latencyMinMs = latencyMinMs;
+        this.latencyAvgMs = latencyAvgMs;
+        this.latencyMaxMs = latencyMaxMs;
+        this.received = received;
+        this.sent = sent;
+        this.connections = connections;
+        this.outstanding = outstanding;
+        this.zxid = zxid;
+        this.mode = mode;
+        this.nodeCount = nodeCount;
+    }
+
+
+    /**
+     * @return statistics of a zookeeper node which has not answered the stat command
+     */
+    public static ZKNodeStatistics empty() {
+        return EMPTY;
+    }
+
+
+    public long getLatencyMinMs() {
+        return latencyMinMs;
+    }
+
+    public double getLatencyAvgMs() {
+        return latencyAvgMs;
+    }
+
+    public long getLatencyMaxMs() {
+        return latencyMaxMs;
+    }
+
+    public long getReceived() {
+        return received;
+    }
+
+    public long getSent() {
+        return sent;
+    }
+
+    public long getConnections() {
+        return connections;
+    }
+
+    public long getOutstanding() {
+        return outstanding;
+    }
+
+    public long getZxid() {
+        return zxid;
+    }
+
+    public ZKNodeModeName getMode() {
+        return mode;
+    }
+
+    public long getNodeCount() {
+        return nodeCount;
+    }
+}
@@ -4,6 +4,8 @@
 
 package com.mcafee.dxl.streaming.operations.client.zookeeper.entities;
 
+import com.mcafee.dxl.streaming.operations.client.zookeeper.ZKNodeModeName;
+import com.mcafee.dxl.streaming.operations.client.zookeeper.ZKNodeStatisticsParser;
 import com.mcafee.dxl.streaming.operations.client.zookeeper.ZKNodeStatusName;
 
 /**
@@ -12,7 +14,9 @@ import com.mcafee.dxl.streaming.operations.client.zookeeper.ZKNodeStatusName;
 public final class ZKNodeStatus {
 
     private final ZKNodeStatusName zkNodeStatus;
-    private final String zkNodeStatistics;
+    private final CharSequence zkNodeStatistics;
+    private final ZKNodeStatistics zkNodeParsedStatistics;
+    private final ZKNodeMetrics zkNodeMetrics;
 
     /**
      *
@@ -20,8 +24,24 @@ public final class ZKNodeStatus {
      * @param zkNodeStatistics zookeeper node statistics
      */
     public ZKNodeStatus(final ZKNodeStatusName zkNodeStatus, final String zkNodeStatistics ) {
+        this(zkNodeStatus, zkNodeStatistics, ZKNodeStatisticsParser.parse(zkNodeStatistics), ZKNodeMetrics.empty());
+    }
+
+    /**
+     *
+     * @param zkNodeStatus zkNodeStatus node status
+     * @param zkNodeStatistics zookeeper node statistics. It is only turned into a string when it is read
+     * @param zkNodeParsedStatistics zookeeper node statistics parsed from zkNodeStatistics
+     * @param zkNodeMetrics zookeeper node metrics reported by the mntr command
+     */
+    public ZKNodeStatus(final ZKNodeStatusName zkNodeStatus,
+                        final CharSequence zkNodeStatistics,
+                        final ZKNodeStatistics zkNodeParsedStatistics,
+                        final ZKNodeMetrics zkNodeMetrics) {
         this.zkNodeStatus = zkNodeStatus;
         this.zkNodeStatistics = zkNodeStatistics;
+        this.zkNodeParsedStatistics = zkNodeParsedStatistics;
+        this.zkNodeMetrics = zkNodeMetrics;
     }
 
     public ZKNodeStatusName getStatus() {
@@ -29,6 +49,32 @@ public final class ZKNodeStatus {
     }
 
     public String getZKNodeStatistics() {
-        return zkNodeStatistics;
+        return zkNodeStatistics.toString();
+    }
+
+    public ZKNodeStatistics getZKNodeParsedStatistics() {
+        return zkNodeParsedStatistics;
+    }
+
+    public ZKNodeMetrics getZKNodeMetrics() {
+        return zkNodeMetrics;
+    }
+
+    /**
+     *
+     * @param zkNodeMetrics zookeeper node metrics reported by the mntr command
+     * @return the same status with the given metrics
+     */
+    public ZKNodeStatus withZKNodeMetrics(final ZKNodeMetrics zkNodeMetrics) {
+        return new ZKNodeStatus(zkNodeStatus, zkNodeStatistics, zkNodeParsedStatistics, zkNodeMetrics);
+    }
+
+    /**
+     *
+     * @return mode reported by the stat command, or by the mntr command if the stat command did not report it
+     */
+    public ZKNodeModeName getZKNodeMode() {
+        final ZKNodeModeName statMode = zkNodeParsedStatistics.getMode();
+        return statMode != ZKNodeModeName.UNKNOWN ? statMode : zkNodeMetrics.getMode();
     }
 }
@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.benchmark;
+
+import com.mcafee.dxl.streaming.operations.client.kafka.KFBrokerMetadataIndex;
+import com.mcafee.dxl.streaming.operations.client.kafka.entities.KFBrokerMetadata;
+import kafka.cluster.Broker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import scala.collection.JavaConversions;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * It measures the broker metadata lookup done by every broker watcher on each poll: the endpoint scan over all
+ * registered brokers, which was the previous behavior, against the {@link KFBrokerMetadataIndex} lookup.
+ * <p>
+ * Each operation looks up the metadata of a different registered broker.
+ * <pre>
+ * {@code
+ * java -cp target/test-classes:<test classpath> org.openjdk.jmh.Main BrokerMetadataLookupBenchmark
+ * }
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BrokerMetadataLookupBenchmark {
+
+    private static final int BROKER_PORT = 9092;
+
+    @Param({"10", "100", "1000"})
+    private int brokers;
+
+    private final List<Broker> registeredBrokers = new ArrayList<>();
+    private final List<InetSocketAddress> brokerAddresses = new ArrayList<>();
+    private final List<String> brokerAddressKeys = new ArrayList<>();
+    private KFBrokerMetadataIndex brokerMetadataIndex;
+    private int nextBroker = 0;
+
+    @Setup
+    public void setUp() {
+        for (int brokerId = 0; brokerId < brokers; brokerId++) {
+            final String host = "broker-" + brokerId;
+            registeredBrokers.add(Broker.createBroker(brokerId,
+                    "{\"version\":2,\"host\":\"" + host + "\",\"port\":" + BROKER_PORT
+                            + ",\"jmx_port\":-1,\"timestamp\":\"0\""
+                            + ",\"endpoints\":[\"PLAINTEXT://" + host + ":" + BROKER_PORT + "\"]}"));
+            final InetSocketAddress brokerAddress = InetSocketAddress.createUnresolved(host, BROKER_PORT);
+            brokerAddresses.add(brokerAddress);
+            brokerAddressKeys.add(KFBrokerMetadataIndex.toKey(brokerAddress));
+        }
+        brokerMetadataIndex = KFBrokerMetadataIndex.build(registeredBrokers);
+    }
+
+    @Benchmark
+    public KFBrokerMetadata scan() {
+        final InetSocketAddress kfBrokerAddress = brokerAddresses.get(nextBroker++ % brokers);
+        final KFBrokerMetadata[] brokerMetadata = {new KFBrokerMetadata()};
+
+        registeredBrokers.forEach(broker -> {
+            JavaConversions.mapAsJavaMap(broker.endPoints())
+                    .forEach((protocol, endpoint) -> {
+                        if (endpoint.host().equals(kfBrokerAddress.getHostName())
+                                && endpoint.port() == kfBrokerAddress.getPort()) {
+                            brokerMetadata[0] = new KFBrokerMetadata(broker.id(),
+                                    endpoint.host(),
+                                    endpoint.port(),
+                                    endpoint.connectionString(),
+                                    protocol.name);
+                        }
+                    });
+        });
+        return brokerMetadata[0];
+    }
+
+    @Benchmark
+    public KFBrokerMetadata index() {
+        return brokerMetadataIndex.get(brokerAddressKeys.get(nextBroker++ % brokers));
+    }
+}
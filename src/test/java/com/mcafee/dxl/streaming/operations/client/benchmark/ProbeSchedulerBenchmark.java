@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.benchmark;
+
+import com.mcafee.dxl.streaming.operations.client.common.ExecutorProbeScheduler;
+import com.mcafee.dxl.streaming.operations.client.common.ProbeScheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * It measures the probe jitter of a shared {@link ExecutorProbeScheduler} against one scheduler per watcher,
+ * which was the previous behavior.
+ * <p>
+ * Each sample is the time elapsed since a probe is scheduled 1 ms ahead until it runs, while the given number
+ * of watchers keep polling in background. The jitter is the sampled time minus 1 ms.
+ * <pre>
+ * {@code
+ * java -cp target/test-classes:<test classpath> org.openjdk.jmh.Main ProbeSchedulerBenchmark
+ * }
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ProbeSchedulerBenchmark {
+
+    private static final long PROBE_DELAY_MS = 1L;
+    private static final long WATCHER_POLLING_DELAY_MS = 10L;
+    private static final long WATCHER_PROBE_CPU_TOKENS = 1000L;
+    private static final int SHARED_SCHEDULER_POOL_SIZE = 4;
+
+    @Param({"10", "100", "1000"})
+    private int watchers;
+
+    @Param({"shared", "perWatcher"})
+    private String scheduler;
+
+    private final List<ProbeScheduler> probeSchedulers = new ArrayList<>();
+    private int nextScheduler = 0;
+    private volatile boolean stopped = false;
+
+    @Setup
+    public void setUp() {
+        if ("shared".equals(scheduler)) {
+            probeSchedulers.add(new ExecutorProbeScheduler(SHARED_SCHEDULER_POOL_SIZE));
+        }
+
+        for (int i = 0; i < watchers; i++) {
+            if (!"shared".equals(scheduler)) {
+                probeSchedulers.add(new ExecutorProbeScheduler(1));
+            }
+            poll(probeSchedulers.get(probeSchedulers.size() - 1), 0);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        stopped = true;
+        probeSchedulers.forEach(ProbeScheduler::close);
+        probeSchedulers.clear();
+    }
+
+    @Benchmark
+    public void probeDelay() throws InterruptedException {
+        final ProbeScheduler probeScheduler = probeSchedulers.get(nextScheduler++ % probeSchedulers.size());
+        final CountDownLatch probed = new CountDownLatch(1);
+        probeScheduler.schedule(probed::countDown, PROBE_DELAY_MS);
+        probed.await();
+    }
+
+    /**
+     * Poll the way watchers do, scheduling the next probe once the current one has run
+     *
+     * @param probeScheduler scheduler of the watcher
+     * @param delayMs        time in ms to delay the probe
+     */
+    private void poll(final ProbeScheduler probeScheduler, final long delayMs) {
+        probeScheduler.schedule(() -> {
+            Blackhole.consumeCPU(WATCHER_PROBE_CPU_TOKENS);
+            if (!stopped) {
+                poll(probeScheduler, WATCHER_POLLING_DELAY_MS);
+            }
+        }, delayMs);
+    }
+}
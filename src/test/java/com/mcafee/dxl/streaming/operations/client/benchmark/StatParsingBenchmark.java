@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.benchmark;
+
+import com.mcafee.dxl.streaming.operations.client.zookeeper.ZKNodeModeName;
+import com.mcafee.dxl.streaming.operations.client.zookeeper.ZKNodeStatisticsParser;
+import com.mcafee.dxl.streaming.operations.client.zookeeper.entities.ZKNodeStatistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * It measures the parsing of a Zookeeper stat command response done on every node poll: a naive parser based on
+ * {@link String#split(String)} against {@link ZKNodeStatisticsParser}.
+ * <p>
+ * The response size grows with the number of client connections listed by the stat command.
+ * <pre>
+ * {@code
+ * java -cp target/test-classes:<test classpath> org.openjdk.jmh.Main StatParsingBenchmark -prof gc
+ * }
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StatParsingBenchmark {
+
+    @Param({"0", "100"})
+    private int clients;
+
+    private String statResponse;
+
+    @Setup
+    public void setUp() {
+        final StringBuilder response = new StringBuilder()
+                .append("Zookeeper version: 3.4.8--1, built on 02/06/2016 03:18 GMT\n")
+                .append("Clients:\n");
+        for (int client = 0; client < clients; client++) {
+            response.append(" /10.0.0.").append(client % 250).append(':').append(40000 + client)
+                    .append("[1](queued=0,recved=97,sent=97)\n");
+        }
+        statResponse = response.append('\n')
+                .append("Latency min/avg/max: 0/3/118\n")
+                .append("Received: 1022\n")
+                .append("Sent: 1021\n")
+                .append("Connections: ").append(clients).append('\n')
+                .append("Outstanding: 0\n")
+                .append("Zxid: 0x10000002a\n")
+                .append("Mode: follower\n")
+                .append("Node count: 31\n")
+                .toString();
+    }
+
+    @Benchmark
+    public ZKNodeStatistics split() {
+        long latencyMin = ZKNodeStatistics.NOT_REPORTED;
+        double latencyAvg = ZKNodeStatistics.NOT_REPORTED;
+        long latencyMax = ZKNodeStatistics.NOT_REPORTED;
+        long received = ZKNodeStatistics.NOT_REPORTED;
+        long sent = ZKNodeStatistics.NOT_REPORTED;
+        long connections = ZKNodeStatistics.NOT_REPORTED;
+        long outstanding = ZKNodeStatistics.NOT_REPORTED;
+        long zxid = ZKNodeStatistics.NOT_REPORTED;
+        ZKNodeModeName mode = ZKNodeModeName.UNKNOWN;
+        long nodeCount = ZKNodeStatistics.NOT_REPORTED;
+
+        for (String line : statResponse.split("\n")) {
+            final String[] keyValue = line.split(": ");
+            if (keyValue.length != 2) {
+                continue;
+            }
+            final String value = keyValue[1].trim();
+            switch (keyValue[0]) {
+                case "Latency min/avg/max":
+                    final String[] latencies = value.split("/");
+                    latencyMin = Long.parseLong(latencies[0]);
+                    latencyAvg = Double.parseDouble(latencies[1]);
+                    latencyMax = Long.parseLong(latencies[2]);
+                    break;
+                case "Received":
+                    received = Long.parseLong(value);
+                    break;
+                case "Sent":
+                    sent = Long.parseLong(value);
+                    break;
+                case "Connections":
+                    connections = Long.parseLong(value);
+                    break;
+                case "Outstanding":
+                    outstanding = Long.parseLong(value);
+                    break;
+                case "Zxid":
+                    zxid = Long.parseLong(value.substring(2), 16);
+                    break;
+                case "Mode":
+                    for (ZKNodeModeName modeName : ZKNodeModeName.values()) {
+                        if (modeName.getStatName().equals(value)) {
+                            mode = modeName;
+                        }
+                    }
+                    break;
+                case "Node count":
+                    nodeCount = Long.parseLong(value);
+                    break;
+                default:
+            }
+        }
+        return new ZKNodeStatistics(latencyMin, latencyAvg, latencyMax, received, sent, connections, outstanding,
+                zxid, mode, nodeCount);
+    }
+
+    @Benchmark
+    public ZKNodeStatistics singlePass() {
+        return ZKNodeStatisticsParser.parse(statResponse);
+    }
+}
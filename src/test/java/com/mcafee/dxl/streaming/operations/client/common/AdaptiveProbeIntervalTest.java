@@ -0,0 +1,57 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.common;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AdaptiveProbeIntervalTest {
+
+    private static final long LATENCY_NANOS = 1000000L;
+
+    @Test
+    public void should_double_the_delay_up_to_the_max_delay_while_status_is_steady() {
+        final AdaptiveProbeInterval interval = new AdaptiveProbeInterval(1000, 250, 5000);
+
+        Assert.assertEquals(2000, interval.onProbe(false, LATENCY_NANOS));
+        Assert.assertEquals(4000, interval.onProbe(false, LATENCY_NANOS));
+        Assert.assertEquals(5000, interval.onProbe(false, LATENCY_NANOS));
+        Assert.assertEquals(5000, interval.onProbe(false, -1));
+        Assert.assertEquals(4, interval.getProbeCount());
+    }
+
+    @Test
+    public void should_drop_to_the_min_delay_when_status_changes() {
+        final AdaptiveProbeInterval interval = new AdaptiveProbeInterval(1000, 250, 5000);
+        interval.onProbe(false, LATENCY_NANOS);
+
+        Assert.assertEquals(250, interval.onProbe(true, -1));
+        Assert.assertEquals(500, interval.onProbe(false, -1));
+        Assert.assertEquals(1, interval.getChangeCount());
+    }
+
+    @Test
+    public void should_drop_to_the_min_delay_when_latency_spikes() {
+        final AdaptiveProbeInterval interval = new AdaptiveProbeInterval(1000, 250, 5000);
+        interval.onProbe(false, LATENCY_NANOS);
+        interval.onProbe(false, LATENCY_NANOS);
+
+        Assert.assertEquals(250,
+                interval.onProbe(false, (AdaptiveProbeInterval.LATENCY_SPIKE_FACTOR + 1) * LATENCY_NANOS));
+    }
+
+    @Test
+    public void should_keep_a_fixed_delay_when_min_and_max_delay_are_equal_to_delay() {
+        final AdaptiveProbeInterval interval = new AdaptiveProbeInterval(1000, 1000, 1000);
+
+        Assert.assertEquals(1000, interval.onProbe(false, LATENCY_NANOS));
+        Assert.assertEquals(1000, interval.onProbe(true, LATENCY_NANOS));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_fail_when_delay_is_greather_than_max_delay() {
+        new AdaptiveProbeInterval(1000, 250, 500);
+    }
+}
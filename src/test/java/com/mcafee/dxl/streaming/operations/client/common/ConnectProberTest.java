@@ -0,0 +1,145 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.common;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.SocketTimeoutException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.UnresolvedAddressException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class ConnectProberTest {
+
+    private final List<SocketChannel> backlogConnections = new ArrayList<>();
+    private ServerSocket serverSocket;
+    private ConnectProber prober;
+
+    @Before
+    public void setUp() throws IOException {
+        // It never accepts connections, so they are only completed by the kernel while its backlog is not full
+        serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        prober = new ConnectProber("test");
+        prober.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        prober.close();
+        for (SocketChannel channel : backlogConnections) {
+            channel.close();
+        }
+        serverSocket.close();
+    }
+
+    @Test
+    public void should_complete_with_the_connection_time_when_the_endpoint_accepts_connections() throws Exception {
+        Assert.assertTrue(prober.probe(getAddress(), 10000).get(10, TimeUnit.SECONDS) > 0);
+    }
+
+    @Test
+    public void should_fail_when_the_connection_is_refused() throws Exception {
+        final int port;
+        try (ServerSocket closed = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            port = closed.getLocalPort();
+        }
+
+        assertFailsWith(ConnectException.class,
+                prober.probe(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 10000));
+    }
+
+    @Test
+    public void should_fail_when_the_timeout_expires() throws Exception {
+        fillBacklog();
+
+        final long startTimeMs = System.currentTimeMillis();
+        assertFailsWith(SocketTimeoutException.class, prober.probe(getAddress(), 200));
+        Assert.assertTrue(System.currentTimeMillis() - startTimeMs >= 200);
+    }
+
+    @Test
+    public void should_expire_each_probe_at_its_own_deadline() throws Exception {
+        fillBacklog();
+
+        final CompletableFuture<Long> slow = prober.probe(getAddress(), 10000);
+        assertFailsWith(SocketTimeoutException.class, prober.probe(getAddress(), 200));
+
+        Assert.assertFalse(slow.isDone());
+    }
+
+    @Test
+    public void should_fail_probes_in_progress_when_it_is_closed() throws Exception {
+        fillBacklog();
+        final CompletableFuture<Long> probe = prober.probe(getAddress(), 10000);
+
+        prober.close();
+
+        assertFailsWith(IllegalStateException.class, probe);
+        assertFailsWith(IllegalStateException.class, prober.probe(getAddress(), 10000));
+    }
+
+    @Test
+    public void should_fail_probes_when_it_is_not_started() throws Exception {
+        assertFailsWith(IllegalStateException.class, new ConnectProber("not-started").probe(getAddress(), 10000));
+    }
+
+    @Test
+    public void should_fail_when_the_address_is_unresolved() throws Exception {
+        assertFailsWith(UnresolvedAddressException.class,
+                prober.probe(InetSocketAddress.createUnresolved("localhost", serverSocket.getLocalPort()), 10000));
+    }
+
+    private InetSocketAddress getAddress() {
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort());
+    }
+
+    /**
+     * Open connections until the listen backlog is full, so that the next connection attempts hang
+     */
+    private void fillBacklog() throws IOException {
+        try (Selector selector = Selector.open()) {
+            while (backlogConnections.size() < 100) {
+                final SocketChannel channel = SocketChannel.open();
+                backlogConnections.add(channel);
+                channel.configureBlocking(false);
+                if (channel.connect(getAddress())) {
+                    continue;
+                }
+                final SelectionKey key = channel.register(selector, SelectionKey.OP_CONNECT);
+                if (selector.select(500) == 0) {
+                    return;
+                }
+                selector.selectedKeys().clear();
+                key.cancel();
+                channel.finishConnect();
+            }
+        }
+        Assert.fail("Listen backlog cannot be filled");
+    }
+
+    private static void assertFailsWith(final Class<? extends Throwable> expected,
+                                        final CompletableFuture<Long> probe) throws Exception {
+        try {
+            probe.get(10, TimeUnit.SECONDS);
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause().toString(), expected.isInstance(e.getCause()));
+        }
+    }
+}
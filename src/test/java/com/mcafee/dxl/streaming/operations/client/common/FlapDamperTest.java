@@ -0,0 +1,64 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.common;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class FlapDamperTest {
+
+    private static final String UP = "UP";
+    private static final String DOWN = "DOWN";
+    private static final long HALF_LIFE_MS = 1000;
+
+    private long nowNanos = 0;
+
+    @Test
+    public void should_report_every_transition_when_damping_is_disabled() {
+        final FlapDamper<String> damper = FlapDampingPolicy.disabled().newDamper(DOWN);
+
+        Assert.assertEquals(UP, damper.onObservation(UP));
+        Assert.assertEquals(DOWN, damper.onObservation(DOWN));
+        Assert.assertEquals(UP, damper.onObservation(UP));
+        Assert.assertEquals(0, damper.getSuppressedTransitionCount());
+    }
+
+    @Test
+    public void should_report_a_transition_once_it_has_been_confirmed() {
+        final FlapDamper<String> damper = newDamper(new FlapDampingPolicy(2, 3, 0, 0, HALF_LIFE_MS), UP);
+
+        Assert.assertEquals(UP, damper.onObservation(DOWN));
+        Assert.assertEquals(UP, damper.onObservation(UP));
+        Assert.assertEquals(DOWN, damper.onObservation(DOWN));
+        Assert.assertEquals(1, damper.getUnconfirmedObservationCount());
+    }
+
+    @Test
+    public void should_suppress_transitions_while_flap_penalty_is_above_suppress_threshold() {
+        final FlapDamper<String> damper = newDamper(new FlapDampingPolicy(1, 1, 2000, 750, HALF_LIFE_MS), UP);
+
+        Assert.assertEquals(DOWN, damper.onObservation(DOWN)); // penalty 1000
+        Assert.assertEquals(DOWN, damper.onObservation(UP));   // penalty 2000, suppressed
+        Assert.assertEquals(DOWN, damper.onObservation(UP));
+        Assert.assertTrue(damper.isSuppressing());
+        Assert.assertEquals(1, damper.getSuppressedTransitionCount());
+
+        nowNanos += TimeUnit.MILLISECONDS.toNanos(2 * HALF_LIFE_MS); // penalty 500
+
+        Assert.assertEquals(UP, damper.onObservation(UP));
+        Assert.assertFalse(damper.isSuppressing());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_fail_when_confirmation_count_is_greather_than_window() {
+        new FlapDampingPolicy(3, 2, 0, 0, HALF_LIFE_MS);
+    }
+
+    private FlapDamper<String> newDamper(final FlapDampingPolicy policy, final String initialStatus) {
+        return new FlapDamper<>(policy, initialStatus, () -> nowNanos);
+    }
+}
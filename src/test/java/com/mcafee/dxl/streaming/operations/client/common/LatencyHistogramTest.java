@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.common;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void should_keep_every_value_within_the_bounds_of_its_bucket() {
+        for (long value = 0; value < 100000; value++) {
+            final int index = LatencyHistogram.bucketIndex(value);
+            Assert.assertTrue(value <= LatencyHistogram.bucketUpperBound(index));
+            if (index > 0) {
+                Assert.assertTrue(value > LatencyHistogram.bucketUpperBound(index - 1));
+            }
+        }
+        Assert.assertEquals(Long.MAX_VALUE,
+                LatencyHistogram.bucketUpperBound(LatencyHistogram.bucketIndex(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void should_report_percentiles_within_the_bucket_precision() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros);
+        }
+
+        final LatencySummary summary = histogram.getSummary();
+        Assert.assertEquals(1000, summary.getCount());
+        Assert.assertEquals(1000, summary.getMaxMicros());
+        Assert.assertTrue(summary.getP50Micros() >= 500 && summary.getP50Micros() <= 500 * 1.125);
+        Assert.assertTrue(summary.getP99Micros() >= 990 && summary.getP99Micros() <= 1000);
+    }
+
+    @Test
+    public void should_report_zero_when_empty() {
+        final LatencySummary summary = new LatencyHistogram().getSummary();
+        Assert.assertEquals(0, summary.getCount());
+        Assert.assertEquals(0, summary.getP50Micros());
+        Assert.assertEquals(0, summary.getP99Micros());
+    }
+
+    @Test
+    public void should_forget_latencies_older_than_the_window() {
+        final AtomicLong now = new AtomicLong();
+        final LatencyHistogram histogram = new LatencyHistogram(3000, 3, now::get);
+        histogram.record(5000);
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        histogram.record(100);
+        histogram.record(200);
+        Assert.assertEquals(3, histogram.getCount());
+        Assert.assertEquals(5000, histogram.getMaxMicros());
+
+        // The interval of the spike leaves the window
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        final LatencySummary summary = histogram.getSummary();
+        Assert.assertEquals(2, summary.getCount());
+        Assert.assertEquals(200, summary.getMaxMicros());
+        Assert.assertEquals(200, summary.getP99Micros());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        Assert.assertEquals(0, histogram.getCount());
+        Assert.assertEquals(0, histogram.getPercentileMicros(50));
+    }
+
+    @Test
+    public void should_reset_an_interval_when_it_is_reused() {
+        final AtomicLong now = new AtomicLong(-TimeUnit.SECONDS.toNanos(10));
+        final LatencyHistogram histogram = new LatencyHistogram(2000, 2, now::get);
+        histogram.record(700);
+
+        // Same slot as the first interval, two intervals later
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        histogram.record(10);
+        Assert.assertEquals(1, histogram.getCount());
+        Assert.assertEquals(10, histogram.getMaxMicros());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_fail_when_intervals_are_not_positive() {
+        new LatencyHistogram(1000, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_fail_when_percentile_is_out_of_range() {
+        new LatencyHistogram().getPercentileMicros(101);
+    }
+}
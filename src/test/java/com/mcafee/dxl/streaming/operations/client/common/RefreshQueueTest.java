@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.common;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RefreshQueueTest {
+
+    @Test
+    public void should_collapse_requests_of_a_pending_refresh() {
+        final List<Runnable> tasks = new ArrayList<>();
+        final RefreshQueue refreshQueue = new RefreshQueue(tasks::add);
+        final AtomicInteger executions = new AtomicInteger();
+        final Runnable refresh = () -> executions.incrementAndGet();
+
+        refreshQueue.request(refresh);
+        refreshQueue.request(refresh);
+        refreshQueue.request(refresh);
+
+        Assert.assertEquals(1, tasks.size());
+        tasks.get(0).run();
+
+        Assert.assertEquals(1, executions.get());
+        Assert.assertEquals(3, refreshQueue.getRequestedRefreshes());
+        Assert.assertEquals(1, refreshQueue.getExecutedRefreshes());
+    }
+
+    @Test
+    public void should_run_again_a_refresh_requested_after_it_has_started() {
+        final List<Runnable> tasks = new ArrayList<>();
+        final RefreshQueue refreshQueue = new RefreshQueue(tasks::add);
+        final Runnable refresh = () -> { };
+
+        refreshQueue.request(refresh);
+        tasks.get(0).run();
+        refreshQueue.request(refresh);
+
+        Assert.assertEquals(2, tasks.size());
+    }
+
+    @Test
+    public void should_not_collapse_requests_of_different_refreshes() {
+        final List<Runnable> tasks = new ArrayList<>();
+        final RefreshQueue refreshQueue = new RefreshQueue(tasks::add);
+
+        refreshQueue.request(() -> { });
+        refreshQueue.request(() -> { });
+
+        Assert.assertEquals(2, tasks.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_fail_when_executor_is_null() {
+        new RefreshQueue(null);
+    }
+}
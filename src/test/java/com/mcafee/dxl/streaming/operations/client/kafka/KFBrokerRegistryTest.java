@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.kafka;
+
+import com.mcafee.dxl.streaming.operations.client.kafka.entities.KFBrokerMetadata;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.ZooKeeper;
+import org.apache.zookeeper.data.Stat;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class KFBrokerRegistryTest {
+
+    private ZooKeeper zk;
+    private KFBrokerRegistry registry;
+
+    @Before
+    public void setUp() throws Exception {
+        zk = Mockito.mock(ZooKeeper.class);
+        registry = new KFBrokerRegistry();
+        Mockito.when(zk.getChildren(KFBrokerRegistry.KAFKA_BROKERS_ZNODE_PATH, true))
+                .thenReturn(Arrays.asList("1", "2"));
+        putBroker(1, "host1", 9092);
+        putBroker(2, "host2", 9092);
+        registry.refresh(zk);
+    }
+
+    @Test
+    public void should_read_registered_brokers_once() throws Exception {
+        Assert.assertEquals(2, registry.getBrokerMetadataIndex().size());
+        Assert.assertEquals(1, lookup("host1", 9092).getBrokerId());
+
+        registry.refresh(zk);
+
+        verifyRead(1, 1);
+        verifyRead(2, 1);
+    }
+
+    @Test
+    public void should_keep_a_changed_broker_until_it_is_read_again() throws Exception {
+        putBroker(1, "host1", 9093);
+
+        registry.invalidate(brokerPath(1));
+
+        Assert.assertNotNull(lookup("host1", 9092));
+
+        registry.refresh(zk);
+
+        Assert.assertNull(lookup("host1", 9092));
+        Assert.assertEquals(1, lookup("host1", 9093).getBrokerId());
+        verifyRead(1, 2);
+        verifyRead(2, 1);
+    }
+
+    @Test
+    public void should_forget_a_changed_broker_whose_registration_cannot_be_read() throws Exception {
+        Mockito.when(zk.getData(brokerPath(1), true, null)).thenThrow(new KeeperException.NoNodeException());
+        Mockito.when(zk.getData(brokerPath(2), true, null)).thenReturn("{".getBytes(StandardCharsets.UTF_8));
+
+        registry.invalidateAll();
+        registry.refresh(zk);
+
+        Assert.assertEquals(0, registry.getBrokerMetadataIndex().size());
+    }
+
+    @Test
+    public void should_forget_a_broker_only_when_its_znode_is_deleted() throws Exception {
+        registry.remove(brokerPath(2));
+
+        Assert.assertNull(lookup("host2", 9092));
+        Assert.assertNotNull(lookup("host1", 9092));
+
+        // It is read again if it is still registered
+        registry.refresh(zk);
+
+        Assert.assertNotNull(lookup("host2", 9092));
+        verifyRead(2, 2);
+    }
+
+    @Test
+    public void should_read_again_every_broker_after_a_session_restart() throws Exception {
+        Mockito.when(zk.getChildren(KFBrokerRegistry.KAFKA_BROKERS_ZNODE_PATH, true))
+                .thenReturn(Collections.singletonList("1"));
+
+        registry.invalidateAll();
+
+        Assert.assertEquals(2, registry.getBrokerMetadataIndex().size());
+
+        registry.refresh(zk);
+
+        Assert.assertEquals(1, registry.getBrokerMetadataIndex().size());
+        verifyRead(1, 2);
+        verifyRead(2, 1);
+    }
+
+    @Test
+    public void should_ignore_znodes_which_are_not_brokers() throws Exception {
+        registry.invalidate(KFBrokerRegistry.KAFKA_BROKERS_ZNODE_PATH);
+        registry.invalidate(brokerPath(3));
+        registry.remove("/brokers/topics/1");
+        registry.remove(KFBrokerRegistry.KAFKA_BROKERS_ZNODE_PATH + "/x");
+        registry.refresh(zk);
+
+        Assert.assertEquals(2, registry.getBrokerMetadataIndex().size());
+        verifyRead(1, 1);
+        Mockito.verify(zk, Mockito.never()).getData(Matchers.eq(brokerPath(3)), Matchers.anyBoolean(),
+                Matchers.any(Stat.class));
+    }
+
+    private void putBroker(final int brokerId, final String host, final int port) throws Exception {
+        final String json = "{\"jmx_port\":-1,\"timestamp\":\"1\",\"endpoints\":[\"PLAINTEXT://" + host + ":" + port
+                + "\"],\"host\":\"" + host + "\",\"version\":2,\"port\":" + port + "}";
+        Mockito.when(zk.getData(brokerPath(brokerId), true, null)).thenReturn(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void verifyRead(final int brokerId, final int times) throws Exception {
+        Mockito.verify(zk, Mockito.times(times)).getData(brokerPath(brokerId), true, null);
+    }
+
+    private static String brokerPath(final int brokerId) {
+        return KFBrokerRegistry.KAFKA_BROKERS_ZNODE_PATH + "/" + brokerId;
+    }
+
+    private KFBrokerMetadata lookup(final String host, final int port) {
+        return registry.getBrokerMetadataIndex()
+                .get(KFBrokerMetadataIndex.toKey(InetSocketAddress.createUnresolved(host, port)));
+    }
+}
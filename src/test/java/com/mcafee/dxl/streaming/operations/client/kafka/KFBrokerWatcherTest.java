@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.kafka;
+
+import com.mcafee.dxl.streaming.operations.client.exception.KFMonitorException;
+import org.apache.zookeeper.ZooKeeper;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+public class KFBrokerWatcherTest {
+
+    private ServerSocket broker;
+    private KFBrokerRegistry registry;
+    private KFBrokerWatcher watcher;
+
+    @Before
+    public void setUp() throws IOException {
+        broker = new ServerSocket(0);
+        registry = new KFBrokerRegistry();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        if (watcher != null) {
+            watcher.stopMonitoring();
+        }
+        broker.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void when_listener_is_null_then_throw_exception() {
+        new KFBrokerWatcher(null, new InetSocketAddress("kafka-1", 9092), registry, 500, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void when_registry_is_null_then_throw_exception() {
+        new KFBrokerWatcher(new TestCallback(), new InetSocketAddress("kafka-1", 9092), null, 500, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void when_options_are_null_then_throw_exception() {
+        new KFBrokerWatcher(new TestCallback(), new InetSocketAddress("kafka-1", 9092), registry, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void when_min_delay_is_greater_than_polling_delay_then_throw_exception() {
+        new KFBrokerWatcher(new TestCallback(), new InetSocketAddress("kafka-1", 9092), registry,
+                new KFBrokerWatcherOptions(500, 1).withPollingMinDelay(1000));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void when_slow_probe_threshold_is_negative_then_throw_exception() {
+        new KFBrokerWatcher(new TestCallback(), new InetSocketAddress("kafka-1", 9092), registry,
+                new KFBrokerWatcherOptions(500, 1).withSlowProbeThreshold(-1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void when_flap_damping_policy_is_null_then_throw_exception() {
+        new KFBrokerWatcher(new TestCallback(), new InetSocketAddress("kafka-1", 9092), registry,
+                new KFBrokerWatcherOptions(500, 1).withFlapDampingPolicy(null));
+    }
+
+    @Test
+    public void when_a_standalone_watcher_connects_to_a_registered_broker_then_it_is_up() throws Exception {
+        register();
+        watcher = new KFBrokerWatcher(new TestCallback(), getAddress(), registry, 500, 1);
+
+        watcher.startMonitoring();
+        watcher.awaitInitialStatus();
+
+        Assert.assertEquals(KFBrokerStatusName.UP, watcher.getStatus());
+        Assert.assertEquals(1, watcher.getBrokerMetadata().getBrokerId());
+    }
+
+    @Test
+    public void when_a_standalone_watcher_connects_to_an_unregistered_broker_then_it_is_warning() {
+        watcher = new KFBrokerWatcher(new TestCallback(), getAddress(), registry, 500, 1);
+
+        watcher.startMonitoring();
+        watcher.awaitInitialStatus();
+
+        Assert.assertEquals(KFBrokerStatusName.WARNING, watcher.getStatus());
+    }
+
+    @Test(expected = KFMonitorException.class)
+    public void when_a_standalone_watcher_is_stopped_then_its_status_cannot_be_read() {
+        watcher = new KFBrokerWatcher(new TestCallback(), getAddress(), registry, 500, 1);
+        watcher.startMonitoring();
+
+        watcher.stopMonitoring();
+
+        watcher.getStatus();
+    }
+
+    private InetSocketAddress getAddress() {
+        return new InetSocketAddress("localhost", broker.getLocalPort());
+    }
+
+    private void register() throws Exception {
+        final int port = broker.getLocalPort();
+        final String json = "{\"jmx_port\":-1,\"timestamp\":\"1\",\"endpoints\":[\"PLAINTEXT://localhost:" + port
+                + "\"],\"host\":\"localhost\",\"version\":2,\"port\":" + port + "}";
+        final ZooKeeper zk = Mockito.mock(ZooKeeper.class);
+        Mockito.when(zk.getChildren(KFBrokerRegistry.KAFKA_BROKERS_ZNODE_PATH, true))
+                .thenReturn(Collections.singletonList("1"));
+        Mockito.when(zk.getData(KFBrokerRegistry.KAFKA_BROKERS_ZNODE_PATH + "/1", true, null))
+                .thenReturn(json.getBytes(StandardCharsets.UTF_8));
+        registry.refresh(zk);
+    }
+
+    class TestCallback implements KFMonitorCallback {
+
+        @Override
+        public void onBrokerUp(String kfBrokerName) {
+
+        }
+
+        @Override
+        public void onBrokerDown(String kfBrokerName) {
+
+        }
+
+        @Override
+        public void onBrokerWarning(String kfBrokerName) {
+
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.kafka;
+
+import org.apache.zookeeper.ZooKeeper;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class KFEndpointProberTest {
+
+    private ServerSocket stalledBroker;
+    private final CopyOnWriteArrayList<Socket> connections = new CopyOnWriteArrayList<>();
+    private KFBrokerRegistry registry;
+    private KFEndpointProber prober;
+
+    @Before
+    public void setUp() throws IOException {
+        // It accepts connections but never responds to requests
+        stalledBroker = new ServerSocket(0);
+        final Thread acceptor = new Thread(() -> {
+            try {
+                while (true) {
+                    connections.add(stalledBroker.accept());
+                }
+            } catch (IOException e) {
+                // Broker closed
+            }
+        });
+        acceptor.setDaemon(true);
+        acceptor.start();
+
+        registry = new KFBrokerRegistry();
+        prober = new KFEndpointProber("test", registry);
+        prober.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        prober.close();
+        stalledBroker.close();
+        for (Socket connection : connections) {
+            connection.close();
+        }
+    }
+
+    @Test
+    public void should_send_a_request_to_plaintext_endpoints() throws Exception {
+        register("PLAINTEXT");
+
+        try {
+            probe().get(10, TimeUnit.SECONDS);
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof SocketTimeoutException);
+        }
+    }
+
+    @Test
+    public void should_connect_to_endpoints_which_are_not_plaintext() throws Exception {
+        register("SSL");
+
+        Assert.assertTrue(probe().get(10, TimeUnit.SECONDS) > 0);
+    }
+
+    @Test
+    public void should_connect_to_brokers_which_are_not_registered() throws Exception {
+        Assert.assertTrue(probe().get(10, TimeUnit.SECONDS) > 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_reject_a_null_registry() {
+        new KFEndpointProber("test", null);
+    }
+
+    private CompletableFuture<Long> probe() {
+        return prober.probe(new InetSocketAddress("localhost", stalledBroker.getLocalPort()), 200);
+    }
+
+    private void register(final String securityProtocol) throws Exception {
+        final int port = stalledBroker.getLocalPort();
+        final String json = "{\"jmx_port\":-1,\"timestamp\":\"1\",\"endpoints\":[\"" + securityProtocol
+                + "://localhost:" + port + "\"],\"host\":\"localhost\",\"version\":2,\"port\":" + port + "}";
+        final ZooKeeper zk = Mockito.mock(ZooKeeper.class);
+        Mockito.when(zk.getChildren(KFBrokerRegistry.KAFKA_BROKERS_ZNODE_PATH, true))
+                .thenReturn(Collections.singletonList("1"));
+        Mockito.when(zk.getData(KFBrokerRegistry.KAFKA_BROKERS_ZNODE_PATH + "/1", true, null))
+                .thenReturn(json.getBytes(StandardCharsets.UTF_8));
+        registry.refresh(zk);
+        Assert.assertEquals(securityProtocol, registry.getBrokerMetadata(
+                new InetSocketAddress("localhost", port)).getSecurityProtocol());
+    }
+}
@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.kafka;
+
+import com.mcafee.dxl.streaming.operations.client.common.ExecutorProbeScheduler;
+import com.mcafee.dxl.streaming.operations.client.topic.InMemoryZooKeeper;
+import com.mcafee.dxl.streaming.operations.client.topic.TopicZKPaths;
+import com.mcafee.dxl.streaming.operations.client.topic.ZKPipeline;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.zookeeper.WatchedEvent;
+import org.apache.zookeeper.Watcher;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class KFPartitionTrackerTest {
+
+    private InMemoryZooKeeper zk;
+    private ExecutorProbeScheduler probeScheduler;
+    private BlockingQueue<String> notifications;
+    private KFPartitionTracker tracker;
+
+    @Before
+    public void setUp() {
+        zk = new InMemoryZooKeeper();
+        putTopic(zk, "t1", 3);
+        putState(zk, "t1", 0, 1, "[1,2]");
+        putState(zk, "t1", 1, 1, "[1]");
+        putState(zk, "t1", 2, -1, "[]");
+        putTopic(zk, "t2", 1);
+        putState(zk, "t2", 0, 2, "[2]");
+
+        probeScheduler = new ExecutorProbeScheduler(1);
+        notifications = new LinkedBlockingQueue<>();
+        tracker = new KFPartitionTracker((underReplicated, offline) -> notifications.add(underReplicated + "/" + offline),
+                probeScheduler);
+    }
+
+    @After
+    public void tearDown() {
+        tracker.stop();
+        probeScheduler.close();
+        zk.close();
+    }
+
+    @Test
+    public void should_count_under_replicated_and_offline_partitions() throws Exception {
+        tracker.start(zk.getZooKeeper());
+
+        Assert.assertEquals("2/1", notifications.poll(10, TimeUnit.SECONDS));
+        Assert.assertEquals(2, tracker.getUnderReplicatedPartitionCount());
+        Assert.assertEquals(1, tracker.getOfflinePartitionCount());
+        Assert.assertEquals(Collections.singletonList(new TopicPartition("t1", 2)), tracker.getOfflinePartitions());
+        Assert.assertTrue(tracker.getUnderReplicatedPartitions().contains(new TopicPartition("t1", 1)));
+        Assert.assertTrue(tracker.getUnderReplicatedPartitions().contains(new TopicPartition("t2", 0)));
+    }
+
+    @Test
+    public void should_read_again_a_partition_whose_state_changed() throws Exception {
+        tracker.start(zk.getZooKeeper());
+        Assert.assertEquals("2/1", notifications.poll(10, TimeUnit.SECONDS));
+
+        final ZKPipeline pipeline = new ZKPipeline(zk.getZooKeeper(), 10);
+        pipeline.setData(TopicZKPaths.getPartitionStatePath("t1", 1), state(1, "[1,2]"), -1).get(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals("1/1", notifications.poll(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void should_forget_deleted_topics() throws Exception {
+        tracker.start(zk.getZooKeeper());
+        Assert.assertEquals("2/1", notifications.poll(10, TimeUnit.SECONDS));
+
+        final ZKPipeline pipeline = new ZKPipeline(zk.getZooKeeper(), 10);
+        for (int partition = 0; partition < 3; partition++) {
+            final String statePath = TopicZKPaths.getPartitionStatePath("t1", partition);
+            pipeline.delete(statePath, -1).get(10, TimeUnit.SECONDS);
+            pipeline.delete(statePath.substring(0, statePath.lastIndexOf('/')), -1).get(10, TimeUnit.SECONDS);
+        }
+        pipeline.delete(TopicZKPaths.getTopicPath("t1") + "/partitions", -1).get(10, TimeUnit.SECONDS);
+        pipeline.delete(TopicZKPaths.getTopicPath("t1"), -1).get(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals("1/0", poll("1/0"));
+        Assert.assertEquals(Collections.singletonList(new TopicPartition("t2", 0)),
+                tracker.getUnderReplicatedPartitions());
+        Assert.assertTrue(tracker.getOfflinePartitions().isEmpty());
+
+        // A topic created again with the same name is tracked again
+        putTopic(zk, "t1", 1);
+        putState(zk, "t1", 0, -1, "[]");
+        pipeline.create(TopicZKPaths.getTopicPath("t0"), "{}".getBytes(StandardCharsets.UTF_8))
+                .get(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals("1/1", poll("1/1"));
+    }
+
+    @Test
+    public void should_discard_responses_of_a_previous_generation() throws Exception {
+        try (InMemoryZooKeeper healthy = new InMemoryZooKeeper()) {
+            putTopic(healthy, "t3", 1);
+            putState(healthy, "t3", 0, 1, "[1]");
+
+            zk.hold();
+            tracker.start(zk.getZooKeeper());
+            tracker.start(healthy.getZooKeeper());
+            Assert.assertEquals("1/0", notifications.poll(10, TimeUnit.SECONDS));
+
+            zk.release();
+            zk.sync();
+            probeScheduler.schedule(() -> notifications.add("done"), 0);
+
+            Assert.assertEquals("done", notifications.poll(10, TimeUnit.SECONDS));
+            Assert.assertEquals(1, tracker.getUnderReplicatedPartitionCount());
+            Assert.assertEquals(0, tracker.getOfflinePartitionCount());
+        }
+    }
+
+    @Test
+    public void should_ignore_events_of_znodes_which_are_not_partition_states() throws Exception {
+        tracker.start(zk.getZooKeeper());
+        Assert.assertEquals("2/1", notifications.poll(10, TimeUnit.SECONDS));
+
+        tracker.process(new WatchedEvent(Watcher.Event.EventType.NodeDataChanged,
+                Watcher.Event.KeeperState.SyncConnected, "/brokers/topics/t1/partitions/x/state"));
+        tracker.process(new WatchedEvent(Watcher.Event.EventType.NodeDataChanged,
+                Watcher.Event.KeeperState.SyncConnected, "/brokers/topics/t1/partitions/state"));
+
+        Assert.assertEquals(2, tracker.getUnderReplicatedPartitionCount());
+    }
+
+    private String poll(final String expected) throws InterruptedException {
+        // Intermediate counts may be reported while the change is read
+        final long deadline = System.currentTimeMillis() + 10000;
+        String notification = null;
+        while (!expected.equals(notification) && System.currentTimeMillis() < deadline) {
+            notification = notifications.poll(deadline - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+        return notification;
+    }
+
+    private static void putTopic(final InMemoryZooKeeper zk, final String topicName, final int partitions) {
+        final StringBuilder json = new StringBuilder("{\"version\":1,\"partitions\":{");
+        for (int partition = 0; partition < partitions; partition++) {
+            json.append(partition > 0 ? "," : "").append('"').append(partition).append("\":[1,2]");
+        }
+        zk.put(TopicZKPaths.getTopicPath(topicName), json.append("}}").toString());
+    }
+
+    private static void putState(final InMemoryZooKeeper zk, final String topicName, final int partition,
+                                 final int leader, final String isr) {
+        zk.put(TopicZKPaths.getPartitionStatePath(topicName, partition),
+                new String(state(leader, isr), StandardCharsets.UTF_8));
+    }
+
+    private static byte[] state(final int leader, final String isr) {
+        return ("{\"controller_epoch\":1,\"leader\":" + leader + ",\"version\":1,\"leader_epoch\":1,\"isr\":" + isr
+                + "}").getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,279 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.kafka;
+
+import org.apache.kafka.common.protocol.ApiKeys;
+import org.apache.kafka.common.requests.RequestHeader;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class KFRequestProberTest {
+
+    private FakeBroker broker;
+    private KFRequestProber prober;
+
+    @Before
+    public void setUp() throws IOException {
+        broker = new FakeBroker();
+        prober = new KFRequestProber("test");
+        prober.start();
+    }
+
+    @After
+    public void tearDown() {
+        prober.close();
+        broker.close();
+    }
+
+    @Test
+    public void should_send_list_offsets_requests_on_a_persistent_connection() throws Exception {
+        Assert.assertTrue(prober.probe(broker.getAddress(), 10000).get(10, TimeUnit.SECONDS) > 0);
+        Assert.assertTrue(prober.probe(broker.getAddress(), 10000).get(10, TimeUnit.SECONDS) > 0);
+
+        Assert.assertEquals(1, broker.getConnectionCount());
+        final RequestHeader first = broker.requests.poll(10, TimeUnit.SECONDS);
+        final RequestHeader second = broker.requests.poll(10, TimeUnit.SECONDS);
+        Assert.assertEquals(ApiKeys.LIST_OFFSETS.id, first.apiKey());
+        Assert.assertEquals(0, first.apiVersion());
+        Assert.assertEquals("request-prober-test", first.clientId());
+        Assert.assertTrue(first.correlationId() != second.correlationId());
+    }
+
+    @Test
+    public void should_read_responses_split_across_several_segments() throws Exception {
+        broker.responder = (channel, correlationId) -> {
+            final byte[] response = response(correlationId).array();
+            for (int[] range : new int[][]{{0, 2}, {2, 6}, {6, response.length}}) {
+                channel.write(ByteBuffer.wrap(Arrays.copyOfRange(response, range[0], range[1])));
+                sleep(50);
+            }
+        };
+
+        Assert.assertTrue(prober.probe(broker.getAddress(), 10000).get(10, TimeUnit.SECONDS) > 0);
+    }
+
+    @Test
+    public void should_read_pipelined_responses_received_in_a_single_segment() throws Exception {
+        final AtomicReference<ByteBuffer> firstResponse = new AtomicReference<>();
+        broker.responder = (channel, correlationId) -> {
+            if (firstResponse.get() == null) {
+                firstResponse.set(response(correlationId));
+                return;
+            }
+            final ByteBuffer second = response(correlationId);
+            final ByteBuffer both = ByteBuffer.allocate(firstResponse.get().remaining() + second.remaining());
+            both.put(firstResponse.get()).put(second).flip();
+            channel.write(both);
+        };
+
+        final CompletableFuture<Long> first = prober.probe(broker.getAddress(), 10000);
+        final CompletableFuture<Long> second = prober.probe(broker.getAddress(), 10000);
+
+        Assert.assertTrue(first.get(10, TimeUnit.SECONDS) > 0);
+        Assert.assertTrue(second.get(10, TimeUnit.SECONDS) > 0);
+        Assert.assertEquals(1, broker.getConnectionCount());
+    }
+
+    @Test
+    public void should_fail_and_reconnect_when_the_correlation_id_does_not_match() throws Exception {
+        final AtomicInteger responses = new AtomicInteger();
+        broker.responder = (channel, correlationId) ->
+                channel.write(response(responses.getAndIncrement() == 0 ? correlationId + 1000 : correlationId));
+
+        assertFailsWith(IOException.class, prober.probe(broker.getAddress(), 10000));
+
+        Assert.assertTrue(prober.probe(broker.getAddress(), 10000).get(10, TimeUnit.SECONDS) > 0);
+        Assert.assertEquals(2, broker.getConnectionCount());
+    }
+
+    @Test
+    public void should_fail_and_reconnect_when_the_broker_does_not_respond_in_time() throws Exception {
+        broker.responder = (channel, correlationId) -> {
+            // Stalled broker
+        };
+
+        assertFailsWith(SocketTimeoutException.class, prober.probe(broker.getAddress(), 200));
+
+        broker.responder = (channel, correlationId) -> channel.write(response(correlationId));
+        Assert.assertTrue(prober.probe(broker.getAddress(), 10000).get(10, TimeUnit.SECONDS) > 0);
+        Assert.assertEquals(2, broker.getConnectionCount());
+    }
+
+    @Test
+    public void should_fail_when_the_response_is_too_large() throws Exception {
+        broker.responder = (channel, correlationId) -> {
+            final ByteBuffer size = ByteBuffer.allocate(4);
+            size.putInt(2 * 1024 * 1024).flip();
+            channel.write(size);
+        };
+
+        assertFailsWith(IOException.class, prober.probe(broker.getAddress(), 10000));
+    }
+
+    @Test
+    public void should_fail_when_the_broker_closes_the_connection() throws Exception {
+        broker.responder = (channel, correlationId) -> channel.close();
+
+        assertFailsWith(EOFException.class, prober.probe(broker.getAddress(), 10000));
+    }
+
+    @Test
+    public void should_fail_when_the_broker_is_not_listening() throws Exception {
+        final int port;
+        try (ServerSocketChannel closed = ServerSocketChannel.open()) {
+            port = closed.bind(new InetSocketAddress(0)).socket().getLocalPort();
+        }
+
+        assertFailsWith(IOException.class, prober.probe(new InetSocketAddress("localhost", port), 10000));
+    }
+
+    @Test
+    public void should_fail_in_flight_probes_when_it_is_closed() throws Exception {
+        broker.responder = (channel, correlationId) -> {
+            // Stalled broker
+        };
+        final CompletableFuture<Long> probe = prober.probe(broker.getAddress(), 10000);
+        Assert.assertNotNull(broker.requests.poll(10, TimeUnit.SECONDS));
+
+        prober.close();
+
+        assertFailsWith(IllegalStateException.class, probe);
+        assertFailsWith(IllegalStateException.class, prober.probe(broker.getAddress(), 10000));
+    }
+
+    @Test
+    public void should_fail_probes_when_it_is_not_started() throws Exception {
+        final KFRequestProber notStarted = new KFRequestProber("not-started");
+
+        assertFailsWith(IllegalStateException.class, notStarted.probe(broker.getAddress(), 10000));
+    }
+
+    private static void assertFailsWith(final Class<? extends Throwable> expected,
+                                        final CompletableFuture<Long> probe) throws Exception {
+        try {
+            probe.get(10, TimeUnit.SECONDS);
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause().toString(), expected.isInstance(e.getCause()));
+        }
+    }
+
+    private static ByteBuffer response(final int correlationId) {
+        // Size, response header and a ListOffsets response without topics
+        final ByteBuffer response = ByteBuffer.allocate(12);
+        response.putInt(8).putInt(correlationId).putInt(0).flip();
+        return response;
+    }
+
+    private static void sleep(final long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    private interface Responder {
+        void respond(SocketChannel channel, int correlationId) throws IOException;
+    }
+
+
+    /**
+     * A Kafka broker which reads size delimited requests and answers them with its responder
+     */
+    private static final class FakeBroker implements AutoCloseable {
+        private final ServerSocketChannel serverChannel;
+        private final BlockingQueue<RequestHeader> requests = new LinkedBlockingQueue<>();
+        private final CopyOnWriteArrayList<SocketChannel> connections = new CopyOnWriteArrayList<>();
+        private volatile Responder responder = (channel, correlationId) -> channel.write(response(correlationId));
+
+        FakeBroker() throws IOException {
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(new InetSocketAddress(0));
+            final Thread acceptor = new Thread(this::accept, "fake-broker");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        InetSocketAddress getAddress() {
+            return new InetSocketAddress("localhost", serverChannel.socket().getLocalPort());
+        }
+
+        int getConnectionCount() {
+            return connections.size();
+        }
+
+        private void accept() {
+            try {
+                while (true) {
+                    final SocketChannel channel = serverChannel.accept();
+                    channel.socket().setTcpNoDelay(true);
+                    connections.add(channel);
+                    final Thread handler = new Thread(() -> serve(channel), "fake-broker-connection");
+                    handler.setDaemon(true);
+                    handler.start();
+                }
+            } catch (IOException e) {
+                // Broker closed
+            }
+        }
+
+        private void serve(final SocketChannel channel) {
+            try {
+                while (true) {
+                    final ByteBuffer size = readFully(channel, ByteBuffer.allocate(4));
+                    final ByteBuffer request = readFully(channel, ByteBuffer.allocate(size.getInt()));
+                    final RequestHeader header = RequestHeader.parse(request);
+                    requests.add(header);
+                    responder.respond(channel, header.correlationId());
+                }
+            } catch (IOException e) {
+                // Connection closed
+            }
+        }
+
+        private static ByteBuffer readFully(final SocketChannel channel, final ByteBuffer buffer)
+                throws IOException {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new EOFException();
+                }
+            }
+            buffer.flip();
+            return buffer;
+        }
+
+        @Override
+        public void close() {
+            try {
+                serverChannel.close();
+                for (SocketChannel channel : connections) {
+                    channel.close();
+                }
+            } catch (IOException e) {
+            }
+        }
+    }
+}
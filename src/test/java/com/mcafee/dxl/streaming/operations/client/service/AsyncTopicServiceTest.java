@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.service;
+
+import com.mcafee.dxl.streaming.operations.client.AsyncTopicService;
+import com.mcafee.dxl.streaming.operations.client.common.ClusterConnection;
+import com.mcafee.dxl.streaming.operations.client.exception.TopicOperationException;
+import com.mcafee.dxl.streaming.operations.client.topic.InMemoryZooKeeper;
+import com.mcafee.dxl.streaming.operations.client.topic.TopicJson;
+import com.mcafee.dxl.streaming.operations.client.topic.TopicZKPaths;
+import kafka.utils.ZkUtils;
+import org.I0Itec.zkclient.ZkClient;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.ZooKeeper;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.mock;
+
+public class AsyncTopicServiceTest {
+
+    private InMemoryZooKeeper zk;
+    private ExecutorService pool;
+    private AtomicInteger completions;
+    private AsyncTopicService topicService;
+
+    @Before
+    public void setUp() throws Exception {
+        zk = new InMemoryZooKeeper();
+        zk.put(TopicZKPaths.BROKER_IDS_PATH + "/1", "{}");
+        zk.put(TopicZKPaths.BROKER_IDS_PATH + "/2", "{}");
+        zk.put(TopicZKPaths.getTopicPath("topic1"), "{\"version\":1,\"partitions\":{\"0\":[1,2]}}");
+        zk.put(TopicZKPaths.getTopicConfigPath("topic1"), config("retention.ms", "1000"));
+        zk.put(TopicZKPaths.CONFIG_CHANGES_PATH, "");
+
+        pool = Executors.newSingleThreadExecutor();
+        completions = new AtomicInteger();
+        topicService = new AsyncTopicService(new HashMap<>(), command -> {
+            completions.incrementAndGet();
+            pool.execute(command);
+        });
+
+        final ClusterConnection clusterConnection = new ClusterConnection("127.0.0.1:2181", "5000", "6000") {
+            @Override
+            public ZkUtils getZKUtils(ZkClient zkClient, String zkServers) {
+                return mock(ZkUtils.class);
+            }
+
+            @Override
+            public ZkClient getZKClient(String zkServers, String connectionTimeoutMS, String sessionTimeoutMS) {
+                return mock(ZkClient.class);
+            }
+
+            @Override
+            public ZooKeeper getZooKeeper() {
+                return zk.getZooKeeper();
+            }
+        };
+        final Field connField = topicService.getClass().getDeclaredField("connection");
+        connField.setAccessible(true);
+        final Object serviceConnection = connField.get(topicService);
+        final Field clusterConnField = serviceConnection.getClass().getDeclaredField("clusterConnection");
+        clusterConnField.setAccessible(true);
+        clusterConnField.set(serviceConnection, clusterConnection);
+    }
+
+    @After
+    public void tearDown() {
+        topicService.close();
+        pool.shutdownNow();
+        zk.close();
+    }
+
+    @Test
+    public void when_I_check_topics_then_only_existing_topics_exist() throws Exception {
+        Assert.assertTrue(topicService.topicExistsAsync("topic1").get(10, TimeUnit.SECONDS));
+        Assert.assertFalse(topicService.topicExistsAsync("topic2").get(10, TimeUnit.SECONDS));
+        Assert.assertEquals(2, completions.get());
+    }
+
+    @Test
+    public void when_I_create_a_topic_then_its_znodes_are_written() throws Exception {
+        final Properties properties = new Properties();
+        properties.setProperty("retention.ms", "2000");
+
+        topicService.createTopicAsync("topic2", 4, 2, properties).get(10, TimeUnit.SECONDS);
+
+        Assert.assertNotNull(zk.get(TopicZKPaths.getTopicPath("topic2")));
+        Assert.assertEquals("2000", TopicJson.decodeConfig(zk.get(TopicZKPaths.getTopicConfigPath("topic2"))
+                .getBytes(StandardCharsets.UTF_8)).getProperty("retention.ms"));
+        Assert.assertEquals(4, TopicJson.decodeAssignment(zk.get(TopicZKPaths.getTopicPath("topic2"))
+                .getBytes(StandardCharsets.UTF_8)).length);
+    }
+
+    @Test
+    public void when_I_create_an_existing_topic_then_the_future_fails() throws Exception {
+        assertFailsWithTopicOperationException(topicService.createTopicAsync("topic1", 1, 1));
+    }
+
+    @Test
+    public void when_I_get_topic_properties_then_I_get_the_configuration_overrides() throws Exception {
+        Assert.assertEquals("1000", topicService.getTopicPropertiesAsync("topic1").get(10, TimeUnit.SECONDS)
+                .getProperty("retention.ms"));
+        assertFailsWithTopicOperationException(topicService.getTopicPropertiesAsync("topic2"));
+    }
+
+    @Test
+    public void when_I_apply_topic_properties_then_only_changes_are_written() throws Exception {
+        final Properties properties = new Properties();
+        properties.setProperty("retention.ms", "1000");
+        Assert.assertFalse(topicService.applyTopicPropertiesAsync("topic1", properties).get(10, TimeUnit.SECONDS));
+        Assert.assertTrue(zk.getChildren(TopicZKPaths.CONFIG_CHANGES_PATH).isEmpty());
+
+        properties.setProperty("retention.ms", "3000");
+        Assert.assertTrue(topicService.applyTopicPropertiesAsync("topic1", properties).get(10, TimeUnit.SECONDS));
+        Assert.assertEquals(1, zk.getChildren(TopicZKPaths.CONFIG_CHANGES_PATH).size());
+    }
+
+    @Test
+    public void when_zookeeper_fails_then_the_future_fails_with_topic_operation_exception() throws Exception {
+        zk.setFailure(TopicZKPaths.getTopicPath("topic1"), KeeperException.Code.CONNECTIONLOSS);
+
+        assertFailsWithTopicOperationException(topicService.topicExistsAsync("topic1"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void when_topic_name_is_empty_then_it_throws_right_away() {
+        topicService.topicExistsAsync("");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void when_topic_properties_are_null_then_it_throws_right_away() {
+        topicService.applyTopicPropertiesAsync("topic1", null);
+    }
+
+    private static void assertFailsWithTopicOperationException(final CompletableFuture<?> future) throws Exception {
+        try {
+            future.get(10, TimeUnit.SECONDS);
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof TopicOperationException);
+        }
+    }
+
+    private static String config(final String name, final String value) {
+        final Properties properties = new Properties();
+        properties.setProperty(name, value);
+        return new String(TopicJson.encodeConfig(properties), StandardCharsets.UTF_8);
+    }
+}
@@ -10,9 +10,17 @@ import com.mcafee.dxl.streaming.operations.client.common.ClusterTools;
 import com.mcafee.dxl.streaming.operations.client.configuration.PropertyNames;
 import com.mcafee.dxl.streaming.operations.client.exception.ConnectionException;
 import com.mcafee.dxl.streaming.operations.client.exception.TopicOperationException;
+import com.mcafee.dxl.streaming.operations.client.topic.InMemoryZooKeeper;
+import com.mcafee.dxl.streaming.operations.client.topic.TopicDeletion;
+import com.mcafee.dxl.streaming.operations.client.topic.TopicDeletionStatusName;
+import com.mcafee.dxl.streaming.operations.client.topic.TopicZKPaths;
+import com.mcafee.dxl.streaming.operations.client.topic.entities.PartitionReassignment;
+import com.mcafee.dxl.streaming.operations.client.topic.entities.TopicOperationResult;
+import com.mcafee.dxl.streaming.operations.client.topic.entities.TopicSpec;
 import kafka.api.TopicMetadata;
 import kafka.utils.ZkUtils;
 import org.I0Itec.zkclient.ZkClient;
+import org.apache.zookeeper.ZooKeeper;
 import org.hamcrest.core.Is;
 import org.junit.Before;
 import org.junit.Test;
@@ -20,10 +28,13 @@ import scala.collection.Seq;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.CoreMatchers.is;
@@ -72,10 +83,39 @@ public class TopicServiceTest {
         };
         setClusterTools(clusterToolsMock);
 
+        setClusterConnection(topicService, clusterConnectionMock);
+
+    }
+
+    private static void setClusterConnection(TopicService topicService, ClusterConnection clusterConnection)
+            throws Exception {
         final Field connField = topicService.getClass().getDeclaredField("connection");
         connField.setAccessible(true);
-        connField.set(topicService, clusterConnectionMock);
+        final Object serviceConnection = connField.get(topicService);
+        final Field clusterConnField = serviceConnection.getClass().getDeclaredField("clusterConnection");
+        clusterConnField.setAccessible(true);
+        clusterConnField.set(serviceConnection, clusterConnection);
+    }
 
+    private TopicService newTopicService(Map<String, String> config, InMemoryZooKeeper zk) throws Exception {
+        final TopicService topicService = new TopicService(config);
+        setClusterConnection(topicService, new ClusterConnection("127.0.0.1:2181", "5000", "6000") {
+            @Override
+            public ZkUtils getZKUtils(ZkClient zkClient, String zkServers) {
+                return zkUtilsMock;
+            }
+
+            @Override
+            public ZkClient getZKClient(String zkServers, String connectionTimeoutMS, String sessionTimeoutMS) {
+                return zkClientMock;
+            }
+
+            @Override
+            public ZooKeeper getZooKeeper() {
+                return zk.getZooKeeper();
+            }
+        });
+        return topicService;
     }
 
     private void setClusterTools(ClusterTools clusterTools) {
@@ -345,6 +385,91 @@ public class TopicServiceTest {
         }
     }
 
+    @Test
+    public void when_a_reassignment_does_not_complete_in_time_then_a_exception_is_thrown() throws Exception {
+
+        // Given a reassignment started by someone else which never completes
+        Map<String, String> config = new HashMap<>();
+        config.put(PropertyNames.TOPIC_REASSIGNMENT_TIMEOUT_MS.getPropertyName(), "200");
+        try (InMemoryZooKeeper zk = new InMemoryZooKeeper()) {
+            zk.put(TopicZKPaths.REASSIGN_PARTITIONS_PATH, "{}");
+            TopicService topicService = newTopicService(config, zk);
+            List<PartitionReassignment> reassignments = Collections.singletonList(
+                    new PartitionReassignment("topic1-group0", 0, new int[]{1}, new int[]{2}));
+
+            try {
+                // When
+                topicService.reassignPartitions(reassignments, 1);
+                fail();
+            } catch (TopicOperationException e) {
+                // Then no batch is written
+                assertTrue(e.getMessage().contains("200 ms"));
+                assertThat(zk.get(TopicZKPaths.REASSIGN_PARTITIONS_PATH), is("{}"));
+            } finally {
+                topicService.close();
+            }
+        }
+    }
+
+    @Test
+    public void when_a_preferred_leader_election_does_not_complete_in_time_then_a_exception_is_thrown()
+            throws Exception {
+
+        // Given an imbalanced partition and an election started by someone else which never completes
+        Map<String, String> config = new HashMap<>();
+        config.put(PropertyNames.TOPIC_PREFERRED_ELECTION_TIMEOUT_MS.getPropertyName(), "200");
+        try (InMemoryZooKeeper zk = new InMemoryZooKeeper()) {
+            zk.put(TopicZKPaths.getTopicPath("topic1-group0"), "{\"version\":1,\"partitions\":{\"0\":[1,2]}}");
+            zk.put(TopicZKPaths.getPartitionStatePath("topic1-group0", 0),
+                    "{\"controller_epoch\":1,\"leader\":2,\"version\":1,\"leader_epoch\":1,\"isr\":[1,2]}");
+            zk.put(TopicZKPaths.PREFERRED_REPLICA_ELECTION_PATH, "{}");
+            TopicService topicService = newTopicService(config, zk);
+
+            try {
+                // When
+                topicService.electPreferredLeaders(10);
+                fail();
+            } catch (TopicOperationException e) {
+                // Then no batch is written
+                assertTrue(e.getMessage().contains("200 ms"));
+                assertThat(zk.get(TopicZKPaths.PREFERRED_REPLICA_ELECTION_PATH), is("{}"));
+            } finally {
+                topicService.close();
+            }
+        }
+    }
+
+    @Test
+    public void when_I_close_the_service_then_pending_topic_deletions_fail() throws Exception {
+
+        // Given a topic marked for deletion which the controller never deletes
+        try (InMemoryZooKeeper zk = new InMemoryZooKeeper()) {
+            zk.put(TopicZKPaths.getTopicPath("topic1-group0"), "{}");
+            zk.put(TopicZKPaths.DELETE_TOPICS_PATH, "");
+            TopicService topicService = newTopicService(new HashMap<>(), zk);
+            TopicDeletion deletion = topicService.deleteTopics(Collections.singletonList("topic1-group0"));
+
+            // When
+            topicService.close();
+
+            // Then
+            List<TopicOperationResult> results = deletion.getResult().get(10, TimeUnit.SECONDS);
+            assertFalse(results.get(0).isSucceeded());
+            assertThat(deletion.getStatus("topic1-group0"), is(TopicDeletionStatusName.FAILED));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void when_I_create_topics_and_a_specification_is_null_then_a_exception_is_thrown() {
+        try {
+            // When
+            topicService.createTopics(Arrays.asList(new TopicSpec("topic1-group0", 1, 1), null));
+            fail();
+        } finally {
+            topicService.close();
+        }
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void when_I_get_topic_property_and_topic_is_null_then_a_exception_is_thrown() {
         // Given
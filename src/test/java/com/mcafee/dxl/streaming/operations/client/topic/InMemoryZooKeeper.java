@@ -0,0 +1,433 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.topic;
+
+import org.apache.zookeeper.AsyncCallback;
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.WatchedEvent;
+import org.apache.zookeeper.Watcher;
+import org.apache.zookeeper.ZooKeeper;
+import org.apache.zookeeper.data.Stat;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * In-memory Zookeeper tree behind a mocked {@link ZooKeeper} handle, for testing components which send asynchronous
+ * requests.
+ * <p>
+ * Requests are applied when they are sent, and callbacks and watch events are delivered in order on a single event
+ * thread, as a real session does. Responses can be held to keep requests outstanding, and any path can be made to
+ * fail with a given error code.
+ */
+public final class InMemoryZooKeeper implements AutoCloseable {
+
+    private final ZooKeeper zooKeeper;
+    private final ExecutorService eventThread = Executors.newSingleThreadExecutor();
+
+    private final Map<String, Node> nodes = new TreeMap<>();
+    private final Map<String, Set<Watcher>> dataWatches = new HashMap<>();
+    private final Map<String, Set<Watcher>> childWatches = new HashMap<>();
+    private final Map<String, KeeperException.Code> failures = new HashMap<>();
+    private final List<Runnable> heldResponses = new ArrayList<>();
+    private BiConsumer<String, String> requestListener;
+    private boolean holding = false;
+    private int outstanding = 0;
+    private int maxOutstanding = 0;
+    private int requests = 0;
+
+
+    public InMemoryZooKeeper() {
+        nodes.put("/", new Node(new byte[0]));
+        zooKeeper = Mockito.mock(ZooKeeper.class, (Answer<Object>) this::answer);
+    }
+
+
+    /**
+     * @return mocked Zookeeper handle
+     */
+    public ZooKeeper getZooKeeper() {
+        return zooKeeper;
+    }
+
+
+    /**
+     * Create a znode and its missing parents with empty data
+     *
+     * @param path znode path
+     * @param data znode data
+     */
+    public synchronized void put(final String path, final String data) {
+        makeParents(path);
+        final Node node = nodes.get(path);
+        if (node == null) {
+            nodes.put(path, new Node(data.getBytes(StandardCharsets.UTF_8)));
+            nodes.get(parent(path)).cversion++;
+        } else {
+            node.data = data.getBytes(StandardCharsets.UTF_8);
+            node.version++;
+        }
+    }
+
+
+    /**
+     * @param path znode path
+     * @return znode data, or null if it does not exist
+     */
+    public synchronized String get(final String path) {
+        final Node node = nodes.get(path);
+        return node == null ? null : new String(node.data, StandardCharsets.UTF_8);
+    }
+
+
+    /**
+     * @param path znode path
+     * @return znode version, or -1 if it does not exist
+     */
+    public synchronized int getVersion(final String path) {
+        final Node node = nodes.get(path);
+        return node == null ? -1 : node.version;
+    }
+
+
+    /**
+     * @param path znode path
+     * @return children names, sorted
+     */
+    public synchronized List<String> getChildren(final String path) {
+        return children(path);
+    }
+
+
+    /**
+     * Make every request on a path fail
+     *
+     * @param path znode path
+     * @param code error code, or null to stop failing
+     */
+    public synchronized void setFailure(final String path, final KeeperException.Code code) {
+        if (code == null) {
+            failures.remove(path);
+        } else {
+            failures.put(path, code);
+        }
+    }
+
+
+    /**
+     * Call a listener before every request is applied, for instance to modify the tree concurrently
+     *
+     * @param listener it receives the request method name and the znode path, or null to stop listening
+     */
+    public synchronized void setRequestListener(final BiConsumer<String, String> listener) {
+        requestListener = listener;
+    }
+
+
+    /**
+     * Keep the responses of the next requests until {@link #release()}
+     */
+    public synchronized void hold() {
+        holding = true;
+    }
+
+
+    /**
+     * Deliver the held responses in order and stop holding
+     */
+    public void release() {
+        final List<Runnable> responses;
+        synchronized (this) {
+            holding = false;
+            responses = new ArrayList<>(heldResponses);
+            heldResponses.clear();
+        }
+        responses.forEach(eventThread::execute);
+    }
+
+
+    /**
+     * @return number of requests sent whose response has not been delivered
+     */
+    public synchronized int getOutstandingRequests() {
+        return outstanding;
+    }
+
+
+    /**
+     * @return highest number of outstanding requests so far
+     */
+    public synchronized int getMaxOutstandingRequests() {
+        return maxOutstanding;
+    }
+
+
+    /**
+     * @return number of requests sent so far
+     */
+    public synchronized int getRequestCount() {
+        return requests;
+    }
+
+
+    /**
+     * Wait until every event queued so far has been delivered
+     */
+    public void sync() throws Exception {
+        eventThread.submit(() -> {
+        }).get(10, TimeUnit.SECONDS);
+    }
+
+
+    @Override
+    public void close() {
+        eventThread.shutdownNow();
+    }
+
+
+    private Object answer(final InvocationOnMock invocation) throws Throwable {
+        final Object[] args = invocation.getArguments();
+        if (args.length < 2 || !(args[args.length - 2] instanceof AsyncCallback)) {
+            return Mockito.RETURNS_DEFAULTS.answer(invocation);
+        }
+        final String path = (String) args[0];
+        final AsyncCallback callback = (AsyncCallback) args[args.length - 2];
+        final Object ctx = args[args.length - 1];
+
+        final List<Runnable> events = new ArrayList<>();
+        final Runnable response;
+        synchronized (this) {
+            if (requestListener != null) {
+                requestListener.accept(invocation.getMethod().getName(), path);
+            }
+            requests++;
+            outstanding++;
+            maxOutstanding = Math.max(maxOutstanding, outstanding);
+            final KeeperException.Code failure = failures.get(path);
+            switch (invocation.getMethod().getName()) {
+                case "exists":
+                    response = exists(path, args[1], (AsyncCallback.StatCallback) callback, ctx, failure);
+                    break;
+                case "getData":
+                    response = getData(path, args[1], (AsyncCallback.DataCallback) callback, ctx, failure);
+                    break;
+                case "getChildren":
+                    response = getChildren(path, args[1], (AsyncCallback.ChildrenCallback) callback, ctx, failure);
+                    break;
+                case "create":
+                    response = create(path, (byte[]) args[1], (CreateMode) args[3],
+                            (AsyncCallback.StringCallback) callback, ctx, failure, events);
+                    break;
+                case "setData":
+                    response = setData(path, (byte[]) args[1], (Integer) args[2],
+                            (AsyncCallback.StatCallback) callback, ctx, failure, events);
+                    break;
+                case "delete":
+                    response = delete(path, (Integer) args[1], (AsyncCallback.VoidCallback) callback, ctx, failure,
+                            events);
+                    break;
+                default:
+                    throw new UnsupportedOperationException(invocation.getMethod().getName());
+            }
+            final Runnable delivery = () -> {
+                synchronized (InMemoryZooKeeper.this) {
+                    outstanding--;
+                }
+                response.run();
+            };
+            events.forEach(eventThread::execute);
+            if (holding) {
+                heldResponses.add(delivery);
+            } else {
+                eventThread.execute(delivery);
+            }
+        }
+        return null;
+    }
+
+
+    private Runnable exists(final String path, final Object watch, final AsyncCallback.StatCallback callback,
+                            final Object ctx, final KeeperException.Code failure) {
+        if (failure != null) {
+            return () -> callback.processResult(failure.intValue(), path, ctx, null);
+        }
+        addWatch(dataWatches, path, watch);
+        final Node node = nodes.get(path);
+        final Stat stat = node == null ? null : stat(path, node);
+        final int rc = (node == null ? KeeperException.Code.NONODE : KeeperException.Code.OK).intValue();
+        return () -> callback.processResult(rc, path, ctx, stat);
+    }
+
+
+    private Runnable getData(final String path, final Object watch, final AsyncCallback.DataCallback callback,
+                             final Object ctx, final KeeperException.Code failure) {
+        final Node node = nodes.get(path);
+        if (failure != null || node == null) {
+            final int rc = (failure != null ? failure : KeeperException.Code.NONODE).intValue();
+            return () -> callback.processResult(rc, path, ctx, null, null);
+        }
+        addWatch(dataWatches, path, watch);
+        final byte[] data = node.data.clone();
+        final Stat stat = stat(path, node);
+        return () -> callback.processResult(KeeperException.Code.OK.intValue(), path, ctx, data, stat);
+    }
+
+
+    private Runnable getChildren(final String path, final Object watch,
+                                 final AsyncCallback.ChildrenCallback callback,
+                                 final Object ctx, final KeeperException.Code failure) {
+        final Node node = nodes.get(path);
+        if (failure != null || node == null) {
+            final int rc = (failure != null ? failure : KeeperException.Code.NONODE).intValue();
+            return () -> callback.processResult(rc, path, ctx, null);
+        }
+        addWatch(childWatches, path, watch);
+        final List<String> children = children(path);
+        return () -> callback.processResult(KeeperException.Code.OK.intValue(), path, ctx, children);
+    }
+
+
+    private Runnable create(final String path, final byte[] data, final CreateMode createMode,
+                            final AsyncCallback.StringCallback callback, final Object ctx,
+                            final KeeperException.Code failure, final List<Runnable> events) {
+        final Node parent = nodes.get(parent(path));
+        final KeeperException.Code code = failure != null ? failure
+                : parent == null ? KeeperException.Code.NONODE
+                : nodes.containsKey(path) && !createMode.isSequential() ? KeeperException.Code.NODEEXISTS
+                : KeeperException.Code.OK;
+        if (code != KeeperException.Code.OK) {
+            return () -> callback.processResult(code.intValue(), path, ctx, null);
+        }
+        final String name = createMode.isSequential() ? path + String.format("%010d", parent.cversion) : path;
+        nodes.put(name, new Node(data == null ? new byte[0] : data.clone()));
+        parent.cversion++;
+        events.addAll(fire(dataWatches, name, Watcher.Event.EventType.NodeCreated));
+        events.addAll(fire(childWatches, parent(name), Watcher.Event.EventType.NodeChildrenChanged));
+        return () -> callback.processResult(KeeperException.Code.OK.intValue(), path, ctx, name);
+    }
+
+
+    private Runnable setData(final String path, final byte[] data, final int version,
+                             final AsyncCallback.StatCallback callback, final Object ctx,
+                             final KeeperException.Code failure, final List<Runnable> events) {
+        final Node node = nodes.get(path);
+        final KeeperException.Code code = failure != null ? failure
+                : node == null ? KeeperException.Code.NONODE
+                : version != -1 && version != node.version ? KeeperException.Code.BADVERSION
+                : KeeperException.Code.OK;
+        if (code != KeeperException.Code.OK) {
+            return () -> callback.processResult(code.intValue(), path, ctx, null);
+        }
+        node.data = data.clone();
+        node.version++;
+        final Stat stat = stat(path, node);
+        events.addAll(fire(dataWatches, path, Watcher.Event.EventType.NodeDataChanged));
+        return () -> callback.processResult(KeeperException.Code.OK.intValue(), path, ctx, stat);
+    }
+
+
+    private Runnable delete(final String path, final int version, final AsyncCallback.VoidCallback callback,
+                            final Object ctx, final KeeperException.Code failure, final List<Runnable> events) {
+        final Node node = nodes.get(path);
+        final KeeperException.Code code = failure != null ? failure
+                : node == null ? KeeperException.Code.NONODE
+                : version != -1 && version != node.version ? KeeperException.Code.BADVERSION
+                : !children(path).isEmpty() ? KeeperException.Code.NOTEMPTY
+                : KeeperException.Code.OK;
+        if (code == KeeperException.Code.OK) {
+            nodes.remove(path);
+            nodes.get(parent(path)).cversion++;
+            events.addAll(fire(dataWatches, path, Watcher.Event.EventType.NodeDeleted));
+            events.addAll(fire(childWatches, path, Watcher.Event.EventType.NodeDeleted));
+            events.addAll(fire(childWatches, parent(path), Watcher.Event.EventType.NodeChildrenChanged));
+        }
+        return () -> callback.processResult(code.intValue(), path, ctx);
+    }
+
+
+    private void addWatch(final Map<String, Set<Watcher>> watches, final String path, final Object watch) {
+        if (watch instanceof Watcher) {
+            watches.computeIfAbsent(path, p -> new LinkedHashSet<>()).add((Watcher) watch);
+        }
+    }
+
+
+    private List<Runnable> fire(final Map<String, Set<Watcher>> watches, final String path,
+                                final Watcher.Event.EventType type) {
+        final Set<Watcher> watchers = watches.remove(path);
+        final List<Runnable> events = new ArrayList<>();
+        if (watchers != null) {
+            final WatchedEvent event = new WatchedEvent(type, Watcher.Event.KeeperState.SyncConnected, path);
+            for (Watcher watcher : watchers) {
+                events.add(() -> watcher.process(event));
+            }
+        }
+        return events;
+    }
+
+
+    private void makeParents(final String path) {
+        final String parent = parent(path);
+        if (!nodes.containsKey(parent)) {
+            makeParents(parent);
+            nodes.put(parent, new Node(new byte[0]));
+            nodes.get(parent(parent)).cversion++;
+        }
+    }
+
+
+    private List<String> children(final String path) {
+        final String prefix = path.equals("/") ? "/" : path + "/";
+        final List<String> children = new ArrayList<>();
+        for (String name : nodes.keySet()) {
+            if (name.startsWith(prefix) && name.length() > prefix.length()
+                    && name.indexOf('/', prefix.length()) < 0) {
+                children.add(name.substring(prefix.length()));
+            }
+        }
+        return children;
+    }
+
+
+    private Stat stat(final String path, final Node node) {
+        final Stat stat = new Stat();
+        stat.setVersion(node.version);
+        stat.setCversion(node.cversion);
+        stat.setDataLength(node.data.length);
+        stat.setNumChildren(children(path).size());
+        return stat;
+    }
+
+
+    private static String parent(final String path) {
+        final int slash = path.lastIndexOf('/');
+        return slash <= 0 ? "/" : path.substring(0, slash);
+    }
+
+
+    private static final class Node {
+        private byte[] data;
+        private int version = 0;
+        private int cversion = 0;
+
+        private Node(final byte[] data) {
+            this.data = data;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.topic;
+
+import com.mcafee.dxl.streaming.operations.client.topic.entities.TopicOperationResult;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class PartitionExpanderTest {
+
+    @Test
+    public void should_place_new_leaders_and_replicas_on_least_loaded_brokers() {
+        // Broker 1 leads everything and broker 2 holds every follower
+        final int[][] assignment = {{1, 2}, {1, 2}, {1, 2}, {1, 2}};
+        final PartitionExpander.BrokerLoad load = new PartitionExpander.BrokerLoad(new int[]{1, 2, 3, 4},
+                Collections.singletonList(assignment));
+
+        final int[][] newPartitions = load.assign(4, 2);
+
+        for (int[] replicas : newPartitions) {
+            Assert.assertTrue(replicas[0] != 1);
+            Assert.assertTrue(replicas[0] != replicas[1]);
+        }
+        Assert.assertEquals(4, load.getReplicaCount(1));
+        Assert.assertEquals(4, load.getReplicaCount(2));
+        Assert.assertEquals(4, load.getReplicaCount(3));
+        Assert.assertEquals(4, load.getReplicaCount(4));
+        Assert.assertEquals(4, load.getLeaderCount(1));
+    }
+
+    @Test
+    public void should_ignore_replicas_on_other_brokers() {
+        final PartitionExpander.BrokerLoad load = new PartitionExpander.BrokerLoad(new int[]{1, 2},
+                Collections.singletonList(new int[][]{{3, 1}, {3, 2}}));
+
+        Assert.assertEquals(1, load.getReplicaCount(1));
+        Assert.assertEquals(0, load.getLeaderCount(1));
+        Assert.assertTrue(Arrays.asList(1, 2).contains(load.assign(1, 1)[0][0]));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_reject_replication_factor_larger_than_brokers() {
+        new PartitionExpander.BrokerLoad(new int[]{1, 2}, Collections.emptyList()).assign(1, 3);
+    }
+
+    @Test
+    public void should_write_new_assignments_and_report_missing_and_malformed_topics() {
+        try (InMemoryZooKeeper zk = new InMemoryZooKeeper()) {
+            zk.put(TopicZKPaths.getTopicPath("a"), "{\"version\":1,\"partitions\":{\"0\":[1,2]}}");
+            zk.put(TopicZKPaths.getTopicPath("b"), "{\"version\":1,\"partitions\":");
+            final Map<String, Integer> partitionCounts = new LinkedHashMap<>();
+            partitionCounts.put("a", 3);
+            partitionCounts.put("b", 3);
+            partitionCounts.put("c", 3);
+
+            final List<TopicOperationResult> results = new PartitionExpander(new ZKPipeline(zk.getZooKeeper(), 10))
+                    .addPartitions(partitionCounts, Arrays.asList(1, 2, 3));
+
+            Assert.assertTrue(results.get(0).isSucceeded());
+            Assert.assertEquals(3, TopicJson.decodeAssignment(zk.get(TopicZKPaths.getTopicPath("a"))
+                    .getBytes(StandardCharsets.UTF_8)).length);
+            Assert.assertTrue(results.get(1).getError().getMessage().contains("malformed"));
+            Assert.assertEquals("{\"version\":1,\"partitions\":", zk.get(TopicZKPaths.getTopicPath("b")));
+            Assert.assertTrue(results.get(2).getError().getMessage().contains("does not exist"));
+        }
+    }
+
+    @Test
+    public void should_not_overwrite_an_assignment_modified_concurrently() {
+        try (InMemoryZooKeeper zk = new InMemoryZooKeeper()) {
+            final String topicPath = TopicZKPaths.getTopicPath("a");
+            final String concurrentAssignment = "{\"version\":1,\"partitions\":{\"0\":[1,2],\"1\":[2,1]}}";
+            zk.put(topicPath, "{\"version\":1,\"partitions\":{\"0\":[1,2]}}");
+            zk.setRequestListener((method, path) -> {
+                if ("setData".equals(method)) {
+                    zk.put(topicPath, concurrentAssignment);
+                }
+            });
+
+            final List<TopicOperationResult> results = new PartitionExpander(new ZKPipeline(zk.getZooKeeper(), 10))
+                    .addPartitions(Collections.singletonMap("a", 3), Arrays.asList(1, 2, 3));
+
+            Assert.assertFalse(results.get(0).isSucceeded());
+            Assert.assertTrue(results.get(0).getError().getMessage().contains("modified concurrently"));
+            Assert.assertEquals(concurrentAssignment, zk.get(topicPath));
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.topic;
+
+import com.mcafee.dxl.streaming.operations.client.topic.entities.BrokerLeadership;
+import com.mcafee.dxl.streaming.operations.client.topic.entities.PartitionDescription;
+import com.mcafee.dxl.streaming.operations.client.topic.entities.TopicDescription;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class PreferredLeaderElectorTest {
+
+    private static final TopicDescription TOPIC = new TopicDescription("topic", new PartitionDescription[]{
+            new PartitionDescription(0, new int[]{1, 2}, 1, 0, new int[]{1, 2}),
+            new PartitionDescription(1, new int[]{2, 1}, 1, 1, new int[]{1, 2}),
+            new PartitionDescription(2, new int[]{2, 3}, 3, 1, new int[]{3}),
+            new PartitionDescription(3, new int[]{3, 1}, PartitionDescription.NO_LEADER, 2, new int[0])});
+
+    @Test
+    public void should_count_leaders_and_preferred_leaders_per_broker() {
+        final Map<Integer, BrokerLeadership> leadership =
+                PreferredLeaderElector.getBrokerLeadership(Collections.singletonList(TOPIC));
+
+        Assert.assertEquals(2, leadership.get(1).getLeaderCount());
+        Assert.assertEquals(1, leadership.get(1).getPreferredLeaderCount());
+        Assert.assertEquals(0.0, leadership.get(1).getImbalanceRatio(), 0.0);
+        Assert.assertEquals(0, leadership.get(2).getLeaderCount());
+        Assert.assertEquals(1.0, leadership.get(2).getImbalanceRatio(), 0.0);
+        Assert.assertEquals(1, leadership.get(3).getLeaderCount());
+        Assert.assertEquals(1.0, leadership.get(3).getImbalanceRatio(), 0.0);
+    }
+
+    @Test
+    public void should_elect_only_in_sync_preferred_leaders() {
+        final List<TopicPartition> partitions =
+                PreferredLeaderElector.getImbalancedPartitions(Collections.singletonList(TOPIC));
+
+        Assert.assertEquals(1, partitions.size());
+        Assert.assertEquals("topic", partitions.get(0).topic());
+        Assert.assertEquals(1, partitions.get(0).partition());
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.topic;
+
+import com.mcafee.dxl.streaming.operations.client.topic.entities.PartitionDescription;
+import com.mcafee.dxl.streaming.operations.client.topic.entities.PartitionReassignment;
+import com.mcafee.dxl.streaming.operations.client.topic.entities.TopicDescription;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ReassignmentPlannerTest {
+
+    @Test
+    public void should_move_the_fair_share_to_an_added_broker() {
+        final TopicDescription topic = topic(ReplicaAssigner.assignReplicas(new int[]{1, 2, 3}, 6, 2, 0, 0, 0));
+
+        final List<PartitionReassignment> plan = ReassignmentPlanner.plan(Collections.singletonList(topic),
+                new int[]{1, 2, 3, 4});
+
+        int moved = 0;
+        for (PartitionReassignment reassignment : plan) {
+            moved += reassignment.getMovedReplicaCount();
+        }
+        Assert.assertEquals(3, moved);
+        final Map<Integer, Integer> load = load(topic, plan);
+        for (int brokerId = 1; brokerId <= 4; brokerId++) {
+            Assert.assertEquals(3, (int) load.get(brokerId));
+        }
+    }
+
+    @Test
+    public void should_move_every_replica_of_a_removed_broker() {
+        final TopicDescription topic = topic(ReplicaAssigner.assignReplicas(new int[]{1, 2, 3, 4}, 8, 3, 0, 0, 0));
+
+        final List<PartitionReassignment> plan = ReassignmentPlanner.plan(Collections.singletonList(topic),
+                new int[]{1, 2, 3});
+
+        Assert.assertEquals(6, plan.size());
+        final Map<Integer, Integer> load = load(topic, plan);
+        Assert.assertNull(load.get(4));
+        for (int brokerId = 1; brokerId <= 3; brokerId++) {
+            Assert.assertEquals(8, (int) load.get(brokerId));
+        }
+    }
+
+    @Test
+    public void should_keep_preferred_leaders_when_followers_can_move() {
+        final TopicDescription topic = topic(new int[][]{{1, 2}, {1, 2}, {2, 1}, {2, 1}});
+
+        final List<PartitionReassignment> plan = ReassignmentPlanner.plan(Collections.singletonList(topic),
+                new int[]{1, 2, 3, 4});
+
+        for (PartitionReassignment reassignment : plan) {
+            Assert.assertEquals(reassignment.getReplicas()[0], reassignment.getTargetReplicas()[0]);
+        }
+        Assert.assertEquals(4, plan.size());
+    }
+
+    @Test
+    public void should_not_move_a_balanced_cluster() {
+        final TopicDescription topic = topic(ReplicaAssigner.assignReplicas(new int[]{1, 2, 3}, 9, 3, 0, 0, 0));
+
+        Assert.assertTrue(ReassignmentPlanner.plan(Collections.singletonList(topic), new int[]{1, 2, 3}).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_reject_fewer_brokers_than_replicas() {
+        final TopicDescription topic = topic(new int[][]{{1, 2, 3}});
+
+        ReassignmentPlanner.plan(Collections.singletonList(topic), new int[]{1, 2});
+    }
+
+    private static TopicDescription topic(final int[][] assignment) {
+        final PartitionDescription[] partitions = new PartitionDescription[assignment.length];
+        for (int partition = 0; partition < assignment.length; partition++) {
+            partitions[partition] = new PartitionDescription(partition, assignment[partition],
+                    assignment[partition][0], 0, assignment[partition]);
+        }
+        return new TopicDescription("topic", partitions);
+    }
+
+    private static Map<Integer, Integer> load(final TopicDescription topic, final List<PartitionReassignment> plan) {
+        final int[][] replicas = new int[topic.getPartitionCount()][];
+        for (PartitionDescription partition : topic.getPartitions()) {
+            replicas[partition.getPartition()] = partition.getReplicas();
+        }
+        for (PartitionReassignment reassignment : plan) {
+            replicas[reassignment.getPartition()] = reassignment.getTargetReplicas();
+        }
+        final Map<Integer, Integer> load = new HashMap<>();
+        for (int[] brokers : replicas) {
+            Assert.assertEquals(brokers.length, Arrays.stream(brokers).distinct().count());
+            for (int brokerId : brokers) {
+                load.merge(brokerId, 1, Integer::sum);
+            }
+        }
+        return load;
+    }
+}
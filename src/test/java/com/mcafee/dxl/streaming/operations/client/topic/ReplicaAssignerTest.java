@@ -0,0 +1,37 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.topic;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ReplicaAssignerTest {
+
+    @Test
+    public void should_assign_replicas_like_kafka_admin_tools() {
+        final int[][] assignment = ReplicaAssigner.assignReplicas(new int[]{0, 1, 2, 3, 4}, 10, 3, 0, 0, 0);
+
+        final int[][] expected = {
+                {0, 1, 2}, {1, 2, 3}, {2, 3, 4}, {3, 4, 0}, {4, 0, 1},
+                {0, 2, 3}, {1, 3, 4}, {2, 4, 0}, {3, 0, 1}, {4, 1, 2}};
+        Assert.assertEquals(expected.length, assignment.length);
+        for (int partition = 0; partition < expected.length; partition++) {
+            Assert.assertArrayEquals(expected[partition], assignment[partition]);
+        }
+    }
+
+    @Test
+    public void should_continue_from_the_start_partition() {
+        final int[][] assignment = ReplicaAssigner.assignReplicas(new int[]{0, 1, 2, 3, 4}, 2, 3, 5, 0, 0);
+
+        Assert.assertArrayEquals(new int[]{0, 2, 3}, assignment[0]);
+        Assert.assertArrayEquals(new int[]{1, 3, 4}, assignment[1]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_reject_a_replication_factor_larger_than_brokers() {
+        ReplicaAssigner.assignReplicas(new int[]{0, 1}, 1, 3, 0, 0, 0);
+    }
+}
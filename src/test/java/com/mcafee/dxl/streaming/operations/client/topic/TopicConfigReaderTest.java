@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.topic;
+
+import com.mcafee.dxl.streaming.operations.client.exception.TopicOperationException;
+import org.apache.zookeeper.KeeperException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class TopicConfigReaderTest {
+
+    private InMemoryZooKeeper zk;
+    private TopicConfigReader reader;
+
+    @Before
+    public void setUp() {
+        zk = new InMemoryZooKeeper();
+        reader = new TopicConfigReader(new ZKPipeline(zk.getZooKeeper(), 2));
+        for (String topicName : new String[]{"a", "b", "c", "d"}) {
+            zk.put(TopicZKPaths.getTopicPath(topicName), "{}");
+        }
+        zk.put(TopicZKPaths.getTopicConfigPath("a"), config("retention.ms", "1000"));
+        zk.put(TopicZKPaths.getTopicConfigPath("c"), "{\"version\":1,\"config\":");
+        zk.put(TopicZKPaths.getTopicConfigPath("d"), config("retention.ms", "4000"));
+    }
+
+    @After
+    public void tearDown() {
+        zk.close();
+    }
+
+    @Test
+    public void should_read_every_topic_and_skip_malformed_configurations() throws Exception {
+        final Map<String, Properties> topicProperties = reader.readAllTopicProperties().get(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals(3, topicProperties.size());
+        Assert.assertEquals("1000", topicProperties.get("a").getProperty("retention.ms"));
+        Assert.assertTrue(topicProperties.get("b").isEmpty());
+        Assert.assertFalse(topicProperties.containsKey("c"));
+        Assert.assertEquals("4000", topicProperties.get("d").getProperty("retention.ms"));
+    }
+
+    @Test
+    public void should_skip_configurations_which_could_not_be_read() throws Exception {
+        zk.setFailure(TopicZKPaths.getTopicConfigPath("a"), KeeperException.Code.NOAUTH);
+
+        final Map<String, Properties> topicProperties = reader.readTopicProperties(Arrays.asList("a", "d"))
+                .get(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals(1, topicProperties.size());
+        Assert.assertEquals("4000", topicProperties.get("d").getProperty("retention.ms"));
+    }
+
+    @Test
+    public void should_not_map_topics_which_do_not_exist() throws Exception {
+        final Map<String, Properties> topicProperties = reader.readTopicProperties(Arrays.asList("a", "x", "a"))
+                .get(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals(1, topicProperties.size());
+        Assert.assertTrue(topicProperties.containsKey("a"));
+    }
+
+    @Test
+    public void should_fail_when_topic_list_could_not_be_read() throws Exception {
+        zk.setFailure(TopicZKPaths.BROKER_TOPICS_PATH, KeeperException.Code.CONNECTIONLOSS);
+
+        try {
+            reader.readAllTopicProperties().get(10, TimeUnit.SECONDS);
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(ZKPipeline.unwrap(e.getCause()) instanceof TopicOperationException);
+        }
+    }
+
+    private static String config(final String name, final String value) {
+        final Properties properties = new Properties();
+        properties.setProperty(name, value);
+        return new String(TopicJson.encodeConfig(properties), StandardCharsets.UTF_8);
+    }
+}
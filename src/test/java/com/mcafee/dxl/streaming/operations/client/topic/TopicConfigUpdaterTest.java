@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.topic;
+
+import com.mcafee.dxl.streaming.operations.client.topic.entities.TopicConfigApplyResult;
+import org.apache.zookeeper.KeeperException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+public class TopicConfigUpdaterTest {
+
+    private InMemoryZooKeeper zk;
+    private TopicConfigUpdater updater;
+
+    @Before
+    public void setUp() {
+        zk = new InMemoryZooKeeper();
+        updater = new TopicConfigUpdater(new ZKPipeline(zk.getZooKeeper(), 4));
+        zk.put(TopicZKPaths.CONFIG_CHANGES_PATH, "");
+        for (String topicName : new String[]{"unchanged", "changed", "malformed", "unreadable", "empty"}) {
+            zk.put(TopicZKPaths.getTopicPath(topicName), "{}");
+        }
+        zk.put(TopicZKPaths.getTopicConfigPath("unchanged"), config(properties("retention.ms", "1000")));
+        zk.put(TopicZKPaths.getTopicConfigPath("changed"), config(properties("retention.ms", "1000")));
+        zk.put(TopicZKPaths.getTopicConfigPath("malformed"), "{\"version\":1,\"config\":");
+        zk.put(TopicZKPaths.getTopicConfigPath("unreadable"), config(properties("retention.ms", "1000")));
+    }
+
+    @After
+    public void tearDown() {
+        zk.close();
+    }
+
+    @Test
+    public void should_write_only_changed_and_malformed_configurations_of_existing_topics() throws Exception {
+        zk.setFailure(TopicZKPaths.getTopicConfigPath("unreadable"), KeeperException.Code.NOAUTH);
+        final Map<String, Properties> topicProperties = new LinkedHashMap<>();
+        topicProperties.put("unchanged", properties("retention.ms", "1000"));
+        topicProperties.put("changed", properties("retention.ms", "2000"));
+        topicProperties.put("missing", properties("retention.ms", "1000"));
+        topicProperties.put("malformed", properties("retention.ms", "1000"));
+        topicProperties.put("unreadable", properties("retention.ms", "1000"));
+        topicProperties.put("empty", properties("retention.ms", "1000"));
+        topicProperties.put("invalid", properties("retention.ms", "forever"));
+
+        final List<TopicConfigApplyResult> results = updater.applyTopicProperties(topicProperties)
+                .get(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals(7, results.size());
+        assertResult(results.get(0), "unchanged", true, false);
+        assertResult(results.get(1), "changed", true, true);
+        assertResult(results.get(2), "missing", false, false);
+        Assert.assertTrue(results.get(2).getError().getMessage().contains("does not exist"));
+        assertResult(results.get(3), "malformed", true, true);
+        assertResult(results.get(4), "unreadable", false, false);
+        Assert.assertFalse(results.get(4).getError().getMessage().contains("does not exist"));
+        assertResult(results.get(5), "empty", true, true);
+        assertResult(results.get(6), "invalid", false, false);
+
+        Assert.assertEquals("2000", decode(TopicZKPaths.getTopicConfigPath("changed")).getProperty("retention.ms"));
+        Assert.assertEquals("1000", decode(TopicZKPaths.getTopicConfigPath("malformed"))
+                .getProperty("retention.ms"));
+        Assert.assertNull(zk.get(TopicZKPaths.getTopicConfigPath("missing")));
+        Assert.assertEquals(3, zk.getChildren(TopicZKPaths.CONFIG_CHANGES_PATH).size());
+    }
+
+    @Test
+    public void should_compare_configurations_including_default_properties() throws Exception {
+        final Properties withDefaults = new Properties(properties("retention.ms", "1000"));
+
+        Assert.assertEquals(TopicConfigUpdater.toMap(properties("retention.ms", "1000")),
+                TopicConfigUpdater.toMap(withDefaults));
+        Assert.assertFalse(updater.applyTopicProperties("unchanged", withDefaults).get(10, TimeUnit.SECONDS));
+
+        withDefaults.setProperty("cleanup.policy", "compact");
+        Assert.assertFalse(TopicConfigUpdater.toMap(properties("retention.ms", "1000"))
+                .equals(TopicConfigUpdater.toMap(withDefaults)));
+        Assert.assertTrue(updater.applyTopicProperties("unchanged", withDefaults).get(10, TimeUnit.SECONDS));
+        Assert.assertEquals("compact", decode(TopicZKPaths.getTopicConfigPath("unchanged"))
+                .getProperty("cleanup.policy"));
+    }
+
+    @Test
+    public void should_fail_only_the_topics_whose_properties_are_null() throws Exception {
+        final Map<String, Properties> topicProperties = new LinkedHashMap<>();
+        topicProperties.put("changed", null);
+        topicProperties.put("unchanged", properties("retention.ms", "1000"));
+
+        final List<TopicConfigApplyResult> results = updater.applyTopicProperties(topicProperties)
+                .get(10, TimeUnit.SECONDS);
+
+        assertResult(results.get(0), "changed", false, false);
+        assertResult(results.get(1), "unchanged", true, false);
+    }
+
+    private static void assertResult(final TopicConfigApplyResult result, final String topicName,
+                                     final boolean succeeded, final boolean changed) {
+        Assert.assertEquals(topicName, result.getTopicName());
+        Assert.assertEquals(succeeded, result.isSucceeded());
+        Assert.assertEquals(changed, result.isChanged());
+    }
+
+    private Properties decode(final String path) {
+        return TopicJson.decodeConfig(zk.get(path).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Properties properties(final String name, final String value) {
+        final Properties properties = new Properties();
+        properties.setProperty(name, value);
+        return properties;
+    }
+
+    private static String config(final Properties properties) {
+        return new String(TopicJson.encodeConfig(properties), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.topic;
+
+import com.mcafee.dxl.streaming.operations.client.common.ExecutorProbeScheduler;
+import com.mcafee.dxl.streaming.operations.client.topic.entities.TopicOperationResult;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class TopicDeletionTest {
+
+    private InMemoryZooKeeper zk;
+    private ZKPipeline pipeline;
+    private ExecutorProbeScheduler scheduler;
+    private TopicDeleter deleter;
+
+    @Before
+    public void setUp() {
+        zk = new InMemoryZooKeeper();
+        zk.put(TopicZKPaths.DELETE_TOPICS_PATH, "");
+        zk.put(TopicZKPaths.getTopicPath("a"), "{}");
+        zk.put(TopicZKPaths.getTopicPath("b"), "{}");
+        pipeline = new ZKPipeline(zk.getZooKeeper(), 10);
+        scheduler = new ExecutorProbeScheduler(1);
+        deleter = new TopicDeleter(() -> pipeline, scheduler);
+    }
+
+    @After
+    public void tearDown() {
+        deleter.close();
+        scheduler.close();
+        zk.close();
+    }
+
+    @Test
+    public void should_report_a_topic_deleted_once_it_is_gone() throws Exception {
+        final TopicDeletion deletion = deleter.deleteTopics(Arrays.asList("a", "x"), 10000);
+        awaitMarker("a");
+
+        Assert.assertEquals(TopicDeletionStatusName.PENDING, deletion.getStatus("a"));
+        Assert.assertEquals(TopicDeletionStatusName.FAILED, deletion.getStatus("x"));
+        Assert.assertEquals(1, deletion.getPendingTopicCount());
+
+        pipeline.delete(TopicZKPaths.getTopicPath("a"), -1).get(10, TimeUnit.SECONDS);
+        pipeline.delete(TopicZKPaths.getDeleteTopicPath("a"), -1).get(10, TimeUnit.SECONDS);
+
+        final List<TopicOperationResult> results = deletion.getResult().get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(TopicDeletionStatusName.DELETED, deletion.getStatus("a"));
+        Assert.assertTrue(results.get(0).isSucceeded());
+        Assert.assertFalse(results.get(1).isSucceeded());
+        Assert.assertTrue(results.get(1).getError().getMessage().contains("does not exist"));
+    }
+
+    @Test
+    public void should_fail_a_topic_whose_marker_is_gone_while_it_still_exists() throws Exception {
+        final TopicDeletion deletion = deleter.deleteTopics(Collections.singletonList("a"), 10000);
+        awaitMarker("a");
+
+        pipeline.delete(TopicZKPaths.getDeleteTopicPath("a"), -1).get(10, TimeUnit.SECONDS);
+
+        final List<TopicOperationResult> results = deletion.getResult().get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(TopicDeletionStatusName.FAILED, deletion.getStatus("a"));
+        Assert.assertTrue(results.get(0).getError().getMessage().contains("was refused"));
+        Assert.assertNotNull(zk.get(TopicZKPaths.getTopicPath("a")));
+    }
+
+    @Test
+    public void should_fail_topics_which_are_still_pending_after_the_timeout() throws Exception {
+        final TopicDeletion deletion = deleter.deleteTopics(Arrays.asList("a", "b"), 200);
+
+        final List<TopicOperationResult> results = deletion.getResult().get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(TopicDeletionStatusName.FAILED, deletion.getStatus("a"));
+        Assert.assertEquals(TopicDeletionStatusName.FAILED, deletion.getStatus("b"));
+        Assert.assertTrue(results.get(0).getError().getMessage().contains("within 200 ms"));
+        Assert.assertEquals(0, deletion.getPendingTopicCount());
+    }
+
+    @Test
+    public void should_fail_pending_topics_when_the_deleter_is_closed() throws Exception {
+        final TopicDeletion deletion = deleter.deleteTopics(Arrays.asList("a", "b"), 10000);
+        awaitMarker("b");
+
+        deleter.close();
+
+        final List<TopicOperationResult> results = deletion.getResult().get(10, TimeUnit.SECONDS);
+        Assert.assertFalse(results.get(0).isSucceeded());
+        Assert.assertFalse(results.get(1).isSucceeded());
+        Assert.assertTrue(deleter.deleteTopics(Collections.singletonList("a"), 10000).isDone());
+    }
+
+    @Test
+    public void should_fail_topics_when_the_scheduler_is_closed() throws Exception {
+        scheduler.close();
+
+        final TopicDeletion deletion = deleter.deleteTopics(Collections.singletonList("a"), 10000);
+
+        Assert.assertTrue(deletion.isDone());
+        Assert.assertEquals(TopicDeletionStatusName.FAILED, deletion.getStatus("a"));
+        Assert.assertNull(zk.get(TopicZKPaths.getDeleteTopicPath("a")));
+    }
+
+    @Test
+    public void should_complete_right_away_when_no_topic_is_given() {
+        final TopicDeletion deletion = deleter.deleteTopics(Collections.emptyList(), 10000);
+
+        Assert.assertTrue(deletion.isDone());
+        Assert.assertTrue(deletion.getStatuses().isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_reject_a_timeout_which_is_not_positive() {
+        deleter.deleteTopics(Collections.singletonList("a"), 0);
+    }
+
+    private void awaitMarker(final String topicName) throws Exception {
+        final long deadline = System.currentTimeMillis() + 10000;
+        while (zk.get(TopicZKPaths.getDeleteTopicPath(topicName)) == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        // The children are read again once every marker has been created
+        zk.sync();
+    }
+}
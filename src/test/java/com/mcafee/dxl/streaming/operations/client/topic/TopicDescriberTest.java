@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.topic;
+
+import com.mcafee.dxl.streaming.operations.client.exception.TopicOperationException;
+import com.mcafee.dxl.streaming.operations.client.topic.entities.TopicDescription;
+import org.apache.zookeeper.KeeperException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class TopicDescriberTest {
+
+    private InMemoryZooKeeper zk;
+    private TopicDescriber describer;
+
+    @Before
+    public void setUp() {
+        zk = new InMemoryZooKeeper();
+        describer = new TopicDescriber(new ZKPipeline(zk.getZooKeeper(), 4));
+        zk.put(TopicZKPaths.getTopicPath("a"), "{\"version\":1,\"partitions\":{\"0\":[1,2],\"1\":[2,1]}}");
+        zk.put(TopicZKPaths.getPartitionStatePath("a", 0), state(1, "[1,2]"));
+        zk.put(TopicZKPaths.getPartitionStatePath("a", 1), state(2, "[2]"));
+        zk.put(TopicZKPaths.getTopicPath("b"), "{\"version\":1,\"partitions\":");
+        zk.put(TopicZKPaths.getTopicPath("c"), "{\"version\":1,\"partitions\":{\"0\":[1,2]}}");
+        zk.put(TopicZKPaths.getPartitionStatePath("c", 0), "{\"leader\":");
+    }
+
+    @After
+    public void tearDown() {
+        zk.close();
+    }
+
+    @Test
+    public void should_leave_out_topics_whose_znodes_are_malformed() throws Exception {
+        final Map<String, TopicDescription> descriptions = describer.describeAllTopics().get(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals(1, descriptions.size());
+        final TopicDescription description = descriptions.get("a");
+        Assert.assertEquals(2, description.getPartitionCount());
+        Assert.assertEquals(1, description.getUnderReplicatedPartitionCount());
+        Assert.assertEquals(0, description.getOfflinePartitionCount());
+    }
+
+    @Test
+    public void should_not_map_topics_which_do_not_exist() throws Exception {
+        final Map<String, TopicDescription> descriptions = describer.describeTopics(Arrays.asList("x", "a", "b"))
+                .get(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals(1, descriptions.size());
+        Assert.assertTrue(descriptions.containsKey("a"));
+        Assert.assertNull(describer.describeTopic("x").get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void should_fail_the_description_of_a_single_malformed_topic() throws Exception {
+        assertFailsWithTopicOperationException("b");
+        assertFailsWithTopicOperationException("c");
+    }
+
+    @Test
+    public void should_fail_the_sweep_when_zookeeper_fails() throws Exception {
+        zk.setFailure(TopicZKPaths.getPartitionStatePath("a", 1), KeeperException.Code.CONNECTIONLOSS);
+
+        try {
+            describer.describeAllTopics().get(10, TimeUnit.SECONDS);
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(ZKPipeline.unwrap(e.getCause()) instanceof TopicOperationException);
+        }
+    }
+
+    private void assertFailsWithTopicOperationException(final String topicName) throws Exception {
+        try {
+            describer.describeTopic(topicName).get(10, TimeUnit.SECONDS);
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(ZKPipeline.unwrap(e.getCause()) instanceof TopicOperationException);
+        }
+    }
+
+    private static String state(final int leader, final String isr) {
+        return "{\"controller_epoch\":1,\"leader\":" + leader + ",\"version\":1,\"leader_epoch\":1,\"isr\":" + isr
+                + "}";
+    }
+}
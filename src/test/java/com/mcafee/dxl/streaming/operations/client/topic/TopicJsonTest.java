@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.topic;
+
+import com.mcafee.dxl.streaming.operations.client.topic.entities.PartitionDescription;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Properties;
+
+public class TopicJsonTest {
+
+    private static byte[] utf8(final String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void should_encode_the_assignment_as_kafka_admin_tools() {
+        final byte[] json = TopicJson.encodeAssignment(new int[][]{{1, 2}, {2, 1}});
+
+        Assert.assertEquals("{\"version\":1,\"partitions\":{\"0\":[1,2],\"1\":[2,1]}}",
+                new String(json, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void should_decode_the_config_written_by_kafka_admin_tools() {
+        final Properties topicProperties = TopicJson.decodeConfig(
+                utf8("{\"version\":1, \"config\" : {\"retention.ms\":\"1000\",\"cleanup.policy\":\"compact\"}}"));
+
+        Assert.assertEquals(2, topicProperties.size());
+        Assert.assertEquals("1000", topicProperties.getProperty("retention.ms"));
+        Assert.assertEquals("compact", topicProperties.getProperty("cleanup.policy"));
+    }
+
+    @Test
+    public void should_decode_what_it_encodes() {
+        final Properties topicProperties = new Properties();
+        topicProperties.setProperty("a", "quote\" backslash\\ tab\t");
+        topicProperties.setProperty("b", "");
+
+        Assert.assertEquals(topicProperties, TopicJson.decodeConfig(TopicJson.encodeConfig(topicProperties)));
+    }
+
+    @Test
+    public void should_decode_a_missing_config_as_empty() {
+        Assert.assertTrue(TopicJson.decodeConfig(null).isEmpty());
+        Assert.assertTrue(TopicJson.decodeConfig(utf8("{\"version\":1,\"config\":{}}")).isEmpty());
+        Assert.assertTrue(TopicJson.decodeConfig(utf8("{\"version\":1,\"other\":[1,{\"x\":null}]}")).isEmpty());
+    }
+
+    @Test
+    public void should_decode_what_it_encodes_as_assignment() {
+        final int[][] assignment = {{1, 2}, {2, 3}, {3, 1}};
+
+        final int[][] decoded = TopicJson.decodeAssignment(TopicJson.encodeAssignment(assignment));
+
+        Assert.assertEquals(3, decoded.length);
+        for (int partition = 0; partition < assignment.length; partition++) {
+            Assert.assertArrayEquals(assignment[partition], decoded[partition]);
+        }
+    }
+
+    @Test
+    public void should_decode_an_unordered_assignment() {
+        final int[][] decoded = TopicJson.decodeAssignment(utf8("{\"version\":1,\"partitions\":{\"1\":[5],\"0\":[4, 6]}}"));
+
+        Assert.assertArrayEquals(new int[]{4, 6}, decoded[0]);
+        Assert.assertArrayEquals(new int[]{5}, decoded[1]);
+    }
+
+    @Test
+    public void should_decode_the_partition_state_written_by_the_controller() {
+        final PartitionDescription partition = TopicJson.decodePartitionState(3, new int[]{1, 2, 3},
+                utf8("{\"controller_epoch\":7,\"leader\":2,\"version\":1,\"leader_epoch\":4,\"isr\":[2,1]}"));
+
+        Assert.assertEquals(3, partition.getPartition());
+        Assert.assertEquals(2, partition.getLeader());
+        Assert.assertEquals(4, partition.getLeaderEpoch());
+        Assert.assertEquals(1, partition.getPreferredLeader());
+        Assert.assertArrayEquals(new int[]{2, 1}, partition.getIsr());
+        Assert.assertTrue(partition.isUnderReplicated());
+        Assert.assertFalse(partition.isInSync(3));
+    }
+
+    @Test
+    public void should_decode_a_missing_partition_state_as_offline() {
+        final PartitionDescription partition = TopicJson.decodePartitionState(0, new int[]{1}, null);
+
+        Assert.assertFalse(partition.hasLeader());
+        Assert.assertEquals(0, partition.getIsr().length);
+    }
+
+    @Test
+    public void should_decode_the_partitions_of_an_isr_change_notification() {
+        final List<TopicPartition> partitions = TopicJson.decodeTopicPartitions(
+                utf8("{\"version\":1,\"partitions\":[{\"topic\":\"a\",\"partition\":0},{\"partition\":3,\"topic\":\"b\"}]}"));
+
+        Assert.assertEquals(2, partitions.size());
+        Assert.assertEquals("a", partitions.get(0).topic());
+        Assert.assertEquals(0, partitions.get(0).partition());
+        Assert.assertEquals("b", partitions.get(1).topic());
+        Assert.assertEquals(3, partitions.get(1).partition());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_reject_malformed_json() {
+        TopicJson.decodeConfig(utf8("{\"version\":1,\"config\":{\"a\":\"b\""));
+    }
+}
@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.topic;
+
+import com.mcafee.dxl.streaming.operations.client.topic.entities.TopicMetadataCacheStatistics;
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.WatchedEvent;
+import org.apache.zookeeper.Watcher;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class TopicMetadataCacheTest {
+
+    private InMemoryZooKeeper zk;
+    private ZKPipeline pipeline;
+
+    @Before
+    public void setUp() {
+        zk = new InMemoryZooKeeper();
+        pipeline = new ZKPipeline(zk.getZooKeeper(), 10);
+        for (String topicName : new String[]{"a", "b", "c"}) {
+            zk.put(TopicZKPaths.getTopicPath(topicName), "{}");
+            zk.put(TopicZKPaths.getTopicConfigPath(topicName), config("retention.ms", topicName.length() + "000"));
+        }
+    }
+
+    @After
+    public void tearDown() {
+        zk.close();
+    }
+
+    @Test
+    public void should_evict_least_recently_used_configuration() {
+        final TopicMetadataCache cache = new TopicMetadataCache(() -> pipeline, 2);
+
+        cache.getTopicProperties("a");
+        cache.getTopicProperties("b");
+        cache.getTopicProperties("a");
+        cache.getTopicProperties("c");
+        cache.getTopicProperties("a");
+        cache.getTopicProperties("b");
+
+        final TopicMetadataCacheStatistics statistics = cache.getStatistics();
+        Assert.assertEquals(2, statistics.getHitCount());
+        Assert.assertEquals(4, statistics.getMissCount());
+        Assert.assertEquals(2, statistics.getCachedConfigCount());
+    }
+
+    @Test
+    public void should_not_cache_a_load_which_raced_with_its_invalidation() throws Exception {
+        final TopicMetadataCache cache = new TopicMetadataCache(() -> pipeline, 10);
+
+        zk.hold();
+        final CompletableFuture<Properties> load = CompletableFuture.supplyAsync(() -> cache.getTopicProperties("a"));
+        awaitOutstandingRequest();
+        cache.invalidateTopicProperties("a");
+        zk.release();
+
+        Assert.assertEquals("1000", load.get(10, TimeUnit.SECONDS).getProperty("retention.ms"));
+        Assert.assertEquals(0, cache.getStatistics().getCachedConfigCount());
+    }
+
+    @Test
+    public void should_cache_a_load_which_raced_with_the_invalidation_of_another_topic() throws Exception {
+        final TopicMetadataCache cache = new TopicMetadataCache(() -> pipeline, 10);
+
+        zk.hold();
+        final CompletableFuture<Properties> load = CompletableFuture.supplyAsync(() -> cache.getTopicProperties("a"));
+        awaitOutstandingRequest();
+        cache.invalidateTopicProperties("b");
+        zk.release();
+        load.get(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals(1, cache.getStatistics().getCachedConfigCount());
+        cache.getTopicProperties("a");
+        Assert.assertEquals(1, cache.getStatistics().getHitCount());
+    }
+
+    @Test
+    public void should_count_only_invalidations_of_cached_entries() {
+        final TopicMetadataCache cache = new TopicMetadataCache(() -> pipeline, 10);
+        cache.getTopicProperties("a");
+        cache.getTopics();
+
+        cache.invalidateTopicProperties("a");
+        cache.invalidateTopicProperties("b");
+        cache.invalidateTopics();
+        cache.invalidateTopics();
+
+        Assert.assertEquals(2, cache.getStatistics().getInvalidationCount());
+        Assert.assertEquals(0, cache.getStatistics().getCachedConfigCount());
+    }
+
+    @Test
+    public void should_drop_entries_when_their_watch_fires() throws Exception {
+        final TopicMetadataCache cache = new TopicMetadataCache(() -> pipeline, 10);
+        Assert.assertEquals(3, cache.getTopics().size());
+        cache.getTopicProperties("a");
+        cache.getTopicProperties("b");
+
+        pipeline.setData(TopicZKPaths.getTopicConfigPath("a"),
+                config("retention.ms", "5000").getBytes(StandardCharsets.UTF_8), -1).get(10, TimeUnit.SECONDS);
+        pipeline.create(TopicZKPaths.getTopicPath("d"), new byte[0], CreateMode.PERSISTENT).get(10, TimeUnit.SECONDS);
+        zk.sync();
+
+        Assert.assertEquals(2, cache.getStatistics().getInvalidationCount());
+        Assert.assertEquals("5000", cache.getTopicProperties("a").getProperty("retention.ms"));
+        Assert.assertEquals(4, cache.getTopics().size());
+        cache.getTopicProperties("b");
+        Assert.assertEquals(1, cache.getStatistics().getHitCount());
+    }
+
+    @Test
+    public void should_drop_everything_when_the_session_is_lost() {
+        final TopicMetadataCache cache = new TopicMetadataCache(() -> pipeline, 10);
+        cache.getTopics();
+        cache.getTopicProperties("a");
+        cache.getTopicProperties("b");
+
+        cache.process(new WatchedEvent(Watcher.Event.EventType.None, Watcher.Event.KeeperState.SyncConnected, null));
+        Assert.assertEquals(0, cache.getStatistics().getInvalidationCount());
+
+        cache.process(new WatchedEvent(Watcher.Event.EventType.None, Watcher.Event.KeeperState.Expired, null));
+        Assert.assertEquals(3, cache.getStatistics().getInvalidationCount());
+        Assert.assertEquals(0, cache.getStatistics().getCachedConfigCount());
+    }
+
+    private void awaitOutstandingRequest() throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 10000;
+        while (zk.getOutstandingRequests() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        Assert.assertEquals(1, zk.getOutstandingRequests());
+    }
+
+    private static String config(final String name, final String value) {
+        final Properties properties = new Properties();
+        properties.setProperty(name, value);
+        return new String(TopicJson.encodeConfig(properties), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.topic;
+
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.data.Stat;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class ZKPipelineTest {
+
+    private InMemoryZooKeeper zk;
+
+    @Before
+    public void setUp() {
+        zk = new InMemoryZooKeeper();
+        for (int i = 0; i < 10; i++) {
+            zk.put("/nodes/" + i, "data-" + i);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        zk.close();
+    }
+
+    @Test
+    public void should_queue_operations_beyond_the_window_without_blocking() throws Exception {
+        final ZKPipeline pipeline = new ZKPipeline(zk.getZooKeeper(), 3);
+        zk.hold();
+
+        final List<CompletableFuture<byte[]>> futures = getAll(pipeline);
+
+        Assert.assertEquals(3, zk.getRequestCount());
+        Assert.assertEquals(3, zk.getOutstandingRequests());
+        for (CompletableFuture<byte[]> future : futures) {
+            Assert.assertFalse(future.isDone());
+        }
+
+        zk.release();
+        for (int i = 0; i < futures.size(); i++) {
+            Assert.assertEquals("data-" + i,
+                    new String(futures.get(i).get(10, TimeUnit.SECONDS), StandardCharsets.UTF_8));
+        }
+        Assert.assertEquals(10, zk.getRequestCount());
+        Assert.assertEquals(3, zk.getMaxOutstandingRequests());
+    }
+
+    @Test
+    public void should_release_the_slot_of_a_failed_operation() throws Exception {
+        final ZKPipeline pipeline = new ZKPipeline(zk.getZooKeeper(), 1);
+        zk.setFailure("/nodes/2", KeeperException.Code.CONNECTIONLOSS);
+
+        final List<CompletableFuture<byte[]>> futures = getAll(pipeline);
+        final CompletableFuture<byte[]> missing = pipeline.getData("/nodes/missing", null);
+
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                Assert.assertEquals("data-" + i,
+                        new String(futures.get(i).get(10, TimeUnit.SECONDS), StandardCharsets.UTF_8));
+                Assert.assertTrue(i != 2);
+            } catch (ExecutionException e) {
+                Assert.assertEquals(2, i);
+                Assert.assertEquals(KeeperException.Code.CONNECTIONLOSS, ZKPipeline.errorCode(e.getCause()));
+            }
+        }
+        try {
+            missing.get(10, TimeUnit.SECONDS);
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertEquals(KeeperException.Code.NONODE, ZKPipeline.errorCode(e.getCause()));
+        }
+        Assert.assertEquals(1, zk.getMaxOutstandingRequests());
+        Assert.assertEquals(0, zk.getOutstandingRequests());
+    }
+
+    @Test
+    public void should_chain_operations_from_callbacks_when_the_window_is_full() throws Exception {
+        final ZKPipeline pipeline = new ZKPipeline(zk.getZooKeeper(), 1);
+
+        final CompletableFuture<byte[]> chained = pipeline.getChildren("/nodes", null)
+                .thenCompose(children -> pipeline.getData("/nodes/" + children.get(children.size() - 1), null));
+
+        Assert.assertEquals("data-9", new String(chained.get(10, TimeUnit.SECONDS), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void should_overwrite_existing_znode_on_create_or_set_data() throws Exception {
+        final ZKPipeline pipeline = new ZKPipeline(zk.getZooKeeper(), 2);
+
+        pipeline.createOrSetData("/nodes/0", "new".getBytes(StandardCharsets.UTF_8)).get(10, TimeUnit.SECONDS);
+        pipeline.createOrSetData("/nodes/10", "created".getBytes(StandardCharsets.UTF_8)).get(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals("new", zk.get("/nodes/0"));
+        Assert.assertEquals("created", zk.get("/nodes/10"));
+    }
+
+    @Test
+    public void should_fill_the_stat_of_a_read_znode() throws Exception {
+        final ZKPipeline pipeline = new ZKPipeline(zk.getZooKeeper(), 2);
+        zk.put("/nodes/0", "updated");
+        final Stat stat = new Stat();
+
+        pipeline.getData("/nodes/0", null, stat).get(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals(1, stat.getVersion());
+        Assert.assertEquals(zk.getVersion("/nodes/0"), stat.getVersion());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_reject_empty_window() {
+        new ZKPipeline(zk.getZooKeeper(), 0);
+    }
+
+    private static List<CompletableFuture<byte[]>> getAll(final ZKPipeline pipeline) {
+        final List<CompletableFuture<byte[]>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(pipeline.getData("/nodes/" + i, null));
+        }
+        return futures;
+    }
+}
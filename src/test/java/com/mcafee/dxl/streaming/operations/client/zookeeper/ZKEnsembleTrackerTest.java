@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.zookeeper;
+
+import com.mcafee.dxl.streaming.operations.client.zookeeper.entities.ZKEnsemble;
+import com.mcafee.dxl.streaming.operations.client.zookeeper.entities.ZKNodeStatus;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class ZKEnsembleTrackerTest {
+
+    private static final ZKNodeStatus DOWN = new ZKNodeStatus(ZKNodeStatusName.DOWN, "");
+
+    private static ZKNodeStatus up(final String mode, final String zxid) {
+        return new ZKNodeStatus(ZKNodeStatusName.UP, "Zxid: " + zxid + "\nMode: " + mode + "\n");
+    }
+
+    @Test
+    public void should_report_leader_live_voters_and_follower_skew() {
+        final ZKEnsembleTracker tracker = new ZKEnsembleTracker(Arrays.asList("zk-1", "zk-2", "zk-3", "zk-4"));
+        tracker.onNodeProbe(0, up("leader", "0x100000010"));
+        tracker.onNodeProbe(1, up("follower", "0x10000000c"));
+        tracker.onNodeProbe(2, up("follower", "0x100000010"));
+        tracker.onNodeProbe(3, up("observer", "0x100000001"));
+
+        final ZKEnsemble ensemble = tracker.getEnsemble();
+        Assert.assertEquals("zk-1", ensemble.getLeaderId());
+        Assert.assertEquals(1, ensemble.getLeaderCount());
+        Assert.assertEquals(3, ensemble.getVoterCount());
+        Assert.assertEquals(3, ensemble.getLiveVoterCount());
+        Assert.assertEquals(2, ensemble.getMajority());
+        Assert.assertEquals(1, ensemble.getQuorumMargin());
+        Assert.assertEquals(4, ensemble.getMaxFollowerZxidSkew());
+        Assert.assertEquals(Long.valueOf(0), ensemble.getFollowerZxidSkews().get("zk-3"));
+    }
+
+    @Test
+    public void should_update_counters_when_nodes_go_down() {
+        final ZKEnsembleTracker tracker = new ZKEnsembleTracker(Arrays.asList("zk-1", "zk-2", "zk-3"));
+        tracker.onNodeProbe(0, up("leader", "0x1"));
+        tracker.onNodeProbe(1, up("follower", "0x1"));
+        tracker.onNodeProbe(2, up("follower", "0x1"));
+        tracker.onNodeProbe(0, DOWN);
+        tracker.onNodeProbe(1, DOWN);
+
+        final ZKEnsemble ensemble = tracker.getEnsemble();
+        Assert.assertNull(ensemble.getLeaderId());
+        Assert.assertEquals(0, ensemble.getLeaderCount());
+        Assert.assertEquals(1, ensemble.getLiveVoterCount());
+        Assert.assertEquals(-1, ensemble.getQuorumMargin());
+        Assert.assertTrue(ensemble.getFollowerZxidSkews().isEmpty());
+    }
+
+    @Test
+    public void should_report_the_leader_of_the_newest_epoch_when_two_nodes_claim_leadership() {
+        final ZKEnsembleTracker tracker = new ZKEnsembleTracker(Arrays.asList("zk-1", "zk-2", "zk-3"));
+        tracker.onNodeProbe(0, up("leader", "0x100000020"));
+        tracker.onNodeProbe(1, up("leader", "0x200000000"));
+        tracker.onNodeProbe(2, up("observer", "0x200000000"));
+        tracker.onNodeProbe(2, DOWN);
+
+        final ZKEnsemble ensemble = tracker.getEnsemble();
+        Assert.assertEquals("zk-2", ensemble.getLeaderId());
+        Assert.assertEquals(2, ensemble.getLeaderCount());
+        Assert.assertEquals(2, ensemble.getVoterCount());
+    }
+}
@@ -0,0 +1,290 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.zookeeper;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class ZKFourLetterWordClientTest {
+
+    private FakeZKNode zkNode;
+    private ZKFourLetterWordClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        zkNode = new FakeZKNode();
+        client = new ZKFourLetterWordClient("test");
+        client.start();
+    }
+
+    @After
+    public void tearDown() {
+        client.close();
+        zkNode.close();
+    }
+
+    @Test
+    public void should_send_the_command_and_decode_the_response() throws Exception {
+        zkNode.responses.add(chunks("Zookeeper version: 3.4.6\nMode: leader\n"));
+
+        Assert.assertEquals("Zookeeper version: 3.4.6\nMode: leader\n", send("stat").get(10, TimeUnit.SECONDS));
+        Assert.assertEquals("stat", zkNode.commands.poll(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void should_read_a_response_split_across_several_segments() throws Exception {
+        zkNode.responses.add(chunks("zk_version\t3.4.6\n", "zk_avg_", "latency\t0\n"));
+
+        Assert.assertEquals("zk_version\t3.4.6\nzk_avg_latency\t0\n", send("mntr").get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void should_grow_the_buffer_of_a_large_response() throws Exception {
+        final String large = repeat('a', 100 * 1024);
+        zkNode.responses.add(chunks(large.substring(0, 20000), large.substring(20000)));
+
+        Assert.assertEquals(large, send("stat").get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void should_not_leak_previous_responses_through_pooled_buffers() throws Exception {
+        zkNode.responses.add(chunks(repeat('a', 1000)));
+        zkNode.responses.add(chunks("short"));
+        zkNode.responses.add(chunks(""));
+
+        Assert.assertEquals(repeat('a', 1000), send("stat").get(10, TimeUnit.SECONDS));
+        Assert.assertEquals("short", send("stat").get(10, TimeUnit.SECONDS));
+        Assert.assertEquals("", send("stat").get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void should_fail_when_the_response_is_too_large() throws Exception {
+        zkNode.responses.add(chunks(repeat('a', 2 * 1024 * 1024)));
+
+        assertFailsWith(IOException.class, send("stat"));
+    }
+
+    @Test
+    public void should_fail_when_the_node_does_not_respond_in_time() throws Exception {
+        zkNode.responses.add(new byte[0][]); // It keeps the connection open without responding
+
+        assertFailsWith(SocketTimeoutException.class,
+                client.send(zkNode.getAddress(), "stat", 200, CharSequence::toString));
+    }
+
+    @Test
+    public void should_fail_when_the_node_is_not_listening() throws Exception {
+        final int port;
+        try (ServerSocket closed = new ServerSocket(0)) {
+            port = closed.getLocalPort();
+        }
+
+        assertFailsWith(IOException.class,
+                client.send(new InetSocketAddress("localhost", port), "stat", 10000, CharSequence::toString));
+    }
+
+    @Test
+    public void should_fail_when_the_decoder_fails() throws Exception {
+        zkNode.responses.add(chunks("This ZooKeeper instance is not currently serving requests\n"));
+
+        final CompletableFuture<Object> result = client.send(zkNode.getAddress(), "stat", 10000, response -> {
+            throw new IllegalArgumentException("Unexpected response");
+        });
+
+        try {
+            result.get(10, TimeUnit.SECONDS);
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+    }
+
+    @Test
+    public void should_resolve_unresolved_addresses_before_sending() throws Exception {
+        final InetSocketAddress unresolved = InetSocketAddress.createUnresolved("localhost", zkNode.getPort());
+        zkNode.responses.add(chunks("ok"));
+
+        Assert.assertFalse(ZKFourLetterWordClient.resolve(unresolved).isUnresolved());
+        Assert.assertSame(zkNode.getAddress(), ZKFourLetterWordClient.resolve(zkNode.getAddress()));
+        Assert.assertEquals("ok",
+                client.send(unresolved, "stat", 10000, CharSequence::toString).get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void should_fail_right_away_when_the_host_cannot_be_resolved() throws Exception {
+        final CompletableFuture<String> result = client.send(
+                InetSocketAddress.createUnresolved("unknown-host.invalid", 2181), "stat", 10000,
+                CharSequence::toString);
+
+        Assert.assertTrue(result.isDone());
+        assertFailsWith(UnknownHostException.class, result);
+    }
+
+    @Test
+    public void should_fail_requests_in_progress_when_it_is_closed() throws Exception {
+        zkNode.responses.add(new byte[0][]);
+        final CompletableFuture<String> result = send("stat");
+        Assert.assertEquals("stat", zkNode.commands.poll(10, TimeUnit.SECONDS));
+
+        client.close();
+
+        assertFailsWith(IllegalStateException.class, result);
+        assertFailsWith(IllegalStateException.class, send("stat"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_reject_commands_which_are_not_four_letter_words() {
+        client.send(zkNode.getAddress(), "status", 10000, CharSequence::toString);
+    }
+
+    @Test
+    public void should_give_a_view_over_the_response_bytes() {
+        final ZKFourLetterWordClient.ByteBufferCharSequence view = new ZKFourLetterWordClient.ByteBufferCharSequence(
+                ByteBuffer.wrap("Mode: follower".getBytes(StandardCharsets.US_ASCII)), 6, 8);
+
+        Assert.assertEquals(8, view.length());
+        Assert.assertEquals('f', view.charAt(0));
+        Assert.assertEquals("follower", view.toString());
+        Assert.assertEquals("low", view.subSequence(3, 6).toString());
+    }
+
+    private CompletableFuture<String> send(final String command) {
+        return client.send(zkNode.getAddress(), command, 10000, CharSequence::toString);
+    }
+
+    private static void assertFailsWith(final Class<? extends Throwable> expected,
+                                        final CompletableFuture<?> result) throws Exception {
+        try {
+            result.get(10, TimeUnit.SECONDS);
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause().toString(), expected.isInstance(e.getCause()));
+        }
+    }
+
+    private static byte[][] chunks(final String... chunks) {
+        final byte[][] bytes = new byte[chunks.length][];
+        for (int i = 0; i < chunks.length; i++) {
+            bytes[i] = chunks[i].getBytes(StandardCharsets.US_ASCII);
+        }
+        return bytes;
+    }
+
+    private static String repeat(final char c, final int count) {
+        final char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+
+    /**
+     * A Zookeeper node which reads a four letter word command, writes the next queued response a chunk at a time
+     * and closes the connection. An empty response keeps the connection open.
+     */
+    private static final class FakeZKNode implements AutoCloseable {
+        private final ServerSocket serverSocket;
+        private final InetSocketAddress address;
+        private final BlockingQueue<byte[][]> responses = new LinkedBlockingQueue<>();
+        private final BlockingQueue<String> commands = new LinkedBlockingQueue<>();
+        private final CopyOnWriteArrayList<Socket> connections = new CopyOnWriteArrayList<>();
+
+        FakeZKNode() throws IOException {
+            serverSocket = new ServerSocket(0);
+            address = new InetSocketAddress("localhost", serverSocket.getLocalPort());
+            final Thread acceptor = new Thread(this::accept, "fake-zookeeper");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        InetSocketAddress getAddress() {
+            return address;
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        private void accept() {
+            try {
+                while (true) {
+                    final Socket socket = serverSocket.accept();
+                    socket.setTcpNoDelay(true);
+                    connections.add(socket);
+                    serve(socket);
+                }
+            } catch (IOException e) {
+                // Node closed
+            }
+        }
+
+        private void serve(final Socket socket) {
+            try {
+                final InputStream input = socket.getInputStream();
+                final byte[] command = new byte[4];
+                int read = 0;
+                while (read < command.length) {
+                    final int count = input.read(command, read, command.length - read);
+                    if (count < 0) {
+                        throw new IOException("Connection closed");
+                    }
+                    read += count;
+                }
+                commands.add(new String(command, StandardCharsets.US_ASCII));
+
+                final byte[][] response = responses.poll(10, TimeUnit.SECONDS);
+                if (response == null || response.length == 0) {
+                    return;
+                }
+                final OutputStream output = socket.getOutputStream();
+                for (byte[] chunk : response) {
+                    output.write(chunk);
+                    output.flush();
+                    Thread.sleep(50);
+                }
+                socket.close();
+            } catch (IOException e) {
+                closeQuietly(socket);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private static void closeQuietly(final Socket socket) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                serverSocket.close();
+            } catch (IOException e) {
+            }
+            connections.forEach(FakeZKNode::closeQuietly);
+        }
+    }
+}
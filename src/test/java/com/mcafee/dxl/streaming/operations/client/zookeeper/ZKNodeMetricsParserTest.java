@@ -0,0 +1,55 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.zookeeper;
+
+import com.mcafee.dxl.streaming.operations.client.zookeeper.entities.ZKNodeMetrics;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ZKNodeMetricsParserTest {
+
+    private static final String MNTR_RESPONSE = "zk_version\t3.4.8--1, built on 02/06/2016 03:18 GMT\n"
+            + "zk_avg_latency\t0\n"
+            + "zk_max_latency\t118\n"
+            + "zk_min_latency\t0\n"
+            + "zk_packets_received\t1022\n"
+            + "zk_packets_sent\t1021\n"
+            + "zk_num_alive_connections\t2\n"
+            + "zk_outstanding_requests\t0\n"
+            + "zk_server_state\tleader\n"
+            + "zk_znode_count\t31\n"
+            + "zk_watch_count\t12\n"
+            + "zk_ephemerals_count\t3\n"
+            + "zk_approximate_data_size\t1437\n"
+            + "zk_open_file_descriptor_count\t32\n"
+            + "zk_max_file_descriptor_count\t1048576\n"
+            + "zk_followers\t2\n"
+            + "zk_synced_followers\t2\n"
+            + "zk_pending_syncs\t0\n";
+
+    @Test
+    public void should_decode_every_numeric_metric() {
+        final ZKNodeMetrics metrics = ZKNodeMetricsParser.parse(MNTR_RESPONSE);
+
+        Assert.assertEquals(ZKNodeModeName.LEADER, metrics.getMode());
+        Assert.assertEquals(118, metrics.get(ZKNodeMetricName.MAX_LATENCY));
+        Assert.assertEquals(1437, metrics.get(ZKNodeMetricName.APPROXIMATE_DATA_SIZE));
+        Assert.assertEquals(12, metrics.get(ZKNodeMetricName.WATCH_COUNT));
+        Assert.assertEquals(32, metrics.get(ZKNodeMetricName.OPEN_FILE_DESCRIPTOR_COUNT));
+        Assert.assertEquals(2, metrics.get(ZKNodeMetricName.FOLLOWERS));
+        Assert.assertEquals(0, metrics.get(ZKNodeMetricName.PENDING_SYNCS));
+    }
+
+    @Test
+    public void should_report_missing_metrics_and_truncate_decimals() {
+        final ZKNodeMetrics metrics =
+                ZKNodeMetricsParser.parse("zk_avg_latency\t2.75\r\nzk_server_state\tfollower\r\nzk_unknown\t7\n");
+
+        Assert.assertEquals(ZKNodeModeName.FOLLOWER, metrics.getMode());
+        Assert.assertEquals(2, metrics.get(ZKNodeMetricName.AVG_LATENCY));
+        Assert.assertEquals(ZKNodeMetrics.NOT_REPORTED, metrics.get(ZKNodeMetricName.FOLLOWERS));
+        Assert.assertSame(ZKNodeMetrics.empty(), ZKNodeMetricsParser.parse(null));
+    }
+}
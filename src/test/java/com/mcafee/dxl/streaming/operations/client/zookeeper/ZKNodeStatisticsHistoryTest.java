@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.zookeeper;
+
+import com.mcafee.dxl.streaming.operations.client.zookeeper.entities.ZKNodeStatistics;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ZKNodeStatisticsHistoryTest {
+
+    private final AtomicLong nowMs = new AtomicLong(0);
+
+    private static ZKNodeStatistics statistics(final long outstanding) {
+        return new ZKNodeStatistics(0, 1.5, 10, 0, 0, 2, outstanding, 0, ZKNodeModeName.FOLLOWER, 31);
+    }
+
+    private void recordEverySecond(final ZKNodeStatisticsHistory history, final long... outstanding) {
+        for (long value : outstanding) {
+            nowMs.addAndGet(1000);
+            history.record(statistics(value));
+        }
+    }
+
+    @Test
+    public void should_query_the_samples_within_the_window() {
+        final ZKNodeStatisticsHistory history = new ZKNodeStatisticsHistory(10, nowMs::get);
+        recordEverySecond(history, 9, 1, 2, 3);
+
+        Assert.assertEquals(3, history.getSampleCount(2000));
+        Assert.assertEquals(3, history.getMax(ZKNodeStatisticName.OUTSTANDING, 2000));
+        Assert.assertEquals(1, history.getMin(ZKNodeStatisticName.OUTSTANDING, 2000));
+        Assert.assertEquals(2, history.getAverage(ZKNodeStatisticName.OUTSTANDING, 2000), 0);
+        Assert.assertEquals(9, history.getMax(ZKNodeStatisticName.OUTSTANDING, 60000));
+        Assert.assertEquals(1500, history.getLatest(ZKNodeStatisticName.AVG_LATENCY_MICROS));
+    }
+
+    @Test
+    public void should_overwrite_the_oldest_samples_when_full() {
+        final ZKNodeStatisticsHistory history = new ZKNodeStatisticsHistory(3, nowMs::get);
+        recordEverySecond(history, 9, 1, 2, 3, 4);
+
+        Assert.assertEquals(3, history.getSampleCount(60000));
+        Assert.assertEquals(4, history.getMax(ZKNodeStatisticName.OUTSTANDING, 60000));
+        Assert.assertEquals(2, history.getMin(ZKNodeStatisticName.OUTSTANDING, 60000));
+
+        final long[] timestamps = new long[5];
+        final long[] values = new long[5];
+        Assert.assertEquals(3, history.copy(ZKNodeStatisticName.OUTSTANDING, 60000, timestamps, values));
+        Assert.assertArrayEquals(new long[]{2, 3, 4, 0, 0}, values);
+        Assert.assertArrayEquals(new long[]{3000, 4000, 5000, 0, 0}, timestamps);
+    }
+
+    @Test
+    public void should_keep_the_samples_of_the_retention_time() {
+        final int capacity = ZKNodeStatisticsHistory.getCapacity(300000, 250);
+        Assert.assertEquals(1201, capacity);
+
+        final ZKNodeStatisticsHistory history = new ZKNodeStatisticsHistory(capacity, nowMs::get);
+        for (int sample = 0; sample < 2000; sample++) {
+            nowMs.addAndGet(250);
+            history.record(statistics(sample));
+        }
+        Assert.assertEquals(300000, history.getCoveredMs());
+        Assert.assertEquals(1201, history.getSampleCount(300000));
+        Assert.assertEquals(799, history.getMin(ZKNodeStatisticName.OUTSTANDING, 300000));
+    }
+
+    @Test
+    public void should_size_the_history_for_the_retention_time() {
+        Assert.assertEquals(0, ZKNodeStatisticsHistory.getCapacity(0, 1000));
+        Assert.assertEquals(2, ZKNodeStatisticsHistory.getCapacity(1, 1000));
+        Assert.assertEquals(601, ZKNodeStatisticsHistory.getCapacity(600000, 1000));
+        Assert.assertEquals(Integer.MAX_VALUE, ZKNodeStatisticsHistory.getCapacity(Long.MAX_VALUE, 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_fail_when_retention_is_negative() {
+        ZKNodeStatisticsHistory.getCapacity(-1, 1000);
+    }
+
+    @Test
+    public void should_report_nothing_when_disabled() {
+        final ZKNodeStatisticsHistory history = new ZKNodeStatisticsHistory(0, nowMs::get);
+        recordEverySecond(history, 1);
+
+        Assert.assertEquals(0, history.getSampleCount(60000));
+        Assert.assertEquals(ZKNodeStatistics.NOT_REPORTED, history.getMax(ZKNodeStatisticName.OUTSTANDING, 60000));
+        Assert.assertEquals(ZKNodeStatistics.NOT_REPORTED, history.getLatest(ZKNodeStatisticName.OUTSTANDING));
+    }
+}
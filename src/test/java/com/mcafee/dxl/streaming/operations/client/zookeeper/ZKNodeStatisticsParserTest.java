@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2017 McAfee LLC - All Rights Reserved
+ */
+
+package com.mcafee.dxl.streaming.operations.client.zookeeper;
+
+import com.mcafee.dxl.streaming.operations.client.zookeeper.entities.ZKNodeStatistics;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ZKNodeStatisticsParserTest {
+
+    private static final String STAT_RESPONSE = "Zookeeper version: 3.4.8--1, built on 02/06/2016 03:18 GMT\n"
+            + "Clients:\n"
+            + " /172.18.0.1:51410[0](queued=0,recved=1,sent=0)\n"
+            + " /172.18.0.5:40132[1](queued=0,recved=97,sent=97)\n"
+            + "\n"
+            + "Latency min/avg/max: 0/3/118\n"
+            + "Received: 1022\n"
+            + "Sent: 1021\n"
+            + "Connections: 2\n"
+            + "Outstanding: 0\n"
+            + "Zxid: 0x10000002a\n"
+            + "Mode: follower\n"
+            + "Node count: 31\n";
+
+    @Test
+    public void should_parse_every_statistic() {
+        final ZKNodeStatistics statistics = ZKNodeStatisticsParser.parse(STAT_RESPONSE);
+
+        Assert.assertEquals(0, statistics.getLatencyMinMs());
+        Assert.assertEquals(3, statistics.getLatencyAvgMs(), 0);
+        Assert.assertEquals(118, statistics.getLatencyMaxMs());
+        Assert.assertEquals(1022, statistics.getReceived());
+        Assert.assertEquals(1021, statistics.getSent());
+        Assert.assertEquals(2, statistics.getConnections());
+        Assert.assertEquals(0, statistics.getOutstanding());
+        Assert.assertEquals(0x10000002aL, statistics.getZxid());
+        Assert.assertEquals(ZKNodeModeName.FOLLOWER, statistics.getMode());
+        Assert.assertEquals(31, statistics.getNodeCount());
+    }
+
+    @Test
+    public void should_parse_decimal_average_latency_and_crlf_line_ends() {
+        final ZKNodeStatistics statistics =
+                ZKNodeStatisticsParser.parse("Latency min/avg/max: 1/2.25/9\r\nMode: read-only\r\n");
+
+        Assert.assertEquals(2.25, statistics.getLatencyAvgMs(), 0);
+        Assert.assertEquals(9, statistics.getLatencyMaxMs());
+        Assert.assertEquals(ZKNodeModeName.READ_ONLY, statistics.getMode());
+    }
+
+    @Test
+    public void should_report_missing_statistics() {
+        final ZKNodeStatistics statistics =
+                ZKNodeStatisticsParser.parse("This ZooKeeper instance is not currently serving requests\n");
+
+        Assert.assertEquals(ZKNodeStatistics.NOT_REPORTED, statistics.getReceived());
+        Assert.assertEquals(ZKNodeStatistics.NOT_REPORTED, statistics.getZxid());
+        Assert.assertEquals(ZKNodeModeName.UNKNOWN, statistics.getMode());
+        Assert.assertSame(ZKNodeStatistics.empty(), ZKNodeStatisticsParser.parse(""));
+    }
+}
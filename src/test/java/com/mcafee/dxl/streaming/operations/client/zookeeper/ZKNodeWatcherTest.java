@@ -20,6 +20,23 @@ public class ZKNodeWatcherTest {
         new ZKNodeWatcher(new TestCallback(),null,500,1);
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void when_options_are_null_then_throw_exception() {
+        new ZKNodeWatcher(new TestCallback(),new InetSocketAddress("zookeeper-1",2181),null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void when_min_delay_is_greater_than_polling_delay_then_throw_exception() {
+        new ZKNodeWatcher(new TestCallback(),new InetSocketAddress("zookeeper-1",2181),
+                new ZKNodeWatcherOptions(500,1).withPollingMinDelay(1000));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void when_collection_mode_is_null_then_throw_exception() {
+        new ZKNodeWatcher(new TestCallback(),new InetSocketAddress("zookeeper-1",2181),
+                new ZKNodeWatcherOptions(500,1).withCollectionMode(null));
+    }
+
     class TestCallback implements ZKMonitorCallback {
 
         @Override
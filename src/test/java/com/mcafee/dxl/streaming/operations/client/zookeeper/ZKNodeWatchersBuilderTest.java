@@ -5,11 +5,20 @@
 package com.mcafee.dxl.streaming.operations.client.zookeeper;
 
 import com.mcafee.dxl.streaming.operations.client.configuration.PropertyNames;
+import com.mcafee.dxl.streaming.operations.client.zookeeper.entities.ZKNodeStatus;
 import org.apache.zookeeper.client.ConnectStringParser;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 public class ZKNodeWatchersBuilderTest {
 
@@ -43,6 +52,67 @@ public class ZKNodeWatchersBuilderTest {
         Assert.assertTrue(actualZKHosts.equals(zkHosts));
     }
 
+    @Test
+    public void should_share_one_scheduler_and_four_letter_word_client_across_the_built_watchers() throws Exception {
+        final List<InetSocketAddress> zkHosts = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            try (ServerSocket closed = new ServerSocket(0)) {
+                zkHosts.add(new InetSocketAddress("127.0.0.1", closed.getLocalPort()));
+            }
+        }
+        final List<ZKNodeWatcher> watchers = ZKNodeWatchersBuilder.build(zkHosts, new TestCallback(), 500, 0);
+        final BlockingQueue<ZKNodeStatus> probes = new LinkedBlockingQueue<>();
+        watchers.forEach(watcher -> watcher.setStatusListener(probes::add));
+
+        watchers.forEach(ZKNodeWatcher::startMonitoring);
+        for (int i = 0; i < watchers.size(); i++) {
+            Assert.assertEquals(ZKNodeStatusName.DOWN, probes.poll(10, TimeUnit.SECONDS).getStatus());
+        }
+
+        // A standalone watcher would run its own client thread named after its host
+        Assert.assertFalse(isThreadAlive("four-letter-word-client-127.0.0.1"));
+        Assert.assertTrue(isThreadAlive("four-letter-word-client-zookeeper"));
+        watchers.forEach(ZKNodeWatcher::stopMonitoring);
+    }
+
+    @Test
+    public void should_stop_shared_resources_when_the_last_started_watcher_stops() throws Exception {
+        final ZKNodeWatcherResources resources = new ZKNodeWatcherResources();
+        resources.acquire();
+        resources.acquire();
+
+        resources.release();
+
+        Assert.assertFalse(isNotRunning(resources));
+        resources.getProbeScheduler().execute(() -> { });
+
+        resources.release();
+
+        Assert.assertTrue(isNotRunning(resources));
+        try {
+            resources.getProbeScheduler().execute(() -> { });
+            Assert.fail();
+        } catch (RejectedExecutionException e) {
+            // Scheduler has been stopped
+        }
+    }
+
+    private static boolean isNotRunning(final ZKNodeWatcherResources resources) throws Exception {
+        try {
+            resources.getFourLetterWordClient()
+                    .send(new InetSocketAddress("127.0.0.1", 1), "stat", 10000, CharSequence::toString)
+                    .get(10, TimeUnit.SECONDS);
+            return false;
+        } catch (ExecutionException e) {
+            return e.getCause() instanceof IllegalStateException;
+        }
+    }
+
+    private static boolean isThreadAlive(final String name) {
+        return Thread.getAllStackTraces().keySet().stream()
+                .anyMatch(thread -> thread.isAlive() && thread.getName().equals(name));
+    }
+
 
 
 